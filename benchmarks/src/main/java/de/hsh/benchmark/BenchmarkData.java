@@ -0,0 +1,40 @@
+package de.hsh.benchmark;
+
+import de.hsh.dto.Customer;
+import de.hsh.dto.Event;
+import de.hsh.dto.Reservation;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+final class BenchmarkData {
+
+    // So groß, dass kein Event während einer Messung ausverkauft ist und keine Mail ausgelöst wird
+    static final int SEATS_PER_EVENT = Integer.MAX_VALUE / 2;
+
+    private BenchmarkData() {
+    }
+
+    static Event[] events(int count) {
+        Event[] events = new Event[count];
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < count; i++) {
+            events[i] = new Event(UUID.randomUUID(), "Event " + i, new Date(now + i * 3_600_000L), 10.0 + i % 50, SEATS_PER_EVENT, "organizer" + (i % 10) + "@mail.com");
+        }
+        return events;
+    }
+
+    static Customer customer(long number) {
+        return new Customer("Kunde " + number, "Teststraße " + number);
+    }
+
+    static List<Reservation> reservations(int count, Event[] events) {
+        List<Reservation> reservations = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            reservations.add(new Reservation(UUID.randomUUID(), events[i % events.length], customer(i), 1 + i % 4));
+        }
+        return reservations;
+    }
+}
@@ -0,0 +1,85 @@
+package de.hsh.benchmark;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.TreeSet;
+
+// Schwellwertprüfung für die CI: liest ein JMH-Ergebnis im CSV-Format (-rf csv) und vergleicht jeden Score
+// mit dem Grenzwert aus einer Properties-Datei (Schlüssel: Klasse.Methode, Wert in der Einheit des Benchmarks).
+// Zeiten (avgt, ss) dürfen den Grenzwert nicht überschreiten, Durchsätze (thrpt) ihn nicht unterschreiten.
+// Fehlt ein Benchmark mit Grenzwert im Ergebnis, gilt das ebenfalls als Fehler.
+//
+//   java -cp benchmarks/target/benchmarks.jar de.hsh.benchmark.BenchmarkGate jmh-result.csv benchmarks/gate.properties
+public class BenchmarkGate {
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) throw new IllegalArgumentException("Erwartet: <jmh-result.csv> <grenzwerte.properties>");
+
+        Properties limits = new Properties();
+        try (Reader in = Files.newBufferedReader(Path.of(args[1]), StandardCharsets.UTF_8)) {
+            limits.load(in);
+        }
+        List<String> violations = check(Files.readAllLines(Path.of(args[0]), StandardCharsets.UTF_8), limits);
+        if (!violations.isEmpty()) {
+            violations.forEach(System.err::println);
+            System.exit(1);
+        }
+        System.out.println("Alle " + limits.size() + " Grenzwerte eingehalten");
+    }
+
+    static List<String> check(List<String> csv, Properties limits) {
+        if (csv.isEmpty()) throw new IllegalArgumentException("Leeres Ergebnis");
+
+        List<String> header = fields(csv.getFirst());
+        int benchmarkColumn = header.indexOf("Benchmark");
+        int modeColumn = header.indexOf("Mode");
+        int scoreColumn = header.indexOf("Score");
+        int unitColumn = header.indexOf("Unit");
+        if (benchmarkColumn < 0 || modeColumn < 0 || scoreColumn < 0 || unitColumn < 0) {
+            throw new IllegalArgumentException("Kein JMH-Ergebnis im CSV-Format");
+        }
+
+        List<String> violations = new ArrayList<>();
+        TreeSet<String> unseen = new TreeSet<>(limits.stringPropertyNames());
+        for (String line : csv.subList(1, csv.size())) {
+            if (line.isBlank()) {
+                continue;
+            }
+            List<String> row = fields(line);
+            String benchmark = row.get(benchmarkColumn);
+            // Sekundäre Ergebnisse heißen "Klasse.Methode:Name" und werden nur geprüft, wenn sie einen Grenzwert haben
+            String name = benchmark.substring(benchmark.lastIndexOf('.', benchmark.lastIndexOf('.') - 1) + 1);
+            String limit = limits.getProperty(name);
+            if (limit == null) {
+                continue;
+            }
+            unseen.remove(name);
+            double score = Double.parseDouble(row.get(scoreColumn));
+            boolean higherIsBetter = row.get(modeColumn).equals("thrpt");
+            if (higherIsBetter ? score < Double.parseDouble(limit) : score > Double.parseDouble(limit)) {
+                violations.add(String.format(Locale.ROOT, "%s: %.3f %s, Grenzwert %s %s", name, score, row.get(unitColumn),
+                        higherIsBetter ? ">=" : "<=", limit));
+            }
+        }
+        for (String name : unseen) {
+            violations.add(name + ": kein Ergebnis");
+        }
+        return violations;
+    }
+
+    // JMH setzt Texte in Anführungszeichen; Kommas kommen nur zwischen den Feldern vor
+    private static List<String> fields(String line) {
+        List<String> fields = new ArrayList<>();
+        for (String field : line.split(",", -1)) {
+            fields.add(field.length() >= 2 && field.startsWith("\"") && field.endsWith("\"") ? field.substring(1, field.length() - 1) : field);
+        }
+        return fields;
+    }
+}
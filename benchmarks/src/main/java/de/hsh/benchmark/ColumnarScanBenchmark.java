@@ -0,0 +1,80 @@
+package de.hsh.benchmark;
+
+import de.hsh.dto.Customer;
+import de.hsh.dto.Event;
+import de.hsh.dto.Reservation;
+import de.hsh.persistence.ReservationColumns;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+// Auswertungen über den ganzen Bestand: Spalten aus int-Arrays gegenüber einem Stream über Reservation-Objekte.
+// 50 Mio. Zeilen belegen als Spalten rund 600 MB.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class ColumnarScanBenchmark {
+
+    @Param({"1000000", "50000000"})
+    int rows;
+
+    @Param({"1000"})
+    int eventCount;
+
+    @Param({"100000"})
+    int customerCount;
+
+    ReservationColumns columns;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Event[] events = BenchmarkData.events(eventCount);
+        Customer[] customers = new Customer[customerCount];
+        for (int i = 0; i < customerCount; i++) {
+            customers[i] = BenchmarkData.customer(i);
+        }
+        columns = new ReservationColumns(rows);
+        for (int i = 0; i < rows; i++) {
+            columns.add(events[i % events.length], customers[i % customers.length], 1 + i % 4);
+        }
+    }
+
+    @Benchmark
+    public Map<UUID, Long> seatsByEvent() {
+        return columns.seatsByEvent();
+    }
+
+    @Benchmark
+    public double revenue() {
+        return columns.revenue();
+    }
+
+    @Benchmark
+    public Map<String, Long> topCustomers() {
+        return columns.topCustomers(10);
+    }
+
+    // Vergleichswert: bisherige Auswertung über die Buchungsliste; nur mit 1 Mio. Zeilen, da sonst der Heap nicht reicht
+    @State(Scope.Benchmark)
+    public static class Boxed {
+        List<Reservation> reservations;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            reservations = BenchmarkData.reservations(1_000_000, BenchmarkData.events(1000));
+        }
+    }
+
+    @Benchmark
+    public Map<UUID, Integer> boxedSeatsByEvent(Boxed boxed) {
+        return boxed.reservations.stream()
+                .collect(Collectors.groupingBy(reservation -> reservation.event().identifier(), Collectors.summingInt(Reservation::reservedSeats)));
+    }
+}
@@ -0,0 +1,43 @@
+package de.hsh.benchmark;
+
+import de.hsh.dto.Customer;
+import de.hsh.service.CustomerService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(1)
+public class CustomerServiceBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    int customers;
+
+    CustomerService service;
+    long nextCustomer;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        service = new CustomerService();
+        for (int i = 0; i < customers; i++) {
+            service.addCustomer(BenchmarkData.customer(i));
+        }
+        nextCustomer = customers;
+    }
+
+    @Benchmark
+    public void addCustomer() {
+        service.addCustomer(BenchmarkData.customer(nextCustomer++));
+    }
+
+    @Benchmark
+    public Customer findByName() {
+        return service.findByName("Kunde " + ThreadLocalRandom.current().nextInt(customers));
+    }
+}
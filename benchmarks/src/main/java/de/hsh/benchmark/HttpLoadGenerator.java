@@ -0,0 +1,151 @@
+package de.hsh.benchmark;
+
+import de.hsh.dto.Customer;
+import de.hsh.dto.Event;
+import de.hsh.http.ReservationHttpServer;
+import de.hsh.metrics.LatencyHistogram;
+import de.hsh.metrics.RecordingReservationMetrics;
+import de.hsh.persistence.InMemoryReservationStore;
+import de.hsh.service.AdmissionController;
+import de.hsh.service.CustomerService;
+import de.hsh.service.EventService;
+import de.hsh.service.ReservationService;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Lastgenerator für ReservationHttpServer auf localhost: startet den Server mit simulierten langsamen Blacklist- und
+// Mail-Diensten und lässt viele Clients in virtuellen Threads ohne Pause buchen. Ausgegeben werden Durchsatz und Latenzen.
+//
+// Mit admissionLimit > 0 läuft addReservation hinter einem AdmissionController; abgewiesene Anfragen (503) werden getrennt gezählt.
+//
+//   java --enable-preview -cp benchmarks/target/benchmarks.jar de.hsh.benchmark.HttpLoadGenerator clients=5000 seconds=20 latencyMicros=5000
+//   java --enable-preview -cp benchmarks/target/benchmarks.jar de.hsh.benchmark.HttpLoadGenerator clients=5000 admissionLimit=200 queueDepth=200
+public class HttpLoadGenerator {
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (separator <= 0) throw new IllegalArgumentException("Erwartet name=wert: " + arg);
+
+            options.put(arg.substring(0, separator), arg.substring(separator + 1));
+        }
+        int clients = Integer.parseInt(options.getOrDefault("clients", "2000"));
+        int seconds = Integer.parseInt(options.getOrDefault("seconds", "10"));
+        int warmupSeconds = Integer.parseInt(options.getOrDefault("warmupSeconds", "3"));
+        int eventCount = Integer.parseInt(options.getOrDefault("events", "256"));
+        long latencyMicros = Long.parseLong(options.getOrDefault("latencyMicros", "5000"));
+        int admissionLimit = Integer.parseInt(options.getOrDefault("admissionLimit", "0"));
+        int queueDepth = Integer.parseInt(options.getOrDefault("queueDepth", String.valueOf(Math.max(admissionLimit, 1))));
+        long queueWaitMillis = Long.parseLong(options.getOrDefault("queueWaitMillis", "100"));
+        long targetLatencyMillis = Long.parseLong(options.getOrDefault("targetLatencyMillis", "50"));
+
+        LatencyBackend backend = new LatencyBackend();
+        backend.setLatencyMicros(latencyMicros);
+        EventService eventService = new EventService();
+        CustomerService customerService = new CustomerService();
+        Event[] events = BenchmarkData.events(eventCount);
+        for (Event event : events) {
+            eventService.addEvent(event);
+        }
+        List<Customer> customers = new ArrayList<>(clients);
+        for (int i = 0; i < clients; i++) {
+            customers.add(BenchmarkData.customer(i));
+        }
+        customerService.addCustomers(customers);
+        RecordingReservationMetrics metrics = new RecordingReservationMetrics();
+        AdmissionController admissionController = admissionLimit <= 0 ? null : new AdmissionController(1, admissionLimit, admissionLimit, queueDepth,
+                Duration.ofMillis(queueWaitMillis), Duration.ofMillis(targetLatencyMillis), metrics);
+
+        try (ReservationService reservationService = new ReservationService(backend, backend, null, new InMemoryReservationStore(), metrics, Clock.systemUTC(), admissionController);
+             ReservationHttpServer server = new ReservationHttpServer(new InetSocketAddress("localhost", 0), reservationService, eventService, customerService);
+             ExecutorService clientThreads = Executors.newVirtualThreadPerTaskExecutor()) {
+            server.start();
+            URI uri = URI.create("http://localhost:" + server.getPort() + "/reservations");
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    // Eigener Executor, da clientThreads nach dem Start aller Clients heruntergefahren wird
+                    .executor(Executors.newVirtualThreadPerTaskExecutor())
+                    .connectTimeout(Duration.ofSeconds(30))
+                    .build();
+
+            LatencyHistogram latencies = new LatencyHistogram();
+            LongAdder errors = new LongAdder();
+            LongAdder shed = new LongAdder();
+            long start = System.nanoTime();
+            long measureFrom = start + warmupSeconds * 1_000_000_000L;
+            long deadline = measureFrom + seconds * 1_000_000_000L;
+
+            for (int i = 0; i < clients; i++) {
+                String customerName = customers.get(i).name();
+                clientThreads.submit(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    long now;
+                    while ((now = System.nanoTime()) < deadline) {
+                        Event event = events[random.nextInt(events.length)];
+                        String body = "{\"eventId\":\"" + event.identifier() + "\",\"customerName\":\"" + customerName + "\",\"seats\":1}";
+                        HttpRequest request = HttpRequest.newBuilder(uri).POST(HttpRequest.BodyPublishers.ofString(body)).build();
+                        int status;
+                        long retryAfterSeconds = 0;
+                        try {
+                            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                            status = response.statusCode();
+                            retryAfterSeconds = response.headers().firstValueAsLong("Retry-After").orElse(0);
+                        } catch (Exception e) {
+                            status = -1;
+                        }
+                        long end = System.nanoTime();
+                        // Nur Anfragen, die vollständig im Messzeitraum liegen
+                        if (now >= measureFrom && end <= deadline) {
+                            if (status == 201) {
+                                latencies.record(end - now);
+                            } else if (status == 503) {
+                                shed.increment();
+                            } else {
+                                errors.increment();
+                            }
+                        }
+                        if (status == 503) {
+                            // Wie ein höflicher Client: Retry-After abwarten, mit Streuung gegen gleichzeitige Wiederholungen
+                            Thread.sleep(random.nextLong(retryAfterSeconds * 500, retryAfterSeconds * 1500 + 1));
+                        }
+                    }
+                    return null;
+                });
+            }
+            clientThreads.shutdown();
+            clientThreads.awaitTermination(warmupSeconds + seconds + 60L, TimeUnit.SECONDS);
+
+            LatencyHistogram.Snapshot snapshot = latencies.snapshot();
+            System.out.printf(Locale.ROOT, "Clients: %d, Backend-Latenz: %d µs, Messdauer: %d s%n", clients, latencyMicros, seconds);
+            System.out.printf(Locale.ROOT, "Buchungen: %d (%.1f/s), abgewiesen (503): %d (%.1f/s), Fehler: %d%n", snapshot.count(), snapshot.count() / (double) seconds,
+                    shed.sum(), shed.sum() / (double) seconds, errors.sum());
+            System.out.printf(Locale.ROOT, "Latenz p50: %.2f ms, p99: %.2f ms, p99.9: %.2f ms, max: %.2f ms%n",
+                    millis(snapshot.valueAtPercentile(50)), millis(snapshot.valueAtPercentile(99)),
+                    millis(snapshot.valueAtPercentile(99.9)), millis(snapshot.max()));
+            if (admissionController != null) {
+                System.out.printf(Locale.ROOT, "Limit am Ende: %d, Warteschlange: %d%n", admissionController.getLimit(), admissionController.getQueueDepth());
+            }
+        }
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1e6;
+    }
+}
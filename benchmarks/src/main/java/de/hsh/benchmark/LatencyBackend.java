@@ -0,0 +1,34 @@
+package de.hsh.benchmark;
+
+import de.hsh.service.BlacklistService;
+import de.hsh.service.EmailService;
+
+import java.util.concurrent.locks.LockSupport;
+
+// Simuliert die entfernten Dienste mit einstellbarer Latenz; während des Vorbefüllens bleibt sie bei null
+public class LatencyBackend implements BlacklistService, EmailService {
+
+    private volatile long latencyNanos;
+
+    public void setLatencyMicros(long latencyMicros) {
+        this.latencyNanos = latencyMicros * 1_000;
+    }
+
+    @Override
+    public boolean isBlacklisted(String name) {
+        pause();
+        return false;
+    }
+
+    @Override
+    public void sendEmail(String to, String subject, String message) {
+        pause();
+    }
+
+    private void pause() {
+        long nanos = latencyNanos;
+        if (nanos > 0) {
+            LockSupport.parkNanos(nanos);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package de.hsh.benchmark;
+
+import de.hsh.dto.Customer;
+import de.hsh.dto.Event;
+import de.hsh.dto.Reservation;
+import de.hsh.persistence.InMemoryReservationStore;
+import de.hsh.persistence.InterningRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// Belegter Heap je Buchung, wenn jede Buchung wie nach dem Deserialisieren eigene Kopien von Event und Kunde mitbringt.
+// raw hält die Kopien, interned nur die kanonischen Instanzen der Registry, store zusätzlich die Indizes des Speichers.
+// Ergebnis ist der Zähler bytesPerReservation, nicht die Laufzeit.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class MemoryFootprintBenchmark {
+
+    @Param({"100000", "1000000"})
+    int reservations;
+
+    @Param({"raw", "interned", "store"})
+    String mode;
+
+    @Param({"1000"})
+    int eventCount;
+
+    @Param({"10000"})
+    int customerCount;
+
+    private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+    Event[] events;
+    Object retained;
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Footprint {
+        public long bytesPerReservation;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        events = BenchmarkData.events(eventCount);
+    }
+
+    @TearDown(Level.Invocation)
+    public void release() {
+        retained = null;
+    }
+
+    @Benchmark
+    public Object ingest(Footprint footprint) {
+        long before = usedHeap();
+        retained = switch (mode) {
+            case "raw" -> ingestRaw();
+            case "interned" -> ingestInterned();
+            case "store" -> ingestIntoStore();
+            default -> throw new IllegalArgumentException("Unbekannter Modus " + mode);
+        };
+        footprint.bytesPerReservation = (usedHeap() - before) / reservations;
+        return retained;
+    }
+
+    private List<Reservation> ingestRaw() {
+        List<Reservation> list = new ArrayList<>(reservations);
+        for (int i = 0; i < reservations; i++) {
+            list.add(copy(i));
+        }
+        return list;
+    }
+
+    // Die Kopien werden sofort wieder frei, gehalten wird nur die kanonische Buchung
+    private List<Reservation> ingestInterned() {
+        InterningRegistry registry = new InterningRegistry();
+        List<Reservation> list = new ArrayList<>(reservations);
+        for (int i = 0; i < reservations; i++) {
+            list.add(registry.intern(copy(i)));
+        }
+        return list;
+    }
+
+    private InMemoryReservationStore ingestIntoStore() {
+        InMemoryReservationStore store = new InMemoryReservationStore(new InterningRegistry());
+        for (int i = 0; i < reservations; i++) {
+            store.put(copy(i));
+        }
+        return store;
+    }
+
+    // Gleicher Inhalt wie beim Einlesen eines Snapshots: jede Buchung mit eigenen Objekten und Strings
+    private Reservation copy(int i) {
+        Event event = events[i % events.length];
+        Event eventCopy = new Event(event.identifier(), new String(event.title()), new Date(event.date().getTime()),
+                event.price(), event.totalSeats(), new String(event.organizerEmail()));
+        int customer = (i / events.length) % customerCount;
+        return new Reservation(UUID.randomUUID(), eventCopy, new Customer("Kunde " + customer, "Teststraße " + customer), 1 + i % 4);
+    }
+
+    private long usedHeap() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+}
@@ -0,0 +1,103 @@
+package de.hsh.benchmark;
+
+import de.hsh.dto.Customer;
+import de.hsh.dto.Event;
+import de.hsh.dto.Reservation;
+import de.hsh.service.ReservationService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Hot Paths von ReservationService bei unterschiedlicher Datenmenge, Thread-Anzahl und Latenz der Fremddienste.
+// Die Lookup-Benchmarks zeigen, dass die Latenz von 1k bis 1M Buchungen konstant bleibt.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReservationServiceBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    int reservations;
+
+    @Param({"0", "100"})
+    long backendLatencyMicros;
+
+    @Param({"64"})
+    int eventCount;
+
+    LatencyBackend backend;
+    ReservationService service;
+    Event[] events;
+    List<Reservation> preloaded;
+    final AtomicLong nextCustomer = new AtomicLong();
+    final AtomicInteger nextThread = new AtomicInteger();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        backend = new LatencyBackend();
+        service = new ReservationService(backend, backend);
+        events = BenchmarkData.events(eventCount);
+        preloaded = BenchmarkData.reservations(reservations, events);
+        for (Reservation reservation : preloaded) {
+            service.addReservation(reservation);
+        }
+        nextCustomer.set(reservations);
+        backend.setLatencyMicros(backendLatencyMicros);
+    }
+
+    @State(Scope.Thread)
+    public static class ThreadState {
+        // Jeder Thread bucht auf "sein" Event, um parallele Buchungen verschiedener Events zu messen
+        Event ownEvent;
+
+        @Setup(Level.Trial)
+        public void setUp(ReservationServiceBenchmark benchmark) {
+            ownEvent = benchmark.events[benchmark.nextThread.getAndIncrement() % benchmark.events.length];
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void addReservationNewCustomer() {
+        Event event = events[ThreadLocalRandom.current().nextInt(events.length)];
+        service.addReservation(new Reservation(UUID.randomUUID(), event, BenchmarkData.customer(nextCustomer.getAndIncrement()), 1));
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void addReservationMerge() {
+        Reservation existing = preloaded.get(ThreadLocalRandom.current().nextInt(preloaded.size()));
+        service.addReservation(new Reservation(UUID.randomUUID(), existing.event(), existing.customer(), 1));
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public void addReservationDistinctEventsAllThreads(ThreadState state) {
+        service.addReservation(new Reservation(UUID.randomUUID(), state.ownEvent, BenchmarkData.customer(nextCustomer.getAndIncrement()), 1));
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public void addReservationSameEventAllThreads() {
+        service.addReservation(new Reservation(UUID.randomUUID(), events[0], BenchmarkData.customer(nextCustomer.getAndIncrement()), 1));
+    }
+
+    @Benchmark
+    public int getAvailableSeats() {
+        return service.getAvailableSeats(events[ThreadLocalRandom.current().nextInt(events.length)]);
+    }
+
+    @Benchmark
+    public Reservation getReservation() {
+        Reservation existing = preloaded.get(ThreadLocalRandom.current().nextInt(preloaded.size()));
+        Customer customer = existing.customer();
+        return service.getReservation(existing.event(), customer);
+    }
+}
@@ -0,0 +1,72 @@
+package de.hsh.benchmark;
+
+import de.hsh.dto.Event;
+import de.hsh.dto.Reservation;
+import de.hsh.service.ShardedReservationService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Durchsatz der Buchungen über alle Threads in Abhängigkeit von der Anzahl der Shards.
+// Auf einem Rechner mit mindestens so vielen Kernen wie Shards sollte er mit der Shard-Anzahl wachsen.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ShardedReservationServiceBenchmark {
+
+    // Buchungen je asynchronem Batch
+    private static final int BATCH_SIZE = 64;
+
+    @Param({"1", "2", "4", "8"})
+    int shards;
+
+    @Param({"256"})
+    int eventCount;
+
+    LatencyBackend backend;
+    ShardedReservationService service;
+    Event[] events;
+    final AtomicLong nextCustomer = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        backend = new LatencyBackend();
+        service = new ShardedReservationService(shards, backend, backend);
+        events = BenchmarkData.events(eventCount);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        service.close();
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public void addReservation() {
+        Event event = events[ThreadLocalRandom.current().nextInt(events.length)];
+        service.addReservation(new Reservation(UUID.randomUUID(), event, BenchmarkData.customer(nextCustomer.getAndIncrement()), 1));
+    }
+
+    // Ohne Warten je Buchung; misst den Durchsatz der Writer-Threads statt der Übergabelatenz
+    @Benchmark
+    @Threads(Threads.MAX)
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void addReservationAsyncBatch() {
+        List<CompletableFuture<Void>> futures = new ArrayList<>(BATCH_SIZE);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            Event event = events[random.nextInt(events.length)];
+            futures.add(service.addReservationAsync(new Reservation(UUID.randomUUID(), event, BenchmarkData.customer(nextCustomer.getAndIncrement()), 1)));
+        }
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+    }
+}
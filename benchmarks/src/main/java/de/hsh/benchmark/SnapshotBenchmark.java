@@ -0,0 +1,143 @@
+package de.hsh.benchmark;
+
+import de.hsh.dto.Event;
+import de.hsh.dto.Reservation;
+import de.hsh.persistence.BinarySnapshot;
+import de.hsh.service.CustomerService;
+import de.hsh.service.ReservationService;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Vergleicht das Binärformat mit der früheren Java-Serialisierung (Zeit und Größe) und misst serialize*/deserialize*
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@Threads(1)
+public class SnapshotBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    int reservations;
+
+    List<Reservation> data;
+    byte[] binaryBytes;
+    byte[] javaBytes;
+    Path directory;
+    ReservationService reservationService;
+    CustomerService customerService;
+    long fullWrites;
+    long incrementalWrites;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        Event[] events = BenchmarkData.events(1_000);
+        data = BenchmarkData.reservations(reservations, events);
+        binaryBytes = writeBinary(data);
+        javaBytes = writeJava(data);
+
+        LatencyBackend backend = new LatencyBackend();
+        reservationService = new ReservationService(backend, backend);
+        customerService = new CustomerService();
+        for (Reservation reservation : data) {
+            reservationService.addReservation(reservation);
+            customerService.addCustomer(reservation.customer());
+        }
+        directory = Files.createTempDirectory("snapshot-benchmark");
+        reservationService.serializeReservations(directory.resolve("reservations.bin").toString());
+        customerService.serializeCustomers(directory.resolve("customers.bin").toString());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (var files = Files.list(directory)) {
+            for (Path file : files.toList()) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    // Größe der Snapshots erscheint als Nebenmetrik im Ergebnis
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class SnapshotSize {
+        public long bytes;
+    }
+
+    @Benchmark
+    public byte[] writeBinarySnapshot(SnapshotSize size) throws IOException {
+        byte[] bytes = writeBinary(data);
+        size.bytes = bytes.length;
+        return bytes;
+    }
+
+    @Benchmark
+    public byte[] writeJavaSerialization(SnapshotSize size) throws IOException {
+        byte[] bytes = writeJava(data);
+        size.bytes = bytes.length;
+        return bytes;
+    }
+
+    @Benchmark
+    public List<Reservation> readBinarySnapshot() throws IOException {
+        return BinarySnapshot.readReservations(new ByteArrayInputStream(binaryBytes));
+    }
+
+    @Benchmark
+    @SuppressWarnings("unchecked")
+    public List<Reservation> readJavaSerialization() throws IOException, ClassNotFoundException {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(javaBytes))) {
+            return (List<Reservation>) in.readObject();
+        }
+    }
+
+    @Benchmark
+    public void serializeReservations() {
+        reservationService.serializeReservations(directory.resolve("reservations-out.bin").toString());
+    }
+
+    @Benchmark
+    public void deserializeReservations() {
+        reservationService.deserializeReservations(directory.resolve("reservations.bin").toString());
+    }
+
+    // Wechselnde Ziele erzwingen jedes Mal das vollständige Schreiben
+    @Benchmark
+    public void serializeCustomersFull() {
+        customerService.serializeCustomers(directory.resolve("customers-out-" + (fullWrites++ % 2) + ".bin").toString());
+    }
+
+    // Ein neuer Kunde seit dem letzten Speichern: es wird nur ein Segment angehängt
+    @Benchmark
+    public void serializeCustomersIncremental() {
+        customerService.addCustomer(BenchmarkData.customer(reservations + incrementalWrites++));
+        customerService.serializeCustomers(directory.resolve("customers.bin").toString());
+    }
+
+    @Benchmark
+    public void deserializeCustomers() {
+        customerService.deserializeCustomers(directory.resolve("customers.bin").toString());
+    }
+
+    private static byte[] writeBinary(List<Reservation> reservations) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BinarySnapshot.writeReservations(reservations, out);
+        return out.toByteArray();
+    }
+
+    private static byte[] writeJava(List<Reservation> reservations) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(new ArrayList<>(reservations));
+        }
+        return bytes.toByteArray();
+    }
+}
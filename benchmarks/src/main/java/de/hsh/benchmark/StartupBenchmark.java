@@ -0,0 +1,97 @@
+package de.hsh.benchmark;
+
+import de.hsh.dto.Event;
+import de.hsh.dto.Reservation;
+import de.hsh.persistence.BinarySnapshot;
+import de.hsh.service.CustomerService;
+import de.hsh.service.EventService;
+import de.hsh.service.ReservationService;
+import de.hsh.service.SnapshotLoader;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+// Kaltstart: Dekodieren der Chunks mit unterschiedlich vielen Worker-Threads und das gemeinsame Laden aller Services
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@Threads(1)
+public class StartupBenchmark {
+
+    @Param({"100000", "1000000"})
+    int reservations;
+
+    @Param({"1", "2", "4", "8"})
+    int parallelism;
+
+    ForkJoinPool pool;
+    byte[] reservationBytes;
+    byte[] customerBytes;
+    Path directory;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        pool = new ForkJoinPool(parallelism);
+        Event[] events = BenchmarkData.events(1_000);
+        List<Reservation> data = BenchmarkData.reservations(reservations, events);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BinarySnapshot.writeReservations(data, out);
+        reservationBytes = out.toByteArray();
+        out = new ByteArrayOutputStream();
+        BinarySnapshot.writeCustomers(data.stream().map(Reservation::customer).toList(), out);
+        customerBytes = out.toByteArray();
+
+        directory = Files.createTempDirectory("startup-benchmark");
+        Files.write(directory.resolve("reservations.bin"), reservationBytes);
+        Files.write(directory.resolve("customers.bin"), customerBytes);
+        EventService eventService = new EventService();
+        for (Event event : events) {
+            eventService.addEvent(event);
+        }
+        eventService.serializeEvents(directory.resolve("events.bin").toString());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        pool.shutdown();
+        try (var files = Files.list(directory)) {
+            for (Path file : files.toList()) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    @Benchmark
+    public void streamReservations(Blackhole blackhole) throws IOException {
+        BinarySnapshot.readReservations(new ByteArrayInputStream(reservationBytes), blackhole::consume, pool);
+    }
+
+    @Benchmark
+    public Object readCustomers() throws IOException {
+        return BinarySnapshot.readCustomers(new ByteArrayInputStream(customerBytes), pool);
+    }
+
+    // Nutzt den gemeinsamen Pool; parallelism wirkt hier nicht, die Messung zeigt den gesamten Kaltstart
+    @Benchmark
+    public ReservationService loadAllServices() {
+        LatencyBackend backend = new LatencyBackend();
+        ReservationService reservationService = new ReservationService(backend, backend);
+        SnapshotLoader.loadAll(new EventService(), directory.resolve("events.bin").toString(),
+                new CustomerService(), directory.resolve("customers.bin").toString(),
+                reservationService, directory.resolve("reservations.bin").toString());
+        return reservationService;
+    }
+}
@@ -1,20 +1,43 @@
 package de.hsh;
 
+import de.hsh.http.ReservationHttpServer;
+import de.hsh.metrics.ReservationMetrics;
+import de.hsh.persistence.InMemoryReservationStore;
+import de.hsh.service.AdmissionController;
 import de.hsh.service.CustomerService;
 import de.hsh.service.EventService;
 import de.hsh.service.ReservationService;
 
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.time.Clock;
+import java.time.Duration;
 
 
 public class Main {
+    private static final int DEFAULT_PORT = 8080;
+    // Zugangskontrolle: höchstens so viele gleichzeitige Buchungen und wartende Anfragen, danach 503 mit Retry-After
+    private static final int ADMISSION_LIMIT = 256;
+    private static final int ADMISSION_QUEUE_DEPTH = 1024;
+    private static final Duration ADMISSION_QUEUE_WAIT = Duration.ofMillis(100);
+    private static final Duration TARGET_LATENCY = Duration.ofMillis(50);
+
+    // Optionales Argument: Port des HTTP-Servers
     public static void main(String[] args) {
-        init();
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        ReservationHttpServer server = init(port);
+        server.start();
+        System.out.println("Server läuft auf Port " + server.getPort());
     }
 
-    public static void init() {
+    public static ReservationHttpServer init(int port) {
         CustomerService customerService = new CustomerService();
         EventService eventService = new EventService();
-        ReservationService reservationService = new ReservationService(_ -> false, (to, subject, message) -> System.out.println("Mail verschickt"));
+        AdmissionController admissionController = new AdmissionController(ADMISSION_LIMIT, ADMISSION_QUEUE_DEPTH, ADMISSION_QUEUE_WAIT, TARGET_LATENCY);
+        ReservationService reservationService = new ReservationService(_ -> false, (to, subject, message) -> System.out.println("Mail verschickt"),
+                null, new InMemoryReservationStore(), ReservationMetrics.NONE, Clock.systemUTC(), admissionController);
 
+        // Nur lokal erreichbar; Events und Kunden werden über POST /events und POST /customers angelegt
+        return new ReservationHttpServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), reservationService, eventService, customerService);
     }
-}
\ No newline at end of file
+}
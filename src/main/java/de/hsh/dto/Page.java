@@ -0,0 +1,35 @@
+package de.hsh.dto;
+
+import java.util.List;
+
+// Ausschnitt einer Abfrage; next ist die Position für die folgende Seite oder -1, wenn keine weiteren Einträge folgen
+public record Page<T>(List<T> items, int next) {
+    public Page {
+        if (items == null) throw new IllegalArgumentException("Einträge dürfen nicht null sein");
+
+        if (next < -1) throw new IllegalArgumentException("Ungültige Position für die nächste Seite");
+
+        items = List.copyOf(items);
+    }
+
+    // Seite ab offset aus einer Liste mit stabilen Positionen, z. B. einer Momentaufnahme
+    public static <T> Page<T> of(List<T> source, int offset, int limit) {
+        checkBounds(offset, limit);
+        int size = source.size();
+        if (offset >= size) {
+            return new Page<>(List.of(), -1);
+        }
+        int end = (int) Math.min((long) offset + limit, size);
+        return new Page<>(source.subList(offset, end), end < size ? end : -1);
+    }
+
+    public static void checkBounds(int offset, int limit) {
+        if (offset < 0) throw new IllegalArgumentException("Die Position darf nicht negativ sein");
+
+        if (limit <= 0) throw new IllegalArgumentException("Die Seitengröße muss größer als null sein");
+    }
+
+    public boolean hasNext() {
+        return next >= 0;
+    }
+}
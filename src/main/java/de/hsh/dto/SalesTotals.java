@@ -0,0 +1,25 @@
+package de.hsh.dto;
+
+// Summen für ein Event, einen Veranstalter oder einen Tag; capacity sind nur die Plätze der Events mit mindestens einer
+// Buchung, nicht aller Events im Katalog. occupancy() ist damit die Auslastung der gebuchten Events.
+// Umsatz in Cent, damit Summen unabhängig von der Reihenfolge der Buchungen exakt bleiben.
+public record SalesTotals(long seats, long capacity, long revenueCents) {
+    public static final SalesTotals EMPTY = new SalesTotals(0, 0, 0);
+
+    public SalesTotals plus(long seats, long capacity, long revenueCents) {
+        return new SalesTotals(this.seats + seats, this.capacity + capacity, this.revenueCents + revenueCents);
+    }
+
+    public boolean isEmpty() {
+        return seats == 0 && capacity == 0 && revenueCents == 0;
+    }
+
+    public double revenue() {
+        return revenueCents / 100.0;
+    }
+
+    // Auslastung in Prozent
+    public double occupancy() {
+        return capacity == 0 ? 0 : seats * 100.0 / capacity;
+    }
+}
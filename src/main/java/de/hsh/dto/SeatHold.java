@@ -0,0 +1,20 @@
+package de.hsh.dto;
+
+import java.io.Serializable;
+import java.util.UUID;
+
+// Vorläufig gehaltene Plätze, z. B. zwischen Platzwahl und Bezahlung; expiresAt in Millisekunden seit 1970
+public record SeatHold(UUID uuid, Event event, Customer customer, int heldSeats, long expiresAt) implements Serializable {
+    public SeatHold {
+        if (uuid == null) throw new IllegalArgumentException("UUID darf nicht null sein");
+
+        if (event == null) throw new IllegalArgumentException("Event darf nicht null sein");
+
+        if (customer == null) throw new IllegalArgumentException("Kunde darf nicht null sein");
+
+        if (heldSeats <= 0) throw new IllegalArgumentException("Gehaltene Plätze müssen größer als null sein");
+
+        if (heldSeats > event.totalSeats())
+            throw new IllegalArgumentException("Gehaltene Plätze dürfen nicht größer als verfügbare Sitzplatzanzahl sein.");
+    }
+}
@@ -0,0 +1,213 @@
+package de.hsh.http;
+
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+// Minimales JSON für die Endpunkte: Schreiben von Maps, Listen und einfachen Werten,
+// Lesen nur von flachen Objekten mit Strings, Zahlen, Wahrheitswerten und null
+final class Json {
+
+    private Json() {
+    }
+
+    static String write(Object value) {
+        StringBuilder out = new StringBuilder();
+        write(out, value);
+        return out.toString();
+    }
+
+    private static void write(StringBuilder out, Object value) {
+        switch (value) {
+            case null -> out.append("null");
+            case String text -> string(out, text);
+            case UUID uuid -> string(out, uuid.toString());
+            // Millisekunden seit 1970, wie SeatHold.expiresAt
+            case Date date -> out.append(date.getTime());
+            case Number number -> out.append(number);
+            case Boolean bool -> out.append(bool);
+            case Map<?, ?> map -> {
+                out.append('{');
+                boolean first = true;
+                for (Map.Entry<?, ?> entry : map.entrySet()) {
+                    if (!first) out.append(',');
+                    first = false;
+                    string(out, String.valueOf(entry.getKey()));
+                    out.append(':');
+                    write(out, entry.getValue());
+                }
+                out.append('}');
+            }
+            case List<?> list -> {
+                out.append('[');
+                for (int i = 0; i < list.size(); i++) {
+                    if (i > 0) out.append(',');
+                    write(out, list.get(i));
+                }
+                out.append(']');
+            }
+            default -> throw new IllegalArgumentException("Nicht unterstützter Typ " + value.getClass().getName());
+        }
+    }
+
+    private static void string(StringBuilder out, String text) {
+        out.append('"');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '"' -> out.append("\\\"");
+                case '\\' -> out.append("\\\\");
+                case '\n' -> out.append("\\n");
+                case '\r' -> out.append("\\r");
+                case '\t' -> out.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        out.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.append(c);
+                    }
+                }
+            }
+        }
+        out.append('"');
+    }
+
+    // Zahlen werden als Long oder Double geliefert
+    static Map<String, Object> readObject(String json) {
+        Parser parser = new Parser(json);
+        parser.skipWhitespace();
+        Map<String, Object> result = parser.object();
+        parser.skipWhitespace();
+        if (!parser.atEnd()) throw new IllegalArgumentException("Ungültiges JSON");
+        return result;
+    }
+
+    private static final class Parser {
+        private final String json;
+        private int position;
+
+        Parser(String json) {
+            this.json = json;
+        }
+
+        Map<String, Object> object() {
+            Map<String, Object> result = new LinkedHashMap<>();
+            expect('{');
+            skipWhitespace();
+            if (peek() == '}') {
+                position++;
+                return result;
+            }
+            while (true) {
+                skipWhitespace();
+                String key = string();
+                skipWhitespace();
+                expect(':');
+                skipWhitespace();
+                result.put(key, value());
+                skipWhitespace();
+                char next = next();
+                if (next == '}') {
+                    return result;
+                }
+                if (next != ',') throw new IllegalArgumentException("Ungültiges JSON");
+            }
+        }
+
+        private Object value() {
+            char c = peek();
+            if (c == '"') {
+                return string();
+            }
+            if (json.startsWith("true", position)) {
+                position += 4;
+                return true;
+            }
+            if (json.startsWith("false", position)) {
+                position += 5;
+                return false;
+            }
+            if (json.startsWith("null", position)) {
+                position += 4;
+                return null;
+            }
+            return number();
+        }
+
+        private Object number() {
+            int start = position;
+            while (!atEnd() && "+-0123456789.eE".indexOf(peek()) >= 0) {
+                position++;
+            }
+            String text = json.substring(start, position);
+            try {
+                if (text.contains(".") || text.contains("e") || text.contains("E")) {
+                    return Double.parseDouble(text);
+                }
+                return Long.parseLong(text);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Ungültiges JSON");
+            }
+        }
+
+        private String string() {
+            expect('"');
+            StringBuilder out = new StringBuilder();
+            while (true) {
+                char c = next();
+                if (c == '"') {
+                    return out.toString();
+                }
+                if (c != '\\') {
+                    out.append(c);
+                    continue;
+                }
+                char escaped = next();
+                switch (escaped) {
+                    case '"', '\\', '/' -> out.append(escaped);
+                    case 'n' -> out.append('\n');
+                    case 'r' -> out.append('\r');
+                    case 't' -> out.append('\t');
+                    case 'b' -> out.append('\b');
+                    case 'f' -> out.append('\f');
+                    case 'u' -> {
+                        if (position + 4 > json.length()) throw new IllegalArgumentException("Ungültiges JSON");
+                        try {
+                            out.append((char) Integer.parseInt(json.substring(position, position + 4), 16));
+                        } catch (NumberFormatException e) {
+                            throw new IllegalArgumentException("Ungültiges JSON");
+                        }
+                        position += 4;
+                    }
+                    default -> throw new IllegalArgumentException("Ungültiges JSON");
+                }
+            }
+        }
+
+        private void expect(char expected) {
+            if (next() != expected) throw new IllegalArgumentException("Ungültiges JSON");
+        }
+
+        private char next() {
+            if (atEnd()) throw new IllegalArgumentException("Ungültiges JSON");
+            return json.charAt(position++);
+        }
+
+        private char peek() {
+            if (atEnd()) throw new IllegalArgumentException("Ungültiges JSON");
+            return json.charAt(position);
+        }
+
+        void skipWhitespace() {
+            while (!atEnd() && Character.isWhitespace(json.charAt(position))) {
+                position++;
+            }
+        }
+
+        boolean atEnd() {
+            return position >= json.length();
+        }
+    }
+}
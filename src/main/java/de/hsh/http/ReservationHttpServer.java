@@ -0,0 +1,335 @@
+package de.hsh.http;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import de.hsh.dto.Customer;
+import de.hsh.dto.Event;
+import de.hsh.dto.Page;
+import de.hsh.dto.Reservation;
+import de.hsh.service.CustomerService;
+import de.hsh.service.EventService;
+import de.hsh.service.OverloadException;
+import de.hsh.service.ReservationService;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+
+// HTTP/JSON-Schnittstelle auf dem HttpServer des JDK; jede Anfrage läuft in einem eigenen virtuellen Thread,
+// blockierende Blacklist- und Mail-Aufrufe belegen also keinen Plattform-Thread.
+//
+//   POST /reservations            {"eventId": "...", "customerName": "...", "seats": 2}  -> 201 mit der Buchung
+//   POST /events                  {"title": "...", "date": 1714593600000, "price": 19.99, "totalSeats": 100, "organizerEmail": "..."}
+//                                                                                        -> 201 mit dem Event und seiner neuen ID
+//   GET  /events?offset=0&limit=100                                                      -> {"items": [...], "next": 100}
+//   GET  /events/<id>/seats                                                              -> {"eventId": "...", "availableSeats": 98}
+//   POST /customers               {"name": "...", "address": "..."}                      -> 201 mit dem Kunden
+//   GET  /customers?offset=0&limit=100
+//
+// Fachliche Fehler (IllegalArgumentException) werden zu 400, unbekannte Events oder Kunden zu 404, jeweils mit {"error": "..."}.
+// Anfragen mit mehr als 64 KiB werden mit 413 abgewiesen, ohne sie ganz zu lesen.
+// Weist die Zugangskontrolle des ReservationService eine Buchung ab, folgt 503 mit Retry-After.
+public class ReservationHttpServer implements AutoCloseable {
+
+    private static final int DEFAULT_PAGE_SIZE = 100;
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final int MAX_BODY_BYTES = 64 * 1024;
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final ReservationService reservationService;
+    private final EventService eventService;
+    private final CustomerService customerService;
+
+    // Port 0 wählt einen freien Port, siehe getPort()
+    public ReservationHttpServer(InetSocketAddress address, ReservationService reservationService, EventService eventService, CustomerService customerService) {
+        this.reservationService = reservationService;
+        this.eventService = eventService;
+        this.customerService = customerService;
+        try {
+            // Großer Backlog, damit Lastspitzen mit vielen gleichzeitigen Verbindungen nicht schon beim Verbindungsaufbau scheitern
+            this.server = HttpServer.create(address, 4096);
+        } catch (IOException e) {
+            throw new RuntimeException("Start des Servers fehlgeschlagen");
+        }
+        server.setExecutor(executor);
+        server.createContext("/reservations", exchange -> handle(exchange, Map.of("POST", this::addReservation)));
+        server.createContext("/events", exchange -> handle(exchange, Map.of("GET", this::events, "POST", this::addEvent)));
+        server.createContext("/customers", exchange -> handle(exchange, Map.of("GET", this::customers, "POST", this::addCustomer)));
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    private Response addReservation(HttpExchange exchange) throws IOException {
+        if (!exchange.getRequestURI().getPath().equals("/reservations")) {
+            return Response.notFound("Unbekannter Pfad");
+        }
+        Map<String, Object> body = body(exchange);
+        Event event = eventService.findById(uuid(body.get("eventId"), "eventId"));
+        if (event == null) {
+            return Response.notFound("Das Event existiert nicht.");
+        }
+        if (!(body.get("customerName") instanceof String customerName)) {
+            throw new IllegalArgumentException("customerName fehlt");
+        }
+        Customer customer = customerService.findByName(customerName);
+        if (customer == null) {
+            return Response.notFound("Der Kunde existiert nicht.");
+        }
+        int seats = intValue(body.get("seats"), "seats");
+        UUID reservationId = body.get("reservationId") == null ? UUID.randomUUID() : uuid(body.get("reservationId"), "reservationId");
+
+        Reservation reservation = new Reservation(reservationId, event, customer, seats);
+        reservationService.addReservation(reservation);
+        return new Response(201, reservation(reservation));
+    }
+
+    private Response addEvent(HttpExchange exchange) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+        if (!path.equals("/events") && !path.equals("/events/")) {
+            return Response.notFound("Unbekannter Pfad");
+        }
+        Map<String, Object> body = body(exchange);
+        if (!(body.get("price") instanceof Number price)) {
+            throw new IllegalArgumentException("price muss eine Zahl sein");
+        }
+        Date date = body.get("date") == null ? null : new Date(longValue(body.get("date"), "date"));
+        Event event = new Event(UUID.randomUUID(), string(body.get("title"), "title"), date, price.doubleValue(),
+                intValue(body.get("totalSeats"), "totalSeats"), string(body.get("organizerEmail"), "organizerEmail"));
+        eventService.addEvent(event);
+        return new Response(201, event(event));
+    }
+
+    private Response addCustomer(HttpExchange exchange) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+        if (!path.equals("/customers") && !path.equals("/customers/")) {
+            return Response.notFound("Unbekannter Pfad");
+        }
+        Map<String, Object> body = body(exchange);
+        Customer customer = new Customer(string(body.get("name"), "name"), string(body.get("address"), "address"));
+        customerService.addCustomer(customer);
+        return new Response(201, customer(customer));
+    }
+
+    private Response events(HttpExchange exchange) {
+        String path = exchange.getRequestURI().getPath();
+        if (path.equals("/events") || path.equals("/events/")) {
+            Map<String, String> query = query(exchange);
+            Page<Event> page = eventService.getEvents(intParameter(query, "offset", 0), Math.min(intParameter(query, "limit", DEFAULT_PAGE_SIZE), MAX_PAGE_SIZE));
+            return new Response(200, page(page, ReservationHttpServer::event));
+        }
+        String[] parts = path.split("/");
+        // ["", "events", "<id>", "seats"]
+        if (parts.length == 4 && parts[3].equals("seats")) {
+            Event event = eventService.findById(uuid(parts[2], "eventId"));
+            if (event == null) {
+                return Response.notFound("Das Event existiert nicht.");
+            }
+            Map<String, Object> body = new LinkedHashMap<>();
+            body.put("eventId", event.identifier());
+            body.put("availableSeats", reservationService.getAvailableSeats(event));
+            return new Response(200, body);
+        }
+        return Response.notFound("Unbekannter Pfad");
+    }
+
+    // Liest höchstens MAX_BODY_BYTES; eine angekündigte oder tatsächlich größere Anfrage wird nicht weiter gelesen
+    private static Map<String, Object> body(HttpExchange exchange) throws IOException {
+        String contentLength = exchange.getRequestHeaders().getFirst("Content-Length");
+        if (contentLength != null) {
+            try {
+                if (Long.parseLong(contentLength.trim()) > MAX_BODY_BYTES) {
+                    throw new BodyTooLargeException();
+                }
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Ungültige Content-Length");
+            }
+        }
+        byte[] bytes;
+        try (InputStream in = exchange.getRequestBody()) {
+            bytes = in.readNBytes(MAX_BODY_BYTES + 1);
+        }
+        if (bytes.length > MAX_BODY_BYTES) {
+            throw new BodyTooLargeException();
+        }
+        return Json.readObject(new String(bytes, StandardCharsets.UTF_8));
+    }
+
+    private Response customers(HttpExchange exchange) {
+        String path = exchange.getRequestURI().getPath();
+        if (!path.equals("/customers") && !path.equals("/customers/")) {
+            return Response.notFound("Unbekannter Pfad");
+        }
+        Map<String, String> query = query(exchange);
+        Page<Customer> page = customerService.getCustomers(intParameter(query, "offset", 0), Math.min(intParameter(query, "limit", DEFAULT_PAGE_SIZE), MAX_PAGE_SIZE));
+        return new Response(200, page(page, ReservationHttpServer::customer));
+    }
+
+    private static void handle(HttpExchange exchange, Map<String, Route> routes) throws IOException {
+        Response response;
+        try {
+            Route route = routes.get(exchange.getRequestMethod());
+            if (route == null) {
+                exchange.getResponseHeaders().set("Allow", String.join(", ", new TreeSet<>(routes.keySet())));
+                response = Response.error(405, "Methode nicht erlaubt");
+            } else {
+                response = route.handle(exchange);
+            }
+        } catch (BodyTooLargeException e) {
+            // Der Rest der Anfrage wird nicht gelesen, die Verbindung also nicht weiterverwendet
+            exchange.getResponseHeaders().set("Connection", "close");
+            response = Response.error(413, "Anfrage zu groß, höchstens " + MAX_BODY_BYTES + " Byte");
+        } catch (IllegalArgumentException e) {
+            response = Response.error(400, e.getMessage());
+        } catch (OverloadException e) {
+            // Retry-After in ganzen Sekunden, mindestens 1
+            long seconds = Math.max(1, (e.getRetryAfter().toMillis() + 999) / 1000);
+            exchange.getResponseHeaders().set("Retry-After", String.valueOf(seconds));
+            response = Response.error(503, e.getMessage());
+        } catch (RuntimeException e) {
+            response = Response.error(500, "Interner Fehler");
+        }
+        byte[] bytes = Json.write(response.body()).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(response.status(), bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static UUID uuid(Object value, String name) {
+        if (!(value instanceof String text)) throw new IllegalArgumentException(name + " fehlt");
+
+        try {
+            return UUID.fromString(text);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(name + " ist keine gültige UUID");
+        }
+    }
+
+    private static String string(Object value, String name) {
+        if (!(value instanceof String text)) throw new IllegalArgumentException(name + " fehlt");
+
+        return text;
+    }
+
+    private static long longValue(Object value, String name) {
+        if (!(value instanceof Long number)) throw new IllegalArgumentException(name + " muss eine ganze Zahl sein");
+
+        return number;
+    }
+
+    private static int intValue(Object value, String name) {
+        try {
+            return Math.toIntExact(longValue(value, name));
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException(name + " liegt außerhalb des gültigen Bereichs");
+        }
+    }
+
+    private static Map<String, String> query(HttpExchange exchange) {
+        Map<String, String> parameters = new HashMap<>();
+        String query = exchange.getRequestURI().getRawQuery();
+        if (query == null) {
+            return parameters;
+        }
+        for (String pair : query.split("&")) {
+            int separator = pair.indexOf('=');
+            if (separator > 0) {
+                parameters.put(URLDecoder.decode(pair.substring(0, separator), StandardCharsets.UTF_8),
+                        URLDecoder.decode(pair.substring(separator + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return parameters;
+    }
+
+    private static int intParameter(Map<String, String> query, String name, int defaultValue) {
+        String value = query.get(name);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(name + " muss eine ganze Zahl sein");
+        }
+    }
+
+    private static <T> Map<String, Object> page(Page<T> page, Function<T, Map<String, Object>> mapper) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("items", page.items().stream().map(mapper).toList());
+        body.put("next", page.next());
+        return body;
+    }
+
+    private static Map<String, Object> event(Event event) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("identifier", event.identifier());
+        body.put("title", event.title());
+        body.put("date", event.date());
+        body.put("price", event.price());
+        body.put("totalSeats", event.totalSeats());
+        body.put("organizerEmail", event.organizerEmail());
+        return body;
+    }
+
+    private static Map<String, Object> customer(Customer customer) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("name", customer.name());
+        body.put("address", customer.address());
+        return body;
+    }
+
+    private static Map<String, Object> reservation(Reservation reservation) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("uuid", reservation.uuid());
+        body.put("eventId", reservation.event().identifier());
+        body.put("customerName", reservation.customer().name());
+        body.put("reservedSeats", reservation.reservedSeats());
+        return body;
+    }
+
+    // Laufende Anfragen werden noch beantwortet
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.close();
+    }
+
+    private interface Route {
+        Response handle(HttpExchange exchange) throws IOException;
+    }
+
+    private static final class BodyTooLargeException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+    }
+
+    private record Response(int status, Object body) {
+        static Response error(int status, String message) {
+            return new Response(status, Map.of("error", message == null ? "" : message));
+        }
+
+        static Response notFound(String message) {
+            return error(404, message);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package de.hsh.metrics;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.LongAdder;
+
+// Zählt Buchungen und misst Latenzen in Nanosekunden; Export als Snapshot oder im Prometheus-Textformat
+public class RecordingReservationMetrics implements ReservationMetrics {
+
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder merged = new LongAdder();
+    private final LongAdder rejectedBlacklisted = new LongAdder();
+    private final LongAdder rejectedSoldOut = new LongAdder();
+    private final LongAdder emailsSent = new LongAdder();
+    private final LongAdder rejectedOverloaded = new LongAdder();
+    private volatile int queueDepth;
+    private volatile int concurrencyLimit;
+
+    private final LatencyHistogram bookingLatency = new LatencyHistogram();
+    private final LatencyHistogram blacklistLatency = new LatencyHistogram();
+    private final LatencyHistogram emailLatency = new LatencyHistogram();
+
+    @Override
+    public void bookingAccepted(long latencyNanos, boolean merged) {
+        accepted.increment();
+        if (merged) {
+            this.merged.increment();
+        }
+        bookingLatency.record(latencyNanos);
+    }
+
+    @Override
+    public void bookingRejected(Rejection reason) {
+        switch (reason) {
+            case BLACKLISTED -> rejectedBlacklisted.increment();
+            case SOLD_OUT -> rejectedSoldOut.increment();
+            case OVERLOADED -> rejectedOverloaded.increment();
+        }
+    }
+
+    @Override
+    public void blacklistChecked(long latencyNanos) {
+        blacklistLatency.record(latencyNanos);
+    }
+
+    @Override
+    public void emailSent(long latencyNanos) {
+        emailsSent.increment();
+        emailLatency.record(latencyNanos);
+    }
+
+    @Override
+    public void admissionChanged(int queueDepth, int concurrencyLimit) {
+        this.queueDepth = queueDepth;
+        this.concurrencyLimit = concurrencyLimit;
+    }
+
+    public Snapshot snapshot() {
+        return new Snapshot(accepted.sum(), merged.sum(), rejectedBlacklisted.sum(), rejectedSoldOut.sum(), rejectedOverloaded.sum(), emailsSent.sum(),
+                queueDepth, concurrencyLimit, bookingLatency.snapshot(), blacklistLatency.snapshot(), emailLatency.snapshot());
+    }
+
+    public String toPrometheus() {
+        return snapshot().toPrometheus();
+    }
+
+    public record Snapshot(long accepted, long merged, long rejectedBlacklisted, long rejectedSoldOut, long rejectedOverloaded, long emailsSent,
+                           int queueDepth, int concurrencyLimit,
+                           LatencyHistogram.Snapshot bookingLatency,
+                           LatencyHistogram.Snapshot blacklistLatency,
+                           LatencyHistogram.Snapshot emailLatency) {
+
+        public String toPrometheus() {
+            StringBuilder out = new StringBuilder();
+            counter(out, "reservation_bookings_accepted_total", "Angenommene Buchungen", accepted);
+            counter(out, "reservation_bookings_merged_total", "Mit bestehender Buchung zusammengeführte Buchungen", merged);
+            out.append("# HELP reservation_bookings_rejected_total Abgelehnte Buchungen\n");
+            out.append("# TYPE reservation_bookings_rejected_total counter\n");
+            out.append("reservation_bookings_rejected_total{reason=\"blacklisted\"} ").append(rejectedBlacklisted).append('\n');
+            out.append("reservation_bookings_rejected_total{reason=\"sold_out\"} ").append(rejectedSoldOut).append('\n');
+            out.append("reservation_bookings_rejected_total{reason=\"overloaded\"} ").append(rejectedOverloaded).append('\n');
+            counter(out, "reservation_emails_sent_total", "Verschickte Benachrichtigungen", emailsSent);
+            gauge(out, "reservation_admission_queue_depth", "Wartende Buchungen vor der Zugangskontrolle", queueDepth);
+            gauge(out, "reservation_admission_concurrency_limit", "Gleichzeitig zugelassene Buchungen", concurrencyLimit);
+            summary(out, "reservation_booking_duration_seconds", "Dauer von addReservation", bookingLatency);
+            summary(out, "reservation_blacklist_check_duration_seconds", "Dauer der Blacklist-Abfrage", blacklistLatency);
+            summary(out, "reservation_email_duration_seconds", "Dauer des Mailversands", emailLatency);
+            return out.toString();
+        }
+
+        private static void counter(StringBuilder out, String name, String help, long value) {
+            out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+            out.append("# TYPE ").append(name).append(" counter\n");
+            out.append(name).append(' ').append(value).append('\n');
+        }
+
+        private static void gauge(StringBuilder out, String name, String help, long value) {
+            out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+            out.append("# TYPE ").append(name).append(" gauge\n");
+            out.append(name).append(' ').append(value).append('\n');
+        }
+
+        private static void summary(StringBuilder out, String name, String help, LatencyHistogram.Snapshot histogram) {
+            out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+            out.append("# TYPE ").append(name).append(" summary\n");
+            for (double quantile : QUANTILES) {
+                out.append(name).append("{quantile=\"").append(quantile).append("\"} ")
+                        .append(seconds(histogram.valueAtPercentile(quantile * 100))).append('\n');
+            }
+            out.append(name).append("_sum ").append(seconds(histogram.sum())).append('\n');
+            out.append(name).append("_count ").append(histogram.count()).append('\n');
+        }
+
+        private static String seconds(long nanos) {
+            return String.format(Locale.ROOT, "%.9f", nanos / 1e9);
+        }
+    }
+}
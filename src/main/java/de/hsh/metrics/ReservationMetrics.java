@@ -0,0 +1,46 @@
+package de.hsh.metrics;
+
+// Messpunkte des Buchungspfads; Implementierungen dürfen beim Aufzeichnen weder blockieren noch Objekte anlegen
+public interface ReservationMetrics {
+
+    // Für Services ohne Instrumentierung
+    ReservationMetrics NONE = new ReservationMetrics() {
+        @Override
+        public void bookingAccepted(long latencyNanos, boolean merged) {
+        }
+
+        @Override
+        public void bookingRejected(Rejection reason) {
+        }
+
+        @Override
+        public void blacklistChecked(long latencyNanos) {
+        }
+
+        @Override
+        public void emailSent(long latencyNanos) {
+        }
+
+        @Override
+        public void admissionChanged(int queueDepth, int concurrencyLimit) {
+        }
+    };
+
+    enum Rejection {
+        BLACKLISTED,
+        SOLD_OUT,
+        // Von der Zugangskontrolle abgewiesen, bevor der Buchungspfad betreten wurde
+        OVERLOADED
+    }
+
+    void bookingAccepted(long latencyNanos, boolean merged);
+
+    void bookingRejected(Rejection reason);
+
+    void blacklistChecked(long latencyNanos);
+
+    void emailSent(long latencyNanos);
+
+    // Aktuelle Länge der Warteschlange und Nebenläufigkeitslimit der Zugangskontrolle
+    void admissionChanged(int queueDepth, int concurrencyLimit);
+}
@@ -0,0 +1,111 @@
+package de.hsh.persistence;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.RandomAccess;
+
+// Liste, an die nur angehängt wird. Einträge liegen in Chunks fester Größe, die nie umkopiert werden;
+// eine Momentaufnahme merkt sich nur Chunk-Verzeichnis und Größe und bleibt ohne Kopie der Einträge konsistent.
+// Schreiber werden serialisiert, Leser brauchen keine Sperre.
+public final class AppendOnlyList<T> {
+
+    private static final int CHUNK_BITS = 10;
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    // Verzeichnis und Größe werden gemeinsam veröffentlicht, damit clear() keinen halben Zustand sichtbar macht
+    private volatile State state = new State(new Object[0][], 0);
+
+    public synchronized void add(T value) {
+        State current = state;
+        Object[][] chunks = ensureCapacity(current.chunks(), current.size() + 1);
+        chunks[current.size() >>> CHUNK_BITS][current.size() & CHUNK_MASK] = value;
+        state = new State(chunks, current.size() + 1);
+    }
+
+    public synchronized void addAll(Collection<? extends T> values) {
+        State current = state;
+        Object[][] chunks = ensureCapacity(current.chunks(), current.size() + values.size());
+        int size = current.size();
+        for (T value : values) {
+            chunks[size >>> CHUNK_BITS][size & CHUNK_MASK] = value;
+            size++;
+        }
+        state = new State(chunks, size);
+    }
+
+    // Bestehende Momentaufnahmen behalten ihre Chunks
+    public synchronized void clear() {
+        state = new State(new Object[0][], 0);
+    }
+
+    public int size() {
+        return state.size();
+    }
+
+    // Unveränderliche Sicht auf den aktuellen Stand; spätere Einträge sind darin nicht enthalten
+    public List<T> snapshot() {
+        return new View<>(state);
+    }
+
+    // Lesende Sicht, die immer den neuesten Stand zeigt
+    public List<T> asList() {
+        return new LiveView();
+    }
+
+    // Neue Chunks werden nur hinter dem veröffentlichten Ende eingehängt; ältere Leser sehen sie nie
+    private static Object[][] ensureCapacity(Object[][] chunks, int size) {
+        int required = (size + CHUNK_MASK) >>> CHUNK_BITS;
+        if (required > chunks.length) {
+            chunks = Arrays.copyOf(chunks, Math.max(required, chunks.length * 2));
+        }
+        // Chunks werden lückenlos von vorne belegt, fehlende liegen also am Ende
+        for (int i = required - 1; i >= 0 && chunks[i] == null; i--) {
+            chunks[i] = new Object[CHUNK_SIZE];
+        }
+        return chunks;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T get(State state, int index) {
+        if (index < 0 || index >= state.size()) {
+            throw new IndexOutOfBoundsException("Index " + index + " außerhalb von 0.." + state.size());
+        }
+        return (T) state.chunks()[index >>> CHUNK_BITS][index & CHUNK_MASK];
+    }
+
+    private record State(Object[][] chunks, int size) {
+    }
+
+    private static final class View<T> extends AbstractList<T> implements RandomAccess {
+        private final State state;
+
+        View(State state) {
+            this.state = state;
+        }
+
+        @Override
+        public T get(int index) {
+            return AppendOnlyList.get(state, index);
+        }
+
+        @Override
+        public int size() {
+            return state.size();
+        }
+    }
+
+    private final class LiveView extends AbstractList<T> implements RandomAccess {
+        @Override
+        public T get(int index) {
+            return AppendOnlyList.get(state, index);
+        }
+
+        @Override
+        public int size() {
+            return state.size();
+        }
+    }
+}
@@ -0,0 +1,431 @@
+package de.hsh.persistence;
+
+import de.hsh.dto.Customer;
+import de.hsh.dto.Event;
+import de.hsh.dto.Reservation;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+// Kompaktes, versioniertes Binärformat für Snapshots von Events, Kunden und Buchungen.
+// Buchungen verweisen über Tabellenindizes auf Events und Kunden, die nur einmal geschrieben werden.
+// Ab Version 2 sind die Datensätze in Chunks unterteilt, die auf einem Fork-Join-Pool parallel kodiert und dekodiert werden.
+public final class BinarySnapshot {
+
+    static final int MAGIC = 0x48534853; // "HSHS"
+    static final short VERSION = 2;
+    // Sequenzielles Format ohne Chunks; wird weiterhin gelesen
+    static final short VERSION_SEQUENTIAL = 1;
+
+    static final byte KIND_EVENTS = 1;
+    static final byte KIND_CUSTOMERS = 2;
+    static final byte KIND_RESERVATIONS = 3;
+
+    static final int CHUNK_SIZE = 8_192;
+
+    private static final int HAS_IDENTIFIER = 1;
+    private static final int HAS_TITLE = 1 << 1;
+    private static final int HAS_DATE = 1 << 2;
+    private static final int HAS_ORGANIZER = 1 << 3;
+
+    @FunctionalInterface
+    interface RecordWriter<T> {
+        void write(DataOutputStream out, T record) throws IOException;
+    }
+
+    @FunctionalInterface
+    interface RecordReader<T> {
+        T read(DataInputStream in) throws IOException;
+    }
+
+    private BinarySnapshot() {
+    }
+
+    public static void writeEvents(Collection<Event> events, OutputStream outputStream) throws IOException {
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(outputStream));
+        writeHeader(out, KIND_EVENTS);
+        writeSection(out, List.copyOf(events), BinarySnapshot::writeEvent);
+        out.flush();
+    }
+
+    public static List<Event> readEvents(InputStream inputStream) throws IOException {
+        return readEvents(inputStream, ForkJoinPool.commonPool());
+    }
+
+    public static List<Event> readEvents(InputStream inputStream, ForkJoinPool pool) throws IOException {
+        BufferedInputStream buffered = new BufferedInputStream(inputStream);
+        if (!isBinarySnapshot(buffered)) {
+            return readLegacyList(buffered);
+        }
+        DataInputStream in = new DataInputStream(buffered);
+        if (readHeader(in, KIND_EVENTS) == VERSION_SEQUENTIAL) {
+            return readSequential(in, BinarySnapshot::readEvent);
+        }
+        return await(readSection(in, BinarySnapshot::readEvent, pool));
+    }
+
+    public static void writeCustomers(Collection<Customer> customers, OutputStream outputStream) throws IOException {
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(outputStream));
+        writeHeader(out, KIND_CUSTOMERS);
+        writeSection(out, List.copyOf(customers), BinarySnapshot::writeCustomer);
+        out.flush();
+    }
+
+    public static List<Customer> readCustomers(InputStream inputStream) throws IOException {
+        return readCustomers(inputStream, ForkJoinPool.commonPool());
+    }
+
+    public static List<Customer> readCustomers(InputStream inputStream, ForkJoinPool pool) throws IOException {
+        BufferedInputStream buffered = new BufferedInputStream(inputStream);
+        if (!isBinarySnapshot(buffered)) {
+            return readLegacyList(buffered);
+        }
+        DataInputStream in = new DataInputStream(buffered);
+        if (readHeader(in, KIND_CUSTOMERS) == VERSION_SEQUENTIAL) {
+            return readSequential(in, BinarySnapshot::readCustomer);
+        }
+        return await(readSection(in, BinarySnapshot::readCustomer, pool));
+    }
+
+    public static void writeReservations(Collection<Reservation> reservations, OutputStream outputStream) throws IOException {
+        // Tabellen der referenzierten Events und Kunden aufbauen
+        Map<Event, Integer> eventRefs = new HashMap<>();
+        Map<Customer, Integer> customerRefs = new HashMap<>();
+        List<Event> events = new ArrayList<>();
+        List<Customer> customers = new ArrayList<>();
+        for (Reservation reservation : reservations) {
+            if (eventRefs.putIfAbsent(reservation.event(), events.size()) == null) {
+                events.add(reservation.event());
+            }
+            if (customerRefs.putIfAbsent(reservation.customer(), customers.size()) == null) {
+                customers.add(reservation.customer());
+            }
+        }
+
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(outputStream));
+        writeHeader(out, KIND_RESERVATIONS);
+        writeSection(out, events, BinarySnapshot::writeEvent);
+        writeSection(out, customers, BinarySnapshot::writeCustomer);
+        writeSection(out, List.copyOf(reservations), (chunk, reservation) -> {
+            chunk.writeLong(reservation.uuid().getMostSignificantBits());
+            chunk.writeLong(reservation.uuid().getLeastSignificantBits());
+            writeVarInt(chunk, eventRefs.get(reservation.event()));
+            writeVarInt(chunk, customerRefs.get(reservation.customer()));
+            writeVarInt(chunk, reservation.reservedSeats());
+        });
+        out.flush();
+    }
+
+    public static List<Reservation> readReservations(InputStream inputStream) throws IOException {
+        List<Reservation> reservations = new ArrayList<>();
+        readReservations(inputStream, reservations::add, ForkJoinPool.commonPool());
+        return reservations;
+    }
+
+    // Liefert die Buchungen in Dateireihenfolge an den Consumer, sobald ihr Chunk dekodiert ist.
+    // Event- und Kundentabelle werden gleichzeitig dekodiert, während bereits die Buchungs-Chunks gelesen werden.
+    public static void readReservations(InputStream inputStream, Consumer<Reservation> consumer, ForkJoinPool pool) throws IOException {
+        BufferedInputStream buffered = new BufferedInputStream(inputStream);
+        if (!isBinarySnapshot(buffered)) {
+            BinarySnapshot.<Reservation>readLegacyList(buffered).forEach(consumer);
+            return;
+        }
+        DataInputStream in = new DataInputStream(buffered);
+        if (readHeader(in, KIND_RESERVATIONS) == VERSION_SEQUENTIAL) {
+            List<Event> events = readSequential(in, BinarySnapshot::readEvent);
+            List<Customer> customers = readSequential(in, BinarySnapshot::readCustomer);
+            readSequential(in, record -> readReservation(record, events, customers)).forEach(consumer);
+            return;
+        }
+
+        CompletableFuture<List<Event>> events = readSection(in, BinarySnapshot::readEvent, pool);
+        CompletableFuture<List<Customer>> customers = readSection(in, BinarySnapshot::readCustomer, pool);
+        CompletableFuture<Void> tables = CompletableFuture.allOf(events, customers);
+        RecordReader<Reservation> reservationReader = record -> readReservation(record, events.join(), customers.join());
+
+        readVarInt(in);
+        int chunkCount = readVarInt(in);
+        // Begrenzt die Zahl der dekodierten, aber noch nicht übergebenen Chunks
+        int window = 2 * pool.getParallelism() + 2;
+        ArrayDeque<CompletableFuture<List<Reservation>>> inFlight = new ArrayDeque<>();
+        for (int i = 0; i < chunkCount; i++) {
+            Chunk chunk = readChunk(in);
+            inFlight.add(tables.thenApplyAsync(_ -> decode(chunk, reservationReader), pool));
+            if (inFlight.size() >= window) {
+                await(inFlight.poll()).forEach(consumer);
+            }
+        }
+        while (!inFlight.isEmpty()) {
+            await(inFlight.poll()).forEach(consumer);
+        }
+        // Auch bei leeren Buchungslisten müssen die Tabellen gültig sein
+        await(tables);
+    }
+
+    private static Reservation readReservation(DataInputStream in, List<Event> events, List<Customer> customers) throws IOException {
+        try {
+            UUID uuid = new UUID(in.readLong(), in.readLong());
+            Event event = events.get(readVarInt(in));
+            Customer customer = customers.get(readVarInt(in));
+            return new Reservation(uuid, event, customer, readVarInt(in));
+        } catch (IndexOutOfBoundsException | IllegalArgumentException e) {
+            throw new IOException("Ungültiger Buchungseintrag im Snapshot", e);
+        }
+    }
+
+    // Abschnitt: Gesamtzahl, Anzahl der Chunks, dann je Chunk [int Datensätze][int Bytes][Daten]
+    private static <T> void writeSection(DataOutputStream out, List<T> records, RecordWriter<T> writer) throws IOException {
+        int chunkCount = (records.size() + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        writeVarInt(out, records.size());
+        writeVarInt(out, chunkCount);
+        List<byte[]> chunks;
+        try {
+            chunks = IntStream.range(0, chunkCount).parallel()
+                    .mapToObj(i -> encode(records.subList(i * CHUNK_SIZE, Math.min(records.size(), (i + 1) * CHUNK_SIZE)), writer))
+                    .toList();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        for (int i = 0; i < chunkCount; i++) {
+            out.writeInt(Math.min(CHUNK_SIZE, records.size() - i * CHUNK_SIZE));
+            out.writeInt(chunks.get(i).length);
+            out.write(chunks.get(i));
+        }
+    }
+
+    private static <T> byte[] encode(List<T> records, RecordWriter<T> writer) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        try {
+            for (T record : records) {
+                writer.write(out, record);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    // Liest die Chunks sequenziell vom Stream und dekodiert sie parallel; die Reihenfolge bleibt erhalten
+    private static <T> CompletableFuture<List<T>> readSection(DataInputStream in, RecordReader<T> reader, ForkJoinPool pool) throws IOException {
+        int total = readVarInt(in);
+        int chunkCount = readVarInt(in);
+        List<CompletableFuture<List<T>>> parts = new ArrayList<>(initialCapacity(chunkCount));
+        for (int i = 0; i < chunkCount; i++) {
+            Chunk chunk = readChunk(in);
+            parts.add(CompletableFuture.supplyAsync(() -> decode(chunk, reader), pool));
+        }
+        return CompletableFuture.allOf(parts.toArray(CompletableFuture[]::new)).thenApply(_ -> {
+            List<T> records = new ArrayList<>(initialCapacity(total));
+            for (CompletableFuture<List<T>> part : parts) {
+                records.addAll(part.join());
+            }
+            return records;
+        });
+    }
+
+    private static Chunk readChunk(DataInputStream in) throws IOException {
+        int count = in.readInt();
+        int length = in.readInt();
+        if (count < 0 || length < 0) {
+            throw new IOException("Ungültiger Chunk im Snapshot");
+        }
+        byte[] bytes = in.readNBytes(length);
+        if (bytes.length != length) {
+            throw new EOFException("Snapshot ist unvollständig");
+        }
+        return new Chunk(count, bytes);
+    }
+
+    private static <T> List<T> decode(Chunk chunk, RecordReader<T> reader) {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(chunk.bytes()));
+        List<T> records = new ArrayList<>(initialCapacity(chunk.count()));
+        try {
+            for (int i = 0; i < chunk.count(); i++) {
+                records.add(reader.read(in));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return records;
+    }
+
+    private static <T> List<T> readSequential(DataInputStream in, RecordReader<T> reader) throws IOException {
+        int count = readVarInt(in);
+        List<T> records = new ArrayList<>(initialCapacity(count));
+        for (int i = 0; i < count; i++) {
+            records.add(reader.read(in));
+        }
+        return records;
+    }
+
+    // Entpackt Fehler aus den Dekodier-Tasks wieder zu IOExceptions
+    private static <T> T await(CompletableFuture<T> future) throws IOException {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof UncheckedIOException cause) {
+                throw cause.getCause();
+            }
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    // Erkennt das Binärformat an der Kennung, ohne den Stream zu verbrauchen
+    static boolean isBinarySnapshot(BufferedInputStream in) throws IOException {
+        in.mark(4);
+        byte[] magic = in.readNBytes(4);
+        in.reset();
+        return magic.length == 4
+                && ((magic[0] & 0xFF) << 24 | (magic[1] & 0xFF) << 16 | (magic[2] & 0xFF) << 8 | (magic[3] & 0xFF)) == MAGIC;
+    }
+
+    // Liest Dateien, die noch mit ObjectOutputStream geschrieben wurden
+    @SuppressWarnings("unchecked")
+    private static <T> List<T> readLegacyList(InputStream in) throws IOException {
+        try {
+            return (List<T>) new ObjectInputStream(in).readObject();
+        } catch (ClassNotFoundException | ClassCastException e) {
+            throw new IOException("Unbekanntes Snapshot-Format", e);
+        }
+    }
+
+    private static void writeHeader(DataOutputStream out, byte kind) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeShort(VERSION);
+        out.writeByte(kind);
+    }
+
+    // Liefert die Version, damit ältere Formate weiter gelesen werden können
+    private static short readHeader(DataInputStream in, byte expectedKind) throws IOException {
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Keine Snapshot-Datei");
+        }
+        short version = in.readShort();
+        if (version != VERSION && version != VERSION_SEQUENTIAL) {
+            throw new IOException("Nicht unterstützte Snapshot-Version: " + version);
+        }
+        byte kind = in.readByte();
+        if (kind != expectedKind) {
+            throw new IOException("Falscher Snapshot-Typ: " + kind);
+        }
+        return version;
+    }
+
+    static void writeEvent(DataOutputStream out, Event event) throws IOException {
+        int flags = (event.identifier() != null ? HAS_IDENTIFIER : 0)
+                | (event.title() != null ? HAS_TITLE : 0)
+                | (event.date() != null ? HAS_DATE : 0)
+                | (event.organizerEmail() != null ? HAS_ORGANIZER : 0);
+        out.writeByte(flags);
+        if (event.identifier() != null) {
+            out.writeLong(event.identifier().getMostSignificantBits());
+            out.writeLong(event.identifier().getLeastSignificantBits());
+        }
+        if (event.title() != null) {
+            writeString(out, event.title());
+        }
+        if (event.date() != null) {
+            out.writeLong(event.date().getTime());
+        }
+        out.writeDouble(event.price());
+        writeVarInt(out, event.totalSeats());
+        if (event.organizerEmail() != null) {
+            writeString(out, event.organizerEmail());
+        }
+    }
+
+    static Event readEvent(DataInputStream in) throws IOException {
+        int flags = in.readByte();
+        UUID identifier = (flags & HAS_IDENTIFIER) != 0 ? new UUID(in.readLong(), in.readLong()) : null;
+        String title = (flags & HAS_TITLE) != 0 ? readString(in) : null;
+        Date date = (flags & HAS_DATE) != 0 ? new Date(in.readLong()) : null;
+        double price = in.readDouble();
+        int totalSeats = readVarInt(in);
+        String organizerEmail = (flags & HAS_ORGANIZER) != 0 ? readString(in) : null;
+        try {
+            return new Event(identifier, title, date, price, totalSeats, organizerEmail);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Ungültiges Event im Snapshot", e);
+        }
+    }
+
+    static void writeCustomer(DataOutputStream out, Customer customer) throws IOException {
+        writeString(out, customer.name());
+        writeString(out, customer.address());
+    }
+
+    static Customer readCustomer(DataInputStream in) throws IOException {
+        try {
+            return new Customer(readString(in), readString(in));
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Ungültiger Kunde im Snapshot", e);
+        }
+    }
+
+    static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(out, bytes.length);
+        out.write(bytes);
+    }
+
+    static String readString(DataInputStream in) throws IOException {
+        int length = readVarInt(in);
+        byte[] bytes = in.readNBytes(length);
+        if (bytes.length != length) {
+            throw new EOFException("Snapshot ist unvollständig");
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // Begrenzt die Vorbelegung, damit eine beschädigte Längenangabe keinen riesigen Puffer anlegt
+    static int initialCapacity(int count) {
+        return Math.min(count, 1 << 16);
+    }
+
+    // Nicht-negative Ganzzahlen mit 7 Bit je Byte; kleine Werte belegen nur ein Byte
+    static void writeVarInt(DataOutputStream out, int value) throws IOException {
+        if (value < 0) {
+            throw new IOException("Negative Werte können nicht kodiert werden: " + value);
+        }
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    static int readVarInt(DataInputStream in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                if (value < 0) {
+                    throw new IOException("Ungültige Längenangabe im Snapshot");
+                }
+                return value;
+            }
+        }
+        throw new IOException("Ungültige Längenangabe im Snapshot");
+    }
+
+    private record Chunk(int count, byte[] bytes) {
+    }
+}
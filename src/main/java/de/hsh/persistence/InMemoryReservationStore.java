@@ -0,0 +1,275 @@
+package de.hsh.persistence;
+
+import de.hsh.dto.Customer;
+import de.hsh.dto.Event;
+import de.hsh.dto.Page;
+import de.hsh.dto.Reservation;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+public class InMemoryReservationStore implements ReservationStore {
+
+    // Ab so vielen leeren Plätzen, und sobald sie die belegten überwiegen, wird die Platzliste neu aufgebaut
+    private static final int COMPACTION_THRESHOLD = 1024;
+    // Höchstens so viele leere Plätze überspringt eine Seite; danach endet sie früher
+    static final int MAX_SKIPPED_PER_PAGE = 4096;
+
+    // Ein Platz je Kunde und Event in Einfügereihenfolge. Jeder Platz behält seine Position, auch wenn die Liste
+    // ohne leere Plätze neu aufgebaut wird; so bleiben die Positionen zum Blättern stabil.
+    private volatile AppendOnlyList<Slot> slots = new AppendOnlyList<>();
+    // Schützt das Anhängen neuer Plätze gegen das gleichzeitige Neuaufbauen der Liste
+    private final Object slotsLock = new Object();
+    private int nextPosition;
+    // Schlüssel: Kundenname und Event.identifier(); entfernte Buchungen werden auch hier entfernt
+    private final Map<ReservationKey, Slot> slotsByKey = new ConcurrentHashMap<>();
+    // Sekundärindizes über Event.identifier() und Kundenname; ein Eintrag verschwindet mit dem letzten Platz
+    private final Map<UUID, EventSlots> slotsByEvent = new ConcurrentHashMap<>();
+    private final Map<String, Set<Slot>> slotsByCustomer = new ConcurrentHashMap<>();
+    // Index über die ID; wird bei jedem Ersetzen und Entfernen mitgeführt
+    private final Map<UUID, Reservation> reservationsByUuid = new ConcurrentHashMap<>();
+    private final AtomicInteger size = new AtomicInteger();
+    // Ungefähre Zahl leerer Plätze in slots
+    private final AtomicInteger tombstones = new AtomicInteger();
+    // Abgelegte Buchungen verweisen nur auf kanonische Events und Kunden
+    private final InterningRegistry registry;
+
+    public InMemoryReservationStore() {
+        this(new InterningRegistry());
+    }
+
+    // Dieselbe Registry wie EventService und CustomerService, damit Buchungen deren Instanzen mitbenutzen
+    public InMemoryReservationStore(InterningRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public Reservation find(Event event, Customer customer) {
+        Slot slot = slotsByKey.get(ReservationKey.of(event, customer));
+        return slot == null ? null : slot.get();
+    }
+
+    @Override
+    public Reservation findByUuid(UUID uuid) {
+        return reservationsByUuid.get(uuid);
+    }
+
+    @Override
+    public void put(Reservation reservation) {
+        Reservation interned = registry.intern(reservation);
+        slotsByKey.compute(ReservationKey.of(interned.event(), interned.customer()), (_, slot) -> {
+            Slot current = slot;
+            if (current == null) {
+                current = newSlot();
+                index(interned, current);
+            }
+            Reservation previous = current.getAndSet(interned);
+            if (previous == null) {
+                size.incrementAndGet();
+            } else {
+                reservationsByUuid.remove(previous.uuid(), previous);
+            }
+            reservationsByUuid.put(interned.uuid(), interned);
+            return current;
+        });
+    }
+
+    @Override
+    public void remove(Reservation reservation) {
+        boolean[] removed = new boolean[1];
+        slotsByKey.computeIfPresent(ReservationKey.of(reservation.event(), reservation.customer()), (_, slot) -> {
+            Reservation previous = slot.getAndSet(null);
+            unindex(reservation, slot);
+            if (previous != null) {
+                size.decrementAndGet();
+                reservationsByUuid.remove(previous.uuid(), previous);
+                removed[0] = true;
+            }
+            // Ein späteres put desselben Schlüssels bekommt einen neuen Platz am Ende
+            return null;
+        });
+        if (removed[0] && tombstones.incrementAndGet() >= COMPACTION_THRESHOLD) {
+            compactIfSparse();
+        }
+    }
+
+    private Slot newSlot() {
+        synchronized (slotsLock) {
+            Slot slot = new Slot(nextPosition++);
+            slots.add(slot);
+            return slot;
+        }
+    }
+
+    // Aufruf innerhalb von slotsByKey.compute; compute auf den Indizes hält Einfügen und Entfernen je Eintrag atomar
+    private void index(Reservation reservation, Slot slot) {
+        slotsByEvent.compute(reservation.event().identifier(), (_, entry) -> {
+            EventSlots current = entry != null ? entry : new EventSlots(reservation.event(), ConcurrentHashMap.newKeySet());
+            current.slots().add(slot);
+            return current;
+        });
+        slotsByCustomer.compute(reservation.customer().name(), (_, entry) -> {
+            Set<Slot> current = entry != null ? entry : ConcurrentHashMap.newKeySet();
+            current.add(slot);
+            return current;
+        });
+    }
+
+    private void unindex(Reservation reservation, Slot slot) {
+        slotsByEvent.computeIfPresent(reservation.event().identifier(), (_, entry) -> {
+            entry.slots().remove(slot);
+            return entry.slots().isEmpty() ? null : entry;
+        });
+        slotsByCustomer.computeIfPresent(reservation.customer().name(), (_, entry) -> {
+            entry.remove(slot);
+            return entry.isEmpty() ? null : entry;
+        });
+    }
+
+    // Baut die Liste nur aus belegten Plätzen neu auf; Momentaufnahmen und laufende Seiten behalten die alte Liste
+    private void compactIfSparse() {
+        synchronized (slotsLock) {
+            if (tombstones.get() < COMPACTION_THRESHOLD || tombstones.get() <= size.get()) {
+                return;
+            }
+            List<Slot> live = new ArrayList<>(size.get());
+            for (Slot slot : slots.snapshot()) {
+                if (slot.get() != null) {
+                    live.add(slot);
+                }
+            }
+            AppendOnlyList<Slot> compacted = new AppendOnlyList<>();
+            compacted.addAll(live);
+            tombstones.set(0);
+            slots = compacted;
+        }
+    }
+
+    int getSlotCount() {
+        return slots.size();
+    }
+
+    @Override
+    public List<Reservation> findAll() {
+        List<Reservation> reservations = new ArrayList<>(size.get());
+        for (Slot slot : slots.snapshot()) {
+            Reservation reservation = slot.get();
+            if (reservation != null) {
+                reservations.add(reservation);
+            }
+        }
+        return reservations;
+    }
+
+    @Override
+    public Stream<Reservation> stream() {
+        return slots.snapshot().stream().map(Slot::get).filter(Objects::nonNull);
+    }
+
+    @Override
+    public Stream<Reservation> streamByEvent(Event event) {
+        EventSlots entry = slotsByEvent.get(event.identifier());
+        return entry == null ? Stream.empty() : entry.slots().stream().map(Slot::get).filter(Objects::nonNull);
+    }
+
+    @Override
+    public Stream<Reservation> streamByCustomer(Customer customer) {
+        Set<Slot> entry = slotsByCustomer.get(customer.name());
+        return entry == null ? Stream.empty() : entry.stream().map(Slot::get).filter(Objects::nonNull);
+    }
+
+    @Override
+    public Collection<Event> bookedEvents() {
+        return slotsByEvent.values().stream().map(EventSlots::event).toList();
+    }
+
+    // Die Seite kann weniger als limit Buchungen enthalten, wenn sie viele leere Plätze überspringt; next zeigt dann dahinter
+    @Override
+    public Page<Reservation> page(int cursor, int limit) {
+        Page.checkBounds(cursor, limit);
+        List<Slot> current = slots.snapshot();
+        List<Reservation> items = new ArrayList<>(Math.min(limit, current.size()));
+        int index = firstAtOrAfter(current, cursor);
+        int skipped = 0;
+        while (index < current.size() && items.size() < limit && skipped < MAX_SKIPPED_PER_PAGE) {
+            Reservation reservation = current.get(index++).get();
+            if (reservation != null) {
+                items.add(reservation);
+            } else {
+                skipped++;
+            }
+        }
+        return new Page<>(items, index < current.size() ? current.get(index).position : -1);
+    }
+
+    // Positionen sind aufsteigend, auch nach dem Neuaufbau
+    private static int firstAtOrAfter(List<Slot> slots, int position) {
+        int low = 0;
+        int high = slots.size();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (slots.get(middle).position < position) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    @Override
+    public int size() {
+        return size.get();
+    }
+
+    @Override
+    public void clear() {
+        // Nicht unter slotsLock: put hält beim Anlegen eines Platzes zuerst die Sperre der Map
+        slotsByKey.clear();
+        slotsByEvent.clear();
+        slotsByCustomer.clear();
+        reservationsByUuid.clear();
+        synchronized (slotsLock) {
+            slots = new AppendOnlyList<>();
+            nextPosition = 0;
+            size.set(0);
+            tombstones.set(0);
+        }
+    }
+
+    @Override
+    public Map<UUID, Integer> reservedSeatsByEvent() {
+        Map<UUID, Integer> seats = new HashMap<>();
+        stream().forEach(reservation -> seats.merge(reservation.event().identifier(), reservation.reservedSeats(), Integer::sum));
+        return seats;
+    }
+
+    private static final class Slot extends AtomicReference<Reservation> {
+        private static final long serialVersionUID = 1L;
+
+        private final int position;
+
+        private Slot(int position) {
+            this.position = position;
+        }
+    }
+
+    private record EventSlots(Event event, Set<Slot> slots) {
+    }
+
+    private record ReservationKey(String customerName, UUID eventId) {
+        static ReservationKey of(Event event, Customer customer) {
+            return new ReservationKey(customer.name(), event.identifier());
+        }
+    }
+}
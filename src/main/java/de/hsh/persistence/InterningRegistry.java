@@ -0,0 +1,81 @@
+package de.hsh.persistence;
+
+import de.hsh.dto.Customer;
+import de.hsh.dto.Event;
+import de.hsh.dto.Reservation;
+
+import java.util.Date;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Kanonische Instanzen für Events, Kunden und wiederkehrende Strings.
+// Wer Buchungen hält (Speicher, Services), legt sie nur mit den Instanzen aus der Registry ab; gleiche Events und Kunden
+// existieren dann einmal, egal ob sie aus einem Snapshot, dem Journal oder einem Aufruf stammen.
+// Einträge werden nie entfernt: Events und Kunden sind Stammdaten und leben so lange wie der Service.
+public final class InterningRegistry {
+
+    // Schlüssel sind die fachlichen IDs, damit der Hot Path nur UUID bzw. Namen hasht; gleich sind nur identische Werte
+    private final Map<UUID, Event> eventsById = new ConcurrentHashMap<>();
+    private final Map<String, Customer> customersByName = new ConcurrentHashMap<>();
+    private final Map<String, String> strings = new ConcurrentHashMap<>();
+
+    public Event intern(Event event) {
+        if (event == null || event.identifier() == null) {
+            return event;
+        }
+        Event canonical = eventsById.get(event.identifier());
+        if (canonical == null) {
+            // Eigene Kopie des Datums, da java.util.Date veränderlich ist
+            Event copy = new Event(event.identifier(), intern(event.title()), event.date() == null ? null : new Date(event.date().getTime()),
+                    event.price(), event.totalSeats(), intern(event.organizerEmail()));
+            canonical = eventsById.putIfAbsent(event.identifier(), copy);
+            if (canonical == null) {
+                return copy;
+            }
+        }
+        // Ein geändertes Event mit derselben ID bleibt eine eigene Instanz
+        return canonical == event || canonical.equals(event) ? canonical : event;
+    }
+
+    public Customer intern(Customer customer) {
+        if (customer == null) {
+            return null;
+        }
+        Customer canonical = customersByName.get(customer.name());
+        if (canonical == null) {
+            Customer copy = new Customer(customer.name(), intern(customer.address()));
+            canonical = customersByName.putIfAbsent(customer.name(), copy);
+            if (canonical == null) {
+                return copy;
+            }
+        }
+        return canonical == customer || canonical.equals(customer) ? canonical : customer;
+    }
+
+    // Liefert dieselbe Buchung, wenn Event und Kunde bereits kanonisch sind
+    public Reservation intern(Reservation reservation) {
+        Event event = intern(reservation.event());
+        Customer customer = intern(reservation.customer());
+        if (event == reservation.event() && customer == reservation.customer()) {
+            return reservation;
+        }
+        return new Reservation(reservation.uuid(), event, customer, reservation.reservedSeats());
+    }
+
+    public String intern(String value) {
+        if (value == null) {
+            return null;
+        }
+        String canonical = strings.putIfAbsent(value, value);
+        return canonical == null ? value : canonical;
+    }
+
+    public int getEventCount() {
+        return eventsById.size();
+    }
+
+    public int getCustomerCount() {
+        return customersByName.size();
+    }
+}
@@ -0,0 +1,788 @@
+package de.hsh.persistence;
+
+import de.hsh.dto.Customer;
+import de.hsh.dto.Event;
+import de.hsh.dto.Page;
+import de.hsh.dto.Reservation;
+
+import java.io.*;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+// Buchungsspeicher auf Basis speichergemappter Dateien mit Datensätzen fester Breite.
+// Buchungen werden erst beim Zugriff dekodiert; auf dem Heap liegen nur Events, Kunden und die Sitzplatzsummen,
+// nach der ersten Abfrage je Event oder Kunde zusätzlich deren Datensatznummern.
+//
+// Dateien im Verzeichnis:
+//  records.bin     Kopf (Kennung, Version, Anzahl) und Datensätze mit je 32 Byte; entfernte Buchungen tragen ein Flag
+//  index.bin       Hashtabelle (Kunde, Event) -> Datensatznummer mit offener Adressierung
+//  uuids.bin       Hashtabelle ID -> Datensatznummer; die ID selbst steht nur im Datensatz
+//  dictionary.bin  Append-only Liste der referenzierten Events und Kunden
+//  counters.bin    Sitzplatzsummen; nur nach sauberem Schließen vorhanden, sonst wird neu aufgebaut
+public class MappedReservationStore implements ReservationStore, AutoCloseable {
+
+    static final String RECORDS_FILE = "records.bin";
+    static final String INDEX_FILE = "index.bin";
+    static final String UUID_INDEX_FILE = "uuids.bin";
+    static final String DICTIONARY_FILE = "dictionary.bin";
+    static final String COUNTERS_FILE = "counters.bin";
+
+    private static final int MAGIC = 0x48534D52; // "HSMR"
+    private static final short VERSION = 1;
+    private static final int HEADER_SIZE = 16;
+    private static final int COUNT_OFFSET = 8;
+    static final int RECORD_SIZE = 32;
+    private static final int RECORDS_PER_SEGMENT = 1 << 18;
+    private static final int INDEX_SLOT_SIZE = 16;
+    private static final int INITIAL_INDEX_CAPACITY = 1 << 12;
+    private static final int UUID_SLOT_SIZE = 4;
+
+    // Entfernte Datensätze bleiben als Grabstein stehen und werden beim nächsten put desselben Schlüssels wiederverwendet
+    private static final int FLAG_REMOVED = 1;
+
+    private static final byte DICTIONARY_EVENT = 1;
+    private static final byte DICTIONARY_CUSTOMER = 2;
+
+    private final Path directory;
+    private final FileChannel recordChannel;
+    private final MappedByteBuffer header;
+    private final List<MappedByteBuffer> segments = new ArrayList<>();
+    private FileChannel indexChannel;
+    private MappedByteBuffer index;
+    private int indexCapacity;
+    private FileChannel uuidIndexChannel;
+    private MappedByteBuffer uuidIndex;
+    private int uuidIndexCapacity;
+    // Belegte Slots im ID-Index, einschließlich veralteter Einträge nach einem Wechsel der ID
+    private int uuidSlots;
+    private final DataOutputStream dictionaryOut;
+
+    private final List<Event> events = new ArrayList<>();
+    private final Map<UUID, Integer> eventRefs = new HashMap<>();
+    private final List<Customer> customers = new ArrayList<>();
+    private final Map<String, Integer> customerRefs = new HashMap<>();
+    private final Map<UUID, Integer> seatsByEvent = new HashMap<>();
+    // Datensatznummern je Event- bzw. Kundenreferenz, einschließlich entfernter Datensätze. Erst beim ersten
+    // streamByEvent oder streamByCustomer aufgebaut, damit das Öffnen nicht alle Datensätze durchläuft.
+    private final List<RecordList> recordsByEvent = new ArrayList<>();
+    private final List<RecordList> recordsByCustomer = new ArrayList<>();
+    private volatile boolean recordsIndexed;
+    // Das Wörterbuch hält Events und Kunden bereits einmal je Datei; die Registry teilt sie zusätzlich mit den Services
+    private final InterningRegistry registry;
+    private int size;
+    private int removed;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private MappedReservationStore(Path directory, InterningRegistry registry) throws IOException {
+        this.directory = directory;
+        this.registry = registry;
+        Files.createDirectories(directory);
+
+        readDictionary();
+        this.dictionaryOut = new DataOutputStream(new BufferedOutputStream(
+                Files.newOutputStream(directory.resolve(DICTIONARY_FILE), StandardOpenOption.CREATE, StandardOpenOption.APPEND)));
+
+        this.recordChannel = FileChannel.open(directory.resolve(RECORDS_FILE), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        boolean created = recordChannel.size() == 0;
+        this.header = recordChannel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE);
+        if (created) {
+            header.putInt(0, MAGIC);
+            header.putShort(4, VERSION);
+            header.putLong(COUNT_OFFSET, 0);
+        } else if (header.getInt(0) != MAGIC || header.getShort(4) != VERSION) {
+            throw new IOException("Keine gültige Buchungsdatei: " + directory.resolve(RECORDS_FILE));
+        }
+        this.size = (int) header.getLong(COUNT_OFFSET);
+        ensureSegments(size);
+
+        if (!loadCounters()) {
+            rebuildIndexAndCounters();
+        }
+        // Bis zum sauberen Schließen gelten die Zähler als veraltet
+        Files.deleteIfExists(directory.resolve(COUNTERS_FILE));
+    }
+
+    public static MappedReservationStore open(Path directory) throws IOException {
+        return open(directory, new InterningRegistry());
+    }
+
+    public static MappedReservationStore open(Path directory, InterningRegistry registry) throws IOException {
+        return new MappedReservationStore(directory, registry);
+    }
+
+    @Override
+    public Reservation find(Event event, Customer customer) {
+        lock.readLock().lock();
+        try {
+            Integer eventRef = eventRefs.get(event.identifier());
+            Integer customerRef = customerRefs.get(customer.name());
+            if (eventRef == null || customerRef == null) {
+                return null;
+            }
+            int record = findRecord(key(customerRef, eventRef));
+            return record < 0 || isRemoved(record) ? null : decode(record);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Reservation findByUuid(UUID uuid) {
+        lock.readLock().lock();
+        try {
+            int record = findRecordByUuid(uuid);
+            return record < 0 ? null : decode(record);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void put(Reservation reservation) {
+        lock.writeLock().lock();
+        try {
+            int eventRef = eventRef(reservation.event());
+            int customerRef = customerRef(reservation.customer());
+            long key = key(customerRef, eventRef);
+            int record = findRecord(key);
+
+            int seatDelta = reservation.reservedSeats();
+            boolean uuidChanged = true;
+            if (record >= 0) {
+                // Feste Breite: die Buchung wird an Ort und Stelle ersetzt
+                if (isRemoved(record)) {
+                    removed--;
+                } else {
+                    seatDelta -= seatsOf(record);
+                }
+                uuidChanged = !uuidOf(record).equals(reservation.uuid());
+            } else {
+                record = size;
+                ensureSegments(size + 1);
+                insertIndex(key, record);
+                if (recordsIndexed) {
+                    addRecord(eventRef, customerRef, record);
+                }
+            }
+            encode(record, reservation, eventRef, customerRef);
+            if (record == size) {
+                size++;
+                header.putLong(COUNT_OFFSET, size);
+            }
+            if (uuidChanged) {
+                insertUuidIndex(reservation.uuid(), record);
+            }
+            seatsByEvent.merge(reservation.event().identifier(), seatDelta, Integer::sum);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Buchung konnte nicht gespeichert werden", e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(Reservation reservation) {
+        lock.writeLock().lock();
+        try {
+            Integer eventRef = eventRefs.get(reservation.event().identifier());
+            Integer customerRef = customerRefs.get(reservation.customer().name());
+            if (eventRef == null || customerRef == null) {
+                return;
+            }
+            int record = findRecord(key(customerRef, eventRef));
+            if (record < 0 || isRemoved(record)) {
+                return;
+            }
+            // Schlüssel- und ID-Index zeigen weiter auf den Datensatz; das Flag blendet ihn aus
+            int seats = seatsOf(record);
+            recordAt(record).putInt(offsetOf(record) + 28, FLAG_REMOVED);
+            removed++;
+            seatsByEvent.merge(reservation.event().identifier(), -seats, (total, released) -> total + released == 0 ? null : total + released);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Dekodiert die Buchung mit der angegebenen Datensatznummer; null, wenn sie entfernt wurde
+    public Reservation get(int record) {
+        lock.readLock().lock();
+        try {
+            if (record < 0 || record >= size) {
+                throw new IndexOutOfBoundsException("Datensatz " + record + " existiert nicht");
+            }
+            return isRemoved(record) ? null : decode(record);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Reservation> findAll() {
+        lock.readLock().lock();
+        try {
+            List<Reservation> reservations = new ArrayList<>(size - removed);
+            for (int record = 0; record < size; record++) {
+                if (!isRemoved(record)) {
+                    reservations.add(decode(record));
+                }
+            }
+            return reservations;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Jeder Datensatz wird erst beim Verbrauch und unter der Lesesperre dekodiert
+    @Override
+    public Stream<Reservation> stream() {
+        int records;
+        lock.readLock().lock();
+        try {
+            records = size;
+        } finally {
+            lock.readLock().unlock();
+        }
+        return IntStream.range(0, records).mapToObj(this::decodeIfPresent).filter(Objects::nonNull);
+    }
+
+    @Override
+    public Stream<Reservation> streamByEvent(Event event) {
+        UUID identifier = event.identifier();
+        int[] records;
+        indexRecordsOnce();
+        lock.readLock().lock();
+        try {
+            Integer ref = eventRefs.get(identifier);
+            records = ref == null ? new int[0] : recordsByEvent.get(ref).toArray();
+        } finally {
+            lock.readLock().unlock();
+        }
+        // Nach clear() können die Nummern schon zu anderen Buchungen gehören
+        return IntStream.of(records).mapToObj(this::decodeIfPresent)
+                .filter(reservation -> reservation != null && reservation.event().identifier().equals(identifier));
+    }
+
+    @Override
+    public Stream<Reservation> streamByCustomer(Customer customer) {
+        String name = customer.name();
+        int[] records;
+        indexRecordsOnce();
+        lock.readLock().lock();
+        try {
+            Integer ref = customerRefs.get(name);
+            records = ref == null ? new int[0] : recordsByCustomer.get(ref).toArray();
+        } finally {
+            lock.readLock().unlock();
+        }
+        return IntStream.of(records).mapToObj(this::decodeIfPresent)
+                .filter(reservation -> reservation != null && reservation.customer().name().equals(name));
+    }
+
+    // Jede Buchung hat mindestens einen Platz, die Sitzplatzsummen enthalten also genau die gebuchten Events
+    @Override
+    public Collection<Event> bookedEvents() {
+        lock.readLock().lock();
+        try {
+            List<Event> booked = new ArrayList<>(seatsByEvent.size());
+            for (UUID identifier : seatsByEvent.keySet()) {
+                booked.add(events.get(eventRefs.get(identifier)));
+            }
+            return booked;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Die Position ist die Datensatznummer; Datensätze werden nie verschoben
+    @Override
+    public Page<Reservation> page(int cursor, int limit) {
+        Page.checkBounds(cursor, limit);
+        lock.readLock().lock();
+        try {
+            List<Reservation> items = new ArrayList<>(Math.min(limit, Math.max(size - cursor, 0)));
+            int record = cursor;
+            while (record < size && items.size() < limit) {
+                if (!isRemoved(record)) {
+                    items.add(decode(record));
+                }
+                record++;
+            }
+            return new Page<>(items, record < size ? record : -1);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Reservation decodeIfPresent(int record) {
+        lock.readLock().lock();
+        try {
+            // Nach clear() können weniger Datensätze vorhanden sein als beim Start des Durchlaufs
+            return record >= size || isRemoved(record) ? null : decode(record);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size - removed;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            size = 0;
+            removed = 0;
+            header.putLong(COUNT_OFFSET, 0);
+            seatsByEvent.clear();
+            recordsByEvent.clear();
+            recordsByCustomer.clear();
+            createIndex(INITIAL_INDEX_CAPACITY);
+            createUuidIndex(INITIAL_INDEX_CAPACITY);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Buchungsspeicher konnte nicht geleert werden", e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Map<UUID, Integer> reservedSeatsByEvent() {
+        lock.readLock().lock();
+        try {
+            return new HashMap<>(seatsByEvent);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Schreibt alle gemappten Seiten und das Wörterbuch auf den Datenträger
+    public void flush() throws IOException {
+        lock.writeLock().lock();
+        try {
+            dictionaryOut.flush();
+            header.force();
+            for (MappedByteBuffer segment : segments) {
+                segment.force();
+            }
+            index.force();
+            uuidIndex.force();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.writeLock().lock();
+        try {
+            flush();
+            writeCounters();
+            dictionaryOut.close();
+            indexChannel.close();
+            uuidIndexChannel.close();
+            recordChannel.close();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void encode(int record, Reservation reservation, int eventRef, int customerRef) {
+        MappedByteBuffer segment = segments.get(record / RECORDS_PER_SEGMENT);
+        int offset = (record % RECORDS_PER_SEGMENT) * RECORD_SIZE;
+        segment.putLong(offset, reservation.uuid().getMostSignificantBits());
+        segment.putLong(offset + 8, reservation.uuid().getLeastSignificantBits());
+        segment.putInt(offset + 16, eventRef);
+        segment.putInt(offset + 20, customerRef);
+        segment.putInt(offset + 24, reservation.reservedSeats());
+        segment.putInt(offset + 28, 0);
+    }
+
+    private Reservation decode(int record) {
+        MappedByteBuffer segment = segments.get(record / RECORDS_PER_SEGMENT);
+        int offset = (record % RECORDS_PER_SEGMENT) * RECORD_SIZE;
+        UUID uuid = new UUID(segment.getLong(offset), segment.getLong(offset + 8));
+        Event event = events.get(segment.getInt(offset + 16));
+        Customer customer = customers.get(segment.getInt(offset + 20));
+        return new Reservation(uuid, event, customer, segment.getInt(offset + 24));
+    }
+
+    private int seatsOf(int record) {
+        return recordAt(record).getInt(offsetOf(record) + 24);
+    }
+
+    private UUID uuidOf(int record) {
+        MappedByteBuffer segment = recordAt(record);
+        int offset = offsetOf(record);
+        return new UUID(segment.getLong(offset), segment.getLong(offset + 8));
+    }
+
+    private boolean isRemoved(int record) {
+        return (recordAt(record).getInt(offsetOf(record) + 28) & FLAG_REMOVED) != 0;
+    }
+
+    private MappedByteBuffer recordAt(int record) {
+        return segments.get(record / RECORDS_PER_SEGMENT);
+    }
+
+    private static int offsetOf(int record) {
+        return (record % RECORDS_PER_SEGMENT) * RECORD_SIZE;
+    }
+
+    private long keyOf(int record) {
+        MappedByteBuffer segment = segments.get(record / RECORDS_PER_SEGMENT);
+        int offset = (record % RECORDS_PER_SEGMENT) * RECORD_SIZE;
+        return key(segment.getInt(offset + 20), segment.getInt(offset + 16));
+    }
+
+    private void ensureSegments(int records) throws IOException {
+        while ((long) segments.size() * RECORDS_PER_SEGMENT < records) {
+            long position = HEADER_SIZE + (long) segments.size() * RECORDS_PER_SEGMENT * RECORD_SIZE;
+            segments.add(recordChannel.map(FileChannel.MapMode.READ_WRITE, position, (long) RECORDS_PER_SEGMENT * RECORD_SIZE));
+        }
+    }
+
+    private int eventRef(Event event) throws IOException {
+        Integer ref = eventRefs.get(event.identifier());
+        if (ref == null) {
+            dictionaryOut.writeByte(DICTIONARY_EVENT);
+            BinarySnapshot.writeEvent(dictionaryOut, event);
+            // Das Wörterbuch muss vor dem Datensatz geschrieben sein, der darauf verweist
+            dictionaryOut.flush();
+            ref = events.size();
+            events.add(registry.intern(event));
+            eventRefs.put(event.identifier(), ref);
+        }
+        return ref;
+    }
+
+    private int customerRef(Customer customer) throws IOException {
+        Integer ref = customerRefs.get(customer.name());
+        if (ref == null) {
+            dictionaryOut.writeByte(DICTIONARY_CUSTOMER);
+            BinarySnapshot.writeCustomer(dictionaryOut, customer);
+            dictionaryOut.flush();
+            ref = customers.size();
+            customers.add(registry.intern(customer));
+            customerRefs.put(customer.name(), ref);
+        }
+        return ref;
+    }
+
+    private void readDictionary() throws IOException {
+        Path file = directory.resolve(DICTIONARY_FILE);
+        if (!Files.exists(file)) {
+            return;
+        }
+        byte[] bytes = Files.readAllBytes(file);
+        ByteArrayInputStream buffer = new ByteArrayInputStream(bytes);
+        DataInputStream in = new DataInputStream(buffer);
+        int validLength = 0;
+        try {
+            while (buffer.available() > 0) {
+                byte type = in.readByte();
+                if (type == DICTIONARY_EVENT) {
+                    Event event = registry.intern(BinarySnapshot.readEvent(in));
+                    eventRefs.putIfAbsent(event.identifier(), events.size());
+                    events.add(event);
+                } else if (type == DICTIONARY_CUSTOMER) {
+                    Customer customer = registry.intern(BinarySnapshot.readCustomer(in));
+                    customerRefs.putIfAbsent(customer.name(), customers.size());
+                    customers.add(customer);
+                } else {
+                    break;
+                }
+                validLength = bytes.length - buffer.available();
+            }
+        } catch (EOFException e) {
+            // Abgerissener letzter Eintrag
+        }
+        if (validLength < bytes.length) {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                channel.truncate(validLength);
+            }
+        }
+    }
+
+    private boolean loadCounters() throws IOException {
+        Path countersFile = directory.resolve(COUNTERS_FILE);
+        if (!Files.exists(countersFile) || !Files.exists(directory.resolve(INDEX_FILE)) || !Files.exists(directory.resolve(UUID_INDEX_FILE))) {
+            return false;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(countersFile)))) {
+            if (in.readInt() != size) {
+                return false;
+            }
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                seatsByEvent.put(new UUID(in.readLong(), in.readLong()), in.readInt());
+            }
+            removed = in.readInt();
+            uuidSlots = in.readInt();
+        } catch (EOFException e) {
+            // Auch Zählerdateien älterer Versionen ohne Grabsteine und ID-Index landen hier
+            removed = 0;
+            seatsByEvent.clear();
+            return false;
+        }
+        openIndex();
+        openUuidIndex();
+        return true;
+    }
+
+    private void writeCounters() throws IOException {
+        Path temporary = directory.resolve(COUNTERS_FILE + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+            out.writeInt(size);
+            out.writeInt(seatsByEvent.size());
+            for (Map.Entry<UUID, Integer> entry : seatsByEvent.entrySet()) {
+                out.writeLong(entry.getKey().getMostSignificantBits());
+                out.writeLong(entry.getKey().getLeastSignificantBits());
+                out.writeInt(entry.getValue());
+            }
+            out.writeInt(removed);
+            out.writeInt(uuidSlots);
+        }
+        Files.move(temporary, directory.resolve(COUNTERS_FILE), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // Nach einem Absturz: Sitzplatzsummen und beide Indizes aus den Datensätzen neu aufbauen
+    private void rebuildIndexAndCounters() throws IOException {
+        seatsByEvent.clear();
+        removed = 0;
+        int capacity = INITIAL_INDEX_CAPACITY;
+        while (size > capacity * 0.6) {
+            capacity <<= 1;
+        }
+        createIndex(capacity);
+        for (int record = 0; record < size; record++) {
+            MappedByteBuffer segment = segments.get(record / RECORDS_PER_SEGMENT);
+            int offset = (record % RECORDS_PER_SEGMENT) * RECORD_SIZE;
+            int eventRef = segment.getInt(offset + 16);
+            int customerRef = segment.getInt(offset + 20);
+            if (eventRef < 0 || eventRef >= events.size() || customerRef < 0 || customerRef >= customers.size()) {
+                // Datensatz ohne Wörterbucheintrag: alles ab hier verwerfen
+                size = record;
+                header.putLong(COUNT_OFFSET, size);
+                break;
+            }
+            putIndexSlot(key(customerRef, eventRef), record);
+            if (isRemoved(record)) {
+                removed++;
+            } else {
+                seatsByEvent.merge(events.get(eventRef).identifier(), segment.getInt(offset + 24), Integer::sum);
+            }
+        }
+        rebuildUuidIndex();
+    }
+
+    boolean isRecordsIndexed() {
+        return recordsIndexed;
+    }
+
+    private void indexRecordsOnce() {
+        if (recordsIndexed) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (!recordsIndexed) {
+                indexRecords();
+                recordsIndexed = true;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void indexRecords() {
+        for (int record = 0; record < size; record++) {
+            MappedByteBuffer segment = segments.get(record / RECORDS_PER_SEGMENT);
+            int offset = (record % RECORDS_PER_SEGMENT) * RECORD_SIZE;
+            addRecord(segment.getInt(offset + 16), segment.getInt(offset + 20), record);
+        }
+    }
+
+    private void addRecord(int eventRef, int customerRef, int record) {
+        recordList(recordsByEvent, eventRef).add(record);
+        recordList(recordsByCustomer, customerRef).add(record);
+    }
+
+    private static RecordList recordList(List<RecordList> lists, int ref) {
+        while (lists.size() <= ref) {
+            lists.add(new RecordList());
+        }
+        return lists.get(ref);
+    }
+
+    private void openIndex() throws IOException {
+        indexChannel = FileChannel.open(directory.resolve(INDEX_FILE), StandardOpenOption.READ, StandardOpenOption.WRITE);
+        indexCapacity = (int) (indexChannel.size() / INDEX_SLOT_SIZE);
+        index = indexChannel.map(FileChannel.MapMode.READ_WRITE, 0, (long) indexCapacity * INDEX_SLOT_SIZE);
+    }
+
+    private void createIndex(int capacity) throws IOException {
+        if (indexChannel != null) {
+            indexChannel.close();
+        }
+        Path indexFile = directory.resolve(INDEX_FILE);
+        Files.deleteIfExists(indexFile);
+        indexChannel = FileChannel.open(indexFile, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        indexCapacity = capacity;
+        index = indexChannel.map(FileChannel.MapMode.READ_WRITE, 0, (long) capacity * INDEX_SLOT_SIZE);
+    }
+
+    private void openUuidIndex() throws IOException {
+        uuidIndexChannel = FileChannel.open(directory.resolve(UUID_INDEX_FILE), StandardOpenOption.READ, StandardOpenOption.WRITE);
+        uuidIndexCapacity = (int) (uuidIndexChannel.size() / UUID_SLOT_SIZE);
+        uuidIndex = uuidIndexChannel.map(FileChannel.MapMode.READ_WRITE, 0, (long) uuidIndexCapacity * UUID_SLOT_SIZE);
+    }
+
+    private void createUuidIndex(int capacity) throws IOException {
+        if (uuidIndexChannel != null) {
+            uuidIndexChannel.close();
+        }
+        Path indexFile = directory.resolve(UUID_INDEX_FILE);
+        Files.deleteIfExists(indexFile);
+        uuidIndexChannel = FileChannel.open(indexFile, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        uuidIndexCapacity = capacity;
+        uuidIndex = uuidIndexChannel.map(FileChannel.MapMode.READ_WRITE, 0, (long) capacity * UUID_SLOT_SIZE);
+        uuidSlots = 0;
+    }
+
+    // Baut den ID-Index aus den lebenden Datensätzen neu auf und verwirft dabei veraltete Slots
+    private void rebuildUuidIndex() throws IOException {
+        // Halb so voll wie erlaubt, damit nicht jeder Wechsel der ID sofort den nächsten Neuaufbau auslöst
+        int capacity = INITIAL_INDEX_CAPACITY;
+        while ((size - removed + 1) * 2 > capacity * 0.6) {
+            capacity <<= 1;
+        }
+        createUuidIndex(capacity);
+        for (int record = 0; record < size; record++) {
+            if (!isRemoved(record)) {
+                putUuidSlot(uuidOf(record), record);
+            }
+        }
+    }
+
+    // Slots enthalten nur die Datensatznummer; verglichen wird mit der ID im Datensatz
+    private int findRecordByUuid(UUID uuid) {
+        int mask = uuidIndexCapacity - 1;
+        for (int slot = hash(uuid) & mask; ; slot = (slot + 1) & mask) {
+            int record = uuidIndex.getInt(slot * UUID_SLOT_SIZE) - 1;
+            if (record < 0) {
+                return -1;
+            }
+            if (!isRemoved(record) && uuidOf(record).equals(uuid)) {
+                return record;
+            }
+        }
+    }
+
+    private void insertUuidIndex(UUID uuid, int record) throws IOException {
+        if (uuidSlots + 1 > uuidIndexCapacity * 0.6) {
+            // Der Datensatz ist bereits geschrieben und wird beim Neuaufbau mit erfasst
+            rebuildUuidIndex();
+            return;
+        }
+        putUuidSlot(uuid, record);
+    }
+
+    private void putUuidSlot(UUID uuid, int record) {
+        int mask = uuidIndexCapacity - 1;
+        int slot = hash(uuid) & mask;
+        while (uuidIndex.getInt(slot * UUID_SLOT_SIZE) != 0) {
+            slot = (slot + 1) & mask;
+        }
+        uuidIndex.putInt(slot * UUID_SLOT_SIZE, record + 1);
+        uuidSlots++;
+    }
+
+    private int findRecord(long key) {
+        int mask = indexCapacity - 1;
+        for (int slot = hash(key) & mask; ; slot = (slot + 1) & mask) {
+            int position = slot * INDEX_SLOT_SIZE;
+            int record = index.getInt(position + 8) - 1;
+            if (record < 0) {
+                return -1;
+            }
+            if (index.getLong(position) == key) {
+                return record;
+            }
+        }
+    }
+
+    private void insertIndex(long key, int record) throws IOException {
+        if (size + 1 > indexCapacity * 0.6) {
+            // Tabelle verdoppeln; die Schlüssel stehen in den Datensätzen
+            createIndex(indexCapacity << 1);
+            for (int existing = 0; existing < size; existing++) {
+                putIndexSlot(keyOf(existing), existing);
+            }
+        }
+        putIndexSlot(key, record);
+    }
+
+    private void putIndexSlot(long key, int record) {
+        int mask = indexCapacity - 1;
+        int slot = hash(key) & mask;
+        while (index.getInt(slot * INDEX_SLOT_SIZE + 8) != 0) {
+            slot = (slot + 1) & mask;
+        }
+        index.putLong(slot * INDEX_SLOT_SIZE, key);
+        index.putInt(slot * INDEX_SLOT_SIZE + 8, record + 1);
+    }
+
+    private static long key(int customerRef, int eventRef) {
+        return ((long) customerRef << 32) | (eventRef & 0xFFFFFFFFL);
+    }
+
+    private static int hash(UUID uuid) {
+        return hash(uuid.getMostSignificantBits() ^ uuid.getLeastSignificantBits());
+    }
+
+    private static int hash(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        return (int) key;
+    }
+
+    private static final class RecordList {
+        private int[] records = new int[4];
+        private int size;
+
+        void add(int record) {
+            if (size == records.length) {
+                records = Arrays.copyOf(records, size * 2);
+            }
+            records[size++] = record;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(records, size);
+        }
+    }
+}
@@ -0,0 +1,229 @@
+package de.hsh.persistence;
+
+import de.hsh.dto.Customer;
+import de.hsh.dto.Event;
+import de.hsh.dto.Reservation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+// Spaltenweise Kopie der Buchungen für Auswertungen: je Zeile ein Event-Handle, ein Kunden-Handle und die Plätze als int.
+// Handles sind Positionen in den Wörterbüchern für Events und Kunden; Abfragen laufen als Schleifen über int-Arrays
+// und erzeugen keine Objekte je Zeile. Nicht threadsicher: erst befüllen, dann auswerten; freeze() sperrt weitere Zeilen,
+// bevor die Instanz an andere weitergegeben wird.
+public final class ReservationColumns {
+
+    // Ab dieser Zeilenzahl werden Abfragen in Blöcken parallel ausgewertet
+    private static final int PARALLEL_BLOCK = 1 << 20;
+
+    private int[] eventColumn;
+    private int[] customerColumn;
+    private int[] seatColumn;
+    private int size;
+    private boolean frozen;
+
+    private final List<Event> events = new ArrayList<>();
+    private final Map<UUID, Integer> eventHandles = new HashMap<>();
+    private final List<String> customers = new ArrayList<>();
+    private final Map<String, Integer> customerHandles = new HashMap<>();
+
+    public ReservationColumns() {
+        this(1024);
+    }
+
+    public ReservationColumns(int expectedRows) {
+        if (expectedRows < 0) throw new IllegalArgumentException("Die erwartete Anzahl darf nicht negativ sein");
+
+        eventColumn = new int[expectedRows];
+        customerColumn = new int[expectedRows];
+        seatColumn = new int[expectedRows];
+    }
+
+    public static ReservationColumns of(Stream<Reservation> reservations) {
+        ReservationColumns columns = new ReservationColumns();
+        reservations.forEachOrdered(columns::add);
+        return columns;
+    }
+
+    public void add(Reservation reservation) {
+        add(reservation.event(), reservation.customer(), reservation.reservedSeats());
+    }
+
+    public void add(Event event, Customer customer, int seats) {
+        if (frozen) throw new UnsupportedOperationException("Die Spalten sind schreibgeschützt");
+        if (size == seatColumn.length) {
+            int capacity = Math.max(16, seatColumn.length + (seatColumn.length >> 1));
+            eventColumn = Arrays.copyOf(eventColumn, capacity);
+            customerColumn = Arrays.copyOf(customerColumn, capacity);
+            seatColumn = Arrays.copyOf(seatColumn, capacity);
+        }
+        eventColumn[size] = eventHandle(event);
+        customerColumn[size] = customerHandle(customer);
+        seatColumn[size] = seats;
+        size++;
+    }
+
+    // Danach wirft add eine UnsupportedOperationException; Abfragen bleiben möglich
+    public ReservationColumns freeze() {
+        frozen = true;
+        return this;
+    }
+
+    public boolean isFrozen() {
+        return frozen;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int getEventCount() {
+        return events.size();
+    }
+
+    public int getCustomerCount() {
+        return customers.size();
+    }
+
+    public long totalSeats() {
+        return rows().mapToLong(block -> {
+            long sum = 0;
+            for (int row = start(block); row < end(block); row++) {
+                sum += seatColumn[row];
+            }
+            return sum;
+        }).sum();
+    }
+
+    public Map<UUID, Long> seatsByEvent() {
+        long[] seats = sumBy(eventColumn, events.size());
+        Map<UUID, Long> result = new HashMap<>();
+        for (int handle = 0; handle < seats.length; handle++) {
+            result.put(events.get(handle).identifier(), seats[handle]);
+        }
+        return result;
+    }
+
+    public Map<String, Long> seatsByCustomer() {
+        long[] seats = sumBy(customerColumn, customers.size());
+        Map<String, Long> result = new HashMap<>();
+        for (int handle = 0; handle < seats.length; handle++) {
+            result.put(customers.get(handle), seats[handle]);
+        }
+        return result;
+    }
+
+    // Kunden mit den meisten Plätzen, absteigend sortiert
+    public Map<String, Long> topCustomers(int limit) {
+        if (limit <= 0) throw new IllegalArgumentException("Die Anzahl muss größer als null sein");
+
+        long[] seats = sumBy(customerColumn, customers.size());
+        Map<String, Long> result = new LinkedHashMap<>();
+        IntStream.range(0, seats.length)
+                .boxed()
+                .sorted(Comparator.comparingLong((Integer handle) -> seats[handle]).reversed())
+                .limit(limit)
+                .forEach(handle -> result.put(customers.get(handle), seats[handle]));
+        return result;
+    }
+
+    // Umsatz je Event: Summe der Plätze mal Event.price()
+    public Map<UUID, Double> revenueByEvent() {
+        long[] seats = sumBy(eventColumn, events.size());
+        Map<UUID, Double> result = new HashMap<>();
+        for (int handle = 0; handle < seats.length; handle++) {
+            Event event = events.get(handle);
+            result.put(event.identifier(), seats[handle] * event.price());
+        }
+        return result;
+    }
+
+    public double revenue() {
+        long[] seats = sumBy(eventColumn, events.size());
+        double revenue = 0;
+        for (int handle = 0; handle < seats.length; handle++) {
+            revenue += seats[handle] * events.get(handle).price();
+        }
+        return revenue;
+    }
+
+    // Plätze für Events mit from <= Datum < to
+    public long seatsBetween(Date from, Date to) {
+        long start = from.getTime();
+        long end = to.getTime();
+        long[] seats = sumBy(eventColumn, events.size());
+        long sum = 0;
+        for (int handle = 0; handle < seats.length; handle++) {
+            Date date = events.get(handle).date();
+            if (date != null && date.getTime() >= start && date.getTime() < end) {
+                sum += seats[handle];
+            }
+        }
+        return sum;
+    }
+
+    // Ein Durchlauf über die Zeilen; jeder beteiligte Thread summiert in ein eigenes Array, das er für alle seine Blöcke
+    // wiederverwendet. Danach werden die Teilsummen addiert; es entstehen höchstens so viele Arrays wie Threads.
+    private long[] sumBy(int[] handleColumn, int handles) {
+        Map<Thread, long[]> partials = new ConcurrentHashMap<>();
+        rows().forEach(block -> {
+            long[] sums = partials.computeIfAbsent(Thread.currentThread(), _ -> new long[handles]);
+            for (int row = start(block); row < end(block); row++) {
+                sums[handleColumn[row]] += seatColumn[row];
+            }
+        });
+        return partials.values().stream().reduce(ReservationColumns::addInto).orElseGet(() -> new long[handles]);
+    }
+
+    private static long[] addInto(long[] target, long[] source) {
+        for (int i = 0; i < target.length; i++) {
+            target[i] += source[i];
+        }
+        return target;
+    }
+
+    private IntStream rows() {
+        int blocks = (size + PARALLEL_BLOCK - 1) / PARALLEL_BLOCK;
+        IntStream range = IntStream.range(0, blocks);
+        return blocks > 1 ? range.parallel() : range;
+    }
+
+    private static int start(int block) {
+        return block * PARALLEL_BLOCK;
+    }
+
+    private int end(int block) {
+        return (int) Math.min((long) (block + 1) * PARALLEL_BLOCK, size);
+    }
+
+    // Das erste Event mit einer ID bestimmt Preis und Datum
+    private int eventHandle(Event event) {
+        Integer handle = eventHandles.get(event.identifier());
+        if (handle == null) {
+            handle = events.size();
+            events.add(event);
+            eventHandles.put(event.identifier(), handle);
+        }
+        return handle;
+    }
+
+    private int customerHandle(Customer customer) {
+        Integer handle = customerHandles.get(customer.name());
+        if (handle == null) {
+            handle = customers.size();
+            customers.add(customer.name());
+            customerHandles.put(customer.name(), handle);
+        }
+        return handle;
+    }
+}
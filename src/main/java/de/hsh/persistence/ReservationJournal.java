@@ -0,0 +1,442 @@
+package de.hsh.persistence;
+
+import de.hsh.dto.Customer;
+import de.hsh.dto.Event;
+import de.hsh.dto.Reservation;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+// Append-only Journal für Buchungen mit Snapshot und Wiederherstellung.
+// Jeder Eintrag ist als [Länge][CRC32][Nutzdaten] gerahmt; ein abgerissenes Ende wird beim Einlesen verworfen.
+// Snapshot und Journal tragen eine Generation: Ein Journal, dessen Generation kleiner ist als die des Snapshots,
+// ist bereits im Snapshot enthalten (Absturz zwischen Umbenennen und Leeren) und wird nicht nachgespielt.
+public class ReservationJournal implements AutoCloseable {
+
+    public enum SyncPolicy {
+        // Jede Buchung ist bei der Rückkehr dauerhaft; gleichzeitige Buchungen teilen sich ein fsync
+        GROUP_COMMIT,
+        // Ein Hintergrund-Thread ruft fsync im eingestellten Intervall auf
+        PERIODIC,
+        // Das Betriebssystem entscheidet, wann geschrieben wird
+        NONE
+    }
+
+    static final String SNAPSHOT_FILE = "reservations.snapshot";
+    static final String JOURNAL_FILE = "reservations.journal";
+
+    private static final byte RECORD_EVENT = 1;
+    private static final byte RECORD_CUSTOMER = 2;
+    private static final byte RECORD_BOOKING = 3;
+    // Freigegebene Plätze einer Buchung; eine Stornierung gibt alle Plätze frei
+    private static final byte RECORD_RELEASE = 4;
+    // Erster Eintrag eines nicht leeren Journals; Journale ohne diesen Eintrag haben Generation 0
+    private static final byte RECORD_GENERATION = 5;
+    private static final int SNAPSHOT_STAMP = 0x48534847; // "HSHG"
+
+    private final Path directory;
+    private final Path snapshotFile;
+    private final Path journalFile;
+    private final SyncPolicy syncPolicy;
+    private final int checkpointThreshold;
+    private final FileChannel channel;
+    private final Thread periodicSync;
+
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final ReentrantLock syncLock = new ReentrantLock();
+    // Geschützt durch writeLock: Referenzen auf bereits ins Journal geschriebene Events und Kunden
+    private final Map<Event, Integer> eventRefs = new HashMap<>();
+    private final Map<Customer, Integer> customerRefs = new HashMap<>();
+    private int eventDefinitions;
+    private int customerDefinitions;
+    private long appendedSequence;
+    private int recordsSinceCheckpoint;
+    private long generation;
+    private volatile long durableSequence;
+    private volatile boolean closed;
+    // Fehler des periodischen fsync; danach schlagen append und awaitDurable fehl
+    private volatile IOException syncFailure;
+
+    private ReservationJournal(Path directory, SyncPolicy syncPolicy, Duration syncInterval, int checkpointThreshold) throws IOException {
+        Files.createDirectories(directory);
+        this.directory = directory;
+        this.snapshotFile = directory.resolve(SNAPSHOT_FILE);
+        this.journalFile = directory.resolve(JOURNAL_FILE);
+        this.syncPolicy = syncPolicy;
+        this.checkpointThreshold = checkpointThreshold;
+        this.channel = FileChannel.open(journalFile, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.periodicSync = syncPolicy == SyncPolicy.PERIODIC
+                ? Thread.ofVirtual().name("reservation-journal-sync").start(() -> syncPeriodically(syncInterval))
+                : null;
+    }
+
+    public static ReservationJournal open(Path directory, SyncPolicy syncPolicy, int checkpointThreshold) throws IOException {
+        return open(directory, syncPolicy, Duration.ofMillis(100), checkpointThreshold);
+    }
+
+    public static ReservationJournal open(Path directory, SyncPolicy syncPolicy, Duration syncInterval, int checkpointThreshold) throws IOException {
+        if (checkpointThreshold <= 0) throw new IllegalArgumentException("Der Schwellwert muss größer als null sein");
+        return new ReservationJournal(directory, syncPolicy, syncInterval, checkpointThreshold);
+    }
+
+    // Für Journale ohne Freigaben; eine Freigabe beim Nachspielen gilt als ungültiger Eintrag
+    public void recover(Consumer<Reservation> snapshotConsumer, Consumer<Reservation> journalConsumer) throws IOException {
+        recover(snapshotConsumer, journalConsumer, null);
+    }
+
+    // Lädt den letzten Snapshot und übergibt danach alle vollständigen Journaleinträge in Schreibreihenfolge.
+    // releaseConsumer erhält Freigaben als Buchung mit der Anzahl der freigegebenen Plätze.
+    public void recover(Consumer<Reservation> snapshotConsumer, Consumer<Reservation> journalConsumer, Consumer<Reservation> releaseConsumer) throws IOException {
+        writeLock.lock();
+        try {
+            long snapshotGeneration = 0;
+            if (Files.exists(snapshotFile)) {
+                try (BufferedInputStream in = new BufferedInputStream(Files.newInputStream(snapshotFile))) {
+                    snapshotGeneration = readSnapshotGeneration(in);
+                    BinarySnapshot.readReservations(in, snapshotConsumer, ForkJoinPool.commonPool());
+                }
+            }
+            long validLength = replay(snapshotGeneration, journalConsumer, releaseConsumer);
+            if (validLength < channel.size()) {
+                // Abgerissener Eintrag nach einem Absturz
+                channel.truncate(validLength);
+            }
+            channel.position(validLength);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    // Snapshots ohne Stempel stammen aus der Zeit vor den Generationen
+    private static long readSnapshotGeneration(BufferedInputStream in) throws IOException {
+        in.mark(Integer.BYTES + Long.BYTES);
+        DataInputStream data = new DataInputStream(in);
+        try {
+            if (data.readInt() == SNAPSHOT_STAMP) {
+                return data.readLong();
+            }
+        } catch (EOFException e) {
+            // Zu kurz für einen Stempel; BinarySnapshot meldet den Fehler
+        }
+        in.reset();
+        return 0;
+    }
+
+    private long replay(long snapshotGeneration, Consumer<Reservation> consumer, Consumer<Reservation> releaseConsumer) throws IOException {
+        List<Event> events = new ArrayList<>();
+        List<Customer> customers = new ArrayList<>();
+        eventRefs.clear();
+        customerRefs.clear();
+        eventDefinitions = 0;
+        customerDefinitions = 0;
+        recordsSinceCheckpoint = 0;
+        generation = snapshotGeneration;
+        long validLength = 0;
+        channel.position(0);
+        DataInputStream in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel)));
+        while (true) {
+            byte[] payload;
+            try {
+                int length = in.readInt();
+                int checksum = in.readInt();
+                if (length <= 0 || length > channel.size()) {
+                    break;
+                }
+                payload = in.readNBytes(length);
+                if (payload.length != length || checksum != checksum(payload, length)) {
+                    break;
+                }
+            } catch (EOFException e) {
+                break;
+            }
+
+            DataInputStream record = new DataInputStream(new ByteArrayInputStream(payload));
+            byte type = record.readByte();
+            if (validLength == 0) {
+                long journalGeneration = type == RECORD_GENERATION ? record.readLong() : 0;
+                if (journalGeneration < snapshotGeneration) {
+                    // Bereits im Snapshot enthalten; das Journal wird beim Aufrufer geleert
+                    return 0;
+                }
+                generation = journalGeneration;
+                if (type == RECORD_GENERATION) {
+                    validLength += 8 + payload.length;
+                    continue;
+                }
+            }
+            switch (type) {
+                case RECORD_EVENT -> {
+                    Event event = BinarySnapshot.readEvent(record);
+                    eventRefs.putIfAbsent(event, events.size());
+                    events.add(event);
+                    eventDefinitions = events.size();
+                }
+                case RECORD_CUSTOMER -> {
+                    Customer customer = BinarySnapshot.readCustomer(record);
+                    customerRefs.putIfAbsent(customer, customers.size());
+                    customers.add(customer);
+                    customerDefinitions = customers.size();
+                }
+                case RECORD_BOOKING -> {
+                    consumer.accept(readBooking(record, events, customers));
+                    recordsSinceCheckpoint++;
+                }
+                case RECORD_RELEASE -> {
+                    if (releaseConsumer == null) {
+                        throw new IOException("Ungültiger Buchungseintrag im Journal");
+                    }
+                    releaseConsumer.accept(readBooking(record, events, customers));
+                    recordsSinceCheckpoint++;
+                }
+                default -> throw new IOException("Unbekannter Journaleintrag");
+            }
+            validLength += 8 + payload.length;
+        }
+        return validLength;
+    }
+
+    private static Reservation readBooking(DataInputStream record, List<Event> events, List<Customer> customers) throws IOException {
+        UUID uuid = new UUID(record.readLong(), record.readLong());
+        try {
+            Event event = events.get(BinarySnapshot.readVarInt(record));
+            Customer customer = customers.get(BinarySnapshot.readVarInt(record));
+            return new Reservation(uuid, event, customer, BinarySnapshot.readVarInt(record));
+        } catch (IndexOutOfBoundsException | IllegalArgumentException e) {
+            throw new IOException("Ungültiger Buchungseintrag im Journal", e);
+        }
+    }
+
+    // Hängt eine Buchung an und liefert die Sequenznummer für awaitDurable
+    public long append(Reservation reservation) throws IOException {
+        return append(RECORD_BOOKING, reservation);
+    }
+
+    // Hängt eine Freigabe an; released.reservedSeats() ist die Anzahl der freigegebenen Plätze
+    public long appendRelease(Reservation released) throws IOException {
+        return append(RECORD_RELEASE, released);
+    }
+
+    private long append(byte type, Reservation reservation) throws IOException {
+        checkSyncFailure();
+        ByteArrayOutputStream frames = new ByteArrayOutputStream(64);
+        long sequence;
+        writeLock.lock();
+        try {
+            if (channel.position() == 0) {
+                long currentGeneration = generation;
+                writeFrame(frames, RECORD_GENERATION, out -> out.writeLong(currentGeneration));
+            }
+            Integer eventRef = eventRefs.get(reservation.event());
+            if (eventRef == null) {
+                eventRef = eventDefinitions;
+                writeFrame(frames, RECORD_EVENT, out -> BinarySnapshot.writeEvent(out, reservation.event()));
+            }
+            Integer customerRef = customerRefs.get(reservation.customer());
+            if (customerRef == null) {
+                customerRef = customerDefinitions;
+                writeFrame(frames, RECORD_CUSTOMER, out -> BinarySnapshot.writeCustomer(out, reservation.customer()));
+            }
+            int finalEventRef = eventRef;
+            int finalCustomerRef = customerRef;
+            writeFrame(frames, type, out -> {
+                out.writeLong(reservation.uuid().getMostSignificantBits());
+                out.writeLong(reservation.uuid().getLeastSignificantBits());
+                BinarySnapshot.writeVarInt(out, finalEventRef);
+                BinarySnapshot.writeVarInt(out, finalCustomerRef);
+                BinarySnapshot.writeVarInt(out, reservation.reservedSeats());
+            });
+
+            long start = channel.position();
+            ByteBuffer buffer = ByteBuffer.wrap(frames.toByteArray());
+            try {
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            } catch (IOException e) {
+                // Halb geschriebene Einträge entfernen, damit spätere Einträge lesbar bleiben
+                channel.truncate(start);
+                channel.position(start);
+                throw e;
+            }
+            // Referenzen erst nach erfolgreichem Schreiben übernehmen
+            if (eventRefs.putIfAbsent(reservation.event(), eventRef) == null) {
+                eventDefinitions++;
+            }
+            if (customerRefs.putIfAbsent(reservation.customer(), customerRef) == null) {
+                customerDefinitions++;
+            }
+            recordsSinceCheckpoint++;
+            sequence = ++appendedSequence;
+        } finally {
+            writeLock.unlock();
+        }
+        return sequence;
+    }
+
+    // Wartet, bis der Eintrag mit der Sequenznummer auf dem Datenträger liegt (nur bei GROUP_COMMIT)
+    public void awaitDurable(long sequence) throws IOException {
+        checkSyncFailure();
+        if (syncPolicy != SyncPolicy.GROUP_COMMIT || durableSequence >= sequence) {
+            return;
+        }
+        syncLock.lock();
+        try {
+            // Ein anderer Thread hat diesen Eintrag evtl. bereits mit seinem fsync abgedeckt
+            if (durableSequence < sequence) {
+                sync();
+            }
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    private void sync() throws IOException {
+        long target;
+        writeLock.lock();
+        try {
+            target = appendedSequence;
+        } finally {
+            writeLock.unlock();
+        }
+        channel.force(false);
+        durableSequence = target;
+    }
+
+    private void syncPeriodically(Duration interval) {
+        while (!closed) {
+            try {
+                Thread.sleep(interval);
+                syncLock.lock();
+                try {
+                    if (durableSequence < appendedSequence) {
+                        sync();
+                    }
+                } finally {
+                    syncLock.unlock();
+                }
+            } catch (InterruptedException e) {
+                return;
+            } catch (IOException e) {
+                // Nach einem fehlgeschlagenen fsync ist unklar, was auf dem Datenträger liegt
+                syncFailure = e;
+                return;
+            }
+        }
+    }
+
+    private void checkSyncFailure() throws IOException {
+        IOException failure = syncFailure;
+        if (failure != null) {
+            throw new IOException("Synchronisieren des Journals fehlgeschlagen", failure);
+        }
+    }
+
+    public boolean needsCheckpoint() {
+        writeLock.lock();
+        try {
+            return recordsSinceCheckpoint >= checkpointThreshold;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    // Schreibt den vollständigen Zustand als Snapshot der nächsten Generation und leert danach das Journal.
+    // Der Aufrufer muss sicherstellen, dass währenddessen keine Buchungen angehängt werden.
+    public void checkpoint(Collection<Reservation> reservations) throws IOException {
+        writeLock.lock();
+        try {
+            long nextGeneration = generation + 1;
+            Path temporary = snapshotFile.resolveSibling(SNAPSHOT_FILE + ".tmp");
+            try (FileChannel out = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                ByteBuffer stamp = ByteBuffer.allocate(Integer.BYTES + Long.BYTES).putInt(SNAPSHOT_STAMP).putLong(nextGeneration).flip();
+                while (stamp.hasRemaining()) {
+                    out.write(stamp);
+                }
+                BinarySnapshot.writeReservations(reservations, Channels.newOutputStream(out));
+                out.force(true);
+            }
+            Files.move(temporary, snapshotFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            // Erst mit dem fsync des Verzeichnisses ist das Umbenennen dauerhaft
+            try (FileChannel directoryChannel = FileChannel.open(directory, StandardOpenOption.READ)) {
+                directoryChannel.force(true);
+            }
+            generation = nextGeneration;
+
+            channel.truncate(0);
+            channel.position(0);
+            channel.force(true);
+            eventRefs.clear();
+            customerRefs.clear();
+            eventDefinitions = 0;
+            customerDefinitions = 0;
+            recordsSinceCheckpoint = 0;
+            durableSequence = appendedSequence;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public long getJournalSize() throws IOException {
+        return channel.size();
+    }
+
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        if (periodicSync != null) {
+            periodicSync.interrupt();
+        }
+        writeLock.lock();
+        try {
+            if (channel.isOpen()) {
+                channel.force(false);
+                channel.close();
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private static void writeFrame(ByteArrayOutputStream frames, byte type, RecordWriter writer) throws IOException {
+        ByteArrayOutputStream payload = new ByteArrayOutputStream(48);
+        DataOutputStream out = new DataOutputStream(payload);
+        out.writeByte(type);
+        writer.write(out);
+        out.flush();
+
+        byte[] bytes = payload.toByteArray();
+        DataOutputStream frame = new DataOutputStream(frames);
+        frame.writeInt(bytes.length);
+        frame.writeInt(checksum(bytes, bytes.length));
+        frame.write(bytes);
+        frame.flush();
+    }
+
+    private static int checksum(byte[] bytes, int length) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes, 0, length);
+        return (int) crc.getValue();
+    }
+
+    @FunctionalInterface
+    private interface RecordWriter {
+        void write(DataOutputStream out) throws IOException;
+    }
+}
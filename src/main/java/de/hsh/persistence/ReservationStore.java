@@ -0,0 +1,51 @@
+package de.hsh.persistence;
+
+import de.hsh.dto.Customer;
+import de.hsh.dto.Event;
+import de.hsh.dto.Page;
+import de.hsh.dto.Reservation;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+// Speicher für Buchungen; je Kunde (Name) und Event (Identifier) gibt es höchstens eine Buchung
+public interface ReservationStore {
+
+    Reservation find(Event event, Customer customer);
+
+    // Liefert die Buchung mit der angegebenen ID oder null; nach einer Zusammenführung gilt nur noch die neue ID
+    Reservation findByUuid(UUID uuid);
+
+    // Legt die Buchung an oder ersetzt die vorhandene Buchung desselben Kunden für dasselbe Event
+    void put(Reservation reservation);
+
+    // Entfernt die Buchung des Kunden für das Event, falls vorhanden
+    void remove(Reservation reservation);
+
+    List<Reservation> findAll();
+
+    // Durchläuft die Buchungen ohne vollständige Kopie; jede Buchung wird als Ganzes gelesen,
+    // parallele Änderungen an anderen Buchungen können aber sichtbar werden
+    Stream<Reservation> stream();
+
+    // Wie stream(), aber nur die Buchungen für das Event bzw. des Kunden; über einen Sekundärindex statt über den ganzen Bestand
+    Stream<Reservation> streamByEvent(Event event);
+
+    Stream<Reservation> streamByCustomer(Customer customer);
+
+    // Alle Events mit mindestens einer Buchung
+    Collection<Event> bookedEvents();
+
+    // Bis zu limit Buchungen ab der Position cursor (zu Beginn 0); die Positionen ändern sich nicht durch spätere Buchungen
+    Page<Reservation> page(int cursor, int limit);
+
+    int size();
+
+    void clear();
+
+    // Summe der reservierten Plätze je Event.identifier(), z. B. zum Aufbau des Sitzplatzzählers beim Start
+    Map<UUID, Integer> reservedSeatsByEvent();
+}
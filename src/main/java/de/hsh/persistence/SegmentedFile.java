@@ -0,0 +1,314 @@
+package de.hsh.persistence;
+
+import java.io.*;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.AccessDeniedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Basisdatei plus Segmente mit angehängten Datensätzen (<base>.segment-1, -2, ...).
+// Speichern kostet O(Änderungen); ab einer Schwelle führt ein Hintergrund-Thread die Segmente in die Basisdatei zusammen.
+// Die Basisdatei beginnt mit der höchsten Segmentnummer, die sie bereits enthält; solche Segmente werden beim Lesen
+// ignoriert und entfernt. Ein Absturz zwischen dem Austausch der Basisdatei und dem Löschen der Segmente lädt also nichts doppelt.
+public final class SegmentedFile<T> {
+
+    private static final String SEGMENT_SUFFIX = ".segment-";
+    private static final int BASE_STAMP = 0x48534842; // "HSHB"
+    private static final int DEFAULT_COMPACTION_THRESHOLD = 8;
+
+    @FunctionalInterface
+    public interface Writer<T> {
+        void write(Collection<T> records, OutputStream out) throws IOException;
+    }
+
+    @FunctionalInterface
+    public interface Reader<T> {
+        List<T> read(InputStream in) throws IOException;
+    }
+
+    private final Path base;
+    private final Writer<T> writer;
+    private final Reader<T> reader;
+    private final int compactionThreshold;
+    // Schützt das Austauschen der Basisdatei gegen gleichzeitiges Lesen und Anhängen
+    private final ReentrantLock lock = new ReentrantLock();
+    private final AtomicBoolean compacting = new AtomicBoolean();
+    private volatile Thread compaction;
+    // Wird bei jedem vollständigen Schreiben erhöht; eine laufende Zusammenführung ist danach veraltet
+    private long generation;
+    // Stand der Segmente im Speicher, damit Anhängen nicht jedes Mal das Verzeichnis liest; 0 = noch nicht gelesen
+    private int nextSegment;
+    private int segmentCount;
+    private final LongAdder compactionFailures = new LongAdder();
+    private volatile IOException lastCompactionFailure;
+
+    public SegmentedFile(Path base, Writer<T> writer, Reader<T> reader) {
+        this(base, writer, reader, DEFAULT_COMPACTION_THRESHOLD);
+    }
+
+    public SegmentedFile(Path base, Writer<T> writer, Reader<T> reader, int compactionThreshold) {
+        if (compactionThreshold <= 0) throw new IllegalArgumentException("Die Schwelle muss größer als null sein");
+
+        this.base = base;
+        this.writer = writer;
+        this.reader = reader;
+        this.compactionThreshold = compactionThreshold;
+    }
+
+    public Path getBase() {
+        return base;
+    }
+
+    // Schreibt alle Datensätze in die Basisdatei und verwirft vorhandene Segmente
+    public void writeBase(Collection<T> records) throws IOException {
+        lock.lock();
+        try {
+            checkBaseWritable();
+            generation++;
+            TreeMap<Integer, Path> segments = segments();
+            // Segmentnummern werden nie wiederverwendet, sonst hielte ein späteres Lesen neue Segmente für veraltet
+            int covered = Math.max(coveredSegment(), segments.isEmpty() ? 0 : segments.lastKey());
+            Path temp = base.resolveSibling(base.getFileName() + ".tmp");
+            writeStamped(temp, covered, records);
+            Files.move(temp, base, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            for (Path segment : segments.values()) {
+                Files.delete(segment);
+            }
+            nextSegment = covered + 1;
+            segmentCount = 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Hängt nur die neuen Datensätze als eigenes Segment an; das Segment erscheint atomar oder gar nicht
+    public void appendSegment(Collection<T> records) throws IOException {
+        if (records.isEmpty()) {
+            return;
+        }
+        int count;
+        lock.lock();
+        try {
+            if (nextSegment == 0) {
+                scanned(coveredSegment());
+            }
+            Path segment = segmentPath(nextSegment);
+            Path temp = segment.resolveSibling(segment.getFileName() + ".tmp");
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                writer.write(records, out);
+            }
+            Files.move(temp, segment, StandardCopyOption.ATOMIC_MOVE);
+            nextSegment++;
+            count = ++segmentCount;
+        } finally {
+            lock.unlock();
+        }
+        if (count >= compactionThreshold) {
+            compactInBackground();
+        }
+    }
+
+    public List<T> readAll() throws IOException {
+        lock.lock();
+        try {
+            List<T> records = new ArrayList<>();
+            int covered;
+            try (BufferedInputStream in = new BufferedInputStream(new FileInputStream(base.toFile()))) {
+                covered = readStamp(in);
+                records.addAll(reader.read(in));
+            }
+            for (Path segment : scanned(covered).values()) {
+                try (InputStream in = Files.newInputStream(segment)) {
+                    records.addAll(reader.read(in));
+                }
+            }
+            return records;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Nur die Datensätze der Basisdatei, ohne Segmente
+    public List<T> readBase() throws IOException {
+        try (BufferedInputStream in = new BufferedInputStream(new FileInputStream(base.toFile()))) {
+            readStamp(in);
+            return reader.read(in);
+        }
+    }
+
+    public int getSegmentCount() throws IOException {
+        lock.lock();
+        try {
+            if (nextSegment == 0) {
+                scanned(coveredSegment());
+            }
+            return segmentCount;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Startet höchstens eine Zusammenführung gleichzeitig
+    public void compactInBackground() {
+        if (compacting.compareAndSet(false, true)) {
+            compaction = Thread.ofVirtual().name("segment-compaction").start(() -> {
+                try {
+                    compact();
+                } catch (IOException e) {
+                    // Die Segmente bleiben erhalten; der nächste Versuch folgt beim nächsten Anhängen
+                    compactionFailures.increment();
+                    lastCompactionFailure = e;
+                } finally {
+                    compacting.set(false);
+                }
+            });
+        }
+    }
+
+    public long getCompactionFailureCount() {
+        return compactionFailures.sum();
+    }
+
+    // Fehler der letzten fehlgeschlagenen Zusammenführung im Hintergrund, sonst null
+    public IOException getLastCompactionFailure() {
+        return lastCompactionFailure;
+    }
+
+    public void awaitCompaction() throws InterruptedException {
+        Thread running = compaction;
+        if (running != null) {
+            running.join();
+        }
+    }
+
+    // Liest und schreibt ohne Sperre; nur der Austausch der Dateien erfolgt unter der Sperre
+    public void compact() throws IOException {
+        long startGeneration;
+        TreeMap<Integer, Path> segments;
+        lock.lock();
+        try {
+            startGeneration = generation;
+            segments = scanned(coveredSegment());
+        } finally {
+            lock.unlock();
+        }
+        if (segments.isEmpty()) {
+            return;
+        }
+
+        List<T> records = new ArrayList<>(readBase());
+        for (Path segment : segments.values()) {
+            try (InputStream in = Files.newInputStream(segment)) {
+                records.addAll(reader.read(in));
+            }
+        }
+        checkBaseWritable();
+        Path temp = base.resolveSibling(base.getFileName() + ".compact");
+        writeStamped(temp, segments.lastKey(), records);
+
+        lock.lock();
+        try {
+            if (generation != startGeneration) {
+                // Die Basisdatei wurde inzwischen neu geschrieben
+                Files.deleteIfExists(temp);
+                return;
+            }
+            Files.move(temp, base, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            // Später angehängte Segmente bleiben bestehen
+            for (Path segment : segments.values()) {
+                Files.delete(segment);
+            }
+            if (nextSegment != 0) {
+                segmentCount -= segments.size();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Liest den Stand der Segmente ein, entfernt die von der Basisdatei abgedeckten und liefert die übrigen; nur unter der Sperre
+    private TreeMap<Integer, Path> scanned(int covered) throws IOException {
+        TreeMap<Integer, Path> segments = segments();
+        for (Path stale : segments.headMap(covered, true).values()) {
+            Files.deleteIfExists(stale);
+        }
+        TreeMap<Integer, Path> live = new TreeMap<>(segments.tailMap(covered, false));
+        nextSegment = live.isEmpty() ? covered + 1 : live.lastKey() + 1;
+        segmentCount = live.size();
+        return live;
+    }
+
+    // Das Umbenennen ersetzt auch eine schreibgeschützte Basisdatei; ein Schreibschutz soll aber wie beim direkten Schreiben greifen
+    private void checkBaseWritable() throws IOException {
+        if (Files.exists(base) && !Files.isWritable(base)) {
+            throw new AccessDeniedException(base.toString(), null, "Basisdatei ist schreibgeschützt");
+        }
+    }
+
+    private void writeStamped(Path target, int coveredSegment, Collection<T> records) throws IOException {
+        try (FileChannel channel = FileChannel.open(target, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)));
+            out.writeInt(BASE_STAMP);
+            out.writeInt(coveredSegment);
+            writer.write(records, out);
+            out.flush();
+            channel.force(true);
+        }
+    }
+
+    // Höchste Segmentnummer, die die Basisdatei enthält; 0 ohne Basisdatei
+    private int coveredSegment() throws IOException {
+        if (!Files.exists(base)) {
+            return 0;
+        }
+        try (BufferedInputStream in = new BufferedInputStream(Files.newInputStream(base))) {
+            return readStamp(in);
+        }
+    }
+
+    // Basisdateien ohne Stempel stammen aus der Zeit davor und enthalten kein Segment
+    private static int readStamp(BufferedInputStream in) throws IOException {
+        in.mark(2 * Integer.BYTES);
+        DataInputStream data = new DataInputStream(in);
+        try {
+            if (data.readInt() == BASE_STAMP) {
+                return data.readInt();
+            }
+        } catch (EOFException e) {
+            // Zu kurz für einen Stempel; der Reader meldet den Fehler
+        }
+        in.reset();
+        return 0;
+    }
+
+    private Path segmentPath(int number) {
+        return base.resolveSibling(base.getFileName() + SEGMENT_SUFFIX + number);
+    }
+
+    // Segmente nach Nummer sortiert
+    private TreeMap<Integer, Path> segments() throws IOException {
+        TreeMap<Integer, Path> segments = new TreeMap<>();
+        Path directory = base.toAbsolutePath().getParent();
+        String prefix = base.getFileName() + SEGMENT_SUFFIX;
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, path -> path.getFileName().toString().startsWith(prefix))) {
+            for (Path path : stream) {
+                String suffix = path.getFileName().toString().substring(prefix.length());
+                if (suffix.chars().allMatch(Character::isDigit) && !suffix.isEmpty()) {
+                    segments.put(Integer.parseInt(suffix), path);
+                }
+            }
+        }
+        return segments;
+    }
+}
@@ -0,0 +1,212 @@
+package de.hsh.service;
+
+import de.hsh.dto.Event;
+import de.hsh.metrics.ReservationMetrics;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Zugangskontrolle vor dem Buchungspfad: höchstens limit Buchungen laufen gleichzeitig, weitere warten in einer
+// Warteschlange je Event und werden reihum zugelassen, damit ein stark nachgefragtes Event die anderen nicht verdrängt.
+// Das Limit passt sich nach AIMD an: +1 je Limit schneller Buchungen, solange es ausgeschöpft wird,
+// ×0,9 höchstens einmal je Buchungsdauer, wenn eine Buchung langsamer als targetLatency war.
+// Ist die Warteschlange voll oder die Wartezeit abgelaufen, wird sofort mit OverloadException abgewiesen.
+public class AdmissionController {
+
+    private static final double DECREASE_FACTOR = 0.9;
+    // Gewicht eines neuen Messwerts in der mittleren Buchungsdauer
+    private static final double LATENCY_WEIGHT = 0.2;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final int maxQueueDepth;
+    private final long maxQueueWaitNanos;
+    private final long targetLatencyNanos;
+    private final ReservationMetrics metrics;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<UUID, ArrayDeque<CompletableFuture<Void>>> queuesByEvent = new HashMap<>();
+    // Events mit wartenden Buchungen in der Reihenfolge, in der sie als Nächstes bedient werden
+    private final ArrayDeque<UUID> rotation = new ArrayDeque<>();
+    private double limit;
+    private int inFlight;
+    private int queued;
+    // Frühester Zeitpunkt für die nächste Senkung des Limits
+    private long nextDecrease;
+    private double averageLatencyNanos;
+
+    public AdmissionController(int maxLimit, int maxQueueDepth, Duration maxQueueWait, Duration targetLatency) {
+        this(1, maxLimit, maxLimit, maxQueueDepth, maxQueueWait, targetLatency, ReservationMetrics.NONE);
+    }
+
+    public AdmissionController(int minLimit, int initialLimit, int maxLimit, int maxQueueDepth, Duration maxQueueWait, Duration targetLatency, ReservationMetrics metrics) {
+        if (minLimit <= 0) throw new IllegalArgumentException("Das Mindestlimit muss größer als null sein");
+
+        if (initialLimit < minLimit || initialLimit > maxLimit)
+            throw new IllegalArgumentException("Das Startlimit muss zwischen Mindest- und Höchstlimit liegen");
+
+        if (maxQueueDepth < 0) throw new IllegalArgumentException("Die Länge der Warteschlange darf nicht negativ sein");
+
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.maxQueueDepth = maxQueueDepth;
+        this.maxQueueWaitNanos = maxQueueWait.toNanos();
+        this.targetLatencyNanos = targetLatency.toNanos();
+        this.metrics = metrics;
+        this.limit = initialLimit;
+        this.nextDecrease = System.nanoTime();
+        metrics.admissionChanged(0, initialLimit);
+    }
+
+    // Wartet auf einen freien Platz; nach erfolgreichem acquire muss release aufgerufen werden
+    public void acquire(Event event) {
+        CompletableFuture<Void> permit;
+        lock.lock();
+        try {
+            if (queued == 0 && inFlight < (int) limit) {
+                inFlight++;
+                return;
+            }
+            if (queued >= maxQueueDepth) {
+                throw shed();
+            }
+            permit = new CompletableFuture<>();
+            queuesByEvent.computeIfAbsent(event.identifier(), _ -> {
+                rotation.addLast(event.identifier());
+                return new ArrayDeque<>();
+            }).addLast(permit);
+            queued++;
+            metrics.admissionChanged(queued, (int) limit);
+        } finally {
+            lock.unlock();
+        }
+
+        try {
+            permit.get(maxQueueWaitNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException | InterruptedException e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            lock.lock();
+            try {
+                // Zwischen Ablauf und Sperre kann der Platz noch vergeben worden sein
+                if (!permit.isDone() && remove(event.identifier(), permit)) {
+                    throw shed();
+                }
+            } finally {
+                lock.unlock();
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // latencyNanos ist die Dauer der zugelassenen, angenommenen Buchung und passt das Limit an
+    public void release(long latencyNanos) {
+        lock.lock();
+        try {
+            boolean saturated = queued > 0 || inFlight >= (int) limit;
+            inFlight--;
+            averageLatencyNanos = averageLatencyNanos == 0 ? latencyNanos : averageLatencyNanos + LATENCY_WEIGHT * (latencyNanos - averageLatencyNanos);
+
+            long now = System.nanoTime();
+            if (latencyNanos > targetLatencyNanos) {
+                if (now - nextDecrease >= 0) {
+                    limit = Math.max(minLimit, limit * DECREASE_FACTOR);
+                    nextDecrease = now + latencyNanos;
+                }
+            } else if (saturated) {
+                limit = Math.min(maxLimit, limit + 1 / limit);
+            }
+            admitWaiting();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Gibt den Platz frei, ohne Limit und mittlere Buchungsdauer zu verändern: für abgelehnte Buchungen (Blacklist,
+    // ausverkauft), die früher enden als eine angenommene, und für Sammelbuchungen, deren Dauer nicht vergleichbar ist
+    public void releaseWithoutSample() {
+        lock.lock();
+        try {
+            inFlight--;
+            admitWaiting();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Aufruf unter lock
+    private void admitWaiting() {
+        while (queued > 0 && inFlight < (int) limit) {
+            UUID eventId = rotation.pollFirst();
+            ArrayDeque<CompletableFuture<Void>> queue = queuesByEvent.get(eventId);
+            CompletableFuture<Void> permit = queue.pollFirst();
+            if (queue.isEmpty()) {
+                queuesByEvent.remove(eventId);
+            } else {
+                rotation.addLast(eventId);
+            }
+            queued--;
+            inFlight++;
+            permit.complete(null);
+        }
+        metrics.admissionChanged(queued, (int) limit);
+    }
+
+    public int getLimit() {
+        lock.lock();
+        try {
+            return (int) limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getQueueDepth() {
+        lock.lock();
+        try {
+            return queued;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getInFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean remove(UUID eventId, CompletableFuture<Void> permit) {
+        ArrayDeque<CompletableFuture<Void>> queue = queuesByEvent.get(eventId);
+        if (queue == null || !queue.remove(permit)) {
+            return false;
+        }
+        if (queue.isEmpty()) {
+            queuesByEvent.remove(eventId);
+            rotation.remove(eventId);
+        }
+        queued--;
+        metrics.admissionChanged(queued, (int) limit);
+        return true;
+    }
+
+    // Wartezeit bis zum nächsten Versuch: die Warteschlange muss bei der mittleren Buchungsdauer erst abgearbeitet werden
+    private OverloadException shed() {
+        metrics.bookingRejected(ReservationMetrics.Rejection.OVERLOADED);
+        long waitNanos = (long) (Math.max(averageLatencyNanos, 1_000_000) * (queued / limit + 1));
+        return new OverloadException(Duration.ofNanos(waitNanos));
+    }
+}
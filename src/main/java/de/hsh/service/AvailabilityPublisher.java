@@ -0,0 +1,241 @@
+package de.hsh.service;
+
+import de.hsh.dto.Event;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.ToIntFunction;
+
+// Veröffentlicht die freien Plätze je Event über java.util.concurrent.Flow.
+// Änderungen werden nur markiert und höchstens einmal je Intervall ausgeliefert; langsame Abonnenten
+// erhalten nur den jeweils neuesten Stand und halten weder den Buchungspfad noch andere Abonnenten auf.
+public class AvailabilityPublisher implements AutoCloseable {
+
+    private final long intervalMillis;
+    private final Runnable tick;
+    private final ToIntFunction<Event> availableSeats;
+    private final Map<UUID, Topic> topics = new ConcurrentHashMap<>();
+    private final ExecutorService deliveryExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private Thread dispatcher;
+    private volatile boolean closed;
+
+    public AvailabilityPublisher(Duration interval, ToIntFunction<Event> availableSeats) {
+        this(interval, () -> { }, availableSeats);
+    }
+
+    // tick läuft in jedem Intervall vor dem Ausliefern, z. B. um abgelaufene Holds freizugeben und ihre Events als geändert zu markieren
+    public AvailabilityPublisher(Duration interval, Runnable tick, ToIntFunction<Event> availableSeats) {
+        if (interval.isNegative() || interval.isZero())
+            throw new IllegalArgumentException("Das Intervall muss größer als null sein");
+
+        this.intervalMillis = interval.toMillis();
+        this.tick = tick;
+        this.availableSeats = availableSeats;
+    }
+
+    public void subscribe(Event event, Flow.Subscriber<? super Update> subscriber) {
+        if (closed) throw new IllegalStateException("Der Publisher ist geschlossen");
+
+        AvailabilitySubscription subscription = new AvailabilitySubscription(event.identifier(), subscriber);
+        int seats = availableSeats.applyAsInt(event);
+        topics.compute(event.identifier(), (_, topic) -> {
+            Topic current = topic != null ? topic : new Topic(event, seats);
+            current.subscriptions.add(subscription);
+            return current;
+        });
+        startDispatcher();
+        subscriber.onSubscribe(subscription);
+        // Neue Abonnenten erhalten sofort den aktuellen Stand
+        subscription.offer(new Update(event.identifier(), seats));
+    }
+
+    // Wird im Buchungspfad aufgerufen: setzt nur eine Markierung, blockiert nicht und legt nichts an
+    public void markChanged(Event event) {
+        Topic topic = topics.get(event.identifier());
+        if (topic != null) {
+            topic.dirty = true;
+        }
+    }
+
+    public void markAllChanged() {
+        for (Topic topic : topics.values()) {
+            topic.dirty = true;
+        }
+    }
+
+    public int getSubscriberCount() {
+        return topics.values().stream().mapToInt(topic -> topic.subscriptions.size()).sum();
+    }
+
+    private synchronized void startDispatcher() {
+        if (dispatcher == null && !closed) {
+            dispatcher = Thread.ofVirtual().name("availability-publisher").start(this::dispatchLoop);
+        }
+    }
+
+    private void dispatchLoop() {
+        while (!closed) {
+            try {
+                Thread.sleep(intervalMillis);
+            } catch (InterruptedException e) {
+                return;
+            }
+            tick.run();
+            flush();
+        }
+    }
+
+    // Liefert für jedes geänderte Event höchstens ein Update; unveränderte Stände werden nicht erneut gesendet
+    void flush() {
+        for (Topic topic : topics.values()) {
+            if (!topic.dirty) {
+                continue;
+            }
+            // Vor dem Lesen zurücksetzen, damit eine gleichzeitige Buchung im nächsten Intervall gemeldet wird
+            topic.dirty = false;
+            int seats = availableSeats.applyAsInt(topic.event);
+            if (seats == topic.lastPublished) {
+                continue;
+            }
+            topic.lastPublished = seats;
+            Update update = new Update(topic.event.identifier(), seats);
+            for (AvailabilitySubscription subscription : topic.subscriptions) {
+                subscription.offer(update);
+            }
+        }
+    }
+
+    private void remove(AvailabilitySubscription subscription) {
+        topics.computeIfPresent(subscription.eventId, (_, topic) -> {
+            topic.subscriptions.remove(subscription);
+            return topic.subscriptions.isEmpty() ? null : topic;
+        });
+    }
+
+    @Override
+    public void close() {
+        Thread running;
+        synchronized (this) {
+            closed = true;
+            running = dispatcher;
+        }
+        if (running != null) {
+            running.interrupt();
+            try {
+                running.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        for (Topic topic : topics.values()) {
+            for (AvailabilitySubscription subscription : topic.subscriptions) {
+                subscription.complete();
+            }
+        }
+        topics.clear();
+        deliveryExecutor.close();
+    }
+
+    public record Update(UUID eventId, int availableSeats) {
+    }
+
+    private static final class Topic {
+        private final Event event;
+        private final List<AvailabilitySubscription> subscriptions = new CopyOnWriteArrayList<>();
+        private volatile boolean dirty;
+        private volatile int lastPublished;
+
+        private Topic(Event event, int lastPublished) {
+            this.event = event;
+            this.lastPublished = lastPublished;
+        }
+    }
+
+    private final class AvailabilitySubscription implements Flow.Subscription {
+        private final UUID eventId;
+        private final Flow.Subscriber<? super Update> subscriber;
+        // Nur der neueste Stand wird gehalten; ältere, noch nicht abgeholte Updates werden überschrieben
+        private final AtomicReference<Update> latest = new AtomicReference<>();
+        private final AtomicLong demand = new AtomicLong();
+        // Sorgt dafür, dass immer nur ein Drain je Abonnent läuft
+        private final AtomicInteger work = new AtomicInteger();
+        private volatile boolean cancelled;
+        // Abschluss angefordert; onComplete sendet der Drain nach dem letzten Update, nie parallel zu onNext
+        private volatile boolean completing;
+
+        private AvailabilitySubscription(UUID eventId, Flow.Subscriber<? super Update> subscriber) {
+            this.eventId = eventId;
+            this.subscriber = subscriber;
+        }
+
+        private void offer(Update update) {
+            latest.set(update);
+            schedule();
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                cancel();
+                subscriber.onError(new IllegalArgumentException("Die angeforderte Anzahl muss größer als null sein"));
+                return;
+            }
+            demand.accumulateAndGet(n, (current, added) -> current + added < 0 ? Long.MAX_VALUE : current + added);
+            schedule();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            remove(this);
+        }
+
+        private void complete() {
+            completing = true;
+            schedule();
+        }
+
+        private void schedule() {
+            if (!cancelled && work.getAndIncrement() == 0) {
+                deliveryExecutor.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            int missed = 1;
+            do {
+                while (!cancelled && demand.get() > 0) {
+                    Update update = latest.getAndSet(null);
+                    if (update == null) {
+                        break;
+                    }
+                    demand.decrementAndGet();
+                    try {
+                        subscriber.onNext(update);
+                    } catch (RuntimeException e) {
+                        cancel();
+                        subscriber.onError(e);
+                        return;
+                    }
+                }
+                // Ein noch ausstehendes Update geht vor, sofern der Abonnent es angefordert hat
+                if (completing && !cancelled && (latest.get() == null || demand.get() == 0)) {
+                    cancelled = true;
+                    subscriber.onComplete();
+                    return;
+                }
+                missed = work.addAndGet(-missed);
+            } while (missed != 0);
+        }
+    }
+}
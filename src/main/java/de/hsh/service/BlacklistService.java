@@ -1,5 +1,18 @@
 package de.hsh.service;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
 public interface BlacklistService {
     boolean isBlacklisted(String name);
+
+    // Prüft mehrere Namen auf einmal; Implementierungen mit Sammelabfrage sollten dies überschreiben
+    default Map<String, Boolean> areBlacklisted(Collection<String> names) {
+        Map<String, Boolean> verdicts = new HashMap<>();
+        for (String name : names) {
+            verdicts.put(name, isBlacklisted(name));
+        }
+        return verdicts;
+    }
 }
@@ -0,0 +1,242 @@
+package de.hsh.service;
+
+import de.hsh.dto.Customer;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// Zwischenspeicher vor einem entfernten BlacklistService mit LRU-Verdrängung und Ablaufzeit
+public class CachingBlacklistService implements BlacklistService {
+
+    private static final int GENERATION_STRIPES = 256;
+
+    private final BlacklistService delegate;
+    private final int maxEntries;
+    private final long positiveTtlMillis;
+    private final long negativeTtlMillis;
+    private final Clock clock;
+
+    // Zugriffsgeordnet, damit der älteste Eintrag zuerst verdrängt wird
+    private final LinkedHashMap<String, Verdict> verdicts;
+    // Laufende Abfragen je Name; parallele Anfragen warten auf dasselbe Ergebnis
+    private final Map<String, CompletableFuture<Boolean>> inFlight = new ConcurrentHashMap<>();
+    // Generation je Namensbereich; invalidate erhöht sie, damit eine zuvor gestartete Abfrage das alte Ergebnis nicht wieder einträgt
+    private final long[] generations = new long[GENERATION_STRIPES];
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder collapsed = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder remoteCalls = new LongAdder();
+    private final LongAdder remoteNanos = new LongAdder();
+
+    public CachingBlacklistService(BlacklistService delegate, int maxEntries, Duration positiveTtl, Duration negativeTtl) {
+        this(delegate, maxEntries, positiveTtl, negativeTtl, Clock.systemUTC());
+    }
+
+    public CachingBlacklistService(BlacklistService delegate, int maxEntries, Duration positiveTtl, Duration negativeTtl, Clock clock) {
+        if (maxEntries <= 0) throw new IllegalArgumentException("Die Cachegröße muss größer als null sein");
+        if (positiveTtl.isNegative() || negativeTtl.isNegative())
+            throw new IllegalArgumentException("Die Ablaufzeit darf nicht negativ sein");
+
+        this.delegate = delegate;
+        this.maxEntries = maxEntries;
+        this.positiveTtlMillis = positiveTtl.toMillis();
+        this.negativeTtlMillis = negativeTtl.toMillis();
+        this.clock = clock;
+        this.verdicts = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Verdict> eldest) {
+                boolean evict = size() > CachingBlacklistService.this.maxEntries;
+                if (evict) {
+                    evictions.increment();
+                }
+                return evict;
+            }
+        };
+    }
+
+    @Override
+    public boolean isBlacklisted(String name) {
+        Boolean cached = lookup(name);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+        misses.increment();
+
+        CompletableFuture<Boolean> ownFuture = new CompletableFuture<>();
+        CompletableFuture<Boolean> running = inFlight.putIfAbsent(name, ownFuture);
+        if (running != null) {
+            collapsed.increment();
+            return await(running);
+        }
+
+        try {
+            long generation = generationOf(name);
+            boolean blacklisted = callRemote(name);
+            store(name, blacklisted, generation);
+            ownFuture.complete(blacklisted);
+            return blacklisted;
+        } catch (RuntimeException e) {
+            ownFuture.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(name, ownFuture);
+        }
+    }
+
+    @Override
+    public Map<String, Boolean> areBlacklisted(Collection<String> names) {
+        Map<String, Boolean> result = new LinkedHashMap<>();
+        List<String> missing = new ArrayList<>();
+        for (String name : names) {
+            Boolean cached = lookup(name);
+            if (cached != null) {
+                hits.increment();
+                result.put(name, cached);
+            } else if (!result.containsKey(name)) {
+                misses.increment();
+                missing.add(name);
+                result.put(name, null);
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            long[] generations = new long[missing.size()];
+            for (int i = 0; i < missing.size(); i++) {
+                generations[i] = generationOf(missing.get(i));
+            }
+            long start = System.nanoTime();
+            Map<String, Boolean> loaded = delegate.areBlacklisted(missing);
+            remoteCalls.increment();
+            remoteNanos.add(System.nanoTime() - start);
+            for (int i = 0; i < missing.size(); i++) {
+                String name = missing.get(i);
+                Boolean blacklisted = loaded.get(name);
+                if (blacklisted == null) {
+                    // Fehlt der Name in der Antwort, wird einzeln gefragt statt ihn als unbedenklich zu speichern
+                    result.put(name, isBlacklisted(name));
+                } else {
+                    store(name, blacklisted, generations[i]);
+                    result.put(name, blacklisted);
+                }
+            }
+        }
+        return result;
+    }
+
+    // Wärmt den Cache für alle bekannten Kunden mit einer Sammelabfrage vor
+    public void prefetch(CustomerService customerService) {
+        areBlacklisted(customerService.getCustomers().stream().map(Customer::name).toList());
+    }
+
+    public void invalidate(String name) {
+        synchronized (verdicts) {
+            verdicts.remove(name);
+            generations[stripeOf(name)]++;
+        }
+    }
+
+    private long generationOf(String name) {
+        synchronized (verdicts) {
+            return generations[stripeOf(name)];
+        }
+    }
+
+    private static int stripeOf(String name) {
+        return Math.floorMod(name.hashCode(), GENERATION_STRIPES);
+    }
+
+    private Boolean lookup(String name) {
+        synchronized (verdicts) {
+            Verdict verdict = verdicts.get(name);
+            if (verdict == null) {
+                return null;
+            }
+            if (verdict.expiresAt() <= clock.millis()) {
+                verdicts.remove(name);
+                return null;
+            }
+            return verdict.blacklisted();
+        }
+    }
+
+    // Nur speichern, wenn seit Beginn der Abfrage kein invalidate für den Namen lief
+    private void store(String name, boolean blacklisted, long generation) {
+        long ttl = blacklisted ? positiveTtlMillis : negativeTtlMillis;
+        if (ttl == 0) {
+            return;
+        }
+        synchronized (verdicts) {
+            if (generations[stripeOf(name)] != generation) {
+                return;
+            }
+            verdicts.put(name, new Verdict(blacklisted, clock.millis() + ttl));
+        }
+    }
+
+    private boolean callRemote(String name) {
+        long start = System.nanoTime();
+        try {
+            return delegate.isBlacklisted(name);
+        } finally {
+            remoteCalls.increment();
+            remoteNanos.add(System.nanoTime() - start);
+        }
+    }
+
+    private static boolean await(CompletableFuture<Boolean> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    public int size() {
+        synchronized (verdicts) {
+            return verdicts.size();
+        }
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public long getCollapsedCount() {
+        return collapsed.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    public long getRemoteCallCount() {
+        return remoteCalls.sum();
+    }
+
+    public long getAverageRemoteLatencyNanos() {
+        long calls = remoteCalls.sum();
+        return calls == 0 ? 0 : remoteNanos.sum() / calls;
+    }
+
+    private record Verdict(boolean blacklisted, long expiresAt) {
+    }
+}
@@ -1,44 +1,122 @@
 package de.hsh.service;
 
 import de.hsh.dto.Customer;
+import de.hsh.dto.Page;
+import de.hsh.persistence.AppendOnlyList;
+import de.hsh.persistence.BinarySnapshot;
+import de.hsh.persistence.InterningRegistry;
+import de.hsh.persistence.SegmentedFile;
 
 import java.io.*;
-import java.util.ArrayList;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Objects;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
 
+// Änderungen laufen nacheinander; Leser sperren nicht und arbeiten auf Momentaufnahmen
 public class CustomerService {
 
-    private final List<Customer> customers = new ArrayList<>();
+    private final AppendOnlyList<Customer> customers = new AppendOnlyList<>();
+    // Zuletzt gespeicherte oder geladene Datei; Kunden ab persistedCount sind dort noch nicht enthalten
+    private SegmentedFile<Customer> file;
+    private int persistedCount;
+    // Index über den eindeutigen Kundennamen
+    private final Map<String, Customer> customersByName = new ConcurrentHashMap<>();
+    // Gespeichert werden die kanonischen Instanzen, die auch Buchungen mit derselben Registry verwenden
+    private final InterningRegistry registry;
 
+    public CustomerService() {
+        this(new InterningRegistry());
+    }
+
+    public CustomerService(InterningRegistry registry) {
+        this.registry = registry;
+    }
+
+    // Nur lesend und immer auf dem neuesten Stand; für Auswertungen besser snapshotCustomers oder streamCustomers
     public List<Customer> getCustomers() {
-        return customers;
+        return customers.asList();
+    }
+
+    // Unveränderlicher Stand ohne Kopie der Einträge; später hinzugefügte Kunden sind nicht enthalten
+    public List<Customer> snapshotCustomers() {
+        return customers.snapshot();
+    }
+
+    // Positionen bleiben stabil, da Kunden nur angehängt werden
+    public Page<Customer> getCustomers(int offset, int limit) {
+        return Page.of(customers.snapshot(), offset, limit);
+    }
+
+    public Stream<Customer> streamCustomers() {
+        return customers.snapshot().stream();
     }
 
-    public void addCustomer(Customer customer) {
-        for (Customer c : customers) {
-            if (Objects.equals(c.name(), customer.name())) {
+    public Customer findByName(String name) {
+        return customersByName.get(name);
+    }
+
+    public synchronized void addCustomer(Customer customer) {
+        if (customersByName.containsKey(customer.name())) {
+            throw new IllegalArgumentException("Duplicate customer name: " + customer.name());
+        }
+        customer = registry.intern(customer);
+        customersByName.put(customer.name(), customer);
+        customers.add(customer);
+    }
+
+    // Fügt alle Kunden hinzu oder keinen, falls ein Name doppelt vorkommt
+    public synchronized void addCustomers(Collection<Customer> newCustomers) {
+        Set<String> names = new HashSet<>(newCustomers.size() * 2);
+        for (Customer customer : newCustomers) {
+            if (customersByName.containsKey(customer.name()) || !names.add(customer.name())) {
                 throw new IllegalArgumentException("Duplicate customer name: " + customer.name());
             }
         }
-        customers.add(customer);
+        List<Customer> canonical = newCustomers.stream().map(registry::intern).toList();
+        for (Customer customer : canonical) {
+            customersByName.put(customer.name(), customer);
+        }
+        customers.addAll(canonical);
     }
 
-    public void serializeCustomers(String filename) {
-        try (ObjectOutputStream out = new ObjectOutputStream(new FileOutputStream(filename))) {
-            out.writeObject(customers);
-        } catch (IOException e) {
+    // Schreibt beim ersten Speichern die ganze Liste, danach nur die seitdem hinzugefügten Kunden als neues Segment
+    public synchronized void serializeCustomers(String filename) {
+        try {
+            Path path = Path.of(filename);
+            List<Customer> current = customers.snapshot();
+            if (file != null && file.getBase().equals(path) && Files.exists(path) && persistedCount <= current.size()) {
+                file.appendSegment(current.subList(persistedCount, current.size()));
+            } else {
+                file = new SegmentedFile<>(path, BinarySnapshot::writeCustomers, BinarySnapshot::readCustomers);
+                file.writeBase(current);
+            }
+            persistedCount = current.size();
+        } catch (IOException | InvalidPathException e) {
             throw new RuntimeException("Serialisierung fehlgeschlagen");
         }
     }
 
-    @SuppressWarnings("unchecked")
-    public void deserializeCustomers(String filename) {
-        try (ObjectInputStream in = new ObjectInputStream(new FileInputStream(filename))) {
-            List<Customer> deserializedCustomers = (List<Customer>) in.readObject();
+    public synchronized void deserializeCustomers(String filename) {
+        try {
+            // Basisdatei plus alle Segmente
+            SegmentedFile<Customer> loaded = new SegmentedFile<>(Path.of(filename), BinarySnapshot::writeCustomers, BinarySnapshot::readCustomers);
+            List<Customer> deserializedCustomers = loaded.readAll().stream().map(registry::intern).toList();
             customers.clear();
+            customersByName.clear();
+            for (Customer customer : deserializedCustomers) {
+                customersByName.put(customer.name(), customer);
+            }
             customers.addAll(deserializedCustomers);
-        } catch (IOException | ClassNotFoundException e) {
+            file = loaded;
+            persistedCount = customers.size();
+        } catch (IOException | InvalidPathException e) {
             throw new RuntimeException("Deserialisierung fehlgeschlagen");
         }
     }
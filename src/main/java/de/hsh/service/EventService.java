@@ -1,38 +1,149 @@
 package de.hsh.service;
 
 import de.hsh.dto.Event;
+import de.hsh.dto.Page;
+import de.hsh.persistence.AppendOnlyList;
+import de.hsh.persistence.BinarySnapshot;
+import de.hsh.persistence.InterningRegistry;
+import de.hsh.persistence.SegmentedFile;
 
 import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Date;
 import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Stream;
 
+// Änderungen laufen nacheinander; Leser sperren nicht und arbeiten auf Momentaufnahmen
 public class EventService {
 
-    private final List<Event> events = new ArrayList<>();
+    private final AppendOnlyList<Event> events = new AppendOnlyList<>();
+    // Zuletzt gespeicherte oder geladene Datei; Events ab persistedCount sind dort noch nicht enthalten
+    private SegmentedFile<Event> file;
+    private int persistedCount;
+    private final Map<UUID, Event> eventsById = new ConcurrentHashMap<>();
+    // Nach Datum sortiert; der Schlüssel wird beim Einfügen kopiert, da java.util.Date veränderlich ist.
+    // Die Listen je Datum werden beim Einfügen ersetzt, nie verändert.
+    private final NavigableMap<Long, List<Event>> eventsByDate = new ConcurrentSkipListMap<>();
+    // Gespeichert werden die kanonischen Instanzen, die auch Buchungen mit derselben Registry verwenden
+    private final InterningRegistry registry;
 
+    public EventService() {
+        this(new InterningRegistry());
+    }
+
+    public EventService(InterningRegistry registry) {
+        this.registry = registry;
+    }
+
+    // Nur lesend und immer auf dem neuesten Stand; für Auswertungen besser snapshotEvents oder streamEvents
     public List<Event> getEvents() {
-        return events;
+        return events.asList();
     }
 
-    public void addEvent(Event event) {
+    // Unveränderlicher Stand ohne Kopie der Einträge; später hinzugefügte Events sind nicht enthalten
+    public List<Event> snapshotEvents() {
+        return events.snapshot();
+    }
+
+    // Positionen bleiben stabil, da Events nur angehängt werden
+    public Page<Event> getEvents(int offset, int limit) {
+        return Page.of(events.snapshot(), offset, limit);
+    }
+
+    public Stream<Event> streamEvents() {
+        return events.snapshot().stream();
+    }
+
+    public synchronized void addEvent(Event event) {
+        event = registry.intern(event);
+        if (event.identifier() != null && eventsById.containsKey(event.identifier())) {
+            throw new IllegalArgumentException("Duplicate event identifier: " + event.identifier());
+        }
         events.add(event);
+        index(event);
+    }
+
+    public Event findById(UUID identifier) {
+        return eventsById.get(identifier);
+    }
+
+    // Alle Events mit from <= Datum < to, aufsteigend nach Datum
+    public List<Event> findBetween(Date from, Date to) {
+        List<Event> result = new ArrayList<>();
+        for (List<Event> eventsAtDate : eventsByDate.subMap(from.getTime(), true, to.getTime(), false).values()) {
+            result.addAll(eventsAtDate);
+        }
+        return result;
+    }
+
+    // Wie findBetween, aber ohne Zwischenliste; Events, die während des Durchlaufs hinzukommen, können enthalten sein
+    public Stream<Event> streamBetween(Date from, Date to) {
+        return eventsByDate.subMap(from.getTime(), true, to.getTime(), false).values().stream().flatMap(List::stream);
+    }
+
+    // Die nächsten n Events ab jetzt, aufsteigend nach Datum
+    public List<Event> upcoming(int n) {
+        List<Event> result = new ArrayList<>(Math.min(n, events.size()));
+        for (List<Event> eventsAtDate : eventsByDate.tailMap(System.currentTimeMillis(), true).values()) {
+            for (Event event : eventsAtDate) {
+                if (result.size() == n) {
+                    return result;
+                }
+                result.add(event);
+            }
+        }
+        return result;
+    }
+
+    private void index(Event event) {
+        if (event.identifier() != null) {
+            eventsById.put(event.identifier(), event);
+        }
+        if (event.date() != null) {
+            eventsByDate.merge(event.date().getTime(), List.of(event), (existing, added) -> Stream.concat(existing.stream(), added.stream()).toList());
+        }
     }
 
-    public void serializeEvents(String filename) {
-        try (ObjectOutputStream out = new ObjectOutputStream(new FileOutputStream(filename))) {
-            out.writeObject(events);
-        } catch (IOException e) {
+    // Schreibt beim ersten Speichern die ganze Liste, danach nur die seitdem hinzugefügten Events als neues Segment
+    public synchronized void serializeEvents(String filename) {
+        try {
+            Path path = Path.of(filename);
+            List<Event> current = events.snapshot();
+            if (file != null && file.getBase().equals(path) && Files.exists(path) && persistedCount <= current.size()) {
+                file.appendSegment(current.subList(persistedCount, current.size()));
+            } else {
+                file = new SegmentedFile<>(path, BinarySnapshot::writeEvents, BinarySnapshot::readEvents);
+                file.writeBase(current);
+            }
+            persistedCount = current.size();
+        } catch (IOException | InvalidPathException e) {
             throw new RuntimeException("Serialisierung fehlgeschlagen");
         }
     }
 
-    @SuppressWarnings("unchecked")
-    public void deserializeEvents(String filename) {
-        try (ObjectInputStream in = new ObjectInputStream(new FileInputStream(filename))) {
-            List<Event> deserializedEvents = (List<Event>) in.readObject();
+    public synchronized void deserializeEvents(String filename) {
+        try {
+            // Basisdatei plus alle Segmente
+            SegmentedFile<Event> loaded = new SegmentedFile<>(Path.of(filename), BinarySnapshot::writeEvents, BinarySnapshot::readEvents);
+            List<Event> deserializedEvents = loaded.readAll().stream().map(registry::intern).toList();
             events.clear();
+            eventsById.clear();
+            eventsByDate.clear();
             events.addAll(deserializedEvents);
-        } catch (IOException | ClassNotFoundException e) {
+            for (Event event : deserializedEvents) {
+                index(event);
+            }
+            file = loaded;
+            persistedCount = events.size();
+        } catch (IOException | InvalidPathException e) {
             throw new RuntimeException("Deserialisierung fehlgeschlagen");
         }
     }
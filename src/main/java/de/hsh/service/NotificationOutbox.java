@@ -0,0 +1,186 @@
+package de.hsh.service;
+
+import de.hsh.dto.Reservation;
+import de.hsh.metrics.ReservationMetrics;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Puffert Veranstalter-Benachrichtigungen und verschickt sie gebündelt auf einem virtuellen Thread
+public class NotificationOutbox implements AutoCloseable {
+
+    private static final int DEFAULT_CAPACITY = 10_000;
+    private static final int DEFAULT_BATCH_SIZE = 100;
+
+    private final EmailService emailService;
+    private final ReservationMetrics metrics;
+    private final BlockingQueue<Notification> queue;
+    private final int batchSize;
+    private final Thread dispatcher;
+    private volatile boolean closed;
+
+    private final LongAdder enqueued = new LongAdder();
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder overflow = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    public NotificationOutbox(EmailService emailService) {
+        this(emailService, DEFAULT_CAPACITY, DEFAULT_BATCH_SIZE);
+    }
+
+    public NotificationOutbox(EmailService emailService, int capacity, int batchSize) {
+        this(emailService, capacity, batchSize, ReservationMetrics.NONE);
+    }
+
+    // metrics.emailSent erhält die Dauer jeder verschickten Mail, auch bei Versand im Dispatcher
+    public NotificationOutbox(EmailService emailService, int capacity, int batchSize, ReservationMetrics metrics) {
+        if (capacity <= 0) throw new IllegalArgumentException("Die Kapazität muss größer als null sein");
+        if (batchSize <= 0) throw new IllegalArgumentException("Die Batchgröße muss größer als null sein");
+
+        this.emailService = emailService;
+        this.metrics = metrics;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.batchSize = batchSize;
+        this.dispatcher = Thread.ofVirtual().name("notification-outbox").start(this::dispatchLoop);
+    }
+
+    public void enqueue(Reservation reservation) {
+        offer(new Notification(reservation, false));
+    }
+
+    // reservation.reservedSeats() ist die Anzahl der freigegebenen Plätze
+    public void enqueueCancellation(Reservation reservation) {
+        offer(new Notification(reservation, true));
+    }
+
+    private void offer(Notification notification) {
+        if (closed || !queue.offer(notification)) {
+            // Gegendruck: Ist die Outbox voll, zahlt der Aufrufer die Latenz des Mailversands selbst
+            overflow.increment();
+            dispatch(List.of(notification));
+            return;
+        }
+        enqueued.increment();
+    }
+
+    private void dispatchLoop() {
+        List<Notification> batch = new ArrayList<>(batchSize);
+        while (!closed || !queue.isEmpty()) {
+            try {
+                Notification first = queue.poll(50, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                dispatch(batch);
+                batch.clear();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void dispatch(List<Notification> batch) {
+        // Mehrere große Buchungen bzw. Stornierungen für denselben Veranstalter und dasselbe Event ergeben eine Mail
+        Map<NotificationKey, Integer> seatsByKey = new LinkedHashMap<>();
+        Map<NotificationKey, String> titles = new LinkedHashMap<>();
+        for (Notification notification : batch) {
+            Reservation reservation = notification.reservation();
+            NotificationKey key = new NotificationKey(reservation.event().organizerEmail(), reservation.event().identifier(), notification.cancellation());
+            seatsByKey.merge(key, reservation.reservedSeats(), Integer::sum);
+            titles.putIfAbsent(key, reservation.event().title());
+        }
+        coalesced.add(batch.size() - seatsByKey.size());
+
+        for (Map.Entry<NotificationKey, Integer> entry : seatsByKey.entrySet()) {
+            long start = System.nanoTime();
+            try {
+                NotificationKey key = entry.getKey();
+                if (key.cancellation()) {
+                    sendCancellation(emailService, key.organizerEmail(), titles.get(key), entry.getValue());
+                } else {
+                    sendBookingConfirmation(emailService, key.organizerEmail(), titles.get(key), entry.getValue());
+                }
+                sent.increment();
+                metrics.emailSent(System.nanoTime() - start);
+            } catch (RuntimeException e) {
+                // Ein fehlgeschlagener Versand darf den Dispatcher nicht beenden
+                failed.increment();
+            }
+        }
+    }
+
+    static void sendBookingConfirmation(EmailService emailService, String organizerEmail, String eventTitle, int reservedSeats) {
+        String subject = "Buchung für " + eventTitle + " bestätigt";
+        String message = "Es wurden " + reservedSeats + " Plätze für die Veranstaltung " + eventTitle + " reserviert.";
+        emailService.sendEmail(organizerEmail, subject, message);
+    }
+
+    static void sendCancellation(EmailService emailService, String organizerEmail, String eventTitle, int releasedSeats) {
+        String subject = "Stornierung für " + eventTitle;
+        String message = "Es wurden " + releasedSeats + " Plätze für die Veranstaltung " + eventTitle + " freigegeben.";
+        emailService.sendEmail(organizerEmail, subject, message);
+    }
+
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    public int getRemainingCapacity() {
+        return queue.remainingCapacity();
+    }
+
+    public long getEnqueuedCount() {
+        return enqueued.sum();
+    }
+
+    public long getSentCount() {
+        return sent.sum();
+    }
+
+    public long getCoalescedCount() {
+        return coalesced.sum();
+    }
+
+    public long getOverflowCount() {
+        return overflow.sum();
+    }
+
+    public long getFailedCount() {
+        return failed.sum();
+    }
+
+    // Verschickt alle noch gepufferten Benachrichtigungen und beendet den Dispatcher
+    @Override
+    public void close() {
+        closed = true;
+        try {
+            dispatcher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        // Nachzügler, die während des Schließens eingereiht wurden
+        List<Notification> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        if (!remaining.isEmpty()) {
+            dispatch(remaining);
+        }
+    }
+
+    private record Notification(Reservation reservation, boolean cancellation) {
+    }
+
+    private record NotificationKey(String organizerEmail, UUID eventId, boolean cancellation) {
+    }
+}
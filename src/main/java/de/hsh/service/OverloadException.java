@@ -0,0 +1,20 @@
+package de.hsh.service;
+
+import java.time.Duration;
+
+// Die Buchung wurde wegen Überlast nicht angenommen und kann nach retryAfter erneut versucht werden
+public class OverloadException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Duration retryAfter;
+
+    public OverloadException(Duration retryAfter) {
+        super("Zu viele gleichzeitige Buchungen, bitte später erneut versuchen.");
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
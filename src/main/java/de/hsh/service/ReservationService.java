@@ -2,128 +2,852 @@ package de.hsh.service;
 
 import de.hsh.dto.Customer;
 import de.hsh.dto.Event;
+import de.hsh.dto.Page;
 import de.hsh.dto.Reservation;
+import de.hsh.dto.SeatHold;
+import de.hsh.metrics.ReservationMetrics;
+import de.hsh.persistence.BinarySnapshot;
+import de.hsh.persistence.InMemoryReservationStore;
+import de.hsh.persistence.ReservationColumns;
+import de.hsh.persistence.ReservationJournal;
+import de.hsh.persistence.ReservationStore;
 
 import java.io.*;
+import java.time.Clock;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
-public class ReservationService {
+public class ReservationService implements AutoCloseable {
 
-    private final List<Reservation> reservations = new ArrayList<>();
+    // ALL_OR_NOTHING: eine ungültige Buchung verwirft den ganzen Auftrag; BEST_EFFORT: nur die ungültigen werden abgelehnt
+    public enum BulkMode {
+        ALL_OR_NOTHING,
+        BEST_EFFORT
+    }
+
+    // Anzahl der Lock-Streifen; Buchungen für Events in verschiedenen Streifen laufen parallel
+    private static final int LOCK_STRIPES = 64;
+    // Auflösung und Umfang des Timer Wheels für ablaufende Platzreservierungen
+    private static final long HOLD_TICK_MILLIS = 100;
+    private static final int HOLD_BUCKETS = 1024;
+    // Höchstens ein Verfügbarkeits-Update je Event und Intervall
+    private static final Duration AVAILABILITY_INTERVAL = Duration.ofMillis(100);
+
+    // Buchungen je Kunde und Event, im Speicher oder z. B. in einer gemappten Datei
+    private final ReservationStore store;
+    // Laufende Summe der reservierten Plätze je Event (Schlüssel: Event.identifier())
+    private final Map<UUID, Integer> reservedSeatsByEvent = new ConcurrentHashMap<>();
+    private final SalesAggregates salesAggregates;
+    // Zählt jede Änderung am Bestand; eine zwischengespeicherte Spaltenkopie gilt nur für den Stand, zu dem sie gebaut wurde
+    private final AtomicLong modifications = new AtomicLong();
+    private volatile CachedColumns cachedColumns;
+    private final ReentrantLock[] eventLocks = new ReentrantLock[LOCK_STRIPES];
     private final BlacklistService blacklistService;
     private final EmailService emailService;
+    // Optional: verschickt Benachrichtigungen asynchron statt im Buchungsthread
+    private final NotificationOutbox notificationOutbox;
+    private final ReservationMetrics metrics;
+    private final AdmissionController admissionController;
+    // Gehaltene Plätze zählen gegen die Kapazität, werden aber weder ins Journal noch in Snapshots geschrieben
+    private final Map<UUID, SeatHold> holds = new ConcurrentHashMap<>();
+    private final Map<UUID, Integer> heldSeatsByEvent = new ConcurrentHashMap<>();
+    private final TimerWheel<SeatHold> holdExpiry;
+    private final Clock clock;
+    // Entsteht erst mit dem ersten Abonnenten; bis dahin gibt es keine Änderungen zu melden
+    private volatile AvailabilityPublisher availabilityPublisher;
+    private boolean closed;
+    // Optional: schreibt jede Buchung ins Journal, gesetzt durch recoverFrom
+    private volatile ReservationJournal journal;
 
     public ReservationService(BlacklistService blacklistService, EmailService emailService) {
+        this(blacklistService, emailService, null, new InMemoryReservationStore());
+    }
+
+    public ReservationService(BlacklistService blacklistService, NotificationOutbox notificationOutbox) {
+        this(blacklistService, null, notificationOutbox, new InMemoryReservationStore());
+    }
+
+    // Entweder emailService oder notificationOutbox muss gesetzt sein, sonst IllegalArgumentException
+    public ReservationService(BlacklistService blacklistService, EmailService emailService, NotificationOutbox notificationOutbox, ReservationStore store) {
+        this(blacklistService, emailService, notificationOutbox, store, ReservationMetrics.NONE);
+    }
+
+    public ReservationService(BlacklistService blacklistService, EmailService emailService, NotificationOutbox notificationOutbox, ReservationStore store, ReservationMetrics metrics) {
+        this(blacklistService, emailService, notificationOutbox, store, metrics, Clock.systemUTC());
+    }
+
+    public ReservationService(BlacklistService blacklistService, EmailService emailService, NotificationOutbox notificationOutbox, ReservationStore store, ReservationMetrics metrics, Clock clock) {
+        this(blacklistService, emailService, notificationOutbox, store, metrics, clock, null);
+    }
+
+    // admissionController ist optional; ohne ihn wartet addReservation unbegrenzt auf die Fremddienste
+    public ReservationService(BlacklistService blacklistService, EmailService emailService, NotificationOutbox notificationOutbox, ReservationStore store, ReservationMetrics metrics, Clock clock, AdmissionController admissionController) {
+        if (emailService == null && notificationOutbox == null)
+            throw new IllegalArgumentException("Entweder ein E-Mail-Service oder eine Outbox muss angegeben werden");
+
         this.blacklistService = blacklistService;
         this.emailService = emailService;
+        this.notificationOutbox = notificationOutbox;
+        this.store = store;
+        this.metrics = metrics;
+        this.clock = clock;
+        this.admissionController = admissionController;
+        this.holdExpiry = new TimerWheel<>(HOLD_TICK_MILLIS, HOLD_BUCKETS, clock.millis());
+        // Beide Summen aus einem Durchlauf; die Events kommen aus dem Sekundärindex des Stores
+        Map<UUID, Integer> seatsByEvent = store.reservedSeatsByEvent();
+        this.reservedSeatsByEvent.putAll(seatsByEvent);
+        this.salesAggregates = SalesAggregates.of(store.bookedEvents(), seatsByEvent, clock.getZone());
+        for (int i = 0; i < eventLocks.length; i++) {
+            eventLocks[i] = new ReentrantLock();
+        }
     }
 
     public void addReservation(Reservation reservation) {
+        addReservation(reservation, Supplier::get);
+    }
+
+    // committer führt nur Kapazitätsprüfung und Zusammenführung aus, z. B. auf dem Writer-Thread eines Shards;
+    // Blacklist-Abfrage, Zugangskontrolle, Warten auf das Journal und Benachrichtigung bleiben beim Aufrufer
+    void addReservation(Reservation reservation, Function<Supplier<Commit>, Commit> committer) {
+        checkEventIdentifier(reservation.event());
+        if (admissionController != null) {
+            // Ausverkaufte Events werden abgewiesen, ohne einen Platz in der Warteschlange zu belegen
+            expireHolds();
+            checkIfReservedAreGreaterThanAvailableSeats(reservation);
+        }
+        admitted(reservation.event(), true, () -> {
+            book(reservation, null, committer);
+            return null;
+        });
+    }
+
+    // Führt die Buchung hinter der Zugangskontrolle aus, falls vorhanden. Nur angenommene Einzelbuchungen (sample)
+    // fließen mit ihrer Dauer ins Limit ein; Ablehnungen wegen Blacklist oder fehlender Plätze enden früher
+    // und würden das Limit sonst zu hoch treiben.
+    private <T> T admitted(Event event, boolean sample, Supplier<T> booking) {
+        if (admissionController == null) {
+            return booking.get();
+        }
+        admissionController.acquire(event);
+        long start = System.nanoTime();
+        boolean rejected = false;
+        try {
+            return booking.get();
+        } catch (IllegalArgumentException e) {
+            rejected = true;
+            throw e;
+        } finally {
+            if (sample && !rejected) {
+                admissionController.release(System.nanoTime() - start);
+            } else {
+                admissionController.releaseWithoutSample();
+            }
+        }
+    }
+
+    private void book(Reservation reservation, SeatHold hold) {
+        book(reservation, hold, Supplier::get);
+    }
+
+    private void book(Reservation reservation, SeatHold hold, Function<Supplier<Commit>, Commit> committer) {
+        long start = System.nanoTime();
         checkIfCustomerIsBlacklisted(reservation.customer());
-        checkIfReservedAreGreaterThanAvailableSeats(reservation);
+
+        Commit commit = committer.apply(() -> commit(reservation, hold));
+        awaitJournal(commit.journalSequence());
+
+        // Benachrichtigt wird erst, wenn die Buchung übernommen wurde
         checkIfCustomerShouldGetAnEmail(reservation);
+        metrics.bookingAccepted(System.nanoTime() - start, commit.merged());
+    }
 
-        mergeReservation(reservation);
+    // Kapazitätsprüfung und Zusammenführung laufen atomar je Event.
+    // hold: wird in derselben kritischen Sektion eingelöst, damit die Plätze nicht zwischendurch vergeben werden
+    private Commit commit(Reservation reservation, SeatHold hold) {
+        expireHolds();
+        ReentrantLock lock = lockFor(reservation.event());
+        lock.lock();
+        try {
+            if (hold != null) {
+                if (!holds.remove(hold.uuid(), hold)) {
+                    throw new IllegalArgumentException("Die Platzreservierung existiert nicht oder ist abgelaufen.");
+                }
+                releaseHeldSeats(hold);
+            }
+            checkIfReservedAreGreaterThanAvailableSeats(reservation);
+
+            long journalSequence = appendToJournal(reservation, false);
+            return new Commit(journalSequence, mergeReservation(reservation));
+        } finally {
+            lock.unlock();
+        }
     }
 
-    private void mergeReservation(Reservation reservation) {
-        // Prüfen, ob bereits eine Buchung für den Kunden und das Event existiert
-        for (Reservation existingReservation : reservations) {
-            // Prüfen, ob der Kunde und das Event übereinstimmen
-            if (existingReservation.customer().name().equals(reservation.customer().name()) &&
-                    existingReservation.event().title().equals(reservation.event().title())) {
-
-                // Wenn eine bestehende Buchung gefunden wird, erstellen wir einen neuen Reservation-Record
-                // mit der ID der neuen Buchung (neuere Buchung übernimmt die ID)
-                Reservation mergedReservation = new Reservation(
-                        reservation.uuid(), // Die ID der neueren Buchung wird übernommen
-                        reservation.event(), // Das Event bleibt gleich
-                        reservation.customer(), // Der Kunde bleibt gleich
-                        existingReservation.reservedSeats() + reservation.reservedSeats() // Die reservierten Plätze werden zusammengeführt
-                );
-
-                // Entferne die alte Buchung und füge die neue zusammengeführte hinzu
-                reservations.remove(existingReservation);
-                reservations.add(mergedReservation);
-
-                // Die Methode beendet die Ausführung, wenn die Buchungen zusammengeführt wurden
-                return;
+    public List<Reservation> addReservations(Collection<Reservation> reservations) {
+        return addReservations(reservations, BulkMode.ALL_OR_NOTHING);
+    }
+
+    // Bucht viele Reservierungen in einem Durchgang und liefert die abgelehnten zurück.
+    // Buchungen desselben Kunden für dasselbe Event werden vorab zusammengefasst und nur gemeinsam angenommen oder abgelehnt.
+    public List<Reservation> addReservations(Collection<Reservation> reservations, BulkMode mode) {
+        if (reservations.isEmpty()) {
+            return List.of();
+        }
+        reservations.forEach(reservation -> checkEventIdentifier(reservation.event()));
+        // Ein Platz für den ganzen Auftrag, eingereiht beim Event der ersten Buchung
+        return admitted(reservations.iterator().next().event(), false, () -> bookAll(reservations, mode));
+    }
+
+    private List<Reservation> bookAll(Collection<Reservation> reservations, BulkMode mode) {
+        long start = System.nanoTime();
+        expireHolds();
+        Map<BulkKey, List<Reservation>> groups = new LinkedHashMap<>();
+        for (Reservation reservation : reservations) {
+            groups.computeIfAbsent(new BulkKey(reservation.customer().name(), reservation.event().identifier()), _ -> new ArrayList<>()).add(reservation);
+        }
+
+        // Eine Sammelabfrage statt einer Abfrage je Buchung
+        List<String> names = groups.keySet().stream().map(BulkKey::customerName).distinct().toList();
+        long blacklistStart = System.nanoTime();
+        Map<String, Boolean> blacklisted = blacklistService.areBlacklisted(names);
+        metrics.blacklistChecked(System.nanoTime() - blacklistStart);
+
+        List<Reservation> rejected = new ArrayList<>();
+        Map<UUID, List<Reservation>> candidatesByEvent = new LinkedHashMap<>();
+        for (List<Reservation> group : groups.values()) {
+            Reservation combined = combine(group);
+            if (isBlacklisted(blacklisted, group.getFirst().customer().name())) {
+                metrics.bookingRejected(ReservationMetrics.Rejection.BLACKLISTED);
+                if (mode == BulkMode.ALL_OR_NOTHING) {
+                    throw new IllegalArgumentException("Der Kunde befindet sich auf einer Blacklist und kann deshalb keine Buchung durchführen.");
+                }
+                rejected.addAll(group);
+            } else if (combined == null) {
+                metrics.bookingRejected(ReservationMetrics.Rejection.SOLD_OUT);
+                if (mode == BulkMode.ALL_OR_NOTHING) {
+                    throw new IllegalArgumentException("Die Gesamtzahl der reservierten Plätze überschreitet die verfügbaren Plätze.");
+                }
+                rejected.addAll(group);
+            } else {
+                candidatesByEvent.computeIfAbsent(combined.event().identifier(), _ -> new ArrayList<>()).add(combined);
+            }
+        }
+
+        boolean[] stripes = new boolean[eventLocks.length];
+        for (List<Reservation> candidates : candidatesByEvent.values()) {
+            stripes[stripeOf(candidates.getFirst().event())] = true;
+        }
+
+        List<Reservation> accepted = new ArrayList<>();
+        List<Boolean> mergedFlags = new ArrayList<>();
+        long journalSequence = 0;
+        lockStripes(stripes);
+        try {
+            // Kapazität einmal je Event prüfen; bei ALL_OR_NOTHING wird erst nach erfolgreicher Prüfung aller Events gebucht
+            for (List<Reservation> candidates : candidatesByEvent.values()) {
+                Event event = candidates.getFirst().event();
+                int reserved = getReservedSeats(event) + getHeldSeats(event);
+                for (Reservation candidate : candidates) {
+                    if (reserved + candidate.reservedSeats() <= event.totalSeats()) {
+                        reserved += candidate.reservedSeats();
+                        accepted.add(candidate);
+                    } else {
+                        metrics.bookingRejected(ReservationMetrics.Rejection.SOLD_OUT);
+                        if (mode == BulkMode.ALL_OR_NOTHING) {
+                            throw new IllegalArgumentException("Die Gesamtzahl der reservierten Plätze überschreitet die verfügbaren Plätze.");
+                        }
+                        rejected.addAll(groups.get(new BulkKey(candidate.customer().name(), event.identifier())));
+                    }
+                }
+            }
+
+            for (Reservation reservation : accepted) {
+                journalSequence = Math.max(journalSequence, appendToJournal(reservation, false));
+                mergedFlags.add(mergeReservation(reservation) != null);
+            }
+        } finally {
+            unlockStripes(stripes);
+        }
+        awaitJournal(journalSequence);
+
+        notifyOrganizers(accepted);
+        long latency = System.nanoTime() - start;
+        for (boolean merged : mergedFlags) {
+            metrics.bookingAccepted(latency, merged);
+        }
+        return rejected;
+    }
+
+    // Fehlt ein Name in der Sammelantwort, wird einzeln nachgefragt statt die Buchung durchzulassen
+    private boolean isBlacklisted(Map<String, Boolean> verdicts, String name) {
+        Boolean blacklisted = verdicts.get(name);
+        if (blacklisted == null) {
+            long start = System.nanoTime();
+            blacklisted = blacklistService.isBlacklisted(name);
+            metrics.blacklistChecked(System.nanoTime() - start);
+        }
+        return blacklisted;
+    }
+
+    // Fasst die Buchungen eines Kunden für ein Event zusammen; die zuletzt übergebene bestimmt die ID.
+    // Liefert null, wenn die Summe die Plätze des Events übersteigt.
+    private static Reservation combine(List<Reservation> group) {
+        Reservation last = group.getLast();
+        if (group.size() == 1) {
+            return last;
+        }
+        long seats = 0;
+        for (Reservation reservation : group) {
+            seats += reservation.reservedSeats();
+        }
+        if (seats > last.event().totalSeats()) {
+            return null;
+        }
+        return new Reservation(last.uuid(), last.event(), last.customer(), (int) seats);
+    }
+
+    // Eine Benachrichtigung je Event mit der Summe aller großen Buchungen
+    private void notifyOrganizers(List<Reservation> accepted) {
+        Map<UUID, Reservation> notifications = new LinkedHashMap<>();
+        for (Reservation reservation : accepted) {
+            if (reservation.reservedSeats() >= (reservation.event().totalSeats() * 0.1)) {
+                notifications.merge(reservation.event().identifier(), reservation, (first, second) ->
+                        new Reservation(second.uuid(), first.event(), first.customer(), first.reservedSeats() + second.reservedSeats()));
+            }
+        }
+        notifications.values().forEach(this::checkIfCustomerShouldGetAnEmail);
+    }
+
+    // Storniert die Buchung und gibt alle ihre Plätze frei.
+    // Nach einer Zusammenführung gilt nur noch die ID der neueren Buchung.
+    public void cancel(UUID reservationId) {
+        cancel(reservationId, Supplier::get);
+    }
+
+    // committer führt wie bei addReservation nur die Freigabe im Bestand aus
+    void cancel(UUID reservationId, Function<Supplier<Release>, Release> committer) {
+        release(reservationId, 0, committer);
+    }
+
+    // Gibt einen Teil der Plätze frei und liefert die verbleibende Buchung; null, wenn keine Plätze übrig bleiben
+    public Reservation releaseSeats(UUID reservationId, int seats) {
+        return releaseSeats(reservationId, seats, Supplier::get);
+    }
+
+    Reservation releaseSeats(UUID reservationId, int seats, Function<Supplier<Release>, Release> committer) {
+        if (seats <= 0) throw new IllegalArgumentException("Die freizugebenden Plätze müssen größer als null sein");
+        return release(reservationId, seats, committer);
+    }
+
+    // Warten auf das Journal und Benachrichtigung laufen beim Aufrufer, nicht im committer
+    private Reservation release(UUID reservationId, int seats, Function<Supplier<Release>, Release> committer) {
+        Release release = committer.apply(() -> commitRelease(reservationId, seats));
+        awaitJournal(release.journalSequence());
+
+        checkIfOrganizerShouldBeNotifiedOfRelease(release.released());
+        return release.remaining();
+    }
+
+    // seats == 0 gibt alle Plätze der Buchung frei
+    private Release commitRelease(UUID reservationId, int seats) {
+        while (true) {
+            Reservation reservation = store.findByUuid(reservationId);
+            if (reservation == null) {
+                throw new IllegalArgumentException("Die Buchung existiert nicht.");
+            }
+            ReentrantLock lock = lockFor(reservation.event());
+            lock.lock();
+            try {
+                // Erneut nachschlagen: eine parallele Buchung kann die ID ersetzt oder eine Freigabe Plätze abgezogen haben
+                Reservation current = store.findByUuid(reservationId);
+                if (current == null) {
+                    throw new IllegalArgumentException("Die Buchung existiert nicht.");
+                }
+                if (!current.event().identifier().equals(reservation.event().identifier())) {
+                    // Die ID gehört inzwischen zu einem Event in einem anderen Streifen
+                    continue;
+                }
+                int releasedSeats = seats == 0 ? current.reservedSeats() : seats;
+                if (releasedSeats > current.reservedSeats()) {
+                    throw new IllegalArgumentException("Es können nicht mehr Plätze freigegeben werden, als reserviert sind.");
+                }
+                Reservation released = new Reservation(current.uuid(), current.event(), current.customer(), releasedSeats);
+                long journalSequence = appendToJournal(released, true);
+                return new Release(released, applyRelease(released), journalSequence);
+            } finally {
+                lock.unlock();
             }
         }
+    }
+
+    // released.reservedSeats() ist die Anzahl der freigegebenen Plätze; wird auch beim Nachspielen des Journals verwendet
+    private Reservation applyRelease(Reservation released) {
+        Reservation current = store.find(released.event(), released.customer());
+        if (current == null) {
+            return null;
+        }
+        int remainingSeats = current.reservedSeats() - released.reservedSeats();
+        Reservation remaining = null;
+        if (remainingSeats > 0) {
+            remaining = new Reservation(current.uuid(), current.event(), current.customer(), remainingSeats);
+            store.put(remaining);
+        } else {
+            store.remove(current);
+        }
+        reservedSeatsByEvent.merge(current.event().identifier(), Math.max(remainingSeats, 0) - current.reservedSeats(), Integer::sum);
+        salesAggregates.add(current.event(), Math.max(remainingSeats, 0) - current.reservedSeats());
+        modifications.incrementAndGet();
+        publishChange(current.event());
+        return remaining;
+    }
+
+    // Liefert true, wenn die Buchung mit einer bestehenden zusammengeführt wurde
+    // Liefert die ID der ersetzten Buchung oder null
+    private UUID mergeReservation(Reservation reservation) {
+        // Prüfen, ob bereits eine Buchung für den Kunden und das Event existiert
+        Reservation existingReservation = store.find(reservation.event(), reservation.customer());
 
-        // Falls keine bestehende Buchung gefunden wurde, fügen wir die neue Buchung hinzu
-        reservations.add(reservation);
+        if (existingReservation != null) {
+            // Wenn eine bestehende Buchung gefunden wird, erstellen wir einen neuen Reservation-Record
+            // mit der ID der neuen Buchung (neuere Buchung übernimmt die ID)
+            Reservation mergedReservation = new Reservation(
+                    reservation.uuid(), // Die ID der neueren Buchung wird übernommen
+                    reservation.event(), // Das Event bleibt gleich
+                    reservation.customer(), // Der Kunde bleibt gleich
+                    existingReservation.reservedSeats() + reservation.reservedSeats() // Die reservierten Plätze werden zusammengeführt
+            );
+
+            // Die alte Buchung wird durch die zusammengeführte ersetzt
+            store.put(mergedReservation);
+        } else {
+            // Falls keine bestehende Buchung gefunden wurde, fügen wir die neue Buchung hinzu
+            store.put(reservation);
+        }
+        reservedSeatsByEvent.merge(reservation.event().identifier(), reservation.reservedSeats(), Integer::sum);
+        salesAggregates.add(reservation.event(), reservation.reservedSeats());
+        modifications.incrementAndGet();
+        publishChange(reservation.event());
+        return existingReservation != null ? existingReservation.uuid() : null;
     }
 
 
     private void checkIfCustomerShouldGetAnEmail(Reservation reservation) {
         if (reservation.reservedSeats() >= (reservation.event().totalSeats() * 0.1)) {
-            String email = reservation.event().organizerEmail();
-            String subject = "Buchung für " + reservation.event().title() + " bestätigt";
-            String message = "Es wurden " + reservation.reservedSeats() + " Plätze für die Veranstaltung " + reservation.event().title() + " reserviert.";
-            emailService.sendEmail(email, subject, message);
+            if (notificationOutbox != null) {
+                notificationOutbox.enqueue(reservation);
+            } else {
+                long start = System.nanoTime();
+                NotificationOutbox.sendBookingConfirmation(emailService, reservation.event().organizerEmail(), reservation.event().title(), reservation.reservedSeats());
+                metrics.emailSent(System.nanoTime() - start);
+            }
+        }
+    }
+
+    // Gleiche Schwelle wie bei der Buchung, bezogen auf die freigegebenen Plätze
+    private void checkIfOrganizerShouldBeNotifiedOfRelease(Reservation released) {
+        if (released.reservedSeats() >= (released.event().totalSeats() * 0.1)) {
+            if (notificationOutbox != null) {
+                notificationOutbox.enqueueCancellation(released);
+            } else {
+                long start = System.nanoTime();
+                NotificationOutbox.sendCancellation(emailService, released.event().organizerEmail(), released.event().title(), released.reservedSeats());
+                metrics.emailSent(System.nanoTime() - start);
+            }
         }
     }
 
     private void checkIfCustomerIsBlacklisted(Customer customer) {
-        if (blacklistService.isBlacklisted(customer.name())) {
+        long start = System.nanoTime();
+        boolean blacklisted = blacklistService.isBlacklisted(customer.name());
+        metrics.blacklistChecked(System.nanoTime() - start);
+        if (blacklisted) {
+            metrics.bookingRejected(ReservationMetrics.Rejection.BLACKLISTED);
             throw new IllegalArgumentException("Der Kunde befindet sich auf einer Blacklist und kann deshalb keine Buchung durchführen.");
         }
     }
 
     private void checkIfReservedAreGreaterThanAvailableSeats(Reservation reservation) {
-        int totalReservedSeats = reservations.stream()
-                .filter(r -> r.event().equals(reservation.event()))
-                .mapToInt(Reservation::reservedSeats)
-                .sum();
-
-        totalReservedSeats += reservation.reservedSeats();
+        int totalReservedSeats = getReservedSeats(reservation.event()) + getHeldSeats(reservation.event()) + reservation.reservedSeats();
 
         if (totalReservedSeats > reservation.event().totalSeats()) {
+            metrics.bookingRejected(ReservationMetrics.Rejection.SOLD_OUT);
             throw new IllegalArgumentException("Die Gesamtzahl der reservierten Plätze überschreitet die verfügbaren Plätze.");
         }
     }
 
     public int getAvailableSeats(Event event) {
-        // Berechne die Summe der reservierten Plätze für das Event
-        int reservedSeats = reservations.stream()
-                .filter(reservation -> reservation.event().equals(event))
-                .mapToInt(Reservation::reservedSeats)
-                .sum();
+        checkEventIdentifier(event);
+        expireHolds();
+        return event.totalSeats() - getReservedSeats(event) - getHeldSeats(event);
+    }
 
-        return event.totalSeats() - reservedSeats;
+    private int getReservedSeats(Event event) {
+        return reservedSeatsByEvent.getOrDefault(event.identifier(), 0);
     }
 
-    public List<Reservation> getReservations() {
-        return reservations;
+    private int getHeldSeats(Event event) {
+        return heldSeatsByEvent.getOrDefault(event.identifier(), 0);
     }
 
-    public Reservation getReservation(Event event, Customer customer) {
-        for (Reservation reservation : reservations) {
-            if (reservation.event() == event && reservation.customer() == customer) {
-                return reservation;
+    // Hält Plätze für die angegebene Dauer; sie zählen sofort gegen die verfügbaren Plätze
+    public SeatHold holdSeats(Event event, Customer customer, int seats, Duration ttl) {
+        if (ttl.isNegative() || ttl.isZero()) throw new IllegalArgumentException("Die Haltedauer muss größer als null sein");
+        checkEventIdentifier(event);
+        expireHolds();
+
+        SeatHold hold = new SeatHold(UUID.randomUUID(), event, customer, seats, clock.millis() + ttl.toMillis());
+        ReentrantLock lock = lockFor(event);
+        lock.lock();
+        try {
+            if (getReservedSeats(event) + getHeldSeats(event) + seats > event.totalSeats()) {
+                throw new IllegalArgumentException("Die Gesamtzahl der reservierten Plätze überschreitet die verfügbaren Plätze.");
             }
+            holds.put(hold.uuid(), hold);
+            heldSeatsByEvent.merge(event.identifier(), seats, Integer::sum);
+            publishChange(event);
+        } finally {
+            lock.unlock();
         }
-        return null;
+        holdExpiry.schedule(hold, hold.expiresAt());
+        return hold;
+    }
+
+    // Wandelt die gehaltenen Plätze in eine Buchung um; Blacklist und Benachrichtigung wie bei addReservation
+    public Reservation confirmHold(UUID holdId) {
+        SeatHold hold = holds.get(holdId);
+        if (hold == null || hold.expiresAt() <= clock.millis()) {
+            throw new IllegalArgumentException("Die Platzreservierung existiert nicht oder ist abgelaufen.");
+        }
+        Reservation reservation = new Reservation(UUID.randomUUID(), hold.event(), hold.customer(), hold.heldSeats());
+        return admitted(hold.event(), true, () -> {
+            book(reservation, hold);
+            return reservation;
+        });
+    }
+
+    public void releaseHold(UUID holdId) {
+        SeatHold hold = holds.remove(holdId);
+        if (hold != null) {
+            releaseHeldSeats(hold);
+        }
+    }
+
+    // Meldet die freien Plätze des Events sofort und danach bei Änderungen, höchstens alle 100 ms
+    public void subscribeAvailability(Event event, Flow.Subscriber<? super AvailabilityPublisher.Update> subscriber) {
+        checkEventIdentifier(event);
+        availabilityPublisher().subscribe(event, subscriber);
+    }
+
+    private synchronized AvailabilityPublisher availabilityPublisher() {
+        if (closed) throw new IllegalStateException("Der Service ist geschlossen");
+        if (availabilityPublisher == null) {
+            availabilityPublisher = new AvailabilityPublisher(AVAILABILITY_INTERVAL, this::expireHolds, this::getAvailableSeats);
+        }
+        return availabilityPublisher;
+    }
+
+    private void publishChange(Event event) {
+        AvailabilityPublisher publisher = availabilityPublisher;
+        if (publisher != null) {
+            publisher.markChanged(event);
+        }
+    }
+
+    private void publishAllChanges() {
+        AvailabilityPublisher publisher = availabilityPublisher;
+        if (publisher != null) {
+            publisher.markAllChanged();
+        }
+    }
+
+    public SeatHold getHold(UUID holdId) {
+        return holds.get(holdId);
+    }
+
+    public int getHoldCount() {
+        return holds.size();
+    }
+
+    // Gibt abgelaufene Holds frei; läuft bei jeder Buchung und Abfrage sowie im Takt des Verfügbarkeits-Publishers, solange es Abonnenten gibt
+    public void expireHolds() {
+        holdExpiry.advance(clock.millis(), this::expireHold);
+    }
+
+    private void expireHold(SeatHold hold) {
+        // Bereits eingelöste oder freigegebene Holds sind nicht mehr in der Map
+        if (holds.remove(hold.uuid(), hold)) {
+            releaseHeldSeats(hold);
+        }
+    }
+
+    private void releaseHeldSeats(SeatHold hold) {
+        heldSeatsByEvent.merge(hold.event().identifier(), -hold.heldSeats(), (held, released) -> held + released == 0 ? null : held + released);
+        publishChange(hold.event());
+    }
+
+    // release: reservation enthält die freigegebenen Plätze einer bestehenden Buchung
+    private long appendToJournal(Reservation reservation, boolean release) {
+        ReservationJournal currentJournal = journal;
+        if (currentJournal == null) {
+            return 0;
+        }
+        try {
+            return release ? currentJournal.appendRelease(reservation) : currentJournal.append(reservation);
+        } catch (IOException e) {
+            throw new RuntimeException("Journal konnte nicht geschrieben werden");
+        }
+    }
+
+    private void awaitJournal(long journalSequence) {
+        ReservationJournal currentJournal = journal;
+        if (currentJournal == null) {
+            return;
+        }
+        try {
+            currentJournal.awaitDurable(journalSequence);
+        } catch (IOException e) {
+            throw new RuntimeException("Journal konnte nicht geschrieben werden");
+        }
+        if (currentJournal.needsCheckpoint()) {
+            checkpoint(true);
+        }
+    }
+
+    // Lädt den letzten Snapshot, spielt das Journal nach und schreibt ab jetzt jede Buchung ins Journal
+    public void recoverFrom(ReservationJournal journal) {
+        lockAll();
+        try {
+            store.clear();
+            reservedSeatsByEvent.clear();
+            salesAggregates.clear();
+            modifications.incrementAndGet();
+            journal.recover(this::putReservation, this::mergeReservation, this::applyRelease);
+            this.journal = journal;
+            publishAllChanges();
+        } catch (IOException e) {
+            throw new RuntimeException("Wiederherstellung fehlgeschlagen");
+        } finally {
+            unlockAll();
+        }
+    }
+
+    // Schreibt einen Snapshot und kürzt das Journal; Buchungen warten währenddessen
+    public void checkpoint() {
+        checkpoint(false);
+    }
+
+    private void checkpoint(boolean onlyIfNeeded) {
+        ReservationJournal currentJournal = journal;
+        if (currentJournal == null) {
+            return;
+        }
+        lockAll();
+        try {
+            // Parallele Buchungen können den Schwellwert gleichzeitig erreichen; nur die erste schreibt
+            if (onlyIfNeeded && !currentJournal.needsCheckpoint()) {
+                return;
+            }
+            currentJournal.checkpoint(getReservations());
+        } catch (IOException e) {
+            throw new RuntimeException("Snapshot fehlgeschlagen");
+        } finally {
+            unlockAll();
+        }
+    }
+
+    private void putReservation(Reservation reservation) {
+        store.put(reservation);
+        reservedSeatsByEvent.merge(reservation.event().identifier(), reservation.reservedSeats(), Integer::sum);
+        salesAggregates.add(reservation.event(), reservation.reservedSeats());
+        modifications.incrementAndGet();
+        publishChange(reservation.event());
+    }
+
+    private ReentrantLock lockFor(Event event) {
+        return eventLocks[stripeOf(event)];
+    }
+
+    // Locks, Shards und Platzsummen hängen an der Event-ID; ohne sie wäre die Buchung keinem Event zuzuordnen
+    static void checkEventIdentifier(Event event) {
+        if (event.identifier() == null) throw new IllegalArgumentException("Das Event hat keine ID.");
+    }
+
+    private int stripeOf(Event event) {
+        return Math.floorMod(event.identifier().hashCode(), eventLocks.length);
+    }
+
+    // Aufsteigende Reihenfolge wie bei lockAll, damit sich Sammelbuchungen nicht gegenseitig blockieren
+    private void lockStripes(boolean[] stripes) {
+        for (int i = 0; i < eventLocks.length; i++) {
+            if (stripes[i]) {
+                eventLocks[i].lock();
+            }
+        }
+    }
+
+    private void unlockStripes(boolean[] stripes) {
+        for (int i = eventLocks.length - 1; i >= 0; i--) {
+            if (stripes[i]) {
+                eventLocks[i].unlock();
+            }
+        }
+    }
+
+    private void lockAll() {
+        for (ReentrantLock lock : eventLocks) {
+            lock.lock();
+        }
+    }
+
+    private void unlockAll() {
+        for (int i = eventLocks.length - 1; i >= 0; i--) {
+            eventLocks[i].unlock();
+        }
+    }
+
+    // Liefert eine Momentaufnahme; Änderungen an der Liste wirken sich nicht auf den Service aus
+    public List<Reservation> getReservations() {
+        return store.findAll();
+    }
+
+    // Blättert ohne Sperre durch alle Buchungen; cursor ist zu Beginn 0, danach Page.next()
+    public Page<Reservation> getReservations(int cursor, int limit) {
+        return store.page(cursor, limit);
+    }
+
+    // Für Auswertungen: blockiert keine Buchungen und kopiert nicht den ganzen Bestand
+    public Stream<Reservation> streamReservations() {
+        return store.stream();
+    }
+
+    public Stream<Reservation> streamReservations(Event event) {
+        return store.streamByEvent(event);
+    }
+
+    public Stream<Reservation> streamReservations(Customer customer) {
+        return store.streamByCustomer(customer);
+    }
+
+    // Buchungen für Events mit from <= Datum < to; durchsucht nur die gebuchten Events, nicht alle Buchungen
+    public Stream<Reservation> streamReservations(Date from, Date to) {
+        long start = from.getTime();
+        long end = to.getTime();
+        return store.bookedEvents().stream()
+                .filter(event -> event.date() != null && event.date().getTime() >= start && event.date().getTime() < end)
+                .flatMap(store::streamByEvent);
+    }
+
+    // Laufend aktualisierte Umsatz- und Auslastungssummen; Abfragen sperren nichts
+    public SalesAggregates getSalesAggregates() {
+        return salesAggregates;
+    }
+
+    // Berechnet die Summen neu aus dem Bestand, z. B. zum Abgleich mit getSalesAggregates()
+    public SalesAggregates recomputeSalesAggregates() {
+        return SalesAggregates.of(store.stream(), clock.getZone());
+    }
+
+    // Spaltenweise Momentaufnahme für Auswertungen über den ganzen Bestand. Sie wird erst nach einer Änderung am Bestand
+    // neu aufgebaut und bis dahin von allen Aufrufern geteilt, darf also nicht mit add() verändert werden.
+    public ReservationColumns getReservationColumns() {
+        long version = modifications.get();
+        CachedColumns cached = cachedColumns;
+        if (cached != null && cached.version() == version) {
+            return cached.columns();
+        }
+        // Änderungen während des Aufbaus erhöhen den Zähler; der nächste Aufruf baut dann erneut auf
+        ReservationColumns columns = new ReservationColumns(store.size());
+        store.stream().forEach(columns::add);
+        // Die Kopie wird von allen Aufrufern geteilt und darf daher nicht mehr verändert werden
+        columns.freeze();
+        cachedColumns = new CachedColumns(version, columns);
+        return columns;
+    }
+
+    public Reservation getReservation(Event event, Customer customer) {
+        return store.find(event, customer);
+    }
+
+    // Nach einer Zusammenführung gilt nur noch die ID der neueren Buchung
+    public Reservation getReservation(UUID reservationId) {
+        return store.findByUuid(reservationId);
     }
 
     public void serializeReservations(String filename) {
-        try (ObjectOutputStream out = new ObjectOutputStream(new FileOutputStream(filename))) {
-            out.writeObject(reservations);
+        try (OutputStream out = new FileOutputStream(filename)) {
+            BinarySnapshot.writeReservations(getReservations(), out);
         } catch (IOException e) {
             throw new RuntimeException("Serialisierung fehlgeschlagen");
         }
     }
 
-    @SuppressWarnings("unchecked")
+    // Dekodiert die Datei vollständig, bevor der bisherige Stand ersetzt wird; eine fehlerhafte Datei lässt ihn unverändert
     public void deserializeReservations(String filename) {
-        try (ObjectInputStream in = new ObjectInputStream(new FileInputStream(filename))) {
-            List<Reservation> deserializedReservations = (List<Reservation>) in.readObject();
-            reservations.clear();
-            reservations.addAll(deserializedReservations);
-        } catch (IOException | ClassNotFoundException e) {
+        try {
+            List<Reservation> loaded;
+            try (InputStream in = new FileInputStream(filename)) {
+                loaded = BinarySnapshot.readReservations(in);
+            }
+            lockAll();
+            try {
+                store.clear();
+                reservedSeatsByEvent.clear();
+                salesAggregates.clear();
+                modifications.incrementAndGet();
+                try {
+                    loaded.forEach(this::putReservation);
+                } finally {
+                    publishAllChanges();
+                }
+                if (journal != null) {
+                    // Das Journal bezieht sich auf den alten Zustand
+                    journal.checkpoint(getReservations());
+                }
+            } finally {
+                unlockAll();
+            }
+        } catch (IOException | RuntimeException e) {
             throw new RuntimeException("Deserialisierung fehlgeschlagen");
         }
     }
+
+    // Beendet den Versand der Verfügbarkeits-Updates; Journal, Store und Outbox gehören dem Aufrufer
+    @Override
+    public synchronized void close() {
+        closed = true;
+        if (availabilityPublisher != null) {
+            availabilityPublisher.close();
+        }
+    }
+
+    // Ergebnis der Zusammenführung: Journal-Sequenz, auf die gewartet werden muss, und die ID der ergänzten Buchung oder null
+    record Commit(long journalSequence, UUID replaced) {
+
+        boolean merged() {
+            return replaced != null;
+        }
+    }
+
+    // Ergebnis einer Freigabe: freigegebene Plätze, verbleibende Buchung (oder null) und Journal-Sequenz
+    record Release(Reservation released, Reservation remaining, long journalSequence) {
+    }
+
+    private record CachedColumns(long version, ReservationColumns columns) {
+    }
+
+    private record BulkKey(String customerName, UUID eventId) {
+    }
 }
@@ -0,0 +1,118 @@
+package de.hsh.service;
+
+import de.hsh.dto.Event;
+import de.hsh.dto.Reservation;
+import de.hsh.dto.SalesTotals;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+// Fortlaufend gepflegte Umsatz- und Auslastungssummen je Event, Veranstalter (Event.organizerEmail()) und Tag.
+// Jede Änderung der gebuchten Plätze wird als Differenz übernommen; Abfragen sind ein einzelner Map-Zugriff.
+// Ein Event zählt zur Kapazität von Veranstalter und Tag nur, solange es Buchungen hat: forOrganizer und forDay liefern
+// die Auslastung der gebuchten Events, nicht die aller Events im Katalog, denn ungebuchte Events kennt der Bestand nicht.
+// Dadurch ergibt eine Neuberechnung aus dem Bestand (of) dieselben Summen, auch nach Stornierungen.
+public class SalesAggregates {
+
+    private final ZoneId zone;
+    private final Map<UUID, SalesTotals> byEvent = new ConcurrentHashMap<>();
+    private final Map<String, SalesTotals> byOrganizer = new ConcurrentHashMap<>();
+    private final Map<LocalDate, SalesTotals> byDay = new ConcurrentHashMap<>();
+
+    public SalesAggregates(ZoneId zone) {
+        this.zone = zone;
+    }
+
+    public static SalesAggregates of(Stream<Reservation> reservations, ZoneId zone) {
+        SalesAggregates aggregates = new SalesAggregates(zone);
+        reservations.forEach(reservation -> aggregates.add(reservation.event(), reservation.reservedSeats()));
+        return aggregates;
+    }
+
+    // Aus den Platzsummen je Event, z. B. ReservationStore.reservedSeatsByEvent(); Umsatz und Kapazität hängen nur
+    // von der Summe je Event ab, die einzelnen Buchungen werden also nicht gebraucht
+    public static SalesAggregates of(Collection<Event> events, Map<UUID, Integer> seatsByEvent, ZoneId zone) {
+        SalesAggregates aggregates = new SalesAggregates(zone);
+        for (Event event : events) {
+            aggregates.add(event, seatsByEvent.getOrDefault(event.identifier(), 0));
+        }
+        return aggregates;
+    }
+
+    // seats ist die Änderung der gebuchten Plätze, bei Freigaben negativ
+    public void add(Event event, int seats) {
+        if (seats == 0) {
+            return;
+        }
+        long revenueCents = seats * Math.round(event.price() * 100);
+        // Wird in compute gesetzt; Änderungen an einem Event laufen unter dessen Sperre im ReservationService
+        long[] capacity = new long[1];
+        byEvent.compute(event.identifier(), (_, current) -> {
+            long before = current == null ? 0 : current.seats();
+            long after = before + seats;
+            // Die Kapazität kommt mit der ersten Buchung hinzu und geht mit der letzten
+            if (before == 0 && after > 0) {
+                capacity[0] = event.totalSeats();
+            } else if (before > 0 && after <= 0) {
+                capacity[0] = -event.totalSeats();
+            }
+            SalesTotals updated = (current == null ? SalesTotals.EMPTY : current).plus(seats, capacity[0], revenueCents);
+            return updated.seats() <= 0 ? null : updated;
+        });
+
+        if (event.organizerEmail() != null) {
+            merge(byOrganizer, event.organizerEmail(), seats, capacity[0], revenueCents);
+        }
+        if (event.date() != null) {
+            merge(byDay, LocalDate.ofInstant(event.date().toInstant(), zone), seats, capacity[0], revenueCents);
+        }
+    }
+
+    private static <K> void merge(Map<K, SalesTotals> totals, K key, long seats, long capacity, long revenueCents) {
+        totals.compute(key, (_, current) -> {
+            SalesTotals updated = (current == null ? SalesTotals.EMPTY : current).plus(seats, capacity, revenueCents);
+            return updated.isEmpty() ? null : updated;
+        });
+    }
+
+    public SalesTotals forEvent(Event event) {
+        return byEvent.getOrDefault(event.identifier(), SalesTotals.EMPTY);
+    }
+
+    public SalesTotals forOrganizer(String organizerEmail) {
+        return byOrganizer.getOrDefault(organizerEmail, SalesTotals.EMPTY);
+    }
+
+    public SalesTotals forDay(LocalDate day) {
+        return byDay.getOrDefault(day, SalesTotals.EMPTY);
+    }
+
+    public Map<UUID, SalesTotals> byEvent() {
+        return Collections.unmodifiableMap(byEvent);
+    }
+
+    public Map<String, SalesTotals> byOrganizer() {
+        return Collections.unmodifiableMap(byOrganizer);
+    }
+
+    public Map<LocalDate, SalesTotals> byDay() {
+        return Collections.unmodifiableMap(byDay);
+    }
+
+    // Vergleicht alle Summen, z. B. mit einer Neuberechnung aus dem Bestand
+    public boolean matches(SalesAggregates other) {
+        return byEvent.equals(other.byEvent) && byOrganizer.equals(other.byOrganizer) && byDay.equals(other.byDay);
+    }
+
+    void clear() {
+        byEvent.clear();
+        byOrganizer.clear();
+        byDay.clear();
+    }
+}
@@ -0,0 +1,198 @@
+package de.hsh.service;
+
+import de.hsh.dto.Customer;
+import de.hsh.dto.Event;
+import de.hsh.dto.Reservation;
+import de.hsh.persistence.ReservationJournal;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntConsumer;
+import java.util.function.IntFunction;
+import java.util.stream.Stream;
+
+// Verteilt Buchungen nach Event.identifier() auf mehrere ReservationServices.
+// Jeder Shard wird nur von seinem eigenen Writer-Thread verändert, seine Locks sind also nie umkämpft;
+// Lesezugriffe gehen direkt an den Shard. Blacklist-Abfrage, Warten auf das Journal und Benachrichtigung laufen beim Aufrufer,
+// der Writer-Thread führt nur Kapazitätsprüfung, Zusammenführung und Freigaben aus und wird von Fremddiensten nicht aufgehalten.
+public class ShardedReservationService implements AutoCloseable {
+
+    private final ReservationService[] shards;
+    private final ExecutorService[] writers;
+    // Die ID verrät das Event nicht; der Index wird auf den Writer-Threads gepflegt, damit er zum Shard passt
+    private final Map<UUID, Integer> shardByReservation = new ConcurrentHashMap<>();
+    // Für addReservationAsync: Blacklist und Benachrichtigung blockieren dort einen virtuellen Thread
+    private final ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor();
+
+    public ShardedReservationService(int shardCount, BlacklistService blacklistService, EmailService emailService) {
+        this(shardCount, _ -> new ReservationService(blacklistService, emailService));
+    }
+
+    // Die Fabrik erhält die Shard-Nummer, z. B. für einen eigenen MappedReservationStore je Shard
+    public ShardedReservationService(int shardCount, IntFunction<ReservationService> shardFactory) {
+        if (shardCount <= 0) throw new IllegalArgumentException("Die Anzahl der Shards muss größer als null sein");
+
+        this.shards = new ReservationService[shardCount];
+        this.writers = new ExecutorService[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = shardFactory.apply(i);
+            writers[i] = Executors.newSingleThreadExecutor(Thread.ofPlatform().name("reservation-shard-" + i).daemon(true).factory());
+        }
+    }
+
+    public void addReservation(Reservation reservation) {
+        int shard = shardOf(reservation.event());
+        shards[shard].addReservation(reservation, commit -> await(CompletableFuture.supplyAsync(() -> {
+            ReservationService.Commit committed = commit.get();
+            // Nach einer Zusammenführung gilt nur noch die ID der neueren Buchung
+            if (committed.merged()) {
+                shardByReservation.remove(committed.replaced());
+            }
+            shardByReservation.put(reservation.uuid(), shard);
+            return committed;
+        }, writers[shard])));
+    }
+
+    // Kehrt sofort zurück; Ablehnungen (Blacklist, ausverkauft) schließen das Future mit IllegalArgumentException ab
+    public CompletableFuture<Void> addReservationAsync(Reservation reservation) {
+        return CompletableFuture.runAsync(() -> addReservation(reservation), callers);
+    }
+
+    public void cancel(UUID reservationId) {
+        int shard = shardOf(reservationId);
+        shards[shard].cancel(reservationId, release -> await(CompletableFuture.supplyAsync(() -> released(release.get()), writers[shard])));
+    }
+
+    public Reservation releaseSeats(UUID reservationId, int seats) {
+        int shard = shardOf(reservationId);
+        return shards[shard].releaseSeats(reservationId, seats, release -> await(CompletableFuture.supplyAsync(() -> released(release.get()), writers[shard])));
+    }
+
+    private ReservationService.Release released(ReservationService.Release release) {
+        if (release.remaining() == null) {
+            shardByReservation.remove(release.released().uuid());
+        }
+        return release;
+    }
+
+    public int getAvailableSeats(Event event) {
+        return shards[shardOf(event)].getAvailableSeats(event);
+    }
+
+    public Reservation getReservation(Event event, Customer customer) {
+        return shards[shardOf(event)].getReservation(event, customer);
+    }
+
+    public Reservation getReservation(UUID reservationId) {
+        Integer shard = shardByReservation.get(reservationId);
+        return shard == null ? null : shards[shard].getReservation(reservationId);
+    }
+
+    public List<Reservation> getReservations() {
+        List<Reservation> reservations = new ArrayList<>();
+        for (ReservationService shard : shards) {
+            reservations.addAll(shard.getReservations());
+        }
+        return reservations;
+    }
+
+    public Stream<Reservation> streamReservations() {
+        return Arrays.stream(shards).flatMap(ReservationService::streamReservations);
+    }
+
+    public int getShardCount() {
+        return shards.length;
+    }
+
+    // Jeder Shard bekommt sein eigenes Journal, z. B. in einem eigenen Verzeichnis
+    public void recoverFrom(IntFunction<ReservationJournal> journals) {
+        onEachShard(shard -> {
+            shards[shard].recoverFrom(journals.apply(shard));
+            indexShard(shard);
+        });
+    }
+
+    // Je Shard eine Datei <filename>.shard-<n>-of-<Anzahl>; geschrieben wird parallel auf den Writer-Threads
+    public void serializeReservations(String filename) {
+        onEachShard(shard -> shards[shard].serializeReservations(shardFile(filename, shard)));
+    }
+
+    // Dateien mit anderer Shard-Anzahl werden nicht gefunden, da die Zuordnung der Events dann nicht mehr stimmt
+    public void deserializeReservations(String filename) {
+        onEachShard(shard -> {
+            shards[shard].deserializeReservations(shardFile(filename, shard));
+            indexShard(shard);
+        });
+    }
+
+    String shardFile(String filename, int shard) {
+        return filename + ".shard-" + shard + "-of-" + shards.length;
+    }
+
+    int shardOf(Event event) {
+        ReservationService.checkEventIdentifier(event);
+        return Math.floorMod(event.identifier().hashCode(), shards.length);
+    }
+
+    private int shardOf(UUID reservationId) {
+        Integer shard = shardByReservation.get(reservationId);
+        if (shard == null) {
+            throw new IllegalArgumentException("Die Buchung existiert nicht.");
+        }
+        return shard;
+    }
+
+    // Läuft auf dem Writer-Thread des Shards, nachdem sein Bestand ersetzt wurde
+    private void indexShard(int shard) {
+        shardByReservation.values().removeIf(indexed -> indexed == shard);
+        shards[shard].streamReservations().forEach(reservation -> shardByReservation.put(reservation.uuid(), shard));
+    }
+
+    private void onEachShard(IntConsumer action) {
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[shards.length];
+        for (int i = 0; i < shards.length; i++) {
+            int shard = i;
+            futures[i] = CompletableFuture.runAsync(() -> action.accept(shard), writers[i]);
+        }
+        await(CompletableFuture.allOf(futures));
+    }
+
+    private static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    // Bereits übergebene Buchungen werden noch ausgeführt, danach werden die Shards geschlossen
+    @Override
+    public void close() {
+        callers.close();
+        for (ExecutorService writer : writers) {
+            writer.shutdown();
+        }
+        try {
+            for (ExecutorService writer : writers) {
+                writer.awaitTermination(1, TimeUnit.MINUTES);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for (ReservationService shard : shards) {
+            shard.close();
+        }
+    }
+}
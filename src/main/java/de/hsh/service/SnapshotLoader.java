@@ -0,0 +1,40 @@
+package de.hsh.service;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Lädt beim Start Events, Kunden und Buchungen gleichzeitig; jede Datei wird zusätzlich in Chunks parallel dekodiert
+public final class SnapshotLoader {
+
+    private SnapshotLoader() {
+    }
+
+    public static void loadAll(EventService eventService, String eventsFile,
+                               CustomerService customerService, String customersFile,
+                               ReservationService reservationService, String reservationsFile) {
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<?> events = executor.submit(() -> eventService.deserializeEvents(eventsFile));
+            Future<?> customers = executor.submit(() -> customerService.deserializeCustomers(customersFile));
+            Future<?> reservations = executor.submit(() -> reservationService.deserializeReservations(reservationsFile));
+            await(events);
+            await(customers);
+            await(reservations);
+        }
+    }
+
+    private static void await(Future<?> future) {
+        try {
+            future.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new RuntimeException("Laden fehlgeschlagen");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Laden fehlgeschlagen");
+        }
+    }
+}
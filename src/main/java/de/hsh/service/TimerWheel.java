@@ -0,0 +1,85 @@
+package de.hsh.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+// Hashed Timer Wheel: Einplanen in O(1), beim Vorrücken werden nur die fälligen Buckets angesehen.
+// Einträge werden nicht storniert; der Empfänger ignoriert abgelaufene Einträge, die bereits erledigt sind.
+final class TimerWheel<T> {
+
+    private final long tickMillis;
+    private final List<List<Entry<T>>> buckets;
+    private final int mask;
+    private final ReentrantLock advanceLock = new ReentrantLock();
+    // Zuletzt abgearbeiteter Tick; Einträge für diesen oder frühere Ticks landen im nächsten
+    private volatile long lastTick;
+
+    TimerWheel(long tickMillis, int bucketCount, long nowMillis) {
+        if (tickMillis <= 0) throw new IllegalArgumentException("Die Tick-Dauer muss größer als null sein");
+        if (Integer.bitCount(bucketCount) != 1)
+            throw new IllegalArgumentException("Die Anzahl der Buckets muss eine Zweierpotenz sein");
+
+        this.tickMillis = tickMillis;
+        this.buckets = new ArrayList<>(bucketCount);
+        for (int i = 0; i < bucketCount; i++) {
+            buckets.add(new ArrayList<>());
+        }
+        this.mask = bucketCount - 1;
+        this.lastTick = nowMillis / tickMillis;
+    }
+
+    void schedule(T value, long deadlineMillis) {
+        Entry<T> entry = new Entry<>(value, deadlineMillis);
+        while (true) {
+            long tick = Math.max(deadlineMillis / tickMillis, lastTick + 1);
+            List<Entry<T>> bucket = buckets.get((int) (tick & mask));
+            synchronized (bucket) {
+                // advance setzt lastTick vor dem Leeren des Buckets; war es schneller, ist der nächste Tick dran
+                if (tick > lastTick) {
+                    bucket.add(entry);
+                    return;
+                }
+            }
+        }
+    }
+
+    // Meldet alle Einträge mit deadline <= nowMillis; rückt bereits ein anderer Thread vor, kehrt der Aufruf sofort zurück
+    void advance(long nowMillis, Consumer<T> onExpired) {
+        long nowTick = nowMillis / tickMillis;
+        if (nowTick <= lastTick || !advanceLock.tryLock()) {
+            return;
+        }
+        List<T> expired = new ArrayList<>();
+        try {
+            List<Entry<T>> pending = new ArrayList<>();
+            // Nach langer Pause genügt eine Umdrehung, um jeden Bucket einmal zu sehen
+            long firstTick = Math.max(lastTick + 1, nowTick - buckets.size() + 1);
+            for (long tick = firstTick; tick <= nowTick; tick++) {
+                lastTick = tick;
+                List<Entry<T>> bucket = buckets.get((int) (tick & mask));
+                synchronized (bucket) {
+                    for (Entry<T> entry : bucket) {
+                        if (entry.deadlineMillis() <= nowMillis) {
+                            expired.add(entry.value());
+                        } else {
+                            // Gehört zu einer späteren Umdrehung
+                            pending.add(entry);
+                        }
+                    }
+                    bucket.clear();
+                }
+            }
+            for (Entry<T> entry : pending) {
+                schedule(entry.value(), entry.deadlineMillis());
+            }
+        } finally {
+            advanceLock.unlock();
+        }
+        expired.forEach(onExpired);
+    }
+
+    private record Entry<T>(T value, long deadlineMillis) {
+    }
+}
@@ -0,0 +1,38 @@
+package de.hsh.dto;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PageTest {
+
+    @Test
+    @DisplayName("Test: Seiten werden aus einer Liste geschnitten, die letzte Seite hat keine Folgeposition")
+    void pagesFromList() {
+        List<Integer> source = List.of(1, 2, 3, 4, 5);
+
+        Page<Integer> first = Page.of(source, 0, 2);
+        assertEquals(List.of(1, 2), first.items());
+        assertEquals(2, first.next());
+        assertTrue(first.hasNext());
+
+        Page<Integer> last = Page.of(source, 4, 2);
+        assertEquals(List.of(5), last.items());
+        assertFalse(last.hasNext());
+
+        assertEquals(new Page<>(List.of(), -1), Page.of(source, 10, 2));
+    }
+
+    @Test
+    void invalidBoundsThrowException() {
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> Page.of(List.of(1), -1, 2));
+        assertEquals("Die Position darf nicht negativ sein", exception.getMessage());
+        exception = assertThrows(IllegalArgumentException.class, () -> Page.of(List.of(1), 0, 0));
+        assertEquals("Die Seitengröße muss größer als null sein", exception.getMessage());
+        assertThrows(IllegalArgumentException.class, () -> new Page<>(List.of(), -2));
+        assertThrows(IllegalArgumentException.class, () -> new Page<>(null, -1));
+    }
+}
@@ -0,0 +1,26 @@
+package de.hsh.dto;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SalesTotalsTest {
+
+    @Test
+    @DisplayName("Test: Umsatz in Euro und Auslastung in Prozent")
+    void revenueAndOccupancy() {
+        SalesTotals totals = SalesTotals.EMPTY.plus(30, 120, 150_050);
+
+        assertEquals(1500.5, totals.revenue());
+        assertEquals(25.0, totals.occupancy());
+        assertFalse(totals.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Test: Ohne Kapazität ist die Auslastung null")
+    void occupancyWithoutCapacity() {
+        assertEquals(0.0, SalesTotals.EMPTY.occupancy());
+        assertTrue(SalesTotals.EMPTY.plus(5, 100, 500).plus(-5, -100, -500).isEmpty());
+    }
+}
@@ -0,0 +1,55 @@
+package de.hsh.dto;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.Date;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SeatHoldTest {
+
+    @Test
+    void validSeatHold() {
+        Customer customer = new Customer("Max Mustermann", "Musterstraße 1");
+        Event event = new Event(UUID.randomUUID(), "Konzert", new Date(), 50.0, 100, "organizer@mail.com");
+        UUID holdUUID = UUID.randomUUID();
+
+        SeatHold hold = new SeatHold(holdUUID, event, customer, 4, 1_000L);
+
+        assertEquals(holdUUID, hold.uuid());
+        assertEquals(event, hold.event());
+        assertEquals(customer, hold.customer());
+        assertEquals(4, hold.heldSeats());
+        assertEquals(1_000L, hold.expiresAt());
+    }
+
+    @ParameterizedTest
+    @DisplayName("Test für verschiedene ungültige Platzreservierungen")
+    @MethodSource("provideSeatHoldData")
+    void invalidSeatHold(UUID holdUUID, Event event, Customer customer, int heldSeats, String expectedMessage) {
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () ->
+                new SeatHold(holdUUID, event, customer, heldSeats, 1_000L)
+        );
+        assertEquals(expectedMessage, exception.getMessage());
+    }
+
+    static Stream<Arguments> provideSeatHoldData() {
+        Customer customer = new Customer("Max Mustermann", "Musterstraße 1");
+        Event event = new Event(UUID.randomUUID(), "Konzert", new Date(), 50.0, 100, "organizer@mail.com");
+        UUID holdUUID = UUID.randomUUID();
+
+        return Stream.of(
+                Arguments.of(null, event, customer, 10, "UUID darf nicht null sein"),
+                Arguments.of(holdUUID, null, customer, 10, "Event darf nicht null sein"),
+                Arguments.of(holdUUID, event, null, 10, "Kunde darf nicht null sein"),
+                Arguments.of(holdUUID, event, customer, 0, "Gehaltene Plätze müssen größer als null sein"),
+                Arguments.of(holdUUID, event, customer, 150, "Gehaltene Plätze dürfen nicht größer als verfügbare Sitzplatzanzahl sein.")
+        );
+    }
+}
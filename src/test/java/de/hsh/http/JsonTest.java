@@ -0,0 +1,55 @@
+package de.hsh.http;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonTest {
+
+    @Test
+    @DisplayName("Test: Maps, Listen und einfache Werte werden geschrieben, Sonderzeichen maskiert")
+    void writesNestedValues() {
+        UUID id = UUID.fromString("00000000-0000-0000-0000-000000000001");
+        Map<String, Object> value = new LinkedHashMap<>();
+        value.put("id", id);
+        value.put("title", "Sag \"Hallo\"\n");
+        value.put("date", new Date(42L));
+        value.put("seats", List.of(1, 2));
+        value.put("price", 9.5);
+        value.put("open", true);
+        value.put("note", null);
+
+        assertEquals("{\"id\":\"00000000-0000-0000-0000-000000000001\",\"title\":\"Sag \\\"Hallo\\\"\\n\",\"date\":42,"
+                + "\"seats\":[1,2],\"price\":9.5,\"open\":true,\"note\":null}", Json.write(value));
+    }
+
+    @Test
+    @DisplayName("Test: Flache Objekte werden gelesen")
+    void readsFlatObject() {
+        Map<String, Object> value = Json.readObject(" { \"name\" : \"M\\u00fcller \\\"M\\\"\", \"seats\": 3, \"price\": -1.5e1, \"vip\": false, \"x\": null } ");
+
+        assertEquals("Müller \"M\"", value.get("name"));
+        assertEquals(3L, value.get("seats"));
+        assertEquals(-15.0, value.get("price"));
+        assertEquals(false, value.get("vip"));
+        assertTrue(value.containsKey("x"));
+        assertTrue(Json.readObject("{}").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Test: Ungültiges JSON führt zu IllegalArgumentException")
+    void rejectsMalformedInput() {
+        assertThrows(IllegalArgumentException.class, () -> Json.readObject(""));
+        assertThrows(IllegalArgumentException.class, () -> Json.readObject("{\"a\": 1"));
+        assertThrows(IllegalArgumentException.class, () -> Json.readObject("{\"a\": 1} x"));
+        assertThrows(IllegalArgumentException.class, () -> Json.readObject("{\"a\": 1-2}"));
+        assertThrows(IllegalArgumentException.class, () -> Json.readObject("[1]"));
+    }
+}
@@ -0,0 +1,212 @@
+package de.hsh.http;
+
+import de.hsh.dto.Customer;
+import de.hsh.dto.Event;
+import de.hsh.metrics.ReservationMetrics;
+import de.hsh.persistence.InMemoryReservationStore;
+import de.hsh.service.AdmissionController;
+import de.hsh.service.BlacklistService;
+import de.hsh.service.CustomerService;
+import de.hsh.service.EmailService;
+import de.hsh.service.EventService;
+import de.hsh.service.ReservationService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ReservationHttpServerTest {
+
+    private ReservationHttpServer server;
+    private ReservationService reservationService;
+    private BlacklistService blacklistServiceMock;
+    private final HttpClient client = HttpClient.newHttpClient();
+    private Event event;
+
+    @BeforeEach
+    void setUp() {
+        blacklistServiceMock = mock(BlacklistService.class);
+        reservationService = new ReservationService(blacklistServiceMock, mock(EmailService.class));
+        EventService eventService = new EventService();
+        CustomerService customerService = new CustomerService();
+        event = new Event(UUID.randomUUID(), "Konzert", new Date(), 50.0, 100, "organizer@mail.com");
+        eventService.addEvent(event);
+        customerService.addCustomer(new Customer("Max Mustermann", "Musterstraße 1"));
+        customerService.addCustomer(new Customer("Anna Müller", "Beispielstraße 2"));
+
+        server = new ReservationHttpServer(new InetSocketAddress("localhost", 0), reservationService, eventService, customerService);
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.close();
+    }
+
+    private HttpResponse<String> get(String path) throws Exception {
+        return client.send(HttpRequest.newBuilder(uri(path)).GET().build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpResponse<String> post(String path, String body) throws Exception {
+        return client.send(HttpRequest.newBuilder(uri(path)).POST(HttpRequest.BodyPublishers.ofString(body)).build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + server.getPort() + path);
+    }
+
+    private String booking(String customerName, int seats) {
+        return "{\"eventId\": \"" + event.identifier() + "\", \"customerName\": \"" + customerName + "\", \"seats\": " + seats + "}";
+    }
+
+    @Test
+    @DisplayName("Test: Eine Buchung über HTTP verringert die freien Plätze")
+    void bookingReducesAvailableSeats() throws Exception {
+        HttpResponse<String> response = post("/reservations", booking("Max Mustermann", 10));
+
+        assertEquals(201, response.statusCode());
+        assertTrue(response.body().contains("\"reservedSeats\":10"));
+        assertTrue(response.headers().firstValue("Content-Type").orElse("").startsWith("application/json"));
+        assertEquals(90, reservationService.getAvailableSeats(event));
+
+        HttpResponse<String> seats = get("/events/" + event.identifier() + "/seats");
+        assertEquals(200, seats.statusCode());
+        assertEquals("{\"eventId\":\"" + event.identifier() + "\",\"availableSeats\":90}", seats.body());
+    }
+
+    @Test
+    @DisplayName("Test: Fachliche Fehler werden zu 400, unbekannte Events und Kunden zu 404")
+    void mapsErrorsToStatusCodes() throws Exception {
+        when(blacklistServiceMock.isBlacklisted(anyString())).thenAnswer(invocation -> invocation.getArgument(0).equals("Anna Müller"));
+
+        assertEquals(400, post("/reservations", booking("Max Mustermann", 101)).statusCode());
+        assertEquals(400, post("/reservations", booking("Anna Müller", 1)).statusCode());
+        assertEquals(400, post("/reservations", booking("Max Mustermann", 0)).statusCode());
+        assertEquals(400, post("/reservations", "{\"eventId\": 1").statusCode());
+        assertEquals(404, post("/reservations", booking("Erika Unbekannt", 1)).statusCode());
+        assertEquals(404, get("/events/" + UUID.randomUUID() + "/seats").statusCode());
+        assertEquals(400, get("/events/keine-uuid/seats").statusCode());
+        assertEquals(405, get("/reservations").statusCode());
+        assertTrue(post("/reservations", booking("Max Mustermann", 101)).body().startsWith("{\"error\":"));
+        assertEquals(100, reservationService.getAvailableSeats(event));
+    }
+
+    @Test
+    @DisplayName("Test: Platzangaben außerhalb des int-Bereichs werden zu 400")
+    void seatsOutsideIntRangeAreRejected() throws Exception {
+        String prefix = "{\"eventId\": \"" + event.identifier() + "\", \"customerName\": \"Max Mustermann\", \"seats\": ";
+
+        assertEquals(400, post("/reservations", prefix + "2147483648}").statusCode());
+        assertEquals(400, post("/reservations", prefix + "-2147483649}").statusCode());
+        assertEquals(100, reservationService.getAvailableSeats(event));
+    }
+
+    @Test
+    @DisplayName("Test: Zu große Anfragen werden mit 413 abgewiesen")
+    void oversizedBodyIsRejected() throws Exception {
+        String padding = "x".repeat(70 * 1024);
+        HttpResponse<String> response = post("/reservations", "{\"padding\": \"" + padding + "\"}");
+
+        assertEquals(413, response.statusCode());
+        assertEquals(100, reservationService.getAvailableSeats(event));
+    }
+
+    @Test
+    @DisplayName("Test: Neu angelegte Events und Kunden können gebucht werden")
+    void createdEventsAndCustomersCanBeBooked() throws Exception {
+        HttpResponse<String> created = post("/events", "{\"title\": \"Oper\", \"date\": 1714593600000, \"price\": 80, \"totalSeats\": 20, \"organizerEmail\": \"oper@mail.com\"}");
+        assertEquals(201, created.statusCode());
+        String eventId = created.body().substring(created.body().indexOf("\"identifier\":\"") + 14, created.body().indexOf("\"identifier\":\"") + 50);
+        assertEquals(201, post("/customers", "{\"name\": \"Erika Neu\", \"address\": \"Neuer Weg 1\"}").statusCode());
+
+        HttpResponse<String> booking = post("/reservations", "{\"eventId\": \"" + eventId + "\", \"customerName\": \"Erika Neu\", \"seats\": 5}");
+
+        assertEquals(201, booking.statusCode());
+        assertEquals("{\"eventId\":\"" + eventId + "\",\"availableSeats\":15}", get("/events/" + eventId + "/seats").body());
+        assertEquals(400, post("/customers", "{\"name\": \"Erika Neu\", \"address\": \"Neuer Weg 1\"}").statusCode());
+        assertEquals(400, post("/events", "{\"title\": \"Ohne Preis\", \"totalSeats\": 20}").statusCode());
+        assertEquals("GET, POST", client.send(HttpRequest.newBuilder(uri("/events")).DELETE().build(), HttpResponse.BodyHandlers.ofString())
+                .headers().firstValue("Allow").orElse(""));
+    }
+
+    @Test
+    @DisplayName("Test: Events und Kunden werden seitenweise geliefert")
+    void listsEventsAndCustomersInPages() throws Exception {
+        HttpResponse<String> events = get("/events");
+        assertEquals(200, events.statusCode());
+        assertTrue(events.body().contains("\"title\":\"Konzert\""));
+        assertTrue(events.body().endsWith("\"next\":-1}"));
+
+        HttpResponse<String> customers = get("/customers?offset=0&limit=1");
+        assertEquals(200, customers.statusCode());
+        assertEquals("{\"items\":[{\"name\":\"Max Mustermann\",\"address\":\"Musterstraße 1\"}],\"next\":1}", customers.body());
+        assertEquals(400, get("/customers?limit=0").statusCode());
+        assertEquals(400, get("/customers?offset=x").statusCode());
+    }
+
+    @Test
+    @DisplayName("Test: Abweisungen der Zugangskontrolle werden zu 503 mit Retry-After")
+    void overloadMapsToServiceUnavailable() throws Exception {
+        AdmissionController admissionController = new AdmissionController(1, 0, Duration.ofSeconds(30), Duration.ofSeconds(1));
+        EventService events = new EventService();
+        events.addEvent(event);
+        CustomerService customers = new CustomerService();
+        customers.addCustomer(new Customer("Max Mustermann", "Musterstraße 1"));
+        ReservationService service = new ReservationService(blacklistServiceMock, mock(EmailService.class), null, new InMemoryReservationStore(), ReservationMetrics.NONE, Clock.systemUTC(), admissionController);
+        try (ReservationHttpServer overloadedServer = new ReservationHttpServer(new InetSocketAddress("localhost", 0), service, events, customers)) {
+            overloadedServer.start();
+            admissionController.acquire(event);
+            HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + overloadedServer.getPort() + "/reservations"))
+                    .POST(HttpRequest.BodyPublishers.ofString(booking("Max Mustermann", 1))).build();
+
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+
+            assertEquals(503, response.statusCode());
+            assertTrue(Integer.parseInt(response.headers().firstValue("Retry-After").orElseThrow()) >= 1);
+            assertEquals(100, service.getAvailableSeats(event));
+        }
+    }
+
+    @Test
+    @DisplayName("Test: Gleichzeitige Anfragen überbuchen das Event nicht")
+    void concurrentRequestsDoNotOverbook() throws Exception {
+        CustomerService customers = new CustomerService();
+        EventService events = new EventService();
+        events.addEvent(event);
+        for (int i = 0; i < 200; i++) {
+            customers.addCustomer(new Customer("Kunde " + i, "Straße " + i));
+        }
+        ReservationService service = new ReservationService(blacklistServiceMock, mock(EmailService.class));
+        try (ReservationHttpServer concurrentServer = new ReservationHttpServer(new InetSocketAddress("localhost", 0), service, events, customers)) {
+            concurrentServer.start();
+            List<CompletableFuture<HttpResponse<String>>> responses = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + concurrentServer.getPort() + "/reservations"))
+                        .POST(HttpRequest.BodyPublishers.ofString(booking("Kunde " + i, 1))).build();
+                responses.add(client.sendAsync(request, HttpResponse.BodyHandlers.ofString()));
+            }
+            long created = responses.stream().map(CompletableFuture::join).filter(response -> response.statusCode() == 201).count();
+
+            assertEquals(100, created);
+            assertEquals(0, service.getAvailableSeats(event));
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package de.hsh.metrics;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyHistogramTest {
+
+    @Test
+    @DisplayName("Test: Kleine Werte werden exakt gezählt")
+    void smallValuesAreExact() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 100; i++) {
+            histogram.record(i);
+        }
+
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(100, snapshot.count());
+        assertEquals(5050, snapshot.sum());
+        assertEquals(50, snapshot.valueAtPercentile(50));
+        assertEquals(99, snapshot.valueAtPercentile(99));
+        assertEquals(100, snapshot.valueAtPercentile(100));
+        assertEquals(50.5, snapshot.mean());
+    }
+
+    @Test
+    @DisplayName("Test: Große Werte liegen innerhalb der Bucket-Genauigkeit")
+    void largeValuesStayWithinPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        long[] values = {1_000, 123_456, 5_000_000, 987_654_321, Long.MAX_VALUE};
+        for (long value : values) {
+            histogram.record(value);
+            long reported = histogram.snapshot().valueAtPercentile(100);
+            assertTrue(reported >= value, "Wert " + value);
+            assertTrue(reported - value <= value / 64, "Wert " + value);
+            histogram.reset();
+        }
+    }
+
+    @Test
+    @DisplayName("Test: Bucket-Indizes sind lückenlos und monoton")
+    void bucketIndicesAreContiguous() {
+        for (int index = 1; index < 3_712; index++) {
+            long lowest = LatencyHistogram.highestValueOf(index - 1) + 1;
+            assertEquals(index, LatencyHistogram.indexOf(lowest));
+            assertEquals(index, LatencyHistogram.indexOf(LatencyHistogram.highestValueOf(index)));
+        }
+    }
+
+    @Test
+    @DisplayName("Test: Negative Werte werden als null gezählt")
+    void negativeValuesAreClamped() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(-5);
+
+        assertEquals(1, histogram.snapshot().count());
+        assertEquals(0, histogram.snapshot().valueAtPercentile(100));
+    }
+
+    @Test
+    @DisplayName("Test: Ungültiges Perzentil wird abgelehnt")
+    void rejectsInvalidPercentile() {
+        LatencyHistogram.Snapshot snapshot = new LatencyHistogram().snapshot();
+
+        assertThrows(IllegalArgumentException.class, () -> snapshot.valueAtPercentile(101));
+        assertEquals(0, snapshot.valueAtPercentile(50));
+    }
+
+    @Test
+    @DisplayName("Test: Parallele Aufzeichnung verliert keine Werte")
+    void concurrentRecordingLosesNothing() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            for (int t = 0; t < 8; t++) {
+                executor.submit(() -> {
+                    for (int i = 0; i < 10_000; i++) {
+                        histogram.record(i);
+                    }
+                });
+            }
+        }
+
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(80_000, snapshot.count());
+        assertEquals(9_999, snapshot.max());
+    }
+}
@@ -0,0 +1,66 @@
+package de.hsh.metrics;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RecordingReservationMetricsTest {
+
+    @Test
+    @DisplayName("Test: Snapshot enthält Zähler und Latenzen")
+    void snapshotContainsCountersAndLatencies() {
+        RecordingReservationMetrics metrics = new RecordingReservationMetrics();
+        metrics.bookingAccepted(1_000, false);
+        metrics.bookingAccepted(3_000, true);
+        metrics.bookingRejected(ReservationMetrics.Rejection.BLACKLISTED);
+        metrics.bookingRejected(ReservationMetrics.Rejection.SOLD_OUT);
+        metrics.bookingRejected(ReservationMetrics.Rejection.SOLD_OUT);
+        metrics.emailSent(500);
+
+        RecordingReservationMetrics.Snapshot snapshot = metrics.snapshot();
+        assertEquals(2, snapshot.accepted());
+        assertEquals(1, snapshot.merged());
+        assertEquals(1, snapshot.rejectedBlacklisted());
+        assertEquals(2, snapshot.rejectedSoldOut());
+        assertEquals(1, snapshot.emailsSent());
+        assertEquals(4_000, snapshot.bookingLatency().sum());
+        assertEquals(3_000, snapshot.bookingLatency().max());
+    }
+
+    @Test
+    @DisplayName("Test: Prometheus-Export enthält Zähler und Quantile in Sekunden")
+    void exportsPrometheusText() {
+        RecordingReservationMetrics metrics = new RecordingReservationMetrics();
+        metrics.bookingAccepted(2_000_000, false);
+        metrics.bookingRejected(ReservationMetrics.Rejection.SOLD_OUT);
+
+        String text = metrics.toPrometheus();
+
+        assertTrue(text.contains("# TYPE reservation_bookings_accepted_total counter\nreservation_bookings_accepted_total 1\n"));
+        assertTrue(text.contains("reservation_bookings_rejected_total{reason=\"sold_out\"} 1\n"));
+        assertTrue(text.contains("reservation_bookings_rejected_total{reason=\"blacklisted\"} 0\n"));
+        assertTrue(text.contains("# TYPE reservation_booking_duration_seconds summary\n"));
+        assertTrue(text.contains("reservation_booking_duration_seconds_sum 0.002000000\n"));
+        assertTrue(text.contains("reservation_booking_duration_seconds_count 1\n"));
+        assertTrue(text.contains("reservation_booking_duration_seconds{quantile=\"0.99\"} 0.002"));
+    }
+
+    @Test
+    @DisplayName("Test: Überlast-Ablehnungen, Warteschlange und Limit der Zugangskontrolle werden exportiert")
+    void exportsAdmissionMetrics() {
+        RecordingReservationMetrics metrics = new RecordingReservationMetrics();
+        metrics.bookingRejected(ReservationMetrics.Rejection.OVERLOADED);
+        metrics.admissionChanged(7, 32);
+
+        RecordingReservationMetrics.Snapshot snapshot = metrics.snapshot();
+        assertEquals(1, snapshot.rejectedOverloaded());
+        assertEquals(7, snapshot.queueDepth());
+        assertEquals(32, snapshot.concurrencyLimit());
+
+        String text = metrics.toPrometheus();
+        assertTrue(text.contains("reservation_bookings_rejected_total{reason=\"overloaded\"} 1\n"));
+        assertTrue(text.contains("# TYPE reservation_admission_queue_depth gauge\nreservation_admission_queue_depth 7\n"));
+        assertTrue(text.contains("reservation_admission_concurrency_limit 32\n"));
+    }
+}
@@ -0,0 +1,87 @@
+package de.hsh.persistence;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AppendOnlyListTest {
+
+    @Test
+    @DisplayName("Test: Eine Momentaufnahme sieht spätere Einträge nicht, die Live-Sicht schon")
+    void snapshotIsFrozen() {
+        AppendOnlyList<String> list = new AppendOnlyList<>();
+        list.add("a");
+        list.add("b");
+        List<String> snapshot = list.snapshot();
+        List<String> live = list.asList();
+
+        list.add("c");
+
+        assertEquals(List.of("a", "b"), snapshot);
+        assertEquals(List.of("a", "b", "c"), live);
+        assertEquals(3, list.size());
+        assertThrows(UnsupportedOperationException.class, () -> live.add("d"));
+        assertThrows(IndexOutOfBoundsException.class, () -> snapshot.get(2));
+    }
+
+    @Test
+    @DisplayName("Test: Einträge über mehrere Chunks bleiben in Reihenfolge")
+    void spansManyChunks() {
+        AppendOnlyList<Integer> list = new AppendOnlyList<>();
+        for (int i = 0; i < 5_000; i++) {
+            list.add(i);
+        }
+        List<Integer> snapshot = list.snapshot();
+        list.addAll(IntStream.range(5_000, 12_000).boxed().toList());
+
+        assertEquals(5_000, snapshot.size());
+        assertEquals(IntStream.range(0, 12_000).boxed().toList(), list.snapshot());
+        assertEquals(IntStream.range(0, 5_000).boxed().toList(), snapshot);
+    }
+
+    @Test
+    @DisplayName("Test: clear() lässt bestehende Momentaufnahmen unverändert")
+    void clearKeepsSnapshots() {
+        AppendOnlyList<String> list = new AppendOnlyList<>();
+        list.add("a");
+        List<String> snapshot = list.snapshot();
+
+        list.clear();
+        list.add("b");
+
+        assertEquals(List.of("a"), snapshot);
+        assertEquals(List.of("b"), list.asList());
+    }
+
+    @Test
+    @DisplayName("Test: Leser sehen beim parallelen Anhängen immer einen vollständigen Präfix")
+    void readersSeeCompletePrefix() throws InterruptedException {
+        AppendOnlyList<Integer> list = new AppendOnlyList<>();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        CountDownLatch done = new CountDownLatch(1);
+        Thread reader = Thread.ofPlatform().start(() -> {
+            while (done.getCount() > 0) {
+                List<Integer> snapshot = list.snapshot();
+                for (int i = 0; i < snapshot.size(); i++) {
+                    if (snapshot.get(i) != i) {
+                        failure.set(new AssertionError("Eintrag " + i + " ist " + snapshot.get(i)));
+                        return;
+                    }
+                }
+            }
+        });
+        for (int i = 0; i < 100_000; i++) {
+            list.add(i);
+        }
+        done.countDown();
+        reader.join();
+
+        assertNull(failure.get());
+    }
+}
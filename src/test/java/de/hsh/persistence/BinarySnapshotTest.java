@@ -0,0 +1,226 @@
+package de.hsh.persistence;
+
+import de.hsh.dto.Customer;
+import de.hsh.dto.Event;
+import de.hsh.dto.Reservation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BinarySnapshotTest {
+
+    private Event event1;
+    private Event event2;
+    private Customer customer1;
+    private Customer customer2;
+
+    @BeforeEach
+    void setUp() {
+        event1 = new Event(UUID.randomUUID(), "Konzert", new Date(), 50.0, 100, "organizer@mail.com");
+        event2 = new Event(UUID.randomUUID(), "Oper – Première", new Date(), 80.5, 300, "oper@mail.com");
+        customer1 = new Customer("Max Mustermann", "Musterstraße 1");
+        customer2 = new Customer("Anna Müller", "Beispielstraße 2");
+    }
+
+    @Test
+    void eventsRoundTrip() throws IOException {
+        Event withoutOptionalFields = new Event(null, null, null, 0.0, 0, null);
+        List<Event> events = List.of(event1, event2, withoutOptionalFields);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BinarySnapshot.writeEvents(events, out);
+
+        assertEquals(events, BinarySnapshot.readEvents(new ByteArrayInputStream(out.toByteArray())));
+    }
+
+    @Test
+    void customersRoundTrip() throws IOException {
+        List<Customer> customers = List.of(customer1, customer2, new Customer("x".repeat(255), "ä".repeat(255)));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BinarySnapshot.writeCustomers(customers, out);
+
+        assertEquals(customers, BinarySnapshot.readCustomers(new ByteArrayInputStream(out.toByteArray())));
+    }
+
+    @Test
+    @DisplayName("Test: Events und Kunden werden nur einmal geschrieben und beim Lesen geteilt")
+    void reservationsShareEventAndCustomerInstances() throws IOException {
+        List<Reservation> reservations = List.of(
+                new Reservation(UUID.randomUUID(), event1, customer1, 10),
+                new Reservation(UUID.randomUUID(), event1, customer2, 20),
+                new Reservation(UUID.randomUUID(), event2, customer1, 200));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BinarySnapshot.writeReservations(reservations, out);
+        List<Reservation> read = BinarySnapshot.readReservations(new ByteArrayInputStream(out.toByteArray()));
+
+        assertEquals(reservations, read);
+        assertSame(read.get(0).event(), read.get(1).event());
+        assertSame(read.get(0).customer(), read.get(2).customer());
+    }
+
+    @Test
+    @DisplayName("Test: Das Binärformat ist kleiner als Java-Serialisierung")
+    void binarySnapshotIsSmallerThanJavaSerialization() throws IOException {
+        List<Reservation> reservations = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            Customer customer = new Customer("Kunde " + i, "Straße " + i);
+            reservations.add(new Reservation(UUID.randomUUID(), i % 2 == 0 ? event1 : event2, customer, 1));
+        }
+
+        ByteArrayOutputStream binary = new ByteArrayOutputStream();
+        BinarySnapshot.writeReservations(reservations, binary);
+        ByteArrayOutputStream java = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(java)) {
+            out.writeObject(reservations);
+        }
+
+        assertTrue(binary.size() < java.size(), "Binär: " + binary.size() + " Bytes, Java: " + java.size() + " Bytes");
+    }
+
+    @Test
+    @DisplayName("Test: Mit ObjectOutputStream geschriebene Dateien bleiben lesbar")
+    void legacySnapshotsAreStillReadable() throws IOException {
+        List<Reservation> reservations = new ArrayList<>(List.of(new Reservation(UUID.randomUUID(), event1, customer1, 10)));
+        ByteArrayOutputStream java = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(java)) {
+            out.writeObject(reservations);
+        }
+
+        assertEquals(reservations, BinarySnapshot.readReservations(new ByteArrayInputStream(java.toByteArray())));
+    }
+
+    @Test
+    void readingWrongKindThrowsIOException() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BinarySnapshot.writeEvents(List.of(event1), out);
+
+        IOException exception = assertThrows(IOException.class, () -> BinarySnapshot.readCustomers(new ByteArrayInputStream(out.toByteArray())));
+        assertEquals("Falscher Snapshot-Typ: 1", exception.getMessage());
+    }
+
+    @Test
+    void unsupportedVersionThrowsIOException() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BinarySnapshot.writeEvents(List.of(event1), out);
+        byte[] bytes = out.toByteArray();
+        bytes[5] = 99;
+
+        IOException exception = assertThrows(IOException.class, () -> BinarySnapshot.readEvents(new ByteArrayInputStream(bytes)));
+        assertEquals("Nicht unterstützte Snapshot-Version: 99", exception.getMessage());
+    }
+
+    @Test
+    void truncatedSnapshotThrowsIOException() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BinarySnapshot.writeReservations(List.of(new Reservation(UUID.randomUUID(), event1, customer1, 10)), out);
+        byte[] truncated = Arrays.copyOf(out.toByteArray(), out.size() - 3);
+
+        assertThrows(IOException.class, () -> BinarySnapshot.readReservations(new ByteArrayInputStream(truncated)));
+    }
+
+    @Test
+    @DisplayName("Test: Mehrere Chunks werden parallel dekodiert und in Dateireihenfolge geliefert")
+    void multiChunkReservationsStreamInOrder() throws IOException {
+        List<Reservation> reservations = new ArrayList<>();
+        for (int i = 0; i < 2 * BinarySnapshot.CHUNK_SIZE + 5; i++) {
+            Customer customer = new Customer("Kunde " + i, "Weg " + i);
+            reservations.add(new Reservation(UUID.randomUUID(), i % 2 == 0 ? event1 : event2, customer, 1 + i % 50));
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BinarySnapshot.writeReservations(reservations, out);
+
+        List<Reservation> streamed = new ArrayList<>();
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            BinarySnapshot.readReservations(new ByteArrayInputStream(out.toByteArray()), streamed::add, pool);
+        } finally {
+            pool.shutdown();
+        }
+
+        assertEquals(reservations, streamed);
+    }
+
+    @Test
+    @DisplayName("Test: Mehrere Chunks von Kunden und Events")
+    void multiChunkCustomersAndEventsRoundTrip() throws IOException {
+        List<Customer> customers = new ArrayList<>();
+        List<Event> events = new ArrayList<>();
+        for (int i = 0; i < BinarySnapshot.CHUNK_SIZE + 1; i++) {
+            customers.add(new Customer("Kunde " + i, "Weg " + i));
+            events.add(new Event(UUID.randomUUID(), "Event " + i, new Date(i * 1000L), i, i, "organizer@mail.com"));
+        }
+        ByteArrayOutputStream customerBytes = new ByteArrayOutputStream();
+        ByteArrayOutputStream eventBytes = new ByteArrayOutputStream();
+        BinarySnapshot.writeCustomers(customers, customerBytes);
+        BinarySnapshot.writeEvents(events, eventBytes);
+
+        assertEquals(customers, BinarySnapshot.readCustomers(new ByteArrayInputStream(customerBytes.toByteArray())));
+        assertEquals(events, BinarySnapshot.readEvents(new ByteArrayInputStream(eventBytes.toByteArray())));
+    }
+
+    @Test
+    @DisplayName("Test: Snapshots im sequenziellen Format der Version 1 bleiben lesbar")
+    void readsSequentialVersionOne() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(BinarySnapshot.MAGIC);
+        out.writeShort(BinarySnapshot.VERSION_SEQUENTIAL);
+        out.writeByte(BinarySnapshot.KIND_RESERVATIONS);
+        BinarySnapshot.writeVarInt(out, 1);
+        BinarySnapshot.writeEvent(out, event1);
+        BinarySnapshot.writeVarInt(out, 1);
+        BinarySnapshot.writeCustomer(out, customer1);
+        BinarySnapshot.writeVarInt(out, 1);
+        UUID uuid = UUID.randomUUID();
+        out.writeLong(uuid.getMostSignificantBits());
+        out.writeLong(uuid.getLeastSignificantBits());
+        BinarySnapshot.writeVarInt(out, 0);
+        BinarySnapshot.writeVarInt(out, 0);
+        BinarySnapshot.writeVarInt(out, 7);
+        out.flush();
+
+        assertEquals(List.of(new Reservation(uuid, event1, customer1, 7)),
+                BinarySnapshot.readReservations(new ByteArrayInputStream(bytes.toByteArray())));
+    }
+
+    @Test
+    @DisplayName("Test: Beschädigter Chunk führt zu einer IOException")
+    void corruptedChunkThrowsIOException() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BinarySnapshot.writeReservations(List.of(new Reservation(UUID.randomUUID(), event1, customer1, 10)), out);
+        byte[] bytes = out.toByteArray();
+        // Der Kundenverweis der Buchung steht kurz vor dem Ende
+        bytes[bytes.length - 2] = 42;
+
+        IOException exception = assertThrows(IOException.class, () -> BinarySnapshot.readReservations(new ByteArrayInputStream(bytes)));
+        assertEquals("Ungültiger Buchungseintrag im Snapshot", exception.getMessage());
+    }
+
+    @Test
+    void varIntRoundTrip() throws IOException {
+        int[] values = {0, 1, 127, 128, 16_383, 16_384, Integer.MAX_VALUE};
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        for (int value : values) {
+            BinarySnapshot.writeVarInt(out, value);
+        }
+
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+        for (int value : values) {
+            assertEquals(value, BinarySnapshot.readVarInt(in));
+        }
+        assertThrows(IOException.class, () -> BinarySnapshot.writeVarInt(out, -1));
+    }
+}
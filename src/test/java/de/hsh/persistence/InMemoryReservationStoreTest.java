@@ -0,0 +1,137 @@
+package de.hsh.persistence;
+
+import de.hsh.dto.Customer;
+import de.hsh.dto.Event;
+import de.hsh.dto.Page;
+import de.hsh.dto.Reservation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InMemoryReservationStoreTest {
+
+    private InMemoryReservationStore store;
+    private Event event;
+
+    @BeforeEach
+    void setUp() {
+        store = new InMemoryReservationStore();
+        event = new Event(UUID.randomUUID(), "Konzert", new Date(), 50.0, 1_000_000, "organizer@mail.com");
+    }
+
+    private Reservation reservation(int customer) {
+        return new Reservation(UUID.randomUUID(), event, new Customer("Kunde " + customer, "Teststraße"), 1);
+    }
+
+    @Test
+    @DisplayName("Test: Entfernte Buchungen werden auch aus dem Schlüsselindex entfernt")
+    void removeDropsKey() {
+        Reservation reservation = reservation(1);
+        store.put(reservation);
+
+        store.remove(reservation);
+
+        assertNull(store.find(event, reservation.customer()));
+        assertNull(store.findByUuid(reservation.uuid()));
+        assertEquals(0, store.size());
+
+        // Ein erneutes put desselben Schlüssels legt einen neuen Platz an
+        store.put(reservation);
+        assertEquals(reservation, store.find(event, reservation.customer()));
+        assertEquals(List.of(reservation), store.findAll());
+    }
+
+    @Test
+    @DisplayName("Test: Bei vielen Stornierungen wächst die Platzliste nicht unbegrenzt")
+    void churnDoesNotGrowSlots() {
+        for (int i = 0; i < 20_000; i++) {
+            Reservation reservation = reservation(i);
+            store.put(reservation);
+            store.remove(reservation);
+        }
+        store.put(reservation(-1));
+
+        assertEquals(1, store.size());
+        assertTrue(store.getSlotCount() <= 2 * 1024, "Slots: " + store.getSlotCount());
+    }
+
+    @Test
+    @DisplayName("Test: Positionen bleiben beim Blättern über einen Neuaufbau hinweg gültig")
+    void cursorSurvivesCompaction() {
+        List<Reservation> reservations = new ArrayList<>();
+        for (int i = 0; i < 3_000; i++) {
+            reservations.add(reservation(i));
+            store.put(reservations.getLast());
+        }
+        Page<Reservation> first = store.page(0, 10);
+        assertEquals(reservations.subList(0, 10), first.items());
+
+        // Alle außer den letzten 100 stornieren; dabei wird die Liste neu aufgebaut
+        for (Reservation reservation : reservations.subList(10, 2_900)) {
+            store.remove(reservation);
+        }
+        assertTrue(store.getSlotCount() < 3_000);
+
+        List<Reservation> rest = new ArrayList<>();
+        Page<Reservation> page = store.page(first.next(), 10);
+        rest.addAll(page.items());
+        while (page.hasNext()) {
+            page = store.page(page.next(), 10);
+            rest.addAll(page.items());
+        }
+        assertEquals(reservations.subList(2_900, 3_000), rest);
+    }
+
+    @Test
+    @DisplayName("Test: Eine Seite überspringt nur begrenzt viele leere Plätze")
+    void pageSkipsBoundedNumberOfTombstones() {
+        List<Reservation> reservations = new ArrayList<>();
+        int count = 3 * InMemoryReservationStore.MAX_SKIPPED_PER_PAGE;
+        for (int i = 0; i < count; i++) {
+            reservations.add(reservation(i));
+            store.put(reservations.getLast());
+        }
+        // Weniger als die Hälfte stornieren, damit nicht neu aufgebaut wird
+        for (Reservation reservation : reservations.subList(0, InMemoryReservationStore.MAX_SKIPPED_PER_PAGE + 10)) {
+            store.remove(reservation);
+        }
+        assertEquals(count, store.getSlotCount());
+
+        Page<Reservation> page = store.page(0, 5);
+
+        assertTrue(page.items().isEmpty());
+        assertEquals(InMemoryReservationStore.MAX_SKIPPED_PER_PAGE, page.next());
+        Page<Reservation> next = store.page(page.next(), 5);
+        assertEquals(reservations.subList(InMemoryReservationStore.MAX_SKIPPED_PER_PAGE + 10, InMemoryReservationStore.MAX_SKIPPED_PER_PAGE + 15), next.items());
+    }
+
+    @Test
+    @DisplayName("Test: Buchungen je Event und Kunde kommen aus dem Sekundärindex")
+    void streamByEventAndCustomer() {
+        Event other = new Event(UUID.randomUUID(), "Oper", new Date(), 80.0, 100, "oper@mail.com");
+        Customer customer = new Customer("Kunde 1", "Teststraße");
+        Reservation first = new Reservation(UUID.randomUUID(), event, customer, 1);
+        Reservation second = reservation(2);
+        Reservation third = new Reservation(UUID.randomUUID(), other, customer, 3);
+        store.put(first);
+        store.put(second);
+        store.put(third);
+
+        assertEquals(Set.of(first, second), Set.copyOf(store.streamByEvent(event).toList()));
+        assertEquals(Set.of(first, third), Set.copyOf(store.streamByCustomer(customer).toList()));
+        assertEquals(Set.of(event, other), Set.copyOf(store.bookedEvents()));
+
+        store.remove(third);
+        assertEquals(List.of(first), store.streamByCustomer(customer).toList());
+        assertEquals(Set.of(event), Set.copyOf(store.bookedEvents()));
+        assertEquals(List.of(), store.streamByEvent(other).toList());
+    }
+}
@@ -0,0 +1,74 @@
+package de.hsh.persistence;
+
+import de.hsh.dto.Customer;
+import de.hsh.dto.Event;
+import de.hsh.dto.Reservation;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InterningRegistryTest {
+
+    private final InterningRegistry registry = new InterningRegistry();
+
+    @Test
+    @DisplayName("Test: Gleiche Events und Kunden werden auf eine Instanz abgebildet")
+    void equalValuesShareOneInstance() {
+        UUID id = UUID.randomUUID();
+        Date date = new Date();
+        Event first = registry.intern(new Event(id, "Konzert", date, 50.0, 100, "organizer@mail.com"));
+        Event second = registry.intern(new Event(id, "Konzert", new Date(date.getTime()), 50.0, 100, "organizer@mail.com"));
+        Customer customer = registry.intern(new Customer("Max Mustermann", "Musterstraße 1"));
+
+        assertSame(first, second);
+        assertSame(customer, registry.intern(new Customer("Max Mustermann", "Musterstraße 1")));
+        assertEquals(1, registry.getEventCount());
+        assertEquals(1, registry.getCustomerCount());
+    }
+
+    @Test
+    @DisplayName("Test: Buchungen mit kanonischen Referenzen werden nicht neu erzeugt")
+    void reservationIsRebuiltOnlyWhenNeeded() {
+        Event event = new Event(UUID.randomUUID(), "Konzert", new Date(), 50.0, 100, "organizer@mail.com");
+        Customer customer = new Customer("Max Mustermann", "Musterstraße 1");
+        Reservation interned = registry.intern(new Reservation(UUID.randomUUID(), event, customer, 10));
+
+        assertEquals(event, interned.event());
+        assertSame(interned, registry.intern(interned));
+        Reservation copy = registry.intern(new Reservation(UUID.randomUUID(), new Event(event.identifier(), "Konzert", new Date(event.date().getTime()), 50.0, 100, "organizer@mail.com"), new Customer("Max Mustermann", "Musterstraße 1"), 5));
+        assertSame(interned.event(), copy.event());
+        assertSame(interned.customer(), copy.customer());
+    }
+
+    @Test
+    @DisplayName("Test: Ein geändertes Event mit derselben ID bleibt eine eigene Instanz")
+    void changedEventIsNotReplaced() {
+        UUID id = UUID.randomUUID();
+        Event original = registry.intern(new Event(id, "Konzert", new Date(), 50.0, 100, "organizer@mail.com"));
+        Event changed = new Event(id, "Konzert (verlegt)", original.date(), 50.0, 100, "organizer@mail.com");
+
+        assertSame(changed, registry.intern(changed));
+        assertSame(original, registry.intern(original));
+    }
+
+    @Test
+    @DisplayName("Test: Spätere Änderungen am Datum des Originals verändern das kanonische Event nicht")
+    void canonicalEventOwnsItsDate() {
+        Date date = new Date(1_000L);
+        Event canonical = registry.intern(new Event(UUID.randomUUID(), "Konzert", date, 50.0, 100, "organizer@mail.com"));
+        date.setTime(2_000L);
+
+        assertEquals(1_000L, canonical.date().getTime());
+    }
+
+    @Test
+    void stringsAreShared() {
+        String first = registry.intern(new String("organizer@mail.com"));
+        assertSame(first, registry.intern(new String("organizer@mail.com")));
+        assertNull(registry.intern((String) null));
+    }
+}
@@ -0,0 +1,287 @@
+package de.hsh.persistence;
+
+import de.hsh.dto.Customer;
+import de.hsh.dto.Event;
+import de.hsh.dto.Page;
+import de.hsh.dto.Reservation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MappedReservationStoreTest {
+
+    @TempDir
+    Path directory;
+
+    private Event event1;
+    private Event event2;
+    private Customer customer1;
+    private Customer customer2;
+
+    @BeforeEach
+    void setUp() {
+        event1 = new Event(UUID.randomUUID(), "Konzert", new Date(), 50.0, 100, "organizer@mail.com");
+        event2 = new Event(UUID.randomUUID(), "Oper", new Date(), 80.0, 100, "oper@mail.com");
+        customer1 = new Customer("Max Mustermann", "Musterstraße 1");
+        customer2 = new Customer("Anna Müller", "Beispielstraße 2");
+    }
+
+    @Test
+    void putAndFind() throws IOException {
+        try (MappedReservationStore store = MappedReservationStore.open(directory)) {
+            Reservation reservation = new Reservation(UUID.randomUUID(), event1, customer1, 10);
+            store.put(reservation);
+
+            assertEquals(reservation, store.find(event1, customer1));
+            assertNull(store.find(event1, customer2));
+            assertNull(store.find(event2, customer1));
+            assertEquals(1, store.size());
+        }
+    }
+
+    @Test
+    @DisplayName("Test: Eine Buchung desselben Kunden für dasselbe Event wird an Ort und Stelle ersetzt")
+    void putReplacesExistingReservation() throws IOException {
+        try (MappedReservationStore store = MappedReservationStore.open(directory)) {
+            store.put(new Reservation(UUID.randomUUID(), event1, customer1, 10));
+            store.put(new Reservation(UUID.randomUUID(), event1, customer2, 5));
+            Reservation merged = new Reservation(UUID.randomUUID(), event1, customer1, 25);
+            store.put(merged);
+
+            assertEquals(2, store.size());
+            assertEquals(merged, store.get(0));
+            assertEquals(merged, store.find(event1, customer1));
+            assertEquals(Map.of(event1.identifier(), 30), store.reservedSeatsByEvent());
+        }
+    }
+
+    @Test
+    @DisplayName("Test: Nach sauberem Schließen werden nur die Zähler geladen")
+    void reopenAfterCleanClose() throws IOException {
+        try (MappedReservationStore store = MappedReservationStore.open(directory)) {
+            store.put(new Reservation(UUID.randomUUID(), event1, customer1, 10));
+            store.put(new Reservation(UUID.randomUUID(), event2, customer2, 20));
+        }
+        assertTrue(Files.exists(directory.resolve(MappedReservationStore.COUNTERS_FILE)));
+
+        try (MappedReservationStore store = MappedReservationStore.open(directory)) {
+            assertFalse(Files.exists(directory.resolve(MappedReservationStore.COUNTERS_FILE)), "Während der Store offen ist, gelten die Zähler als veraltet");
+            assertEquals(Map.of(event1.identifier(), 10, event2.identifier(), 20), store.reservedSeatsByEvent());
+            assertEquals(20, store.find(event2, customer2).reservedSeats());
+
+            store.put(new Reservation(UUID.randomUUID(), event2, customer1, 7));
+            assertEquals(3, store.size());
+        }
+    }
+
+    @Test
+    @DisplayName("Test: Buchungen je Event und Kunde kommen aus dem erst bei Bedarf aufgebauten Sekundärindex")
+    void streamByEventAndCustomer() throws IOException {
+        Reservation first = new Reservation(UUID.randomUUID(), event1, customer1, 10);
+        Reservation second = new Reservation(UUID.randomUUID(), event1, customer2, 5);
+        Reservation third = new Reservation(UUID.randomUUID(), event2, customer1, 7);
+        try (MappedReservationStore store = MappedReservationStore.open(directory)) {
+            store.put(first);
+            store.put(second);
+            store.put(third);
+            store.remove(second);
+
+            assertEquals(List.of(first), store.streamByEvent(event1).toList());
+            assertEquals(List.of(first, third), store.streamByCustomer(customer1).toList());
+            assertEquals(List.of(), store.streamByCustomer(customer2).toList());
+        }
+
+        try (MappedReservationStore store = MappedReservationStore.open(directory)) {
+            // Das Öffnen durchläuft die Datensätze nicht; der Index entsteht erst mit der ersten Abfrage
+            assertFalse(store.isRecordsIndexed());
+            assertEquals(List.of(first), store.streamByEvent(event1).toList());
+            assertTrue(store.isRecordsIndexed());
+            assertEquals(List.of(first, third), store.streamByCustomer(customer1).toList());
+            assertEquals(Set.of(event1, event2), Set.copyOf(store.bookedEvents()));
+
+            store.put(second);
+            assertEquals(List.of(first, second), store.streamByEvent(event1).toList());
+        }
+    }
+
+    @Test
+    @DisplayName("Test: Ohne sauberes Schließen werden Index und Zähler aus den Datensätzen aufgebaut")
+    void reopenAfterCrashRebuildsIndexAndCounters() throws IOException {
+        MappedReservationStore crashed = MappedReservationStore.open(directory);
+        crashed.put(new Reservation(UUID.randomUUID(), event1, customer1, 10));
+        crashed.put(new Reservation(UUID.randomUUID(), event1, customer2, 15));
+        crashed.put(new Reservation(UUID.randomUUID(), event1, customer1, 12));
+        crashed.flush();
+
+        try (MappedReservationStore store = MappedReservationStore.open(directory)) {
+            assertEquals(2, store.size());
+            assertEquals(Map.of(event1.identifier(), 27), store.reservedSeatsByEvent());
+            assertEquals(12, store.find(event1, customer1).reservedSeats());
+        }
+    }
+
+    @Test
+    @DisplayName("Test: Der Index wächst mit der Anzahl der Buchungen")
+    void indexGrowsBeyondInitialCapacity() throws IOException {
+        int count = 10_000;
+        try (MappedReservationStore store = MappedReservationStore.open(directory)) {
+            for (int i = 0; i < count; i++) {
+                store.put(new Reservation(UUID.randomUUID(), i % 2 == 0 ? event1 : event2, new Customer("Kunde " + i, "Straße"), 1));
+            }
+            assertEquals(count, store.size());
+            assertEquals(1, store.find(event2, new Customer("Kunde 9999", "Straße")).reservedSeats());
+        }
+
+        try (MappedReservationStore store = MappedReservationStore.open(directory)) {
+            assertEquals(Map.of(event1.identifier(), count / 2, event2.identifier(), count / 2), store.reservedSeatsByEvent());
+            assertEquals(1, store.find(event1, new Customer("Kunde 42", "Straße")).reservedSeats());
+            assertEquals(count, store.findAll().size());
+        }
+    }
+
+    @Test
+    void clearRemovesAllReservations() throws IOException {
+        try (MappedReservationStore store = MappedReservationStore.open(directory)) {
+            store.put(new Reservation(UUID.randomUUID(), event1, customer1, 10));
+            store.clear();
+
+            assertEquals(0, store.size());
+            assertNull(store.find(event1, customer1));
+            assertTrue(store.reservedSeatsByEvent().isEmpty());
+            assertEquals(List.of(), store.findAll());
+        }
+    }
+
+    @Test
+    @DisplayName("Test: Buchungen werden über ihre ID gefunden, nach einem Ersetzen nur über die neue")
+    void findByUuidFollowsReplacement() throws IOException {
+        try (MappedReservationStore store = MappedReservationStore.open(directory)) {
+            Reservation first = new Reservation(UUID.randomUUID(), event1, customer1, 10);
+            store.put(first);
+            assertEquals(first, store.findByUuid(first.uuid()));
+
+            Reservation merged = new Reservation(UUID.randomUUID(), event1, customer1, 25);
+            store.put(merged);
+            assertNull(store.findByUuid(first.uuid()));
+            assertEquals(merged, store.findByUuid(merged.uuid()));
+            assertNull(store.findByUuid(UUID.randomUUID()));
+        }
+    }
+
+    @Test
+    @DisplayName("Test: Entfernte Buchungen bleiben als Grabstein stehen und werden wiederverwendet")
+    void removeLeavesTombstone() throws IOException {
+        Reservation removed = new Reservation(UUID.randomUUID(), event1, customer1, 10);
+        Reservation kept = new Reservation(UUID.randomUUID(), event1, customer2, 20);
+        try (MappedReservationStore store = MappedReservationStore.open(directory)) {
+            store.put(removed);
+            store.put(kept);
+            store.remove(removed);
+
+            assertEquals(1, store.size());
+            assertNull(store.find(event1, customer1));
+            assertNull(store.findByUuid(removed.uuid()));
+            assertNull(store.get(0));
+            assertEquals(List.of(kept), store.findAll());
+            assertEquals(Map.of(event1.identifier(), 20), store.reservedSeatsByEvent());
+        }
+
+        try (MappedReservationStore store = MappedReservationStore.open(directory)) {
+            assertEquals(1, store.size());
+            assertNull(store.findByUuid(removed.uuid()));
+            assertEquals(kept, store.findByUuid(kept.uuid()));
+
+            Reservation rebooked = new Reservation(UUID.randomUUID(), event1, customer1, 5);
+            store.put(rebooked);
+            assertEquals(rebooked, store.get(0));
+            assertEquals(2, store.size());
+            assertEquals(Map.of(event1.identifier(), 25), store.reservedSeatsByEvent());
+        }
+    }
+
+    @Test
+    @DisplayName("Test: Nach einem Absturz werden Grabsteine und ID-Index aus den Datensätzen neu aufgebaut")
+    void rebuildAfterCrashKeepsTombstones() throws IOException {
+        Reservation removed = new Reservation(UUID.randomUUID(), event1, customer1, 10);
+        Reservation kept = new Reservation(UUID.randomUUID(), event2, customer2, 20);
+        try (MappedReservationStore store = MappedReservationStore.open(directory)) {
+            store.put(removed);
+            store.put(kept);
+            store.remove(removed);
+        }
+        Files.delete(directory.resolve(MappedReservationStore.COUNTERS_FILE));
+        Files.delete(directory.resolve(MappedReservationStore.UUID_INDEX_FILE));
+
+        try (MappedReservationStore store = MappedReservationStore.open(directory)) {
+            assertEquals(1, store.size());
+            assertEquals(Map.of(event2.identifier(), 20), store.reservedSeatsByEvent());
+            assertEquals(kept, store.findByUuid(kept.uuid()));
+            assertNull(store.findByUuid(removed.uuid()));
+        }
+    }
+
+    @Test
+    @DisplayName("Test: Der ID-Index wächst mit vielen Buchungen und Ersetzungen")
+    void uuidIndexGrows() throws IOException {
+        try (MappedReservationStore store = MappedReservationStore.open(directory)) {
+            Reservation[] latest = new Reservation[5_000];
+            for (int round = 0; round < 2; round++) {
+                for (int i = 0; i < latest.length; i++) {
+                    latest[i] = new Reservation(UUID.randomUUID(), event1, new Customer("Kunde " + i, "Teststraße"), 1);
+                    store.put(latest[i]);
+                }
+            }
+            for (Reservation reservation : latest) {
+                assertEquals(reservation, store.findByUuid(reservation.uuid()));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Test: Blättern und Streamen überspringen entfernte Buchungen")
+    void pageAndStreamSkipRemoved() throws IOException {
+        try (MappedReservationStore store = MappedReservationStore.open(directory)) {
+            Reservation first = new Reservation(UUID.randomUUID(), event1, customer1, 10);
+            Reservation second = new Reservation(UUID.randomUUID(), event1, customer2, 20);
+            Reservation third = new Reservation(UUID.randomUUID(), event2, customer1, 30);
+            store.put(first);
+            store.put(second);
+            store.put(third);
+            store.remove(second);
+
+            Page<Reservation> page = store.page(0, 1);
+            assertEquals(List.of(first), page.items());
+            page = store.page(page.next(), 1);
+            assertEquals(List.of(third), page.items());
+            assertFalse(page.hasNext());
+
+            assertEquals(List.of(first, third), store.stream().toList());
+        }
+    }
+
+    @Test
+    void getOutOfRangeThrowsException() throws IOException {
+        try (MappedReservationStore store = MappedReservationStore.open(directory)) {
+            assertThrows(IndexOutOfBoundsException.class, () -> store.get(0));
+        }
+    }
+
+    @Test
+    void invalidFileThrowsIOException() throws IOException {
+        Files.write(directory.resolve(MappedReservationStore.RECORDS_FILE), new byte[64]);
+
+        assertThrows(IOException.class, () -> MappedReservationStore.open(directory));
+    }
+}
@@ -0,0 +1,115 @@
+package de.hsh.persistence;
+
+import de.hsh.dto.Customer;
+import de.hsh.dto.Event;
+import de.hsh.dto.Reservation;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReservationColumnsTest {
+
+    private final Event concert = new Event(UUID.randomUUID(), "Konzert", new Date(1_000L), 50.0, 100, "organizer@mail.com");
+    private final Event theatre = new Event(UUID.randomUUID(), "Theater", new Date(5_000L), 20.0, 100, "organizer@mail.com");
+    private final Customer max = new Customer("Max Mustermann", "Musterstraße 1");
+    private final Customer erika = new Customer("Erika Mustermann", "Musterstraße 2");
+    private final Customer hans = new Customer("Hans Meier", "Hauptstraße 3");
+
+    private ReservationColumns columns() {
+        return ReservationColumns.of(Stream.of(
+                new Reservation(UUID.randomUUID(), concert, max, 3),
+                new Reservation(UUID.randomUUID(), concert, erika, 5),
+                new Reservation(UUID.randomUUID(), theatre, max, 4),
+                new Reservation(UUID.randomUUID(), theatre, hans, 1)));
+    }
+
+    @Test
+    @DisplayName("Test: Plätze werden je Event und je Kunde summiert")
+    void sumsSeatsPerEventAndCustomer() {
+        ReservationColumns columns = columns();
+
+        assertEquals(4, columns.size());
+        assertEquals(2, columns.getEventCount());
+        assertEquals(3, columns.getCustomerCount());
+        assertEquals(13, columns.totalSeats());
+        assertEquals(Map.of(concert.identifier(), 8L, theatre.identifier(), 5L), columns.seatsByEvent());
+        assertEquals(Map.of("Max Mustermann", 7L, "Erika Mustermann", 5L, "Hans Meier", 1L), columns.seatsByCustomer());
+    }
+
+    @Test
+    @DisplayName("Test: Umsatz ergibt sich aus Plätzen mal Preis")
+    void computesRevenue() {
+        ReservationColumns columns = columns();
+
+        assertEquals(400.0, columns.revenueByEvent().get(concert.identifier()));
+        assertEquals(100.0, columns.revenueByEvent().get(theatre.identifier()));
+        assertEquals(500.0, columns.revenue());
+    }
+
+    @Test
+    @DisplayName("Test: Die besten Kunden werden absteigend geliefert")
+    void topCustomersAreSorted() {
+        ReservationColumns columns = columns();
+
+        assertEquals(List.of("Max Mustermann", "Erika Mustermann"), List.copyOf(columns.topCustomers(2).keySet()));
+        assertThrows(IllegalArgumentException.class, () -> columns.topCustomers(0));
+    }
+
+    @Test
+    @DisplayName("Test: Nur Events im Zeitraum werden gezählt")
+    void seatsBetweenFiltersByEventDate() {
+        ReservationColumns columns = columns();
+
+        assertEquals(8, columns.seatsBetween(new Date(0L), new Date(5_000L)));
+        assertEquals(13, columns.seatsBetween(new Date(0L), new Date(5_001L)));
+    }
+
+    @Test
+    @DisplayName("Test: Große Bestände werden blockweise parallel mit demselben Ergebnis ausgewertet")
+    void parallelScanMatchesSequentialSum() {
+        ReservationColumns columns = new ReservationColumns(0);
+        Customer[] customers = {max, erika, hans};
+        long expectedConcert = 0;
+        int rows = 3_000_000;
+        for (int i = 0; i < rows; i++) {
+            Event event = i % 3 == 0 ? concert : theatre;
+            int seats = 1 + i % 4;
+            columns.add(event, customers[i % customers.length], seats);
+            if (event == concert) {
+                expectedConcert += seats;
+            }
+        }
+
+        assertEquals(rows, columns.size());
+        assertEquals(7_500_000L, columns.totalSeats());
+        assertEquals(expectedConcert, columns.seatsByEvent().get(concert.identifier()));
+        assertEquals(7_500_000L, columns.seatsByCustomer().values().stream().mapToLong(Long::longValue).sum());
+    }
+
+    @Test
+    @DisplayName("Test: Eingefrorene Spalten nehmen keine Zeilen mehr an, bleiben aber abfragbar")
+    void frozenColumnsRejectRows() {
+        ReservationColumns columns = columns().freeze();
+
+        assertThrows(UnsupportedOperationException.class, () -> columns.add(concert, hans, 1));
+        assertTrue(columns.isFrozen());
+        assertEquals(4, columns.size());
+    }
+
+    @Test
+    void emptyColumns() {
+        ReservationColumns columns = new ReservationColumns();
+
+        assertEquals(0, columns.totalSeats());
+        assertEquals(0.0, columns.revenue());
+        assertTrue(columns.seatsByEvent().isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> new ReservationColumns(-1));
+    }
+}
@@ -0,0 +1,217 @@
+package de.hsh.persistence;
+
+import de.hsh.dto.Customer;
+import de.hsh.dto.Event;
+import de.hsh.dto.Reservation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReservationJournalTest {
+
+    @TempDir
+    Path directory;
+
+    private Event event1;
+    private Event event2;
+    private Customer customer1;
+    private Customer customer2;
+
+    @BeforeEach
+    void setUp() {
+        event1 = new Event(UUID.randomUUID(), "Konzert", new Date(), 50.0, 100, "organizer@mail.com");
+        event2 = new Event(UUID.randomUUID(), "Oper", new Date(), 80.0, 100, "oper@mail.com");
+        customer1 = new Customer("Max Mustermann", "Musterstraße 1");
+        customer2 = new Customer("Anna Müller", "Beispielstraße 2");
+    }
+
+    @Test
+    @DisplayName("Test: Angehängte Buchungen werden in Schreibreihenfolge nachgespielt")
+    void appendedReservationsAreReplayedInOrder() throws IOException {
+        List<Reservation> written = List.of(
+                new Reservation(UUID.randomUUID(), event1, customer1, 10),
+                new Reservation(UUID.randomUUID(), event2, customer1, 20),
+                new Reservation(UUID.randomUUID(), event1, customer2, 30));
+        try (ReservationJournal journal = ReservationJournal.open(directory, ReservationJournal.SyncPolicy.GROUP_COMMIT, 100)) {
+            journal.recover(_ -> fail(), _ -> fail());
+            for (Reservation reservation : written) {
+                journal.awaitDurable(journal.append(reservation));
+            }
+        }
+
+        assertEquals(written, recover());
+    }
+
+    @Test
+    @DisplayName("Test: Nach der Wiederherstellung angehängte Buchungen verweisen auf die richtigen Events")
+    void appendAfterRecoveryKeepsReferencesConsistent() throws IOException {
+        Reservation first = new Reservation(UUID.randomUUID(), event1, customer1, 10);
+        Reservation second = new Reservation(UUID.randomUUID(), event2, customer2, 20);
+        Reservation third = new Reservation(UUID.randomUUID(), event1, customer2, 5);
+        try (ReservationJournal journal = ReservationJournal.open(directory, ReservationJournal.SyncPolicy.NONE, 100)) {
+            journal.recover(_ -> fail(), _ -> fail());
+            journal.append(first);
+        }
+        try (ReservationJournal journal = ReservationJournal.open(directory, ReservationJournal.SyncPolicy.NONE, 100)) {
+            journal.recover(_ -> fail(), _ -> {
+            });
+            journal.append(second);
+            journal.append(third);
+        }
+
+        assertEquals(List.of(first, second, third), recover());
+    }
+
+    @Test
+    @DisplayName("Test: Ein abgerissener letzter Eintrag wird verworfen")
+    void tornTailIsDiscarded() throws IOException {
+        Reservation first = new Reservation(UUID.randomUUID(), event1, customer1, 10);
+        try (ReservationJournal journal = ReservationJournal.open(directory, ReservationJournal.SyncPolicy.NONE, 100)) {
+            journal.recover(_ -> fail(), _ -> fail());
+            journal.append(first);
+            journal.append(new Reservation(UUID.randomUUID(), event1, customer2, 20));
+        }
+        Path journalFile = directory.resolve(ReservationJournal.JOURNAL_FILE);
+        try (RandomAccessFile file = new RandomAccessFile(journalFile.toFile(), "rw")) {
+            file.setLength(file.length() - 5);
+        }
+
+        assertEquals(List.of(first), recover());
+
+        // Nach dem Kürzen lassen sich wieder Buchungen anhängen
+        Reservation third = new Reservation(UUID.randomUUID(), event2, customer2, 30);
+        try (ReservationJournal journal = ReservationJournal.open(directory, ReservationJournal.SyncPolicy.NONE, 100)) {
+            journal.recover(_ -> {
+            }, _ -> {
+            });
+            journal.append(third);
+        }
+        assertEquals(List.of(first, third), recover());
+    }
+
+    @Test
+    @DisplayName("Test: Ein Snapshot leert das Journal")
+    void checkpointTruncatesJournal() throws IOException {
+        Reservation first = new Reservation(UUID.randomUUID(), event1, customer1, 10);
+        Reservation second = new Reservation(UUID.randomUUID(), event2, customer2, 20);
+        try (ReservationJournal journal = ReservationJournal.open(directory, ReservationJournal.SyncPolicy.NONE, 1)) {
+            journal.recover(_ -> fail(), _ -> fail());
+            journal.append(first);
+            assertTrue(journal.needsCheckpoint());
+
+            journal.checkpoint(List.of(first));
+            assertEquals(0, journal.getJournalSize());
+            assertFalse(journal.needsCheckpoint());
+            journal.append(second);
+        }
+
+        List<Reservation> fromSnapshot = new ArrayList<>();
+        List<Reservation> fromJournal = new ArrayList<>();
+        try (ReservationJournal journal = ReservationJournal.open(directory, ReservationJournal.SyncPolicy.NONE, 100)) {
+            journal.recover(fromSnapshot::add, fromJournal::add);
+        }
+        assertEquals(List.of(first), fromSnapshot);
+        assertEquals(List.of(second), fromJournal);
+        assertTrue(Files.exists(directory.resolve(ReservationJournal.SNAPSHOT_FILE)));
+    }
+
+    @Test
+    @DisplayName("Test: Ein Absturz zwischen Snapshot und Leeren des Journals spielt keine Buchung doppelt nach")
+    void journalCoveredBySnapshotIsNotReplayed() throws IOException {
+        Reservation first = new Reservation(UUID.randomUUID(), event1, customer1, 10);
+        Reservation second = new Reservation(UUID.randomUUID(), event2, customer2, 20);
+        Path journalFile = directory.resolve(ReservationJournal.JOURNAL_FILE);
+        byte[] beforeCheckpoint;
+        try (ReservationJournal journal = ReservationJournal.open(directory, ReservationJournal.SyncPolicy.NONE, 100)) {
+            journal.recover(_ -> fail(), _ -> fail());
+            journal.append(first);
+            beforeCheckpoint = Files.readAllBytes(journalFile);
+            journal.checkpoint(List.of(first));
+        }
+        // Das Journal wurde nach dem Umbenennen des Snapshots nicht mehr geleert
+        Files.write(journalFile, beforeCheckpoint);
+
+        List<Reservation> fromSnapshot = new ArrayList<>();
+        try (ReservationJournal journal = ReservationJournal.open(directory, ReservationJournal.SyncPolicy.NONE, 100)) {
+            journal.recover(fromSnapshot::add, _ -> fail());
+            assertEquals(0, journal.getJournalSize());
+            journal.append(second);
+        }
+        assertEquals(List.of(first), fromSnapshot);
+        assertEquals(List.of(first, second), recover());
+    }
+
+    @Test
+    @DisplayName("Test: Gleichzeitige Buchungen mit Group Commit gehen nicht verloren")
+    void concurrentGroupCommitAppends() throws Exception {
+        int threads = 8;
+        try (ReservationJournal journal = ReservationJournal.open(directory, ReservationJournal.SyncPolicy.GROUP_COMMIT, 10_000)) {
+            journal.recover(_ -> fail(), _ -> fail());
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            for (int t = 0; t < threads; t++) {
+                Customer customer = new Customer("Kunde " + t, "Teststraße");
+                executor.submit(() -> {
+                    for (int i = 0; i < 50; i++) {
+                        journal.awaitDurable(journal.append(new Reservation(UUID.randomUUID(), event1, customer, 1)));
+                    }
+                    return null;
+                });
+            }
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+        }
+
+        assertEquals(threads * 50, recover().size());
+    }
+
+    @Test
+    void invalidThresholdThrowsException() {
+        assertThrows(IllegalArgumentException.class, () -> ReservationJournal.open(directory, ReservationJournal.SyncPolicy.NONE, 0));
+    }
+
+    @Test
+    @DisplayName("Test: Freigaben werden getrennt von Buchungen nachgespielt")
+    void releasesAreReplayedSeparately() throws IOException {
+        Reservation booked = new Reservation(UUID.randomUUID(), event1, customer1, 10);
+        Reservation released = new Reservation(booked.uuid(), event1, customer1, 4);
+        try (ReservationJournal journal = ReservationJournal.open(directory, ReservationJournal.SyncPolicy.GROUP_COMMIT, 100)) {
+            journal.recover(_ -> fail(), _ -> fail());
+            journal.append(booked);
+            journal.awaitDurable(journal.appendRelease(released));
+        }
+
+        List<Reservation> bookings = new ArrayList<>();
+        List<Reservation> releases = new ArrayList<>();
+        try (ReservationJournal journal = ReservationJournal.open(directory, ReservationJournal.SyncPolicy.NONE, 100)) {
+            journal.recover(_ -> fail(), bookings::add, releases::add);
+        }
+        assertEquals(List.of(booked), bookings);
+        assertEquals(List.of(released), releases);
+
+        // Ohne Consumer für Freigaben ist das Journal nicht lesbar
+        assertThrows(IOException.class, this::recover);
+    }
+
+    private List<Reservation> recover() throws IOException {
+        List<Reservation> replayed = new ArrayList<>();
+        try (ReservationJournal journal = ReservationJournal.open(directory, ReservationJournal.SyncPolicy.NONE, 100)) {
+            journal.recover(replayed::add, replayed::add);
+        }
+        return replayed;
+    }
+}
@@ -0,0 +1,162 @@
+package de.hsh.persistence;
+
+import de.hsh.dto.Customer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SegmentedFileTest {
+
+    @TempDir
+    Path directory;
+
+    private SegmentedFile<Customer> open(Path base, int threshold) {
+        return new SegmentedFile<>(base, BinarySnapshot::writeCustomers, BinarySnapshot::readCustomers, threshold);
+    }
+
+    private static List<Customer> customers(int from, int to) {
+        List<Customer> customers = new ArrayList<>();
+        for (int i = from; i < to; i++) {
+            customers.add(new Customer("Kunde " + i, "Weg " + i));
+        }
+        return customers;
+    }
+
+    @Test
+    @DisplayName("Test: Basisdatei und Segmente werden in Reihenfolge gelesen")
+    void readsBaseAndSegmentsInOrder() throws IOException {
+        Path base = directory.resolve("customers.ser");
+        SegmentedFile<Customer> file = open(base, 100);
+
+        file.writeBase(customers(0, 10));
+        file.appendSegment(customers(10, 11));
+        file.appendSegment(List.of());
+        file.appendSegment(customers(11, 13));
+
+        assertEquals(2, file.getSegmentCount());
+        assertEquals(customers(0, 13), open(base, 100).readAll());
+        try (InputStream in = Files.newInputStream(directory.resolve("customers.ser.segment-2"))) {
+            assertEquals(customers(11, 13), BinarySnapshot.readCustomers(in));
+        }
+    }
+
+    @Test
+    @DisplayName("Test: Zusammenführen schreibt alle Segmente in die Basisdatei")
+    void compactionMergesSegments() throws IOException {
+        Path base = directory.resolve("customers.ser");
+        SegmentedFile<Customer> file = open(base, 100);
+        file.writeBase(customers(0, 5));
+        file.appendSegment(customers(5, 6));
+        file.appendSegment(customers(6, 7));
+
+        file.compact();
+
+        assertEquals(0, file.getSegmentCount());
+        assertEquals(customers(0, 7), file.readBase());
+
+        // Die Nummerierung läuft nach dem Zusammenführen weiter
+        file.appendSegment(customers(7, 8));
+        assertTrue(Files.exists(directory.resolve("customers.ser.segment-3")));
+        assertEquals(customers(0, 8), open(base, 100).readAll());
+    }
+
+    @Test
+    @DisplayName("Test: Ab der Schwelle wird im Hintergrund zusammengeführt")
+    void compactsInBackgroundAtThreshold() throws IOException, InterruptedException {
+        Path base = directory.resolve("customers.ser");
+        SegmentedFile<Customer> file = open(base, 3);
+        file.writeBase(customers(0, 1));
+
+        for (int i = 1; i < 4; i++) {
+            file.appendSegment(customers(i, i + 1));
+        }
+        file.awaitCompaction();
+
+        assertEquals(0, file.getSegmentCount());
+        assertEquals(customers(0, 4), file.readAll());
+    }
+
+    @Test
+    @DisplayName("Test: Vollständiges Schreiben verwirft alte Segmente")
+    void writeBaseDiscardsSegments() throws IOException {
+        Path base = directory.resolve("customers.ser");
+        SegmentedFile<Customer> file = open(base, 100);
+        file.writeBase(customers(0, 2));
+        file.appendSegment(customers(2, 3));
+
+        SegmentedFile<Customer> other = open(base, 100);
+        other.writeBase(customers(10, 11));
+
+        assertEquals(customers(10, 11), open(base, 100).readAll());
+    }
+
+    @Test
+    @DisplayName("Test: Segmente, die nach einem Absturz neben der neuen Basisdatei liegen bleiben, werden nicht doppelt gelesen")
+    void staleSegmentsAreIgnoredAfterCrash() throws IOException {
+        Path base = directory.resolve("customers.ser");
+        Path segment1 = directory.resolve("customers.ser.segment-1");
+        Path segment2 = directory.resolve("customers.ser.segment-2");
+        SegmentedFile<Customer> file = open(base, 100);
+        file.writeBase(customers(0, 5));
+        file.appendSegment(customers(5, 6));
+        file.appendSegment(customers(6, 7));
+        byte[] first = Files.readAllBytes(segment1);
+        byte[] second = Files.readAllBytes(segment2);
+
+        file.compact();
+        // Absturz zwischen Austausch der Basisdatei und Löschen der Segmente
+        Files.write(segment1, first);
+        Files.write(segment2, second);
+
+        SegmentedFile<Customer> reopened = open(base, 100);
+        assertEquals(customers(0, 7), reopened.readAll());
+        assertFalse(Files.exists(segment1));
+        assertEquals(0, reopened.getSegmentCount());
+
+        // Neue Segmente erhalten Nummern oberhalb der abgedeckten
+        reopened.appendSegment(customers(7, 8));
+        assertTrue(Files.exists(directory.resolve("customers.ser.segment-3")));
+        assertEquals(customers(0, 8), open(base, 100).readAll());
+
+        // Dasselbe beim vollständigen Schreiben
+        byte[] third = Files.readAllBytes(directory.resolve("customers.ser.segment-3"));
+        reopened.writeBase(customers(0, 8));
+        Files.write(directory.resolve("customers.ser.segment-3"), third);
+        assertEquals(customers(0, 8), open(base, 100).readAll());
+    }
+
+    @Test
+    @DisplayName("Test: Eine fehlgeschlagene Zusammenführung im Hintergrund wird gezählt")
+    void failedBackgroundCompactionIsRecorded() throws IOException, InterruptedException {
+        Path base = directory.resolve("customers.ser");
+        SegmentedFile<Customer> file = open(base, 100);
+        file.writeBase(customers(0, 1));
+        file.appendSegment(customers(1, 2));
+        Files.writeString(base, "kein Snapshot");
+
+        file.compactInBackground();
+        file.awaitCompaction();
+
+        assertEquals(1, file.getCompactionFailureCount());
+        assertNotNull(file.getLastCompactionFailure());
+        assertEquals(1, file.getSegmentCount());
+    }
+
+    @Test
+    @DisplayName("Test: Fehlende Basisdatei führt zu einer IOException")
+    void missingBaseThrows() {
+        SegmentedFile<Customer> file = open(directory.resolve("missing.ser"), 100);
+
+        assertThrows(IOException.class, file::readAll);
+        assertThrows(IllegalArgumentException.class, () -> open(directory.resolve("x"), 0));
+    }
+}
@@ -0,0 +1,153 @@
+package de.hsh.service;
+
+import de.hsh.dto.Event;
+import de.hsh.metrics.RecordingReservationMetrics;
+import de.hsh.metrics.ReservationMetrics;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdmissionControllerTest {
+
+    private static final Duration LONG_WAIT = Duration.ofSeconds(30);
+
+    private final Event concert = new Event(UUID.randomUUID(), "Konzert", new Date(), 50.0, 100, "organizer@mail.com");
+    private final Event theatre = new Event(UUID.randomUUID(), "Theater", new Date(), 20.0, 100, "organizer@mail.com");
+
+    // Startet einen wartenden Thread und kehrt erst zurück, wenn er in der Warteschlange steht
+    private Thread enqueue(AdmissionController controller, Event event, String name, List<String> admitted) throws InterruptedException {
+        int depth = controller.getQueueDepth();
+        Thread thread = Thread.ofVirtual().start(() -> {
+            controller.acquire(event);
+            admitted.add(name);
+        });
+        while (controller.getQueueDepth() == depth) {
+            Thread.sleep(1);
+        }
+        return thread;
+    }
+
+    @Test
+    @DisplayName("Test: Unterhalb des Limits wird sofort zugelassen")
+    void admitsImmediatelyBelowLimit() {
+        AdmissionController controller = new AdmissionController(2, 0, LONG_WAIT, LONG_WAIT);
+
+        controller.acquire(concert);
+        controller.acquire(theatre);
+
+        assertEquals(2, controller.getInFlight());
+        assertThrows(OverloadException.class, () -> controller.acquire(concert));
+        controller.release(1_000);
+        assertEquals(1, controller.getInFlight());
+    }
+
+    @Test
+    @DisplayName("Test: Bei voller Warteschlange wird sofort mit Wartehinweis abgewiesen und gezählt")
+    void shedsWhenQueueIsFull() throws InterruptedException {
+        RecordingReservationMetrics metrics = new RecordingReservationMetrics();
+        AdmissionController controller = new AdmissionController(1, 1, 1, 1, LONG_WAIT, LONG_WAIT, metrics);
+        controller.acquire(concert);
+        List<String> admitted = Collections.synchronizedList(new ArrayList<>());
+        Thread waiting = enqueue(controller, concert, "wartend", admitted);
+
+        OverloadException e = assertThrows(OverloadException.class, () -> controller.acquire(theatre));
+
+        assertTrue(e.getRetryAfter().toNanos() > 0);
+        assertEquals(1, metrics.snapshot().rejectedOverloaded());
+        assertEquals(1, metrics.snapshot().queueDepth());
+        controller.release(1_000);
+        waiting.join();
+        assertEquals(List.of("wartend"), admitted);
+        assertEquals(0, metrics.snapshot().queueDepth());
+    }
+
+    @Test
+    @DisplayName("Test: Wartende Buchungen werden reihum je Event zugelassen")
+    void servesEventsRoundRobin() throws InterruptedException {
+        AdmissionController controller = new AdmissionController(1, 1, 1, 10, LONG_WAIT, LONG_WAIT, ReservationMetrics.NONE);
+        controller.acquire(concert);
+        List<String> admitted = Collections.synchronizedList(new ArrayList<>());
+        List<Thread> threads = new ArrayList<>();
+        threads.add(enqueue(controller, concert, "Konzert 1", admitted));
+        threads.add(enqueue(controller, concert, "Konzert 2", admitted));
+        threads.add(enqueue(controller, concert, "Konzert 3", admitted));
+        threads.add(enqueue(controller, theatre, "Theater 1", admitted));
+
+        for (int i = 1; i <= 4; i++) {
+            controller.release(1_000);
+            while (admitted.size() < i) {
+                Thread.sleep(1);
+            }
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(List.of("Konzert 1", "Theater 1", "Konzert 2", "Konzert 3"), admitted);
+    }
+
+    @Test
+    @DisplayName("Test: Nach Ablauf der Wartezeit wird abgewiesen und die Warteschlange geräumt")
+    void rejectsAfterQueueTimeout() {
+        AdmissionController controller = new AdmissionController(1, 10, Duration.ofMillis(20), LONG_WAIT);
+        controller.acquire(concert);
+
+        assertThrows(OverloadException.class, () -> controller.acquire(concert));
+        assertEquals(0, controller.getQueueDepth());
+        assertEquals(1, controller.getInFlight());
+    }
+
+    @Test
+    @DisplayName("Test: Das Limit wächst bei schnellen Buchungen unter Last und sinkt bei langsamen")
+    void adjustsLimitAdditiveIncreaseMultiplicativeDecrease() {
+        AdmissionController controller = new AdmissionController(1, 2, 4, 0, LONG_WAIT, Duration.ofMillis(10), ReservationMetrics.NONE);
+        for (int i = 0; i < 10; i++) {
+            while (controller.getInFlight() < controller.getLimit()) {
+                controller.acquire(concert);
+            }
+            controller.release(1_000);
+        }
+        assertEquals(4, controller.getLimit());
+
+        controller.release(Duration.ofMillis(50).toNanos());
+        assertEquals(3, controller.getLimit());
+        // Höchstens eine Senkung je Buchungsdauer
+        controller.release(Duration.ofMillis(50).toNanos());
+        assertEquals(3, controller.getLimit());
+    }
+
+    @Test
+    @DisplayName("Test: Freigabe ohne Messwert ändert das Limit nicht und lässt Wartende nach")
+    void releaseWithoutSampleKeepsLimit() throws InterruptedException {
+        AdmissionController controller = new AdmissionController(1, 2, 4, 1, LONG_WAIT, Duration.ofNanos(1), ReservationMetrics.NONE);
+        controller.acquire(concert);
+        controller.acquire(concert);
+        List<String> admitted = Collections.synchronizedList(new ArrayList<>());
+        Thread waiting = enqueue(controller, theatre, "wartend", admitted);
+        while (controller.getQueueDepth() == 0) {
+            Thread.sleep(1);
+        }
+
+        controller.releaseWithoutSample();
+        waiting.join();
+
+        assertEquals(List.of("wartend"), admitted);
+        assertEquals(2, controller.getLimit());
+        assertEquals(2, controller.getInFlight());
+    }
+
+    @Test
+    void rejectsInvalidSettings() {
+        assertThrows(IllegalArgumentException.class, () -> new AdmissionController(0, 0, LONG_WAIT, LONG_WAIT));
+        assertThrows(IllegalArgumentException.class, () -> new AdmissionController(2, 1, 4, 0, LONG_WAIT, LONG_WAIT, ReservationMetrics.NONE));
+        assertThrows(IllegalArgumentException.class, () -> new AdmissionController(1, -1, LONG_WAIT, LONG_WAIT));
+    }
+}
@@ -0,0 +1,267 @@
+package de.hsh.service;
+
+import de.hsh.dto.Event;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AvailabilityPublisherTest {
+
+    private Event event;
+    private AtomicInteger seats;
+    private AvailabilityPublisher publisher;
+
+    @BeforeEach
+    void setUp() {
+        event = new Event(UUID.randomUUID(), "Konzert", new Date(), 50.0, 100, "organizer@mail.com");
+        seats = new AtomicInteger(100);
+        // Langes Intervall: die Tests lösen flush() selbst aus
+        publisher = new AvailabilityPublisher(Duration.ofHours(1), _ -> seats.get());
+    }
+
+    @AfterEach
+    void tearDown() {
+        publisher.close();
+    }
+
+    @Test
+    @DisplayName("Test: Neue Abonnenten erhalten sofort den aktuellen Stand")
+    void subscriberReceivesCurrentValue() throws InterruptedException {
+        RecordingSubscriber subscriber = new RecordingSubscriber(Long.MAX_VALUE);
+        publisher.subscribe(event, subscriber);
+
+        assertEquals(new AvailabilityPublisher.Update(event.identifier(), 100), subscriber.next());
+    }
+
+    @Test
+    @DisplayName("Test: Viele Änderungen innerhalb eines Intervalls ergeben ein Update")
+    void burstsAreCoalesced() throws InterruptedException {
+        RecordingSubscriber subscriber = new RecordingSubscriber(Long.MAX_VALUE);
+        publisher.subscribe(event, subscriber);
+        subscriber.next();
+
+        for (int i = 0; i < 100; i++) {
+            seats.decrementAndGet();
+            publisher.markChanged(event);
+        }
+        publisher.flush();
+        publisher.flush();
+
+        assertEquals(0, subscriber.next().availableSeats());
+        assertNull(subscriber.updates.poll(100, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    @DisplayName("Test: Unveränderte Stände werden nicht erneut gesendet")
+    void unchangedValueIsNotRepublished() throws InterruptedException {
+        RecordingSubscriber subscriber = new RecordingSubscriber(Long.MAX_VALUE);
+        publisher.subscribe(event, subscriber);
+        subscriber.next();
+
+        publisher.markChanged(event);
+        publisher.flush();
+
+        assertNull(subscriber.updates.poll(100, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    @DisplayName("Test: Ein langsamer Abonnent blockiert weder Änderungen noch andere Abonnenten")
+    void slowSubscriberDoesNotBlock() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingSubscriber slow = new RecordingSubscriber(Long.MAX_VALUE) {
+            @Override
+            public void onNext(AvailabilityPublisher.Update item) {
+                super.onNext(item);
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+        RecordingSubscriber fast = new RecordingSubscriber(Long.MAX_VALUE);
+        publisher.subscribe(event, slow);
+        publisher.subscribe(event, fast);
+        slow.next();
+        fast.next();
+
+        for (int value = 90; value >= 70; value -= 10) {
+            seats.set(value);
+            publisher.markChanged(event);
+            publisher.flush();
+            assertEquals(value, fast.next().availableSeats());
+        }
+        release.countDown();
+
+        // Der langsame Abonnent hing noch im ersten Update; er überspringt Zwischenstände und erhält den neuesten
+        assertEquals(70, slow.next().availableSeats());
+        assertNull(slow.updates.poll(100, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    @DisplayName("Test: Ohne Nachfrage wird nichts ausgeliefert")
+    void respectsDemand() throws InterruptedException {
+        RecordingSubscriber subscriber = new RecordingSubscriber(0);
+        publisher.subscribe(event, subscriber);
+        assertNull(subscriber.updates.poll(100, TimeUnit.MILLISECONDS));
+
+        seats.set(50);
+        publisher.markChanged(event);
+        publisher.flush();
+        subscriber.subscription.request(1);
+
+        assertEquals(50, subscriber.next().availableSeats());
+    }
+
+    @Test
+    @DisplayName("Test: Ungültige Nachfrage beendet das Abonnement mit einem Fehler")
+    void invalidRequestSignalsError() throws InterruptedException {
+        RecordingSubscriber subscriber = new RecordingSubscriber(0);
+        publisher.subscribe(event, subscriber);
+
+        subscriber.subscription.request(0);
+
+        assertInstanceOf(IllegalArgumentException.class, subscriber.error);
+        assertEquals(0, publisher.getSubscriberCount());
+    }
+
+    @Test
+    @DisplayName("Test: Abbestellte und geschlossene Abonnements")
+    void cancelAndClose() {
+        RecordingSubscriber cancelled = new RecordingSubscriber(Long.MAX_VALUE);
+        RecordingSubscriber remaining = new RecordingSubscriber(Long.MAX_VALUE);
+        publisher.subscribe(event, cancelled);
+        publisher.subscribe(event, remaining);
+
+        cancelled.subscription.cancel();
+        assertEquals(1, publisher.getSubscriberCount());
+
+        publisher.close();
+        assertTrue(remaining.completed);
+        assertFalse(cancelled.completed);
+        assertThrows(IllegalStateException.class, () -> publisher.subscribe(event, new RecordingSubscriber(1)));
+    }
+
+    @Test
+    @DisplayName("Test: onComplete folgt erst nach dem laufenden onNext")
+    void completionIsSerializedWithDelivery() throws InterruptedException {
+        CountDownLatch delivering = new CountDownLatch(1);
+        CountDownLatch proceed = new CountDownLatch(1);
+        AtomicInteger signals = new AtomicInteger();
+        AtomicInteger overlaps = new AtomicInteger();
+        CountDownLatch completed = new CountDownLatch(1);
+        publisher.subscribe(event, new Flow.Subscriber<>() {
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                subscription.request(Long.MAX_VALUE);
+            }
+
+            @Override
+            public void onNext(AvailabilityPublisher.Update item) {
+                if (signals.incrementAndGet() > 1) overlaps.incrementAndGet();
+                delivering.countDown();
+                try {
+                    proceed.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                signals.decrementAndGet();
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+            }
+
+            @Override
+            public void onComplete() {
+                if (signals.incrementAndGet() > 1) overlaps.incrementAndGet();
+                signals.decrementAndGet();
+                completed.countDown();
+            }
+        });
+        assertTrue(delivering.await(5, TimeUnit.SECONDS));
+
+        Thread closing = Thread.ofVirtual().start(publisher::close);
+        assertFalse(completed.await(100, TimeUnit.MILLISECONDS));
+        proceed.countDown();
+        closing.join();
+
+        assertEquals(0, completed.getCount());
+        assertEquals(0, overlaps.get());
+    }
+
+    @Test
+    @DisplayName("Test: Der Dispatcher liefert Änderungen im Intervall aus")
+    void dispatcherPublishesPeriodically() throws InterruptedException {
+        try (AvailabilityPublisher periodic = new AvailabilityPublisher(Duration.ofMillis(10), _ -> seats.get())) {
+            RecordingSubscriber subscriber = new RecordingSubscriber(Long.MAX_VALUE);
+            periodic.subscribe(event, subscriber);
+            subscriber.next();
+
+            seats.set(42);
+            periodic.markChanged(event);
+
+            assertEquals(42, subscriber.next().availableSeats());
+        }
+    }
+
+    @Test
+    @DisplayName("Test: Ungültiges Intervall wird abgelehnt")
+    void invalidIntervalThrowsException() {
+        assertThrows(IllegalArgumentException.class, () -> new AvailabilityPublisher(Duration.ZERO, _ -> 0));
+    }
+
+    private static class RecordingSubscriber implements Flow.Subscriber<AvailabilityPublisher.Update> {
+        final BlockingQueue<AvailabilityPublisher.Update> updates = new LinkedBlockingQueue<>();
+        private final long initialDemand;
+        volatile Flow.Subscription subscription;
+        volatile Throwable error;
+        volatile boolean completed;
+
+        RecordingSubscriber(long initialDemand) {
+            this.initialDemand = initialDemand;
+        }
+
+        AvailabilityPublisher.Update next() throws InterruptedException {
+            AvailabilityPublisher.Update update = updates.poll(5, TimeUnit.SECONDS);
+            assertNotNull(update, "Kein Update erhalten");
+            return update;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            if (initialDemand > 0) {
+                subscription.request(initialDemand);
+            }
+        }
+
+        @Override
+        public void onNext(AvailabilityPublisher.Update item) {
+            updates.add(item);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            error = throwable;
+        }
+
+        @Override
+        public void onComplete() {
+            completed = true;
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package de.hsh.service;
+
+import de.hsh.dto.Customer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class CachingBlacklistServiceTest {
+
+    private BlacklistService blacklistServiceMock;
+    private MutableClock clock;
+    private CachingBlacklistService cachingBlacklistService;
+
+    @BeforeEach
+    void setUp() {
+        blacklistServiceMock = mock(BlacklistService.class);
+        when(blacklistServiceMock.isBlacklisted("Böser Kunde")).thenReturn(true);
+        clock = new MutableClock();
+        cachingBlacklistService = new CachingBlacklistService(blacklistServiceMock, 100, Duration.ofMinutes(10), Duration.ofSeconds(30), clock);
+    }
+
+    @Test
+    @DisplayName("Test: Wiederholte Abfragen werden aus dem Cache beantwortet")
+    void repeatedLookupsHitTheCache() {
+        assertFalse(cachingBlacklistService.isBlacklisted("Max Mustermann"));
+        assertFalse(cachingBlacklistService.isBlacklisted("Max Mustermann"));
+        assertTrue(cachingBlacklistService.isBlacklisted("Böser Kunde"));
+        assertTrue(cachingBlacklistService.isBlacklisted("Böser Kunde"));
+
+        verify(blacklistServiceMock, times(1)).isBlacklisted("Max Mustermann");
+        verify(blacklistServiceMock, times(1)).isBlacklisted("Böser Kunde");
+        assertEquals(2, cachingBlacklistService.getHitCount());
+        assertEquals(2, cachingBlacklistService.getMissCount());
+        assertEquals(2, cachingBlacklistService.getRemoteCallCount());
+    }
+
+    @Test
+    @DisplayName("Test: Negative Ergebnisse laufen früher ab als positive")
+    void negativeVerdictsExpireBeforePositiveOnes() {
+        cachingBlacklistService.isBlacklisted("Max Mustermann");
+        cachingBlacklistService.isBlacklisted("Böser Kunde");
+
+        clock.advance(Duration.ofSeconds(31));
+        cachingBlacklistService.isBlacklisted("Max Mustermann");
+        cachingBlacklistService.isBlacklisted("Böser Kunde");
+        verify(blacklistServiceMock, times(2)).isBlacklisted("Max Mustermann");
+        verify(blacklistServiceMock, times(1)).isBlacklisted("Böser Kunde");
+
+        clock.advance(Duration.ofMinutes(10));
+        cachingBlacklistService.isBlacklisted("Böser Kunde");
+        verify(blacklistServiceMock, times(2)).isBlacklisted("Böser Kunde");
+    }
+
+    @Test
+    @DisplayName("Test: Der am längsten nicht genutzte Eintrag wird verdrängt")
+    void leastRecentlyUsedEntryIsEvicted() {
+        CachingBlacklistService smallCache = new CachingBlacklistService(blacklistServiceMock, 2, Duration.ofMinutes(10), Duration.ofMinutes(10), clock);
+
+        smallCache.isBlacklisted("A");
+        smallCache.isBlacklisted("B");
+        smallCache.isBlacklisted("A");
+        smallCache.isBlacklisted("C");
+
+        assertEquals(2, smallCache.size());
+        assertEquals(1, smallCache.getEvictionCount());
+        smallCache.isBlacklisted("A");
+        smallCache.isBlacklisted("B");
+        verify(blacklistServiceMock, times(1)).isBlacklisted("A");
+        verify(blacklistServiceMock, times(2)).isBlacklisted("B");
+    }
+
+    @Test
+    @DisplayName("Test: Parallele Abfragen für denselben Namen lösen nur eine entfernte Abfrage aus")
+    void concurrentLookupsAreCollapsed() throws Exception {
+        CountDownLatch remoteCallStarted = new CountDownLatch(1);
+        CountDownLatch releaseRemoteCall = new CountDownLatch(1);
+        when(blacklistServiceMock.isBlacklisted("Langsamer Kunde")).thenAnswer(invocation -> {
+            remoteCallStarted.countDown();
+            releaseRemoteCall.await();
+            return true;
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        Future<Boolean> first = executor.submit(() -> cachingBlacklistService.isBlacklisted("Langsamer Kunde"));
+        assertTrue(remoteCallStarted.await(5, TimeUnit.SECONDS));
+        List<Future<Boolean>> followers = List.of(
+                executor.submit(() -> cachingBlacklistService.isBlacklisted("Langsamer Kunde")),
+                executor.submit(() -> cachingBlacklistService.isBlacklisted("Langsamer Kunde")));
+
+        while (cachingBlacklistService.getCollapsedCount() + cachingBlacklistService.getHitCount() < 2) {
+            Thread.onSpinWait();
+        }
+        releaseRemoteCall.countDown();
+
+        assertTrue(first.get(5, TimeUnit.SECONDS));
+        for (Future<Boolean> follower : followers) {
+            assertTrue(follower.get(5, TimeUnit.SECONDS));
+        }
+        executor.shutdown();
+        verify(blacklistServiceMock, times(1)).isBlacklisted("Langsamer Kunde");
+    }
+
+    @Test
+    @DisplayName("Test: Vorabladen fragt alle Kunden gesammelt ab")
+    void prefetchWarmsCacheForAllCustomers() {
+        CustomerService customerService = new CustomerService();
+        customerService.addCustomer(new Customer("Max Mustermann", "Musterstraße 1"));
+        customerService.addCustomer(new Customer("Böser Kunde", "Dunkle Gasse 13"));
+        when(blacklistServiceMock.areBlacklisted(List.of("Max Mustermann", "Böser Kunde")))
+                .thenReturn(Map.of("Max Mustermann", false, "Böser Kunde", true));
+
+        cachingBlacklistService.prefetch(customerService);
+        verify(blacklistServiceMock).areBlacklisted(List.of("Max Mustermann", "Böser Kunde"));
+        clearInvocations(blacklistServiceMock);
+
+        assertFalse(cachingBlacklistService.isBlacklisted("Max Mustermann"));
+        assertTrue(cachingBlacklistService.isBlacklisted("Böser Kunde"));
+        verify(blacklistServiceMock, never()).isBlacklisted(anyString());
+    }
+
+    @Test
+    @DisplayName("Test: Sammelabfrage fragt nur fehlende Namen ab")
+    void bulkLookupOnlyQueriesMissingNames() {
+        cachingBlacklistService.isBlacklisted("Max Mustermann");
+        when(blacklistServiceMock.areBlacklisted(List.of("Böser Kunde"))).thenReturn(Map.of("Böser Kunde", true));
+
+        Map<String, Boolean> verdicts = cachingBlacklistService.areBlacklisted(List.of("Max Mustermann", "Böser Kunde"));
+
+        assertEquals(Map.of("Max Mustermann", false, "Böser Kunde", true), verdicts);
+        verify(blacklistServiceMock).areBlacklisted(List.of("Böser Kunde"));
+    }
+
+    @Test
+    @DisplayName("Test: Fehlt ein Name in der Sammelantwort, wird er einzeln abgefragt statt als unbedenklich gespeichert")
+    void bulkLookupRequeriesNamesMissingFromAnswer() {
+        when(blacklistServiceMock.areBlacklisted(List.of("Max Mustermann", "Böser Kunde"))).thenReturn(Map.of("Max Mustermann", false));
+
+        Map<String, Boolean> verdicts = cachingBlacklistService.areBlacklisted(List.of("Max Mustermann", "Böser Kunde"));
+
+        assertEquals(Map.of("Max Mustermann", false, "Böser Kunde", true), verdicts);
+        verify(blacklistServiceMock).isBlacklisted("Böser Kunde");
+        verify(blacklistServiceMock, never()).isBlacklisted("Max Mustermann");
+    }
+
+    @Test
+    @DisplayName("Test: Eine vor invalidate gestartete Abfrage trägt ihr altes Ergebnis nicht wieder ein")
+    void invalidateDuringRemoteCallDiscardsStaleVerdict() {
+        when(blacklistServiceMock.isBlacklisted("Max Mustermann")).thenAnswer(invocation -> {
+            cachingBlacklistService.invalidate("Max Mustermann");
+            return false;
+        }).thenReturn(true);
+
+        assertFalse(cachingBlacklistService.isBlacklisted("Max Mustermann"));
+        assertEquals(0, cachingBlacklistService.size());
+        assertTrue(cachingBlacklistService.isBlacklisted("Max Mustermann"));
+        assertTrue(cachingBlacklistService.isBlacklisted("Max Mustermann"));
+        verify(blacklistServiceMock, times(2)).isBlacklisted("Max Mustermann");
+    }
+
+    @Test
+    @DisplayName("Test: Fehler des entfernten Dienstes werden nicht zwischengespeichert")
+    void remoteFailureIsNotCached() {
+        when(blacklistServiceMock.isBlacklisted("Max Mustermann")).thenThrow(new IllegalStateException("Timeout")).thenReturn(false);
+
+        assertThrows(IllegalStateException.class, () -> cachingBlacklistService.isBlacklisted("Max Mustermann"));
+        assertFalse(cachingBlacklistService.isBlacklisted("Max Mustermann"));
+        assertEquals(0, cachingBlacklistService.getHitCount());
+    }
+
+    @Test
+    void invalidConfigurationThrowsException() {
+        assertThrows(IllegalArgumentException.class, () -> new CachingBlacklistService(blacklistServiceMock, 0, Duration.ZERO, Duration.ZERO));
+        assertThrows(IllegalArgumentException.class, () -> new CachingBlacklistService(blacklistServiceMock, 10, Duration.ofSeconds(-1), Duration.ZERO));
+    }
+}
@@ -1,12 +1,20 @@
 package de.hsh.service;
 
 import de.hsh.dto.Customer;
+import de.hsh.dto.Page;
+import de.hsh.persistence.BinarySnapshot;
+import de.hsh.persistence.SegmentedFile;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -82,6 +90,58 @@ class CustomerServiceTest {
     }
 
 
+    @Test
+    void findByName() {
+        customerService.addCustomer(customer1);
+        customerService.addCustomer(customer2);
+
+        assertEquals(customer2, customerService.findByName("Jane Doe"));
+        assertNull(customerService.findByName("Max Mustermann"));
+    }
+
+    @Test
+    void addCustomersKeepsInsertionOrder() {
+        customerService.addCustomer(customer1);
+        Customer customer3 = new Customer("Max Mustermann", "Musterstraße 1");
+
+        customerService.addCustomers(List.of(customer2, customer3));
+
+        assertEquals(List.of(customer1, customer2, customer3), customerService.getCustomers());
+        assertEquals(customer3, customerService.findByName("Max Mustermann"));
+    }
+
+    @Test
+    void addCustomersWithDuplicateInBatchAddsNothing() {
+        Customer duplicate = new Customer("Jane Doe", "Andere Straße 3");
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> customerService.addCustomers(List.of(customer1, customer2, duplicate)));
+
+        assertEquals("Duplicate customer name: Jane Doe", exception.getMessage());
+        assertTrue(customerService.getCustomers().isEmpty(), "Bei einem Duplikat darf kein Kunde übernommen werden");
+        assertNull(customerService.findByName("John Doe"));
+    }
+
+    @Test
+    void addCustomersWithExistingNameThrowsException() {
+        customerService.addCustomer(customer1);
+
+        assertThrows(IllegalArgumentException.class, () -> customerService.addCustomers(List.of(customer2, new Customer("John Doe", "Andere Straße 3"))));
+        assertEquals(List.of(customer1), customerService.getCustomers());
+    }
+
+    @Test
+    void findByNameAfterDeserialization() {
+        customerService.addCustomer(customer1);
+        String filename = "customers.ser";
+        customerService.serializeCustomers(filename);
+
+        CustomerService newCustomerService = new CustomerService();
+        newCustomerService.deserializeCustomers(filename);
+
+        assertEquals(customer1, newCustomerService.findByName("John Doe"));
+        assertThrows(IllegalArgumentException.class, () -> newCustomerService.addCustomer(new Customer("John Doe", "Andere Straße 3")));
+    }
+
     @Test
     void serializationAndDeserialization() {
         // Kunden zur Liste hinzufügen
@@ -126,6 +186,27 @@ class CustomerServiceTest {
         }
     }
 
+    @Test
+    @DisplayName("Test: Kunden lassen sich blättern und streamen, Momentaufnahmen bleiben unverändert")
+    void pagingAndSnapshots() {
+        for (int i = 0; i < 5; i++) {
+            customerService.addCustomer(new Customer("Kunde " + i, "Teststraße " + i));
+        }
+        List<Customer> snapshot = customerService.snapshotCustomers();
+
+        Page<Customer> page = customerService.getCustomers(0, 3);
+        assertEquals(3, page.items().size());
+        assertEquals(3, page.next());
+        page = customerService.getCustomers(page.next(), 3);
+        assertEquals(List.of("Kunde 3", "Kunde 4"), page.items().stream().map(Customer::name).toList());
+        assertFalse(page.hasNext());
+
+        customerService.addCustomer(new Customer("Kunde 5", "Teststraße 5"));
+        assertEquals(5, snapshot.size());
+        assertEquals(6, customerService.streamCustomers().count());
+        assertThrows(UnsupportedOperationException.class, () -> customerService.getCustomers().add(new Customer("Kunde 6", "Teststraße 6")));
+    }
+
     @Test
     void serializeCustomersThrowsRuntimeExceptionOnIOException() {
         // Erstellen Sie eine Datei, die nicht beschreibbar ist, z. B. eine schreibgeschützte Datei.
@@ -154,5 +235,34 @@ class CustomerServiceTest {
         }
     }
 
+    @Test
+    void incrementalSerializationWritesOnlyNewCustomers(@TempDir Path directory) throws IOException {
+        String filename = directory.resolve("customers.ser").toString();
+        customerService.addCustomer(customer1);
+        customerService.serializeCustomers(filename);
+
+        customerService.addCustomer(customer2);
+        customerService.serializeCustomers(filename);
+        customerService.serializeCustomers(filename);
+
+        assertEquals(List.of(customer1), new SegmentedFile<>(directory.resolve("customers.ser"), BinarySnapshot::writeCustomers, BinarySnapshot::readCustomers).readBase());
+        try (InputStream in = Files.newInputStream(directory.resolve("customers.ser.segment-1"))) {
+            assertEquals(List.of(customer2), BinarySnapshot.readCustomers(in));
+        }
+        assertFalse(Files.exists(directory.resolve("customers.ser.segment-2")));
+
+        CustomerService newCustomerService = new CustomerService();
+        newCustomerService.deserializeCustomers(filename);
+        assertEquals(List.of(customer1, customer2), newCustomerService.getCustomers());
+
+        // Nach dem Laden wird ebenfalls nur angehängt
+        Customer customer3 = new Customer("Erika Muster", "Weg 3");
+        newCustomerService.addCustomer(customer3);
+        newCustomerService.serializeCustomers(filename);
+        assertTrue(Files.exists(directory.resolve("customers.ser.segment-2")));
 
-}
\ No newline at end of file
+        CustomerService thirdCustomerService = new CustomerService();
+        thirdCustomerService.deserializeCustomers(filename);
+        assertEquals(List.of(customer1, customer2, customer3), thirdCustomerService.getCustomers());
+    }
+}
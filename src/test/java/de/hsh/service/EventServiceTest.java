@@ -4,9 +4,12 @@ import de.hsh.dto.Event;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Date;
 import java.util.List;
 import java.util.UUID;
@@ -83,6 +86,71 @@ class EventServiceTest {
         assertTrue(eventService.getEvents().contains(event2), "Die Event-Liste sollte das zweite Event enthalten.");
     }
 
+    @Test
+    void findById() {
+        eventService.addEvent(event1);
+        eventService.addEvent(event2);
+
+        assertEquals(event2, eventService.findById(event2.identifier()));
+        assertNull(eventService.findById(UUID.randomUUID()));
+    }
+
+    @Test
+    void addEventWithDuplicateIdentifierThrowsException() {
+        eventService.addEvent(event1);
+        Event duplicate = new Event(event1.identifier(), "Anderes Konzert", new Date(), 10.0, 10, "organizer@mail.com");
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> eventService.addEvent(duplicate));
+
+        assertEquals("Duplicate event identifier: " + event1.identifier(), exception.getMessage());
+        assertEquals(1, eventService.getEvents().size());
+    }
+
+    @Test
+    void findBetweenReturnsEventsInDateWindowSortedByDate() {
+        long now = System.currentTimeMillis();
+        Event friday = new Event(UUID.randomUUID(), "Freitag", new Date(now + 1_000), 10.0, 10, "organizer@mail.com");
+        Event saturday = new Event(UUID.randomUUID(), "Samstag", new Date(now + 2_000), 10.0, 10, "organizer@mail.com");
+        Event saturdayToo = new Event(UUID.randomUUID(), "Samstag 2", new Date(now + 2_000), 10.0, 10, "organizer@mail.com");
+        Event monday = new Event(UUID.randomUUID(), "Montag", new Date(now + 4_000), 10.0, 10, "organizer@mail.com");
+        eventService.addEvent(monday);
+        eventService.addEvent(saturday);
+        eventService.addEvent(friday);
+        eventService.addEvent(saturdayToo);
+
+        assertEquals(List.of(friday, saturday, saturdayToo), eventService.findBetween(new Date(now + 1_000), new Date(now + 4_000)));
+        assertTrue(eventService.findBetween(new Date(now + 5_000), new Date(now + 6_000)).isEmpty());
+    }
+
+    @Test
+    void upcomingReturnsNextEventsOnly() {
+        long now = System.currentTimeMillis();
+        Event past = new Event(UUID.randomUUID(), "Vergangen", new Date(now - 60_000), 10.0, 10, "organizer@mail.com");
+        Event soon = new Event(UUID.randomUUID(), "Bald", new Date(now + 60_000), 10.0, 10, "organizer@mail.com");
+        Event later = new Event(UUID.randomUUID(), "Später", new Date(now + 120_000), 10.0, 10, "organizer@mail.com");
+        Event muchLater = new Event(UUID.randomUUID(), "Viel später", new Date(now + 180_000), 10.0, 10, "organizer@mail.com");
+        eventService.addEvent(later);
+        eventService.addEvent(past);
+        eventService.addEvent(muchLater);
+        eventService.addEvent(soon);
+
+        assertEquals(List.of(soon, later), eventService.upcoming(2));
+        assertEquals(List.of(soon, later, muchLater), eventService.upcoming(10));
+    }
+
+    @Test
+    void indexesAreRebuiltAfterDeserialization() {
+        eventService.addEvent(event1);
+        String filename = "events.ser";
+        eventService.serializeEvents(filename);
+
+        EventService newEventService = new EventService();
+        newEventService.deserializeEvents(filename);
+
+        assertEquals(event1, newEventService.findById(event1.identifier()));
+        assertEquals(List.of(event1), newEventService.findBetween(event1.date(), new Date(event1.date().getTime() + 1)));
+    }
+
     @Test
     void serializationAndDeserialization() {
         // Add events to the list
@@ -127,6 +195,25 @@ class EventServiceTest {
         }
     }
 
+    @Test
+    void pagingAndStreamingEvents() {
+        Event later = new Event(UUID.randomUUID(), "Konzert 3", new Date(event1.date().getTime() + 86_400_000L), 70.0, 100, "organizer@mail.com");
+        eventService.addEvent(event1);
+        eventService.addEvent(later);
+        List<Event> snapshot = eventService.snapshotEvents();
+        eventService.addEvent(event2);
+
+        assertEquals(List.of(event1, later), snapshot);
+        assertEquals(List.of(event1), eventService.getEvents(0, 1).items());
+        assertEquals(List.of(later, event2), eventService.getEvents(1, 5).items());
+        assertEquals(3, eventService.streamEvents().count());
+
+        Date from = new Date(event1.date().getTime() + 1);
+        Date to = new Date(later.date().getTime() + 1);
+        assertEquals(List.of(later), eventService.streamBetween(from, to).toList());
+        assertEquals(eventService.findBetween(from, to), eventService.streamBetween(from, to).toList());
+    }
+
     @Test
     void serializeEventsThrowsRuntimeExceptionOnIOException() {
         // Create a file that is not writable, e.g., a read-only file.
@@ -155,4 +242,27 @@ class EventServiceTest {
         }
     }
 
-}
\ No newline at end of file
+    @Test
+    void incrementalSerializationAppendsSegments(@TempDir Path directory) {
+        String filename = directory.resolve("events.ser").toString();
+        eventService.addEvent(event1);
+        eventService.serializeEvents(filename);
+        eventService.addEvent(event2);
+        eventService.serializeEvents(filename);
+
+        assertTrue(Files.exists(directory.resolve("events.ser.segment-1")));
+
+        EventService newEventService = new EventService();
+        newEventService.deserializeEvents(filename);
+        assertEquals(List.of(event1, event2), newEventService.getEvents());
+        assertEquals(event2, newEventService.findById(event2.identifier()));
+
+        // Ein anderes Ziel erhält wieder den vollständigen Stand
+        String otherFilename = directory.resolve("other.ser").toString();
+        newEventService.serializeEvents(otherFilename);
+        assertFalse(Files.exists(directory.resolve("other.ser.segment-1")));
+        EventService thirdEventService = new EventService();
+        thirdEventService.deserializeEvents(otherFilename);
+        assertEquals(List.of(event1, event2), thirdEventService.getEvents());
+    }
+}
@@ -0,0 +1,171 @@
+package de.hsh.service;
+
+import de.hsh.dto.Customer;
+import de.hsh.dto.Event;
+import de.hsh.dto.Reservation;
+import de.hsh.metrics.RecordingReservationMetrics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class NotificationOutboxTest {
+
+    private EmailService emailServiceMock;
+    private Event event;
+    private Customer customer;
+
+    @BeforeEach
+    void setUp() {
+        emailServiceMock = mock(EmailService.class);
+        event = new Event(UUID.randomUUID(), "Konzert", new Date(), 50.0, 100, "organizer@mail.com");
+        customer = new Customer("Max Mustermann", "Musterstraße 1");
+    }
+
+    @Test
+    @DisplayName("Test: Gepufferte Benachrichtigungen werden beim Schließen verschickt")
+    void closeDeliversQueuedNotifications() {
+        NotificationOutbox outbox = new NotificationOutbox(emailServiceMock);
+
+        outbox.enqueue(new Reservation(UUID.randomUUID(), event, customer, 20));
+        outbox.close();
+
+        verify(emailServiceMock).sendEmail("organizer@mail.com", "Buchung für Konzert bestätigt",
+                "Es wurden 20 Plätze für die Veranstaltung Konzert reserviert.");
+        assertEquals(1, outbox.getSentCount());
+        assertEquals(0, outbox.getQueueDepth());
+    }
+
+    @Test
+    @DisplayName("Test: Im Dispatcher verschickte Mails werden in den Metriken gezählt")
+    void dispatchedMailsAreRecordedInMetrics() {
+        RecordingReservationMetrics metrics = new RecordingReservationMetrics();
+        NotificationOutbox outbox = new NotificationOutbox(emailServiceMock, 10, 10, metrics);
+
+        outbox.enqueue(new Reservation(UUID.randomUUID(), event, customer, 20));
+        outbox.enqueueCancellation(new Reservation(UUID.randomUUID(), event, customer, 20));
+        outbox.close();
+
+        assertEquals(2, metrics.snapshot().emailsSent());
+        assertEquals(2, metrics.snapshot().emailLatency().count());
+    }
+
+    @Test
+    @DisplayName("Test: Mehrere Buchungen für denselben Veranstalter und dasselbe Event werden zusammengefasst")
+    void coalescesNotificationsForSameOrganizerAndEvent() throws InterruptedException {
+        CountDownLatch firstMailStarted = new CountDownLatch(1);
+        CountDownLatch releaseFirstMail = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            firstMailStarted.countDown();
+            releaseFirstMail.await();
+            return null;
+        }).doNothing().when(emailServiceMock).sendEmail(anyString(), anyString(), anyString());
+        Event otherEvent = new Event(UUID.randomUUID(), "Oper", new Date(), 50.0, 100, "organizer@mail.com");
+
+        NotificationOutbox outbox = new NotificationOutbox(emailServiceMock);
+        outbox.enqueue(new Reservation(UUID.randomUUID(), event, customer, 10));
+        assertTrue(firstMailStarted.await(5, TimeUnit.SECONDS));
+
+        // Während der erste Versand hängt, sammeln sich weitere Buchungen an
+        outbox.enqueue(new Reservation(UUID.randomUUID(), event, customer, 20));
+        outbox.enqueue(new Reservation(UUID.randomUUID(), event, new Customer("Anna Müller", "Beispielstraße 2"), 30));
+        outbox.enqueue(new Reservation(UUID.randomUUID(), otherEvent, customer, 15));
+        releaseFirstMail.countDown();
+        outbox.close();
+
+        verify(emailServiceMock).sendEmail("organizer@mail.com", "Buchung für Konzert bestätigt",
+                "Es wurden 50 Plätze für die Veranstaltung Konzert reserviert.");
+        verify(emailServiceMock).sendEmail("organizer@mail.com", "Buchung für Oper bestätigt",
+                "Es wurden 15 Plätze für die Veranstaltung Oper reserviert.");
+        assertEquals(3, outbox.getSentCount());
+        assertEquals(1, outbox.getCoalescedCount());
+    }
+
+    @Test
+    @DisplayName("Test: Ist die Outbox voll, verschickt der Aufrufer die Mail selbst")
+    void fullQueueFallsBackToCallerRuns() throws InterruptedException {
+        CountDownLatch firstMailStarted = new CountDownLatch(1);
+        CountDownLatch releaseFirstMail = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            if (firstMailStarted.getCount() > 0) {
+                firstMailStarted.countDown();
+                releaseFirstMail.await();
+            }
+            return null;
+        }).when(emailServiceMock).sendEmail(anyString(), anyString(), anyString());
+
+        NotificationOutbox outbox = new NotificationOutbox(emailServiceMock, 1, 10);
+        outbox.enqueue(new Reservation(UUID.randomUUID(), event, customer, 10));
+        assertTrue(firstMailStarted.await(5, TimeUnit.SECONDS));
+
+        outbox.enqueue(new Reservation(UUID.randomUUID(), event, customer, 20));
+        assertEquals(0, outbox.getRemainingCapacity());
+        outbox.enqueue(new Reservation(UUID.randomUUID(), event, customer, 30));
+
+        assertEquals(1, outbox.getOverflowCount());
+        verify(emailServiceMock).sendEmail("organizer@mail.com", "Buchung für Konzert bestätigt",
+                "Es wurden 30 Plätze für die Veranstaltung Konzert reserviert.");
+
+        releaseFirstMail.countDown();
+        outbox.close();
+        assertEquals(3, outbox.getSentCount());
+        assertEquals(2, outbox.getEnqueuedCount());
+    }
+
+    @Test
+    @DisplayName("Test: Ein fehlgeschlagener Versand beendet den Dispatcher nicht")
+    void failedSendDoesNotStopDispatcher() {
+        doThrow(new RuntimeException("Relay nicht erreichbar")).doNothing()
+                .when(emailServiceMock).sendEmail(anyString(), anyString(), anyString());
+
+        NotificationOutbox outbox = new NotificationOutbox(emailServiceMock, 10, 1);
+        outbox.enqueue(new Reservation(UUID.randomUUID(), event, customer, 10));
+        outbox.enqueue(new Reservation(UUID.randomUUID(), event, customer, 20));
+        outbox.close();
+
+        assertEquals(1, outbox.getFailedCount());
+        assertEquals(1, outbox.getSentCount());
+    }
+
+    @Test
+    @DisplayName("Test: Stornierungen werden getrennt von Buchungen zusammengefasst")
+    void cancellationsAreNotMergedWithBookings() throws InterruptedException {
+        CountDownLatch firstMailStarted = new CountDownLatch(1);
+        CountDownLatch releaseFirstMail = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            firstMailStarted.countDown();
+            releaseFirstMail.await();
+            return null;
+        }).doNothing().when(emailServiceMock).sendEmail(anyString(), anyString(), anyString());
+
+        NotificationOutbox outbox = new NotificationOutbox(emailServiceMock);
+        outbox.enqueue(new Reservation(UUID.randomUUID(), event, customer, 20));
+        assertTrue(firstMailStarted.await(5, TimeUnit.SECONDS));
+
+        // Beide Stornierungen liegen gleichzeitig in der Queue, während die Buchung noch verschickt wird
+        outbox.enqueueCancellation(new Reservation(UUID.randomUUID(), event, customer, 10));
+        outbox.enqueueCancellation(new Reservation(UUID.randomUUID(), event, customer, 15));
+        releaseFirstMail.countDown();
+        outbox.close();
+
+        verify(emailServiceMock).sendEmail("organizer@mail.com", "Buchung für Konzert bestätigt",
+                "Es wurden 20 Plätze für die Veranstaltung Konzert reserviert.");
+        verify(emailServiceMock).sendEmail("organizer@mail.com", "Stornierung für Konzert",
+                "Es wurden 25 Plätze für die Veranstaltung Konzert freigegeben.");
+        assertEquals(2, outbox.getSentCount());
+        assertEquals(1, outbox.getCoalescedCount());
+    }
+
+    @Test
+    void invalidCapacityThrowsException() {
+        assertThrows(IllegalArgumentException.class, () -> new NotificationOutbox(emailServiceMock, 0, 10));
+        assertThrows(IllegalArgumentException.class, () -> new NotificationOutbox(emailServiceMock, 10, 0));
+    }
+}
@@ -2,19 +2,47 @@ package de.hsh.service;
 
 import de.hsh.dto.Customer;
 import de.hsh.dto.Event;
+import de.hsh.dto.Page;
 import de.hsh.dto.Reservation;
+import de.hsh.dto.SalesTotals;
+import de.hsh.dto.SeatHold;
+import de.hsh.metrics.RecordingReservationMetrics;
+import de.hsh.metrics.ReservationMetrics;
+import de.hsh.persistence.InMemoryReservationStore;
+import de.hsh.persistence.InterningRegistry;
+import de.hsh.persistence.ReservationColumns;
+import de.hsh.persistence.MappedReservationStore;
+import de.hsh.persistence.ReservationJournal;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -146,6 +174,31 @@ class ReservationServiceTest {
         );
     }
 
+    @Test
+    @DisplayName("Test: Keine E-Mail, wenn die Buchung abgelehnt wird")
+    void noEmailWhenReservationIsRejected() {
+        reservationService.addReservation(new Reservation(UUID.randomUUID(), event, customer2, 90));
+        clearInvocations(emailServiceMock);
+
+        assertThrows(IllegalArgumentException.class, () -> reservationService.addReservation(new Reservation(UUID.randomUUID(), event, customer1, 20)));
+
+        verify(emailServiceMock, never()).sendEmail(anyString(), anyString(), anyString());
+    }
+
+    @Test
+    @DisplayName("Test: Mit Outbox wird die E-Mail nach der Buchung asynchron verschickt")
+    void emailIsSentThroughNotificationOutbox() {
+        NotificationOutbox outbox = new NotificationOutbox(emailServiceMock);
+        ReservationService asyncReservationService = new ReservationService(blacklistServiceMock, outbox);
+
+        asyncReservationService.addReservation(new Reservation(UUID.randomUUID(), event, customer1, 20));
+        outbox.close();
+
+        assertEquals(1, outbox.getEnqueuedCount());
+        verify(emailServiceMock).sendEmail("organizer@mail.com", "Buchung für Konzert bestätigt",
+                "Es wurden 20 Plätze für die Veranstaltung Konzert reserviert.");
+    }
+
     @Test
     void addReservationWithBlacklistedCustomer() {
         // Setze das Verhalten des Mock-Blacklist-Dienstes
@@ -232,6 +285,149 @@ class ReservationServiceTest {
     }
 
 
+    @Test
+    @DisplayName("Test: Sitzplatzzähler entspricht immer einer vollständigen Neuberechnung")
+    void reservedSeatsCounterMatchesFullRecount() {
+        Event secondEvent = new Event(UUID.randomUUID(), "Oper", new java.util.Date(), 80.0, 60, "organizer2@mail.com");
+        List<Event> events = List.of(event, secondEvent);
+        List<Customer> customers = List.of(customer1, customer2, new Customer("John Doe", "Unbekannte Straße"));
+        java.util.Random random = new java.util.Random(42);
+
+        for (int i = 0; i < 500; i++) {
+            Event e = events.get(random.nextInt(events.size()));
+            Customer c = customers.get(random.nextInt(customers.size()));
+            try {
+                reservationService.addReservation(new Reservation(UUID.randomUUID(), e, c, 1 + random.nextInt(8)));
+            } catch (IllegalArgumentException ignored) {
+                // Ausverkaufte Events werden abgelehnt, der Zähler darf sich dabei nicht ändern
+            }
+
+            for (Event checked : events) {
+                assertEquals(checked.totalSeats() - recountReservedSeats(reservationService, checked), reservationService.getAvailableSeats(checked));
+            }
+        }
+
+        String filename = "reservations.ser";
+        reservationService.serializeReservations(filename);
+        ReservationService newReservationService = new ReservationService(blacklistServiceMock, emailServiceMock);
+        newReservationService.deserializeReservations(filename);
+
+        for (Event checked : events) {
+            assertEquals(checked.totalSeats() - recountReservedSeats(newReservationService, checked), newReservationService.getAvailableSeats(checked));
+        }
+    }
+
+    private static int recountReservedSeats(ReservationService service, Event event) {
+        return service.getReservations().stream()
+                .filter(r -> r.event().identifier().equals(event.identifier()))
+                .mapToInt(Reservation::reservedSeats)
+                .sum();
+    }
+
+    @Test
+    @DisplayName("Test: Zusammengeführte Buchung wird über den Index gefunden")
+    void getReservationReturnsMergedReservation() {
+        reservationService.addReservation(new Reservation(UUID.randomUUID(), event, customer2, 5));
+        reservationService.addReservation(new Reservation(UUID.randomUUID(), event, customer1, 10));
+        Reservation secondReservation = new Reservation(UUID.randomUUID(), event, customer1, 15);
+        reservationService.addReservation(secondReservation);
+
+        Reservation retrievedReservation = reservationService.getReservation(event, customer1);
+
+        assertEquals(2, reservationService.getReservations().size());
+        assertEquals(secondReservation.uuid(), retrievedReservation.uuid());
+        assertEquals(25, retrievedReservation.reservedSeats());
+        assertEquals(5, reservationService.getReservation(event, customer2).reservedSeats());
+    }
+
+    @Test
+    @DisplayName("Test: Events mit gleichem Titel aber anderer ID werden nicht zusammengeführt")
+    void sameTitleDifferentEventDoesNotMergeReservations() {
+        Event sameTitleEvent = new Event(UUID.randomUUID(), "Konzert", new java.util.Date(), 50.0, 100, "organizer@mail.com");
+
+        reservationService.addReservation(new Reservation(UUID.randomUUID(), event, customer1, 10));
+        reservationService.addReservation(new Reservation(UUID.randomUUID(), sameTitleEvent, customer1, 15));
+
+        assertEquals(2, reservationService.getReservations().size());
+        assertEquals(10, reservationService.getReservation(event, customer1).reservedSeats());
+        assertEquals(15, reservationService.getReservation(sameTitleEvent, customer1).reservedSeats());
+    }
+
+    @Test
+    @DisplayName("Test: Suche funktioniert auch nach der Deserialisierung mit gleichwertigen Objekten")
+    void getReservationAfterDeserialization() {
+        reservationService.addReservation(reservation);
+
+        String filename = "reservations.ser";
+        reservationService.serializeReservations(filename);
+        ReservationService newReservationService = new ReservationService(blacklistServiceMock, emailServiceMock);
+        newReservationService.deserializeReservations(filename);
+
+        assertEquals(reservation, newReservationService.getReservation(event, customer1));
+
+        newReservationService.addReservation(new Reservation(UUID.randomUUID(), event, customer1, 5));
+        assertEquals(1, newReservationService.getReservations().size());
+        assertEquals(15, newReservationService.getReservation(event, customer1).reservedSeats());
+    }
+
+    @Test
+    @DisplayName("Test: Parallele Buchungen für ein Event führen nicht zur Überbuchung")
+    void concurrentBookingsOnSameEventDoNotOverbook() throws InterruptedException {
+        int threads = 16;
+        int attemptsPerThread = 200;
+        AtomicInteger accepted = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+
+        for (int t = 0; t < threads; t++) {
+            Customer customer = new Customer("Kunde " + t, "Teststraße " + t);
+            executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < attemptsPerThread; i++) {
+                    try {
+                        reservationService.addReservation(new Reservation(UUID.randomUUID(), event, customer, 1));
+                        accepted.incrementAndGet();
+                    } catch (IllegalArgumentException ignored) {
+                        // Event ausverkauft
+                    }
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+        assertEquals(event.totalSeats(), accepted.get(), "Es dürfen genau so viele Plätze vergeben werden, wie vorhanden sind.");
+        assertEquals(0, reservationService.getAvailableSeats(event));
+        assertEquals(event.totalSeats(), recountReservedSeats(reservationService, event));
+    }
+
+    @Test
+    @DisplayName("Test: Parallele Buchungen für verschiedene Events werden alle angenommen")
+    void concurrentBookingsOnDistinctEvents() throws InterruptedException {
+        int threads = 8;
+        List<Event> events = java.util.stream.IntStream.range(0, threads)
+                .mapToObj(i -> new Event(UUID.randomUUID(), "Event " + i, new java.util.Date(), 10.0, 1000, "organizer@mail.com"))
+                .toList();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+        for (Event e : events) {
+            executor.submit(() -> {
+                for (int i = 0; i < 1000; i++) {
+                    reservationService.addReservation(new Reservation(UUID.randomUUID(), e, new Customer("Kunde " + i, "Teststraße"), 1));
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+        assertEquals(threads * 1000, reservationService.getReservations().size());
+        for (Event e : events) {
+            assertEquals(0, reservationService.getAvailableSeats(e));
+        }
+    }
+
     @Test
     void reservationNotFound() {
         Reservation reservation = new Reservation(UUID.randomUUID(), event, customer1, 10);
@@ -287,6 +483,95 @@ class ReservationServiceTest {
     }
 
 
+    @Test
+    @DisplayName("Test: Nach einem Absturz wird der Zustand aus Snapshot und Journal wiederhergestellt")
+    void recoverFromJournalAfterCrash(@TempDir Path directory) throws IOException {
+        Event secondEvent = new Event(UUID.randomUUID(), "Oper", new java.util.Date(), 80.0, 60, "organizer2@mail.com");
+        try (ReservationJournal journal = ReservationJournal.open(directory, ReservationJournal.SyncPolicy.GROUP_COMMIT, 3)) {
+            reservationService.recoverFrom(journal);
+            reservationService.addReservation(new Reservation(UUID.randomUUID(), event, customer1, 10));
+            reservationService.addReservation(new Reservation(UUID.randomUUID(), event, customer2, 20));
+            reservationService.addReservation(new Reservation(UUID.randomUUID(), secondEvent, customer1, 30));
+            // Der Schwellwert ist erreicht, ein Snapshot wurde geschrieben
+            assertEquals(0, journal.getJournalSize());
+            reservationService.addReservation(new Reservation(UUID.randomUUID(), event, customer1, 5));
+            assertTrue(journal.getJournalSize() > 0);
+        }
+
+        ReservationService recoveredService = new ReservationService(blacklistServiceMock, emailServiceMock);
+        try (ReservationJournal journal = ReservationJournal.open(directory, ReservationJournal.SyncPolicy.GROUP_COMMIT, 3)) {
+            recoveredService.recoverFrom(journal);
+
+            assertEquals(3, recoveredService.getReservations().size());
+            assertEquals(15, recoveredService.getReservation(event, customer1).reservedSeats());
+            assertEquals(65, recoveredService.getAvailableSeats(event));
+            assertEquals(30, recoveredService.getAvailableSeats(secondEvent));
+
+            recoveredService.addReservation(new Reservation(UUID.randomUUID(), secondEvent, customer2, 10));
+        }
+
+        ReservationService secondRecovery = new ReservationService(blacklistServiceMock, emailServiceMock);
+        try (ReservationJournal journal = ReservationJournal.open(directory, ReservationJournal.SyncPolicy.NONE, 3)) {
+            secondRecovery.recoverFrom(journal);
+        }
+        assertEquals(20, secondRecovery.getAvailableSeats(secondEvent));
+    }
+
+    @Test
+    @DisplayName("Test: Abgelehnte Buchungen werden nicht ins Journal geschrieben")
+    void rejectedReservationIsNotJournaled(@TempDir Path directory) throws IOException {
+        try (ReservationJournal journal = ReservationJournal.open(directory, ReservationJournal.SyncPolicy.NONE, 100)) {
+            reservationService.recoverFrom(journal);
+            reservationService.addReservation(new Reservation(UUID.randomUUID(), event, customer1, 90));
+            long size = journal.getJournalSize();
+
+            assertThrows(IllegalArgumentException.class, () -> reservationService.addReservation(new Reservation(UUID.randomUUID(), event, customer2, 20)));
+            assertEquals(size, journal.getJournalSize());
+        }
+    }
+
+    @Test
+    @DisplayName("Test: Mit gemapptem Speicher stehen die freien Plätze nach dem Neustart sofort bereit")
+    void mappedStoreSurvivesRestart(@TempDir Path directory) throws IOException {
+        try (MappedReservationStore store = MappedReservationStore.open(directory)) {
+            ReservationService mappedService = new ReservationService(blacklistServiceMock, emailServiceMock, null, store);
+            mappedService.addReservation(new Reservation(UUID.randomUUID(), event, customer1, 10));
+            mappedService.addReservation(new Reservation(UUID.randomUUID(), event, customer1, 5));
+            mappedService.addReservation(new Reservation(UUID.randomUUID(), event, customer2, 20));
+        }
+
+        try (MappedReservationStore store = MappedReservationStore.open(directory)) {
+            ReservationService restartedService = new ReservationService(blacklistServiceMock, emailServiceMock, null, store);
+
+            assertEquals(65, restartedService.getAvailableSeats(event));
+            assertEquals(15, restartedService.getReservation(event, customer1).reservedSeats());
+            assertThrows(IllegalArgumentException.class, () -> restartedService.addReservation(new Reservation(UUID.randomUUID(), event, customer2, 66)));
+        }
+    }
+
+    @Test
+    @DisplayName("Test: Eine beschädigte Datei lässt den bisherigen Stand unverändert")
+    void corruptFileKeepsCurrentState(@TempDir Path directory) throws IOException {
+        Path file = directory.resolve("reservations.ser");
+        reservationService.addReservation(new Reservation(UUID.randomUUID(), event, customer1, 10));
+        reservationService.addReservation(new Reservation(UUID.randomUUID(), event, customer2, 20));
+        reservationService.serializeReservations(file.toString());
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length / 2));
+
+        try (MappedReservationStore store = MappedReservationStore.open(directory.resolve("store"))) {
+            ReservationService target = new ReservationService(blacklistServiceMock, emailServiceMock, null, store);
+            target.addReservation(new Reservation(UUID.randomUUID(), event, customer1, 5));
+
+            RuntimeException exception = assertThrows(RuntimeException.class, () -> target.deserializeReservations(file.toString()));
+
+            assertEquals("Deserialisierung fehlgeschlagen", exception.getMessage());
+            assertEquals(5, target.getReservation(event, customer1).reservedSeats());
+            assertEquals(95, target.getAvailableSeats(event));
+            assertEquals(1, store.size());
+        }
+    }
+
     @Test
     void deserializationFileNotFound() {
         when(blacklistServiceMock.isBlacklisted(customer1.name())).thenReturn(false);
@@ -299,6 +584,676 @@ class ReservationServiceTest {
     }
 
 
+    @Test
+    @DisplayName("Test: Metriken zählen angenommene, zusammengeführte und abgelehnte Buchungen")
+    void metricsCountOutcomes() {
+        RecordingReservationMetrics metrics = new RecordingReservationMetrics();
+        ReservationService service = new ReservationService(blacklistServiceMock, emailServiceMock, null, new InMemoryReservationStore(), metrics);
+        when(blacklistServiceMock.isBlacklisted(customer2.name())).thenReturn(true);
+
+        service.addReservation(new Reservation(UUID.randomUUID(), event, customer1, 10));
+        service.addReservation(new Reservation(UUID.randomUUID(), event, customer1, 5));
+        assertThrows(IllegalArgumentException.class, () -> service.addReservation(new Reservation(UUID.randomUUID(), event, customer2, 1)));
+        assertThrows(IllegalArgumentException.class, () -> service.addReservation(new Reservation(UUID.randomUUID(), event, customer1, 90)));
+
+        RecordingReservationMetrics.Snapshot snapshot = metrics.snapshot();
+        assertEquals(2, snapshot.accepted());
+        assertEquals(1, snapshot.merged());
+        assertEquals(1, snapshot.rejectedBlacklisted());
+        assertEquals(1, snapshot.rejectedSoldOut());
+        assertEquals(1, snapshot.emailsSent());
+        assertEquals(2, snapshot.bookingLatency().count());
+        assertEquals(4, snapshot.blacklistLatency().count());
+        assertEquals(1, snapshot.emailLatency().count());
+    }
+
+    @Test
+    @DisplayName("Test: Sammelbuchung fasst Buchungen zusammen und fragt die Blacklist einmal ab")
+    void bulkReservationsAreAggregated() {
+        when(blacklistServiceMock.areBlacklisted(anyCollection())).thenReturn(Map.of(customer1.name(), false, customer2.name(), false));
+        Event otherEvent = new Event(UUID.randomUUID(), "Oper", new java.util.Date(), 80.0, 1000, "oper@mail.com");
+        Reservation last = new Reservation(UUID.randomUUID(), event, customer1, 2);
+        List<Reservation> bulk = List.of(
+                new Reservation(UUID.randomUUID(), event, customer1, 3),
+                new Reservation(UUID.randomUUID(), event, customer2, 4),
+                new Reservation(UUID.randomUUID(), otherEvent, customer2, 5),
+                last);
+
+        List<Reservation> rejected = reservationService.addReservations(bulk);
+
+        assertTrue(rejected.isEmpty());
+        verify(blacklistServiceMock).areBlacklisted(List.of(customer1.name(), customer2.name()));
+        verify(blacklistServiceMock, never()).isBlacklisted(anyString());
+        Reservation merged = reservationService.getReservation(event, customer1);
+        assertEquals(last.uuid(), merged.uuid());
+        assertEquals(5, merged.reservedSeats());
+        assertEquals(91, reservationService.getAvailableSeats(event));
+        assertEquals(995, reservationService.getAvailableSeats(otherEvent));
+    }
+
+    @Test
+    @DisplayName("Test: Sammelbuchung ALL_OR_NOTHING bucht bei Überbuchung nichts")
+    void bulkAllOrNothingRejectsEverything() {
+        List<Reservation> bulk = List.of(
+                new Reservation(UUID.randomUUID(), event, customer1, 60),
+                new Reservation(UUID.randomUUID(), event, customer2, 50));
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> reservationService.addReservations(bulk));
+
+        assertEquals("Die Gesamtzahl der reservierten Plätze überschreitet die verfügbaren Plätze.", exception.getMessage());
+        assertTrue(reservationService.getReservations().isEmpty());
+        assertEquals(100, reservationService.getAvailableSeats(event));
+        verifyNoInteractions(emailServiceMock);
+    }
+
+    @Test
+    @DisplayName("Test: Sammelbuchung BEST_EFFORT lehnt nur ungültige Buchungen ab")
+    void bulkBestEffortRejectsOnlyInvalid() {
+        Customer customer3 = new Customer("Erika Muster", "Weg 3");
+        when(blacklistServiceMock.areBlacklisted(anyCollection())).thenReturn(Map.of(customer2.name(), true));
+        Reservation blacklisted = new Reservation(UUID.randomUUID(), event, customer2, 1);
+        Reservation tooLarge = new Reservation(UUID.randomUUID(), event, customer3, 50);
+        List<Reservation> bulk = List.of(
+                new Reservation(UUID.randomUUID(), event, customer1, 60),
+                blacklisted,
+                tooLarge);
+
+        List<Reservation> rejected = reservationService.addReservations(bulk, ReservationService.BulkMode.BEST_EFFORT);
+
+        assertEquals(List.of(blacklisted, tooLarge), rejected);
+        assertEquals(40, reservationService.getAvailableSeats(event));
+        assertNull(reservationService.getReservation(event, customer3));
+    }
+
+    @Test
+    @DisplayName("Test: Sammelbuchung BEST_EFFORT lehnt eine Gruppe über der Kapazität ab statt abzubrechen")
+    void bulkBestEffortRejectsGroupExceedingCapacity() {
+        when(blacklistServiceMock.areBlacklisted(anyCollection())).thenReturn(Map.of(customer1.name(), false, customer2.name(), false));
+        List<Reservation> oversized = List.of(
+                new Reservation(UUID.randomUUID(), event, customer1, 60),
+                new Reservation(UUID.randomUUID(), event, customer1, 60));
+        Reservation fitting = new Reservation(UUID.randomUUID(), event, customer2, 10);
+        List<Reservation> bulk = new ArrayList<>(oversized);
+        bulk.add(fitting);
+
+        List<Reservation> rejected = reservationService.addReservations(bulk, ReservationService.BulkMode.BEST_EFFORT);
+
+        assertEquals(oversized, rejected);
+        assertEquals(90, reservationService.getAvailableSeats(event));
+        assertThrows(IllegalArgumentException.class, () -> reservationService.addReservations(oversized));
+    }
+
+    @Test
+    @DisplayName("Test: Fehlt ein Kunde in der Sammelantwort der Blacklist, wird einzeln nachgefragt")
+    void bulkFallsBackToSingleLookupForMissingVerdict() {
+        when(blacklistServiceMock.areBlacklisted(anyCollection())).thenReturn(Map.of(customer1.name(), false));
+        when(blacklistServiceMock.isBlacklisted(customer2.name())).thenReturn(true);
+        Reservation blacklisted = new Reservation(UUID.randomUUID(), event, customer2, 1);
+        List<Reservation> bulk = List.of(new Reservation(UUID.randomUUID(), event, customer1, 5), blacklisted);
+
+        List<Reservation> rejected = reservationService.addReservations(bulk, ReservationService.BulkMode.BEST_EFFORT);
+
+        assertEquals(List.of(blacklisted), rejected);
+        verify(blacklistServiceMock).isBlacklisted(customer2.name());
+        assertNull(reservationService.getReservation(event, customer2));
+    }
+
+    @Test
+    @DisplayName("Test: Sammelbuchung verschickt eine Benachrichtigung je Event")
+    void bulkSendsOneEmailPerEvent() {
+        List<Reservation> bulk = List.of(
+                new Reservation(UUID.randomUUID(), event, customer1, 10),
+                new Reservation(UUID.randomUUID(), event, customer2, 20));
+
+        reservationService.addReservations(bulk);
+
+        verify(emailServiceMock).sendEmail("organizer@mail.com", "Buchung für Konzert bestätigt",
+                "Es wurden 30 Plätze für die Veranstaltung Konzert reserviert.");
+        verifyNoMoreInteractions(emailServiceMock);
+    }
+
+    @Test
+    @DisplayName("Test: Gehaltene Plätze zählen gegen die verfügbaren Plätze und laufen ab")
+    void seatHoldsExpire() {
+        MutableClock clock = new MutableClock();
+        ReservationService service = new ReservationService(blacklistServiceMock, emailServiceMock, null, new InMemoryReservationStore(), ReservationMetrics.NONE, clock);
+
+        SeatHold hold = service.holdSeats(event, customer1, 30, Duration.ofMinutes(10));
+        assertEquals(70, service.getAvailableSeats(event));
+        assertThrows(IllegalArgumentException.class, () -> service.addReservation(new Reservation(UUID.randomUUID(), event, customer2, 71)));
+
+        clock.advance(Duration.ofMinutes(9));
+        assertEquals(70, service.getAvailableSeats(event));
+
+        clock.advance(Duration.ofMinutes(1));
+        assertEquals(100, service.getAvailableSeats(event));
+        assertNull(service.getHold(hold.uuid()));
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> service.confirmHold(hold.uuid()));
+        assertEquals("Die Platzreservierung existiert nicht oder ist abgelaufen.", exception.getMessage());
+    }
+
+    @Test
+    @DisplayName("Test: Eingelöste Holds werden zur Buchung und laufen nicht mehr ab")
+    void confirmedHoldBecomesReservation() {
+        MutableClock clock = new MutableClock();
+        ReservationService service = new ReservationService(blacklistServiceMock, emailServiceMock, null, new InMemoryReservationStore(), ReservationMetrics.NONE, clock);
+
+        SeatHold hold = service.holdSeats(event, customer1, 20, Duration.ofMinutes(10));
+        Reservation confirmed = service.confirmHold(hold.uuid());
+
+        assertEquals(20, confirmed.reservedSeats());
+        assertEquals(confirmed, service.getReservation(event, customer1));
+        assertEquals(80, service.getAvailableSeats(event));
+        assertEquals(0, service.getHoldCount());
+        verify(emailServiceMock).sendEmail(eq("organizer@mail.com"), anyString(), anyString());
+
+        clock.advance(Duration.ofMinutes(20));
+        assertEquals(80, service.getAvailableSeats(event));
+    }
+
+    @Test
+    @DisplayName("Test: Freigegebene Holds geben die Plätze sofort zurück")
+    void releasedHoldFreesSeats() {
+        SeatHold hold = reservationService.holdSeats(event, customer1, 50, Duration.ofMinutes(10));
+
+        assertThrows(IllegalArgumentException.class, () -> reservationService.holdSeats(event, customer2, 51, Duration.ofMinutes(10)));
+        reservationService.releaseHold(hold.uuid());
+        reservationService.releaseHold(hold.uuid());
+
+        assertEquals(100, reservationService.getAvailableSeats(event));
+        assertThrows(IllegalArgumentException.class, () -> reservationService.confirmHold(hold.uuid()));
+        assertThrows(IllegalArgumentException.class, () -> reservationService.holdSeats(event, customer1, 1, Duration.ZERO));
+    }
+
+    @Test
+    @DisplayName("Test: Viele parallele Holds überbuchen nicht und laufen vollständig ab")
+    void manyConcurrentHoldsExpire() throws InterruptedException {
+        MutableClock clock = new MutableClock();
+        Event bigEvent = new Event(UUID.randomUUID(), "Stadion", new java.util.Date(), 30.0, 100_000, "stadion@mail.com");
+        ReservationService service = new ReservationService(blacklistServiceMock, emailServiceMock, null, new InMemoryReservationStore(), ReservationMetrics.NONE, clock);
+        AtomicInteger granted = new AtomicInteger();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 120_000; i++) {
+                Customer customer = new Customer("Kunde " + i, "Weg " + i);
+                executor.submit(() -> {
+                    try {
+                        service.holdSeats(bigEvent, customer, 1, Duration.ofSeconds(30));
+                        granted.incrementAndGet();
+                    } catch (IllegalArgumentException e) {
+                        // ausverkauft
+                    }
+                });
+            }
+        }
+
+        assertEquals(100_000, granted.get());
+        assertEquals(0, service.getAvailableSeats(bigEvent));
+        clock.advance(Duration.ofSeconds(31));
+        assertEquals(100_000, service.getAvailableSeats(bigEvent));
+        assertEquals(0, service.getHoldCount());
+    }
+
+    @Test
+    @DisplayName("Test: Abonnenten erhalten die freien Plätze nach Buchungen und Holds")
+    void availabilitySubscribersSeeChanges() throws InterruptedException {
+        BlockingQueue<Integer> seats = new LinkedBlockingQueue<>();
+        reservationService.subscribeAvailability(event, new Flow.Subscriber<>() {
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                subscription.request(Long.MAX_VALUE);
+            }
+
+            @Override
+            public void onNext(AvailabilityPublisher.Update item) {
+                seats.add(item.availableSeats());
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+            }
+
+            @Override
+            public void onComplete() {
+            }
+        });
+        assertEquals(100, seats.poll(5, TimeUnit.SECONDS));
+
+        reservationService.addReservation(new Reservation(UUID.randomUUID(), event, customer1, 10));
+        reservationService.addReservation(new Reservation(UUID.randomUUID(), event, customer2, 5));
+        reservationService.holdSeats(event, customer2, 5, Duration.ofMinutes(1));
+
+        Integer latest = seats.poll(5, TimeUnit.SECONDS);
+        while (latest != null && latest != 80) {
+            latest = seats.poll(5, TimeUnit.SECONDS);
+        }
+        assertEquals(80, latest);
+    }
+
+    @Test
+    @DisplayName("Test: Events ohne ID werden mit IllegalArgumentException abgewiesen")
+    void eventWithoutIdentifierThrowsException() {
+        Event withoutId = new Event(null, "Konzert", new java.util.Date(), 50.0, 100, "organizer@mail.com");
+        Reservation reservation = new Reservation(UUID.randomUUID(), withoutId, customer1, 10);
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> reservationService.addReservation(reservation));
+        assertEquals("Das Event hat keine ID.", exception.getMessage());
+        assertThrows(IllegalArgumentException.class, () -> reservationService.addReservations(List.of(reservation)));
+        assertThrows(IllegalArgumentException.class, () -> reservationService.holdSeats(withoutId, customer1, 10, Duration.ofMinutes(1)));
+        assertThrows(IllegalArgumentException.class, () -> reservationService.getAvailableSeats(withoutId));
+        assertTrue(reservationService.getReservations().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Test: Ohne E-Mail-Service und ohne Outbox lässt sich der Service nicht erzeugen")
+    void missingNotificationChannelThrowsException() {
+        InMemoryReservationStore store = new InMemoryReservationStore();
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> new ReservationService(blacklistServiceMock, null, null, store));
+        assertEquals("Entweder ein E-Mail-Service oder eine Outbox muss angegeben werden", exception.getMessage());
+        assertThrows(IllegalArgumentException.class,
+                () -> new ReservationService(blacklistServiceMock, null, null, store, ReservationMetrics.NONE, java.time.Clock.systemUTC(), null));
+    }
+
+    @Test
+    @DisplayName("Test: Abgelaufene Holds werden Abonnenten ohne weitere Buchung gemeldet")
+    void expiredHoldsArePublished() throws InterruptedException {
+        MutableClock clock = new MutableClock();
+        ReservationService service = new ReservationService(blacklistServiceMock, emailServiceMock, null, new InMemoryReservationStore(), ReservationMetrics.NONE, clock);
+        BlockingQueue<Integer> seats = new LinkedBlockingQueue<>();
+        service.holdSeats(event, customer1, 30, Duration.ofMinutes(10));
+        service.subscribeAvailability(event, new Flow.Subscriber<>() {
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                subscription.request(Long.MAX_VALUE);
+            }
+
+            @Override
+            public void onNext(AvailabilityPublisher.Update item) {
+                seats.add(item.availableSeats());
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+            }
+
+            @Override
+            public void onComplete() {
+            }
+        });
+        assertEquals(70, seats.poll(5, TimeUnit.SECONDS));
+
+        clock.advance(Duration.ofMinutes(10));
+
+        assertEquals(100, seats.poll(5, TimeUnit.SECONDS));
+        assertEquals(0, service.getHoldCount());
+        service.close();
+    }
+
+    @Test
+    @DisplayName("Test: Schließen des Service beendet die Abonnements")
+    void closeCompletesAvailabilitySubscriptions() throws InterruptedException {
+        CountDownLatch completed = new CountDownLatch(1);
+        reservationService.subscribeAvailability(event, new Flow.Subscriber<>() {
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                subscription.request(Long.MAX_VALUE);
+            }
+
+            @Override
+            public void onNext(AvailabilityPublisher.Update item) {
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+            }
+
+            @Override
+            public void onComplete() {
+                completed.countDown();
+            }
+        });
+
+        reservationService.close();
+
+        assertTrue(completed.await(5, TimeUnit.SECONDS));
+        assertThrows(IllegalStateException.class, () -> reservationService.subscribeAvailability(event, null));
+    }
+
+    @Test
+    @DisplayName("Test: Stornierung entfernt die Buchung und gibt alle Plätze frei")
+    void cancelRemovesReservation() {
+        Reservation booked = new Reservation(UUID.randomUUID(), event, customer1, 30);
+        reservationService.addReservation(booked);
+        reservationService.addReservation(new Reservation(UUID.randomUUID(), event, customer2, 20));
+
+        reservationService.cancel(booked.uuid());
+
+        assertNull(reservationService.getReservation(event, customer1));
+        assertEquals(1, reservationService.getReservations().size());
+        assertEquals(80, reservationService.getAvailableSeats(event));
+        assertEquals(80, event.totalSeats() - recountReservedSeats(reservationService, event));
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> reservationService.cancel(booked.uuid()));
+        assertEquals("Die Buchung existiert nicht.", exception.getMessage());
+    }
+
+    @Test
+    @DisplayName("Test: Teilfreigabe verringert die Plätze und behält die ID")
+    void releaseSeatsReducesReservation() {
+        Reservation booked = new Reservation(UUID.randomUUID(), event, customer1, 30);
+        reservationService.addReservation(booked);
+
+        Reservation remaining = reservationService.releaseSeats(booked.uuid(), 12);
+
+        assertEquals(new Reservation(booked.uuid(), event, customer1, 18), remaining);
+        assertEquals(remaining, reservationService.getReservation(event, customer1));
+        assertEquals(82, reservationService.getAvailableSeats(event));
+        assertThrows(IllegalArgumentException.class, () -> reservationService.releaseSeats(booked.uuid(), 19));
+        assertThrows(IllegalArgumentException.class, () -> reservationService.releaseSeats(booked.uuid(), 0));
+
+        assertNull(reservationService.releaseSeats(booked.uuid(), 18));
+        assertNull(reservationService.getReservation(event, customer1));
+        assertEquals(100, reservationService.getAvailableSeats(event));
+    }
+
+    @Test
+    @DisplayName("Test: Nach einer Zusammenführung gilt nur noch die neue ID")
+    void cancelAfterMergeUsesNewId() {
+        Reservation first = new Reservation(UUID.randomUUID(), event, customer1, 10);
+        Reservation second = new Reservation(UUID.randomUUID(), event, customer1, 15);
+        reservationService.addReservation(first);
+        reservationService.addReservation(second);
+
+        assertThrows(IllegalArgumentException.class, () -> reservationService.cancel(first.uuid()));
+        reservationService.cancel(second.uuid());
+        assertEquals(100, reservationService.getAvailableSeats(event));
+    }
+
+    @Test
+    @DisplayName("Test: Große Stornierungen werden dem Veranstalter gemeldet")
+    void largeCancellationNotifiesOrganizer() {
+        Reservation small = new Reservation(UUID.randomUUID(), event, customer1, 5);
+        Reservation large = new Reservation(UUID.randomUUID(), event, customer2, 20);
+        reservationService.addReservation(small);
+        reservationService.addReservation(large);
+
+        reservationService.cancel(small.uuid());
+        reservationService.releaseSeats(large.uuid(), 10);
+
+        verify(emailServiceMock, never()).sendEmail(anyString(), eq("Stornierung für Konzert"), contains("5 Plätze"));
+        verify(emailServiceMock).sendEmail("organizer@mail.com", "Stornierung für Konzert",
+                "Es wurden 10 Plätze für die Veranstaltung Konzert freigegeben.");
+    }
+
+    @Test
+    @DisplayName("Test: Stornierungen werden ins Journal geschrieben und nachgespielt")
+    void cancellationsAreRecoveredFromJournal(@TempDir Path directory) throws IOException {
+        Reservation first = new Reservation(UUID.randomUUID(), event, customer1, 30);
+        Reservation second = new Reservation(UUID.randomUUID(), event, customer2, 20);
+        try (ReservationJournal journal = ReservationJournal.open(directory, ReservationJournal.SyncPolicy.GROUP_COMMIT, 100)) {
+            reservationService.recoverFrom(journal);
+            reservationService.addReservation(first);
+            reservationService.addReservation(second);
+            reservationService.releaseSeats(first.uuid(), 10);
+            reservationService.cancel(second.uuid());
+        }
+
+        ReservationService recoveredService = new ReservationService(blacklistServiceMock, emailServiceMock);
+        try (ReservationJournal journal = ReservationJournal.open(directory, ReservationJournal.SyncPolicy.NONE, 100)) {
+            recoveredService.recoverFrom(journal);
+        }
+        assertEquals(List.of(new Reservation(first.uuid(), event, customer1, 20)), recoveredService.getReservations());
+        assertEquals(80, recoveredService.getAvailableSeats(event));
+    }
+
+    @Test
+    @DisplayName("Test: Mit gemapptem Speicher bleiben Stornierungen über einen Neustart erhalten")
+    void mappedStoreKeepsCancellations(@TempDir Path directory) throws IOException {
+        Reservation first = new Reservation(UUID.randomUUID(), event, customer1, 30);
+        Reservation second = new Reservation(UUID.randomUUID(), event, customer2, 20);
+        try (MappedReservationStore store = MappedReservationStore.open(directory)) {
+            ReservationService mappedService = new ReservationService(blacklistServiceMock, emailServiceMock, null, store);
+            mappedService.addReservation(first);
+            mappedService.addReservation(second);
+            mappedService.cancel(first.uuid());
+            mappedService.releaseSeats(second.uuid(), 5);
+        }
+
+        try (MappedReservationStore store = MappedReservationStore.open(directory)) {
+            ReservationService restartedService = new ReservationService(blacklistServiceMock, emailServiceMock, null, store);
+
+            assertEquals(85, restartedService.getAvailableSeats(event));
+            assertNull(restartedService.getReservation(event, customer1));
+            assertEquals(15, restartedService.getReservation(event, customer2).reservedSeats());
+            assertThrows(IllegalArgumentException.class, () -> restartedService.cancel(first.uuid()));
+            restartedService.cancel(second.uuid());
+            assertEquals(100, restartedService.getAvailableSeats(event));
+        }
+    }
+
+    @Test
+    @DisplayName("Test: Parallele Buchungen und Stornierungen für ein Event halten die Zähler konsistent")
+    void concurrentBookingsAndCancellationsStayConsistent() throws InterruptedException {
+        int threads = 8;
+        int roundsPerThread = 500;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+
+        for (int t = 0; t < threads; t++) {
+            Customer customer = new Customer("Kunde " + t, "Teststraße " + t);
+            executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < roundsPerThread; i++) {
+                    Reservation booked = new Reservation(UUID.randomUUID(), event, customer, 3);
+                    try {
+                        reservationService.addReservation(booked);
+                    } catch (IllegalArgumentException ignored) {
+                        // Event ausverkauft
+                        continue;
+                    }
+                    if (i % 2 == 0) {
+                        reservationService.releaseSeats(booked.uuid(), 1);
+                    } else {
+                        reservationService.cancel(booked.uuid());
+                    }
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+        int reserved = recountReservedSeats(reservationService, event);
+        assertTrue(reserved <= event.totalSeats());
+        assertEquals(event.totalSeats() - reserved, reservationService.getAvailableSeats(event));
+    }
+
+    @Test
+    @DisplayName("Test: Blättern liefert jede Buchung genau einmal, auch bei parallelen Buchungen")
+    void pagingIsStableUnderConcurrentBookings() throws InterruptedException {
+        Event largeEvent = new Event(UUID.randomUUID(), "Festival", new java.util.Date(), 30.0, 100_000, "organizer@mail.com");
+        for (int i = 0; i < 1_000; i++) {
+            reservationService.addReservation(new Reservation(UUID.randomUUID(), largeEvent, new Customer("Kunde " + i, "Teststraße"), 1));
+        }
+        Thread writer = Thread.ofPlatform().start(() -> {
+            for (int i = 1_000; i < 3_000; i++) {
+                reservationService.addReservation(new Reservation(UUID.randomUUID(), largeEvent, new Customer("Kunde " + i, "Teststraße"), 1));
+            }
+        });
+
+        Set<String> seen = new HashSet<>();
+        Page<Reservation> page = reservationService.getReservations(0, 100);
+        while (true) {
+            for (Reservation r : page.items()) {
+                assertTrue(seen.add(r.customer().name()), "Keine Buchung darf doppelt geliefert werden");
+            }
+            if (!page.hasNext()) {
+                break;
+            }
+            page = reservationService.getReservations(page.next(), 100);
+        }
+        writer.join();
+
+        for (int i = 0; i < 1_000; i++) {
+            assertTrue(seen.contains("Kunde " + i), "Buchungen vor dem Blättern müssen enthalten sein");
+        }
+    }
+
+    @Test
+    @DisplayName("Test: Streams filtern nach Event, Kunde und Datum")
+    void streamReservationsByEventCustomerAndDate() {
+        Event laterEvent = new Event(UUID.randomUUID(), "Oper", new java.util.Date(event.date().getTime() + 86_400_000L), 80.0, 100, "organizer@mail.com");
+        Reservation first = new Reservation(UUID.randomUUID(), event, customer1, 10);
+        Reservation second = new Reservation(UUID.randomUUID(), event, customer2, 20);
+        Reservation third = new Reservation(UUID.randomUUID(), laterEvent, customer1, 30);
+        reservationService.addReservations(List.of(first, second, third));
+
+        assertEquals(3, reservationService.streamReservations().count());
+        assertEquals(Set.of(first, second), reservationService.streamReservations(event).collect(Collectors.toSet()));
+        assertEquals(Set.of(first, third), reservationService.streamReservations(customer1).collect(Collectors.toSet()));
+        assertEquals(List.of(third), reservationService.streamReservations(new java.util.Date(event.date().getTime() + 1), new java.util.Date(laterEvent.date().getTime() + 1)).toList());
+
+        reservationService.cancel(second.uuid());
+        assertEquals(List.of(first), reservationService.streamReservations(event).toList());
+        assertEquals(List.of(first, third), reservationService.getReservations(0, 10).items());
+    }
+
+    @Test
+    @DisplayName("Test: Unter Überlast wird abgewiesen, ausverkaufte Events ohne Umweg über die Warteschlange")
+    void admissionControlShedsAndRejectsSoldOutEventsFirst() {
+        RecordingReservationMetrics metrics = new RecordingReservationMetrics();
+        AdmissionController admissionController = new AdmissionController(1, 1, 1, 0, Duration.ofSeconds(30), Duration.ofSeconds(1), metrics);
+        ReservationService admittingService = new ReservationService(blacklistServiceMock, emailServiceMock, null, new InMemoryReservationStore(), metrics, java.time.Clock.systemUTC(), admissionController);
+        admittingService.addReservation(new Reservation(UUID.randomUUID(), event, customer1, 100));
+        assertEquals(0, admissionController.getInFlight());
+
+        Event otherEvent = new Event(UUID.randomUUID(), "Theater", new java.util.Date(), 20.0, 100, "organizer@mail.com");
+        // Der einzige Platz ist belegt
+        admissionController.acquire(otherEvent);
+
+        assertThrows(IllegalArgumentException.class, () -> admittingService.addReservation(new Reservation(UUID.randomUUID(), event, customer2, 1)));
+        assertThrows(OverloadException.class, () -> admittingService.addReservation(new Reservation(UUID.randomUUID(), otherEvent, customer2, 1)));
+        assertEquals(1, metrics.snapshot().rejectedSoldOut());
+        assertEquals(1, metrics.snapshot().rejectedOverloaded());
+
+        admissionController.release(1_000);
+        admittingService.addReservation(new Reservation(UUID.randomUUID(), otherEvent, customer2, 1));
+        assertEquals(99, admittingService.getAvailableSeats(otherEvent));
+        verify(blacklistServiceMock, times(2)).isBlacklisted(anyString());
+    }
+
+    @Test
+    @DisplayName("Test: Sammelbuchungen und eingelöste Holds laufen ebenfalls durch die Zugangskontrolle")
+    void admissionControlCoversBulkAndHolds() {
+        AdmissionController admissionController = new AdmissionController(1, 0, Duration.ofSeconds(30), Duration.ofSeconds(1));
+        ReservationService admittingService = new ReservationService(blacklistServiceMock, emailServiceMock, null, new InMemoryReservationStore(), ReservationMetrics.NONE, java.time.Clock.systemUTC(), admissionController);
+        when(blacklistServiceMock.areBlacklisted(anyCollection())).thenReturn(Map.of(customer1.name(), false));
+        SeatHold hold = admittingService.holdSeats(event, customer1, 10, Duration.ofMinutes(10));
+        admissionController.acquire(event);
+
+        assertThrows(OverloadException.class, () -> admittingService.addReservations(List.of(new Reservation(UUID.randomUUID(), event, customer1, 1))));
+        assertThrows(OverloadException.class, () -> admittingService.confirmHold(hold.uuid()));
+
+        admissionController.release(1_000);
+        admittingService.confirmHold(hold.uuid());
+        admittingService.addReservations(List.of(new Reservation(UUID.randomUUID(), event, customer1, 1)));
+        assertEquals(11, admittingService.getReservation(event, customer1).reservedSeats());
+        assertEquals(0, admissionController.getInFlight());
+    }
+
+    @Test
+    @DisplayName("Test: Abgelehnte Buchungen verändern das Limit der Zugangskontrolle nicht")
+    void rejectedBookingsAreNoLatencySamples() {
+        // Jede als Messwert übernommene Buchung wäre langsamer als das Ziel und würde das Limit senken
+        AdmissionController admissionController = new AdmissionController(1, 2, 2, 0, Duration.ofSeconds(30), Duration.ofNanos(1), ReservationMetrics.NONE);
+        ReservationService admittingService = new ReservationService(blacklistServiceMock, emailServiceMock, null, new InMemoryReservationStore(), ReservationMetrics.NONE, java.time.Clock.systemUTC(), admissionController);
+        when(blacklistServiceMock.isBlacklisted(customer2.name())).thenReturn(true);
+
+        assertThrows(IllegalArgumentException.class, () -> admittingService.addReservation(new Reservation(UUID.randomUUID(), event, customer2, 1)));
+
+        assertEquals(2, admissionController.getLimit());
+        assertEquals(0, admissionController.getInFlight());
+        admittingService.addReservation(new Reservation(UUID.randomUUID(), event, customer1, 1));
+        assertEquals(1, admissionController.getLimit());
+    }
+
+    @Test
+    @DisplayName("Test: Umsatzsummen folgen Buchungen, Zusammenführungen und Freigaben und stimmen mit einer Neuberechnung überein")
+    void salesAggregatesFollowBookingsAndMatchRecomputation() {
+        Reservation first = new Reservation(UUID.randomUUID(), event, customer1, 10);
+        Reservation second = new Reservation(UUID.randomUUID(), event, customer2, 20);
+        reservationService.addReservation(first);
+        reservationService.addReservation(new Reservation(UUID.randomUUID(), event, customer1, 5));
+        reservationService.addReservations(List.of(second));
+        reservationService.releaseSeats(second.uuid(), 5);
+
+        SalesTotals totals = reservationService.getSalesAggregates().forEvent(event);
+        assertEquals(30, totals.seats());
+        assertEquals(30 * event.price(), totals.revenue());
+        assertEquals(30.0, totals.occupancy());
+        assertEquals(totals, reservationService.getSalesAggregates().forOrganizer(event.organizerEmail()));
+        assertTrue(reservationService.getSalesAggregates().matches(reservationService.recomputeSalesAggregates()));
+
+        reservationService.cancel(second.uuid());
+        reservationService.cancel(reservationService.getReservation(event, customer1).uuid());
+        assertEquals(SalesTotals.EMPTY, reservationService.getSalesAggregates().forOrganizer(event.organizerEmail()));
+        assertTrue(reservationService.getSalesAggregates().matches(reservationService.recomputeSalesAggregates()));
+    }
+
+    @Test
+    @DisplayName("Test: Die Spaltenansicht enthält den aktuellen Bestand ohne stornierte Buchungen")
+    void reservationColumnsReflectCurrentReservations() {
+        Reservation first = new Reservation(UUID.randomUUID(), event, customer1, 10);
+        Reservation second = new Reservation(UUID.randomUUID(), event, customer2, 20);
+        reservationService.addReservations(List.of(first, second));
+        reservationService.releaseSeats(second.uuid(), 5);
+
+        ReservationColumns columns = reservationService.getReservationColumns();
+
+        assertEquals(2, columns.size());
+        assertEquals(25, columns.seatsByEvent().get(event.identifier()));
+        assertEquals(25 * event.price(), columns.revenue());
+        // Ohne Änderung wird die vorhandene Kopie geliefert
+        assertSame(columns, reservationService.getReservationColumns());
+        assertTrue(columns.isFrozen());
+        assertThrows(UnsupportedOperationException.class, () -> columns.add(first));
+        assertEquals(2, columns.size());
+
+        reservationService.cancel(first.uuid());
+        assertNotSame(columns, reservationService.getReservationColumns());
+        assertEquals(15, reservationService.getReservationColumns().totalSeats());
+    }
+
+    @Test
+    @DisplayName("Test: Mit gemeinsamer Registry verweisen geladene Buchungen auf die Events und Kunden der Services")
+    void deserializedReservationsShareInstancesThroughRegistry(@TempDir Path directory) {
+        String filename = directory.resolve("reservations.ser").toString();
+        for (int i = 0; i < 50; i++) {
+            Customer copy = new Customer(customer1.name(), customer1.address());
+            Event eventCopy = new Event(event.identifier(), event.title(), new java.util.Date(event.date().getTime()), event.price(), event.totalSeats(), event.organizerEmail());
+            reservationService.addReservation(new Reservation(UUID.randomUUID(), eventCopy, i % 2 == 0 ? copy : customer2, 1));
+        }
+        reservationService.serializeReservations(filename);
+
+        InterningRegistry registry = new InterningRegistry();
+        EventService eventService = new EventService(registry);
+        CustomerService customerService = new CustomerService(registry);
+        eventService.addEvent(event);
+        customerService.addCustomer(customer1);
+        ReservationService loaded = new ReservationService(blacklistServiceMock, emailServiceMock, null, new InMemoryReservationStore(registry));
+        loaded.deserializeReservations(filename);
+
+        Reservation forCustomer1 = loaded.getReservation(event, customer1);
+        assertEquals(25, forCustomer1.reservedSeats());
+        assertSame(eventService.findById(event.identifier()), forCustomer1.event());
+        assertSame(customerService.findByName(customer1.name()), forCustomer1.customer());
+        assertSame(forCustomer1.event(), loaded.getReservation(event, customer2).event());
+        assertEquals(1, registry.getEventCount());
+        assertEquals(2, registry.getCustomerCount());
+    }
+
     @Test
     void serializeReservationsThrowsRuntimeExceptionOnIOException() {
         // Create a file that is not writable, e.g., a read-only file.
@@ -0,0 +1,101 @@
+package de.hsh.service;
+
+import de.hsh.dto.Customer;
+import de.hsh.dto.Event;
+import de.hsh.dto.Reservation;
+import de.hsh.dto.SalesTotals;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SalesAggregatesTest {
+
+    private static final ZoneId ZONE = ZoneOffset.UTC;
+    private static final LocalDate DAY = LocalDate.of(2024, 5, 1);
+
+    private final Event concert = event("Konzert", 19.99, 100, "a@mail.com", DAY);
+    private final Event theatre = event("Theater", 10.0, 50, "a@mail.com", DAY);
+    private final Event opera = event("Oper", 80.0, 200, "b@mail.com", DAY.plusDays(1));
+
+    private static Event event(String title, double price, int seats, String organizer, LocalDate day) {
+        return new Event(UUID.randomUUID(), title, Date.from(day.atTime(20, 0).toInstant(ZoneOffset.UTC)), price, seats, organizer);
+    }
+
+    @Test
+    @DisplayName("Test: Umsatz und Auslastung werden je Event, Veranstalter und Tag summiert")
+    void aggregatesByEventOrganizerAndDay() {
+        SalesAggregates aggregates = new SalesAggregates(ZONE);
+        aggregates.add(concert, 10);
+        aggregates.add(concert, 15);
+        aggregates.add(theatre, 25);
+        aggregates.add(opera, 50);
+
+        assertEquals(new SalesTotals(25, 100, 49_975), aggregates.forEvent(concert));
+        assertEquals(499.75, aggregates.forEvent(concert).revenue());
+        assertEquals(25.0, aggregates.forEvent(concert).occupancy());
+        assertEquals(new SalesTotals(50, 150, 74_975), aggregates.forOrganizer("a@mail.com"));
+        assertEquals(new SalesTotals(50, 150, 74_975), aggregates.forDay(DAY));
+        assertEquals(25.0, aggregates.forOrganizer("b@mail.com").occupancy());
+        assertEquals(SalesTotals.EMPTY, aggregates.forDay(DAY.plusDays(2)));
+    }
+
+    @Test
+    @DisplayName("Test: Ohne Buchungen zählt ein Event nicht mehr zur Kapazität")
+    void releasingAllSeatsRemovesCapacity() {
+        SalesAggregates aggregates = new SalesAggregates(ZONE);
+        aggregates.add(concert, 10);
+        aggregates.add(theatre, 5);
+        aggregates.add(concert, -10);
+
+        assertEquals(SalesTotals.EMPTY, aggregates.forEvent(concert));
+        assertEquals(new SalesTotals(5, 50, 5_000), aggregates.forOrganizer("a@mail.com"));
+        assertFalse(aggregates.byEvent().containsKey(concert.identifier()));
+    }
+
+    @Test
+    @DisplayName("Test: Fortlaufende Summen entsprechen einer Neuberechnung aus dem Bestand")
+    void incrementalTotalsMatchRecomputation() {
+        Customer customer = new Customer("Max Mustermann", "Musterstraße 1");
+        SalesAggregates incremental = new SalesAggregates(ZONE);
+        incremental.add(concert, 30);
+        incremental.add(opera, 40);
+        incremental.add(concert, -10);
+        incremental.add(theatre, 7);
+        incremental.add(theatre, -7);
+
+        SalesAggregates recomputed = SalesAggregates.of(Stream.of(
+                new Reservation(UUID.randomUUID(), concert, customer, 20),
+                new Reservation(UUID.randomUUID(), opera, customer, 40)), ZONE);
+
+        assertTrue(incremental.matches(recomputed));
+        assertTrue(recomputed.matches(incremental));
+        incremental.add(opera, 1);
+        assertFalse(incremental.matches(recomputed));
+    }
+
+    @Test
+    @DisplayName("Test: Aufbau aus den Platzsummen je Event ergibt dieselben Summen wie aus den einzelnen Buchungen")
+    void seatTotalsMatchReservations() {
+        Customer max = new Customer("Max Mustermann", "Musterstraße 1");
+        Customer erika = new Customer("Erika Musterfrau", "Musterweg 2");
+        SalesAggregates fromReservations = SalesAggregates.of(Stream.of(
+                new Reservation(UUID.randomUUID(), concert, max, 20),
+                new Reservation(UUID.randomUUID(), concert, erika, 13),
+                new Reservation(UUID.randomUUID(), opera, max, 40)), ZONE);
+
+        SalesAggregates fromTotals = SalesAggregates.of(List.of(concert, opera), Map.of(concert.identifier(), 33, opera.identifier(), 40), ZONE);
+
+        assertTrue(fromTotals.matches(fromReservations));
+        assertEquals(new SalesTotals(33, 100, 65_967), fromTotals.forEvent(concert));
+    }
+}
@@ -0,0 +1,229 @@
+package de.hsh.service;
+
+import de.hsh.dto.Customer;
+import de.hsh.dto.Event;
+import de.hsh.dto.Reservation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ShardedReservationServiceTest {
+
+    private BlacklistService blacklistServiceMock;
+    private EmailService emailServiceMock;
+    private ShardedReservationService service;
+    private List<Event> events;
+    private Customer customer;
+
+    @BeforeEach
+    void setUp() {
+        blacklistServiceMock = mock(BlacklistService.class);
+        emailServiceMock = mock(EmailService.class);
+        service = new ShardedReservationService(4, blacklistServiceMock, emailServiceMock);
+        events = IntStream.range(0, 16)
+                .mapToObj(i -> new Event(UUID.randomUUID(), "Event " + i, new Date(), 10.0, 100, "organizer@mail.com"))
+                .toList();
+        customer = new Customer("Max Mustermann", "Musterstraße 1");
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.close();
+    }
+
+    @Test
+    @DisplayName("Test: Buchungen werden nach Event auf die Shards verteilt und dort gefunden")
+    void reservationsAreRoutedByEvent() {
+        for (Event event : events) {
+            service.addReservation(new Reservation(UUID.randomUUID(), event, customer, 5));
+        }
+
+        for (Event event : events) {
+            assertEquals(95, service.getAvailableSeats(event));
+            assertEquals(5, service.getReservation(event, customer).reservedSeats());
+        }
+        assertEquals(16, service.getReservations().size());
+        assertEquals(16, service.streamReservations().count());
+        assertEquals(4, service.getShardCount());
+    }
+
+    @Test
+    @DisplayName("Test: Ablehnungen kommen als IllegalArgumentException beim Aufrufer an")
+    void rejectionsArePropagated() {
+        Event event = events.getFirst();
+        service.addReservation(new Reservation(UUID.randomUUID(), event, customer, 90));
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> service.addReservation(new Reservation(UUID.randomUUID(), event, customer, 20)));
+        assertEquals("Die Gesamtzahl der reservierten Plätze überschreitet die verfügbaren Plätze.", exception.getMessage());
+
+        CompletableFuture<Void> future = service.addReservationAsync(new Reservation(UUID.randomUUID(), event, customer, 20));
+        CompletionException completion = assertThrows(CompletionException.class, future::join);
+        assertInstanceOf(IllegalArgumentException.class, completion.getCause());
+    }
+
+    @Test
+    @DisplayName("Test: Stornierung und Teilfreigabe finden den Shard über die ID")
+    void cancelAndReleaseAreRoutedById() {
+        Reservation first = new Reservation(UUID.randomUUID(), events.get(1), customer, 30);
+        Reservation second = new Reservation(UUID.randomUUID(), events.get(2), customer, 30);
+        service.addReservation(first);
+        service.addReservation(second);
+
+        service.cancel(first.uuid());
+        assertEquals(20, service.releaseSeats(second.uuid(), 10).reservedSeats());
+
+        assertNull(service.getReservation(first.uuid()));
+        assertEquals(100, service.getAvailableSeats(events.get(1)));
+        assertEquals(80, service.getAvailableSeats(events.get(2)));
+        assertThrows(IllegalArgumentException.class, () -> service.cancel(first.uuid()));
+    }
+
+    @Test
+    @DisplayName("Test: Nach einer Zusammenführung wird nur noch die neue ID einem Shard zugeordnet")
+    void mergedReservationKeepsOnlyNewId() {
+        Reservation first = new Reservation(UUID.randomUUID(), events.get(3), customer, 20);
+        Reservation second = new Reservation(UUID.randomUUID(), events.get(3), customer, 15);
+        service.addReservation(first);
+        service.addReservation(second);
+
+        assertNull(service.getReservation(first.uuid()));
+        assertThrows(IllegalArgumentException.class, () -> service.releaseSeats(first.uuid(), 5));
+        assertEquals(30, service.releaseSeats(second.uuid(), 5).reservedSeats());
+        service.cancel(second.uuid());
+        assertNull(service.getReservation(second.uuid()));
+        assertEquals(100, service.getAvailableSeats(events.get(3)));
+    }
+
+    @Test
+    @DisplayName("Test: Parallele Buchungen über alle Shards überbuchen kein Event")
+    void concurrentBookingsDoNotOverbook() throws InterruptedException {
+        AtomicInteger accepted = new AtomicInteger();
+        ExecutorService callers = Executors.newFixedThreadPool(8);
+        for (int t = 0; t < 8; t++) {
+            int thread = t;
+            callers.submit(() -> {
+                for (int i = 0; i < 400; i++) {
+                    Event event = events.get(i % events.size());
+                    try {
+                        service.addReservation(new Reservation(UUID.randomUUID(), event, new Customer("Kunde " + thread + "-" + i, "Teststraße"), 1));
+                        accepted.incrementAndGet();
+                    } catch (IllegalArgumentException ignored) {
+                        // Event ausverkauft
+                    }
+                }
+            });
+        }
+        callers.shutdown();
+        assertTrue(callers.awaitTermination(30, TimeUnit.SECONDS));
+
+        assertEquals(events.size() * 100, accepted.get());
+        for (Event event : events) {
+            assertEquals(0, service.getAvailableSeats(event));
+        }
+    }
+
+    @Test
+    @DisplayName("Test: Jeder Shard schreibt und lädt seine eigene Datei")
+    void perShardPersistence(@TempDir Path directory) {
+        String filename = directory.resolve("reservations.ser").toString();
+        for (Event event : events) {
+            service.addReservation(new Reservation(UUID.randomUUID(), event, customer, 7));
+        }
+        service.serializeReservations(filename);
+
+        for (int shard = 0; shard < 4; shard++) {
+            assertTrue(Files.exists(Path.of(service.shardFile(filename, shard))));
+        }
+
+        try (ShardedReservationService restored = new ShardedReservationService(4, blacklistServiceMock, emailServiceMock)) {
+            restored.deserializeReservations(filename);
+            for (Event event : events) {
+                assertEquals(93, restored.getAvailableSeats(event));
+            }
+            // Geladene Buchungen sind auch über ihre ID erreichbar
+            Reservation loaded = service.getReservation(events.getFirst(), customer);
+            assertEquals(loaded, restored.getReservation(loaded.uuid()));
+            restored.cancel(loaded.uuid());
+            assertEquals(100, restored.getAvailableSeats(events.getFirst()));
+        }
+
+        try (ShardedReservationService otherShardCount = new ShardedReservationService(2, blacklistServiceMock, emailServiceMock)) {
+            RuntimeException exception = assertThrows(RuntimeException.class, () -> otherShardCount.deserializeReservations(filename));
+            assertEquals("Deserialisierung fehlgeschlagen", exception.getMessage());
+        }
+    }
+
+    @Test
+    @DisplayName("Test: Blacklist-Abfrage und Benachrichtigungen zu Buchung und Freigabe laufen nicht auf dem Writer-Thread des Shards")
+    void externalCallsRunOnCallerThread() {
+        List<String> threads = new CopyOnWriteArrayList<>();
+        when(blacklistServiceMock.isBlacklisted(customer.name())).thenAnswer(_ -> {
+            threads.add(Thread.currentThread().getName());
+            return false;
+        });
+        doAnswer(_ -> threads.add(Thread.currentThread().getName())).when(emailServiceMock).sendEmail(anyString(), anyString(), anyString());
+
+        service.addReservation(new Reservation(UUID.randomUUID(), events.getFirst(), customer, 50));
+        service.addReservationAsync(new Reservation(UUID.randomUUID(), events.get(1), customer, 50)).join();
+        UUID booked = service.getReservation(events.getFirst(), customer).uuid();
+        service.releaseSeats(booked, 20);
+        service.cancel(booked);
+
+        assertEquals(6, threads.size());
+        assertTrue(threads.stream().noneMatch(name -> name.startsWith("reservation-shard-")), threads.toString());
+        assertEquals(50, service.getReservation(events.get(1), customer).reservedSeats());
+    }
+
+    @Test
+    @DisplayName("Test: Schließen schließt auch die Shards")
+    void closeClosesShards() {
+        List<ReservationService> created = new CopyOnWriteArrayList<>();
+        ShardedReservationService sharded = new ShardedReservationService(2, _ -> {
+            ReservationService shard = new ReservationService(blacklistServiceMock, emailServiceMock);
+            created.add(shard);
+            return shard;
+        });
+
+        sharded.close();
+
+        for (ReservationService shard : created) {
+            assertThrows(IllegalStateException.class, () -> shard.subscribeAvailability(events.getFirst(), null));
+        }
+    }
+
+    @Test
+    @DisplayName("Test: Events ohne ID werden keinem Shard zugeordnet")
+    void eventWithoutIdentifierThrowsException() {
+        Event withoutId = new Event(null, "Konzert", new Date(), 10.0, 100, "organizer@mail.com");
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> service.addReservation(new Reservation(UUID.randomUUID(), withoutId, customer, 5)));
+        assertEquals("Das Event hat keine ID.", exception.getMessage());
+        assertThrows(IllegalArgumentException.class, () -> service.getAvailableSeats(withoutId));
+    }
+
+    @Test
+    void invalidShardCountThrowsException() {
+        assertThrows(IllegalArgumentException.class, () -> new ShardedReservationService(0, blacklistServiceMock, emailServiceMock));
+    }
+}
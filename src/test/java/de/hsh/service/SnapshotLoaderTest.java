@@ -0,0 +1,61 @@
+package de.hsh.service;
+
+import de.hsh.dto.Customer;
+import de.hsh.dto.Event;
+import de.hsh.dto.Reservation;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class SnapshotLoaderTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Test: Events, Kunden und Buchungen werden gemeinsam geladen")
+    void loadsAllSnapshots() {
+        Event event = new Event(UUID.randomUUID(), "Konzert", new Date(), 50.0, 100, "organizer@mail.com");
+        Customer customer = new Customer("Max Mustermann", "Musterstraße 1");
+        EventService eventService = new EventService();
+        CustomerService customerService = new CustomerService();
+        ReservationService reservationService = new ReservationService(mock(BlacklistService.class), mock(EmailService.class));
+        eventService.addEvent(event);
+        customerService.addCustomer(customer);
+        reservationService.addReservation(new Reservation(UUID.randomUUID(), event, customer, 5));
+        String eventsFile = directory.resolve("events.ser").toString();
+        String customersFile = directory.resolve("customers.ser").toString();
+        String reservationsFile = directory.resolve("reservations.ser").toString();
+        eventService.serializeEvents(eventsFile);
+        customerService.serializeCustomers(customersFile);
+        reservationService.serializeReservations(reservationsFile);
+
+        EventService loadedEvents = new EventService();
+        CustomerService loadedCustomers = new CustomerService();
+        ReservationService loadedReservations = new ReservationService(mock(BlacklistService.class), mock(EmailService.class));
+        SnapshotLoader.loadAll(loadedEvents, eventsFile, loadedCustomers, customersFile, loadedReservations, reservationsFile);
+
+        assertEquals(List.of(event), loadedEvents.getEvents());
+        assertEquals(List.of(customer), loadedCustomers.getCustomers());
+        assertEquals(95, loadedReservations.getAvailableSeats(event));
+    }
+
+    @Test
+    @DisplayName("Test: Fehler beim Laden werden weitergereicht")
+    void failuresArePropagated() {
+        String missing = directory.resolve("missing.ser").toString();
+
+        RuntimeException exception = assertThrows(RuntimeException.class, () -> SnapshotLoader.loadAll(
+                new EventService(), missing, new CustomerService(), missing,
+                new ReservationService(mock(BlacklistService.class), mock(EmailService.class)), missing));
+        assertEquals("Deserialisierung fehlgeschlagen", exception.getMessage());
+    }
+}
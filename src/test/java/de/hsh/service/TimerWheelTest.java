@@ -0,0 +1,95 @@
+package de.hsh.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimerWheelTest {
+
+    @Test
+    @DisplayName("Test: Einträge laufen erst nach ihrer Frist ab")
+    void expiresOnlyAfterDeadline() {
+        TimerWheel<String> wheel = new TimerWheel<>(10, 16, 0);
+        wheel.schedule("a", 25);
+        wheel.schedule("b", 55);
+        List<String> expired = new ArrayList<>();
+
+        wheel.advance(20, expired::add);
+        assertTrue(expired.isEmpty());
+
+        wheel.advance(30, expired::add);
+        assertEquals(List.of("a"), expired);
+
+        wheel.advance(60, expired::add);
+        assertEquals(List.of("a", "b"), expired);
+    }
+
+    @Test
+    @DisplayName("Test: Fristen jenseits einer Umdrehung werden nicht zu früh gemeldet")
+    void longDeadlinesSurviveRotations() {
+        TimerWheel<String> wheel = new TimerWheel<>(10, 4, 0);
+        wheel.schedule("spät", 1_000);
+        List<String> expired = new ArrayList<>();
+
+        for (long now = 10; now < 1_000; now += 10) {
+            wheel.advance(now, expired::add);
+        }
+        assertTrue(expired.isEmpty());
+
+        wheel.advance(1_000, expired::add);
+        assertEquals(List.of("spät"), expired);
+    }
+
+    @Test
+    @DisplayName("Test: Nach langer Pause werden alle fälligen Einträge gemeldet")
+    void catchesUpAfterLongPause() {
+        TimerWheel<Integer> wheel = new TimerWheel<>(10, 8, 0);
+        for (int i = 1; i <= 100; i++) {
+            wheel.schedule(i, i * 10L);
+        }
+        List<Integer> expired = new ArrayList<>();
+
+        wheel.advance(500, expired::add);
+        assertEquals(50, expired.size());
+
+        wheel.advance(10_000, expired::add);
+        assertEquals(100, expired.size());
+    }
+
+    @Test
+    @DisplayName("Test: Paralleles Einplanen verliert keine Einträge")
+    void concurrentSchedulingLosesNothing() {
+        TimerWheel<Integer> wheel = new TimerWheel<>(1, 64, 0);
+        AtomicInteger expired = new AtomicInteger();
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            for (int t = 0; t < 8; t++) {
+                int thread = t;
+                executor.submit(() -> {
+                    for (int i = 0; i < 10_000; i++) {
+                        wheel.schedule(i, i % 500);
+                        if (i % 100 == 0) {
+                            wheel.advance(thread * 10L + i / 100, _ -> expired.incrementAndGet());
+                        }
+                    }
+                });
+            }
+        }
+
+        wheel.advance(1_000, _ -> expired.incrementAndGet());
+        assertEquals(80_000, expired.get());
+    }
+
+    @Test
+    @DisplayName("Test: Ungültige Konfiguration wird abgelehnt")
+    void invalidConfigurationThrowsException() {
+        assertThrows(IllegalArgumentException.class, () -> new TimerWheel<>(0, 16, 0));
+        assertThrows(IllegalArgumentException.class, () -> new TimerWheel<>(10, 12, 0));
+    }
+}